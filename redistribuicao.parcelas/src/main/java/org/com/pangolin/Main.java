@@ -1,5 +1,7 @@
 package org.com.pangolin;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
@@ -9,6 +11,8 @@ import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
 import org.com.pangolin.redistribuicao.RedistribuicaoFinanciamento;
 import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
 import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.com.pangolin.redistribuicao.relatorio.LayoutTabela;
+import org.com.pangolin.redistribuicao.relatorio.RenderizadorTabela;
 
 //TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
 // click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
@@ -287,19 +291,10 @@ public class Main {
         }
 
         public static void imprimirTabelaAmortizacao(BigDecimal[] principals, BigDecimal[] juros, BigDecimal[] parcelas, BigDecimal residualParcela) {
-                System.out.println("Parcela | Principal  | Juros      | Valor      | Saldo");
-                System.out.println("-------|------------|------------|------------|------------");
-
-                BigDecimal saldo = Arrays.stream(principals).reduce(BigDecimal.ZERO, BigDecimal::add);
-                for (int i = 0; i < principals.length; i++) {
-                        saldo = saldo.subtract(principals[i]);
-                        System.out.printf("%6d | %10.2f | %10.2f | %10.2f | %10.2f%n",
-                                        i + 1, principals[i], juros[i], parcelas[i], saldo.max(BigDecimal.ZERO));
+                try {
+                        new RenderizadorTabela(LayoutTabela.TEXTO).renderizar(principals, juros, parcelas, residualParcela, System.out);
+                } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                 }
-
-                System.out.printf("TOTAL  | %10.2f | %10.2f | %10.2f%n",
-                                Arrays.stream(principals).reduce(BigDecimal.ZERO, BigDecimal::add),
-                                Arrays.stream(juros).reduce(BigDecimal.ZERO, BigDecimal::add),
-                                Arrays.stream(parcelas).reduce(BigDecimal.ZERO, BigDecimal::add).add(residualParcela));
         }
 }
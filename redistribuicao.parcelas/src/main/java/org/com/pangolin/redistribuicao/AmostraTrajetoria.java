@@ -0,0 +1,11 @@
+package org.com.pangolin.redistribuicao;
+
+/**
+ * Amostra da trajetória de uma otimização: valor da função objetivo em uma avaliação.
+ *
+ * @param idOtimizacao Identificador da otimização.
+ * @param avaliacao    Número da avaliação (a partir de 1).
+ * @param penalidade   Valor da função objetivo nessa avaliação.
+ */
+public record AmostraTrajetoria(long idOtimizacao, int avaliacao, double penalidade) {
+}
@@ -0,0 +1,54 @@
+package org.com.pangolin.redistribuicao;
+
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Configuração de precisão do motor de redistribuição.
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     // Cotação interativa
+ *     new RedistribuicaoFinanciamento(parametros, ConfiguracaoPrecisao.rapido());
+ *     // Demonstrativo regulatório com 34 dígitos
+ *     new RedistribuicaoFinanciamento(parametros, ConfiguracaoPrecisao.exato(MathContext.DECIMAL128));
+ * </pre>
+ *
+ * @param modo        Modo aritmético.
+ * @param mathContext Contexto usado nas operações em {@code BigDecimal}; ignorado no modo {@link ModoPrecisao#RAPIDO}.
+ */
+public record ConfiguracaoPrecisao(ModoPrecisao modo, MathContext mathContext) {
+
+    /**
+     * Contexto historicamente usado pelo motor; mantido como padrão do modo exato.
+     */
+    public static final MathContext MATH_CONTEXT_PADRAO = new MathContext(15, RoundingMode.HALF_EVEN);
+
+    private static final ConfiguracaoPrecisao RAPIDO = new ConfiguracaoPrecisao(ModoPrecisao.RAPIDO, MATH_CONTEXT_PADRAO);
+    private static final ConfiguracaoPrecisao EXATO = new ConfiguracaoPrecisao(ModoPrecisao.EXATO, MATH_CONTEXT_PADRAO);
+
+    public ConfiguracaoPrecisao {
+        Objects.requireNonNull(modo, "modo");
+        Objects.requireNonNull(mathContext, "mathContext");
+    }
+
+    public static ConfiguracaoPrecisao rapido() {
+        return RAPIDO;
+    }
+
+    public static ConfiguracaoPrecisao exato() {
+        return EXATO;
+    }
+
+    public static ConfiguracaoPrecisao exato(MathContext mathContext) {
+        return new ConfiguracaoPrecisao(ModoPrecisao.EXATO, mathContext);
+    }
+
+    /**
+     * @return Configuração padrão do motor, equivalente ao comportamento anterior à seleção de modo.
+     */
+    public static ConfiguracaoPrecisao padrao() {
+        return EXATO;
+    }
+}
@@ -0,0 +1,43 @@
+package org.com.pangolin.redistribuicao;
+
+/**
+ * Decomposição, por termo, da penalidade no melhor ponto encontrado por uma otimização.
+ *
+ * @param idOtimizacao          Identificador da otimização, compartilhado com as {@link AmostraTrajetoria}.
+ * @param sistemaAmortizacao    Sistema de amortização dos parâmetros.
+ * @param quantidadeParcelas    Quantidade de parcelas do contrato.
+ * @param dimensaoBusca         Quantidade de variáveis do simplex: o prazo no modo ponto a ponto ou
+ *                              {@code 1 + nosCurva} no modo {@link ParametrizacaoPrincipal#CURVA}.
+ * @param avaliacoes            Quantidade de avaliações da função objetivo.
+ * @param penalidadeTotal       Valor da função objetivo no melhor ponto.
+ * @param termos                Penalidade por termo, indexada por {@link TermoPenalidade#ordinal()}.
+ * @param correcaoUltimaParcela Diferença absoluta entre o principal contínuo da última parcela e o valor
+ *                              devolvido após o ajuste das somas.
+ */
+public record DecomposicaoPenalidade(
+        long idOtimizacao,
+        RedistribuicaoSistemaAmortizacao sistemaAmortizacao,
+        int quantidadeParcelas,
+        int dimensaoBusca,
+        int avaliacoes,
+        double penalidadeTotal,
+        double[] termos,
+        double correcaoUltimaParcela) {
+
+    public double termo(TermoPenalidade termo) {
+        return termos[termo.ordinal()];
+    }
+
+    /**
+     * @return Termo de maior contribuição para a penalidade total.
+     */
+    public TermoPenalidade termoDominante() {
+        TermoPenalidade dominante = TermoPenalidade.values()[0];
+        for (TermoPenalidade termo : TermoPenalidade.values()) {
+            if (termos[termo.ordinal()] > termos[dominante.ordinal()]) {
+                dominante = termo;
+            }
+        }
+        return dominante;
+    }
+}
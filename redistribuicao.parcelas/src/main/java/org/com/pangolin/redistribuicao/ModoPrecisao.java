@@ -0,0 +1,21 @@
+package org.com.pangolin.redistribuicao;
+
+/**
+ * Modo de precisão aritmética usado pelo motor de redistribuição.
+ *
+ * <ul>
+ *     <li>{@link #RAPIDO}: funções objetivo e pós-processamento em {@code double} de ponta a ponta;
+ *     o arredondamento para centavos ocorre apenas na saída. Indicado para cotações interativas.</li>
+ *     <li>{@link #EXATO}: somas e diferenças em {@link java.math.BigDecimal} com o
+ *     {@link java.math.MathContext} configurado. Indicado para demonstrativos regulatórios.</li>
+ * </ul>
+ * <p>
+ * Os dois modos arredondam para centavos com {@link java.math.RoundingMode#HALF_EVEN}. Sobre o mesmo ponto
+ * ótimo, cada principal e cada juro diferem entre os modos em no máximo um centavo, assim como o desvio máximo
+ * de arredondamento informado.
+ * </p>
+ */
+public enum ModoPrecisao {
+    RAPIDO,
+    EXATO
+}
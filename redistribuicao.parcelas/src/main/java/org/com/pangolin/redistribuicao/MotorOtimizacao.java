@@ -0,0 +1,852 @@
+package org.com.pangolin.redistribuicao;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.math3.analysis.MultivariateFunction;
+import org.apache.commons.math3.optim.*;
+import org.apache.commons.math3.optim.linear.NonNegativeConstraint;
+import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
+import org.apache.commons.math3.optim.nonlinear.scalar.ObjectiveFunction;
+import org.apache.commons.math3.optim.nonlinear.scalar.noderiv.NelderMeadSimplex;
+import org.apache.commons.math3.optim.nonlinear.scalar.noderiv.SimplexOptimizer;
+
+
+/**
+ * Motor de redistribuição por otimização numérica (Nelder-Mead), sem estado por chamada.
+ * <p>
+ * Uma instância é construída uma vez e pode ser compartilhada entre threads: os parâmetros chegam a cada
+ * chamada de {@link #redistribuir(ParametrosRedistribuicao)}. Cada thread mantém uma área de trabalho
+ * própria, reutilizada entre chamadas, com o {@link SimplexOptimizer}, os {@link NelderMeadSimplex} por
+ * dimensão, a função objetivo e os buffers usados pelo modo exato. Assim, o custo de montar o otimizador e
+ * o lixo gerado por chamada deixam de ser proporcionais ao volume de requisições.
+ * </p>
+ * <p>
+ * Com {@link ParametrizacaoPrincipal#CURVA}, PRICE e SFF são otimizados sobre {@code 1 + nosCurva} parâmetros de
+ * forma em vez de um principal por parcela: o logaritmo do principal da parcela {@code i} é
+ * {@code crescimento·i} mais uma spline linear com {@code nosCurva} nós internos igualmente espaçados e
+ * extremos nulos, e os principais são normalizados para somar o saldo principal. Contratos de 360 parcelas
+ * passam a usar um simplex de poucas dimensões; cada avaliação continua custando O(n).
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     // Na inicialização do serviço
+ *     MotorOtimizacao motor = MotorOtimizacao.builder().precisao(ConfiguracaoPrecisao.rapido()).build();
+ *
+ *     // Em qualquer thread, a cada requisição
+ *     ResultadoRedistribuicao resultado = motor.redistribuir(parametros);
+ * </pre>
+ */
+public class MotorOtimizacao implements MotorRedistribuicao {
+
+    private static final MotorOtimizacao PADRAO =
+            new MotorOtimizacao(ConfiguracaoPrecisao.padrao(), ParametrizacaoPrincipal.PONTO_A_PONTO, 3, false);
+
+    private static final MaxEval MAX_EVAL = new MaxEval(100000);
+    private static final NonNegativeConstraint NAO_NEGATIVO = new NonNegativeConstraint(true);
+    private static final int SIMPLEX_RETIDOS_POR_THREAD = 16;
+    private static final double PASSO_CRESCIMENTO = 1e-3;
+    private static final double PASSO_NO = 0.05;
+
+    private final ConfiguracaoPrecisao precisao;
+    private final MathContext mc;
+    private final boolean modoRapido;
+    private final ParametrizacaoPrincipal parametrizacao;
+    private final int nosCurva;
+    private final boolean partidaAnuidade;
+    private final ThreadLocal<AreaTrabalho> areaTrabalho = ThreadLocal.withInitial(AreaTrabalho::new);
+
+    private MotorOtimizacao(ConfiguracaoPrecisao precisao, ParametrizacaoPrincipal parametrizacao, int nosCurva,
+                            boolean partidaAnuidade) {
+        this.precisao = Objects.requireNonNull(precisao, "precisao");
+        this.mc = precisao.mathContext();
+        this.modoRapido = precisao.modo() == ModoPrecisao.RAPIDO;
+        this.parametrizacao = Objects.requireNonNull(parametrizacao, "parametrizacao");
+        this.nosCurva = nosCurva;
+        this.partidaAnuidade = partidaAnuidade;
+    }
+
+    /**
+     * @return Instância compartilhada com a precisão padrão.
+     */
+    public static MotorOtimizacao padrao() {
+        return PADRAO;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ConfiguracaoPrecisao precisao() {
+        return precisao;
+    }
+
+    public ParametrizacaoPrincipal parametrizacao() {
+        return parametrizacao;
+    }
+
+    public int nosCurva() {
+        return nosCurva;
+    }
+
+    public boolean partidaAnuidade() {
+        return partidaAnuidade;
+    }
+
+    /**
+     * Valida a consistência dos saldos informados.
+     *
+     * @throws IllegalArgumentException se a soma das parcelas não igualar saldoPrincipal + saldoJuros.
+     */
+    public static void validar(ParametrosRedistribuicao parametros) {
+        BigDecimal totalEsperado = parametros.saldoPrincipal().add(parametros.saldoJuros());
+        if (parametros.saldoDevedorParcelas().compareTo(totalEsperado) != 0) {
+            throw new IllegalArgumentException(
+                    String.format("Soma das parcelas (%s) deve igualar saldoPrincipal + saldoJuros (%s)",
+                            parametros.saldoDevedorParcelas(), totalEsperado));
+        }
+    }
+
+    /**
+     * Redistribui os valores de principal e juros das parcelas conforme o sistema de amortização dos parâmetros.
+     *
+     * @param parametros Parâmetros da redistribuição.
+     * @return ResultadoRedistribuicao contendo os arrays de principais e juros redistribuídos.
+     */
+    @Override
+    public ResultadoRedistribuicao redistribuir(ParametrosRedistribuicao parametros) {
+        validar(parametros);
+        FuncaoObjetivo funcao = switch (parametros.sistemaAmortizacao()) {
+            case SAC -> FuncaoObjetivo.SAC;
+            case PRICE, SFF -> FuncaoObjetivo.PRINCIPAL_CONSTANTE;
+            // Adicione outros casos se necessário
+        };
+        return rodarOtimizacao(parametros, funcao);
+    }
+
+    /**
+     * Executa a otimização para redistribuição dos principais e juros das parcelas.
+     * <p>
+     * Utiliza o algoritmo Nelder-Mead para encontrar a melhor distribuição dos principais,
+     * de acordo com a função objetivo fornecida, respeitando as restrições do problema.
+     * </p>
+     *
+     * @param parametros Parâmetros da redistribuição.
+     * @param funcao     Função objetivo a ser minimizada durante a otimização.
+     * @return ResultadoRedistribuicao contendo os arrays de principais e juros otimizados.
+     */
+    private ResultadoRedistribuicao rodarOtimizacao(ParametrosRedistribuicao parametros, FuncaoObjetivo funcao) {
+        AreaTrabalho area = areaTrabalho.get();
+        if (area.emUso) {
+            // Chamada reentrante na mesma thread: usa uma área descartável em vez de corromper a corrente
+            area = new AreaTrabalho();
+        }
+        area.iniciar(parametros, funcao);
+        try {
+            int n = parametros.quantidadeParcelas();
+            PointValuePair solution = area.otimizador.optimize(
+                    MAX_EVAL,
+                    area.objetivo,
+                    GoalType.MINIMIZE,
+                    area.curvaAtiva ? area.simplexCurva() : area.simplex(n),
+                    new InitialGuess(area.curvaAtiva ? area.gerarChuteCurva() : area.gerarChuteInicial()),
+                    NAO_NEGATIVO
+            );
+
+            double[] principalsDouble = area.curvaAtiva
+                    ? area.mapearCurva(solution.getPoint(), new double[n])
+                    : solution.getPoint();
+            ResultadoRedistribuicao resultado = modoRapido
+                    ? montarResultadoRapido(parametros, principalsDouble)
+                    : montarResultadoExato(parametros, principalsDouble);
+            if (area.intervaloAmostragem > 0) {
+                area.registrarDecomposicao(principalsDouble, resultado);
+            }
+            return resultado;
+        } finally {
+            area.encerrar();
+        }
+    }
+
+    /**
+     * Converte o ponto ótimo para centavos usando {@code BigDecimal} com o {@link MathContext} configurado.
+     */
+    private ResultadoRedistribuicao montarResultadoExato(ParametrosRedistribuicao parametros, double[] principalsDouble) {
+        int n = principalsDouble.length;
+        BigDecimal valorParcela = parametros.valorParcela();
+        BigDecimal[] principalsContinuos = new BigDecimal[n];
+        BigDecimal[] principals = new BigDecimal[n];
+        BigDecimal[] juros = new BigDecimal[n];
+
+        for (int i = 0; i < n; i++) {
+            principalsContinuos[i] = new BigDecimal(principalsDouble[i], mc);
+            principals[i] = principalsContinuos[i].setScale(2, RoundingMode.HALF_EVEN);
+            juros[i] = valorParcela.subtract(principals[i]).setScale(2, RoundingMode.HALF_EVEN);
+        }
+
+        // Ajuste final para garantir que as somas batam exatamente
+        ajustarUltimaParcela(principals, juros, parametros.saldoPrincipal(), parametros.saldoJuros(), valorParcela);
+
+        BigDecimal desvioMaximo = BigDecimal.ZERO;
+        for (int i = 0; i < n; i++) {
+            BigDecimal jurosContinuo = valorParcela.subtract(principalsContinuos[i], mc);
+            desvioMaximo = desvioMaximo
+                    .max(principalsContinuos[i].subtract(principals[i], mc).abs())
+                    .max(jurosContinuo.subtract(juros[i], mc).abs());
+        }
+
+        return  ResultadoRedistribuicao.builder()
+                .principal(principals)
+                .juros(juros)
+                .parcela(valorParcela)
+                .saldoPrincipal(parametros.saldoPrincipal())
+                .saldoJuros(parametros.saldoJuros())
+                .desvioMaximoArredondamento(desvioMaximo)
+                .build();
+    }
+
+    /**
+     * Converte o ponto ótimo para centavos com aritmética inteira; {@code BigDecimal} só é criado na saída.
+     */
+    private ResultadoRedistribuicao montarResultadoRapido(ParametrosRedistribuicao parametros, double[] principalsDouble) {
+        int n = principalsDouble.length;
+        double valorParcelaDouble = parametros.valorParcela().doubleValue();
+        long parcelaCentavos = centavos(parametros.valorParcela());
+        long saldoPrincipalCentavos = centavos(parametros.saldoPrincipal());
+        long saldoJurosCentavos = centavos(parametros.saldoJuros());
+        long[] principalCentavos = new long[n];
+        long[] jurosCentavos = new long[n];
+
+        long somaPrincipal = 0;
+        long somaJuros = 0;
+        for (int i = 0; i < n - 1; i++) {
+            principalCentavos[i] = (long) Math.rint(principalsDouble[i] * 100.0);
+            jurosCentavos[i] = parcelaCentavos - principalCentavos[i];
+            somaPrincipal += principalCentavos[i];
+            somaJuros += jurosCentavos[i];
+        }
+        // Ajuste final: a última parcela fecha as somas
+        principalCentavos[n - 1] = saldoPrincipalCentavos - somaPrincipal;
+        jurosCentavos[n - 1] = saldoJurosCentavos - somaJuros;
+
+        BigDecimal[] principals = new BigDecimal[n];
+        BigDecimal[] juros = new BigDecimal[n];
+        double desvioMaximo = 0;
+        for (int i = 0; i < n; i++) {
+            principals[i] = BigDecimal.valueOf(principalCentavos[i], 2);
+            juros[i] = BigDecimal.valueOf(jurosCentavos[i], 2);
+            double jurosContinuo = valorParcelaDouble - principalsDouble[i];
+            desvioMaximo = Math.max(desvioMaximo, Math.abs(principalsDouble[i] - principalCentavos[i] / 100.0));
+            desvioMaximo = Math.max(desvioMaximo, Math.abs(jurosContinuo - jurosCentavos[i] / 100.0));
+        }
+
+        return  ResultadoRedistribuicao.builder()
+                .principal(principals)
+                .juros(juros)
+                .parcela(parametros.valorParcela())
+                .saldoPrincipal(parametros.saldoPrincipal())
+                .saldoJuros(parametros.saldoJuros())
+                .desvioMaximoArredondamento(BigDecimal.valueOf(desvioMaximo))
+                .build();
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    /**
+     * Adjusts the last installment to ensure that the sum of principals and interest matches the expected balances.
+     * This is necessary due to possible rounding errors during the optimization process.
+     *
+     * @param principals      Array of principal values for each installment.
+     * @param juros           Array of interest values for each installment.
+     * @param saldoPrincipal  Total expected principal balance.
+     * @param saldoJuros      Total expected interest balance.
+     * @param valorParcela    Value of each installment.
+     */
+    private static void ajustarUltimaParcela(BigDecimal[] principals, BigDecimal[] juros, BigDecimal saldoPrincipal, BigDecimal saldoJuros, BigDecimal valorParcela) {
+        int n = principals.length;
+        // Ajusta o último principal para garantir soma exata
+        BigDecimal somaPrincipals = Arrays.stream(principals).limit(n-1).reduce(BigDecimal.ZERO, BigDecimal::add);
+        principals[n-1] = saldoPrincipal.subtract(somaPrincipals).setScale(2, RoundingMode.HALF_EVEN);
+        juros[n-1] = valorParcela.subtract(principals[n-1]).setScale(2, RoundingMode.HALF_EVEN);
+
+        // Ajusta o último juros para garantir soma exata
+        BigDecimal somaJuros = Arrays.stream(juros).limit(n-1).reduce(BigDecimal.ZERO, BigDecimal::add);
+        juros[n-1] = saldoJuros.subtract(somaJuros).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static double acumular(double[] termos, TermoPenalidade termo, double penalidade) {
+        if (termos != null) {
+            termos[termo.ordinal()] += penalidade;
+        }
+        return penalidade;
+    }
+
+    /**
+     * Funções objetivo disponíveis.
+     */
+    private enum FuncaoObjetivo {
+        PRINCIPAL_CONSTANTE,
+        PRINCIPAL_VARIAVEL,
+        SAC
+    }
+
+    /**
+     * Estado reutilizável de uma thread: otimizador, simplex por dimensão, função objetivo e buffers.
+     * Os campos da chamada corrente são preenchidos por {@link #iniciar} e descartados por {@link #encerrar}.
+     */
+    private final class AreaTrabalho implements MultivariateFunction {
+        final SimplexOptimizer otimizador = new SimplexOptimizer(new SimpleValueChecker(1e-12, 1e-12));
+        final ObjectiveFunction objetivo = new ObjectiveFunction(this);
+        private final Map<Integer, NelderMeadSimplex> simplexPorDimensao =
+                new LinkedHashMap<>(SIMPLEX_RETIDOS_POR_THREAD, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Integer, NelderMeadSimplex> maisAntigo) {
+                        return size() > SIMPLEX_RETIDOS_POR_THREAD;
+                    }
+                };
+        private double[] chute = new double[0];
+        private double[] principaisCurva = new double[0];
+        private NelderMeadSimplex simplexCurva;
+        private BigDecimal[] principalBD = new BigDecimal[0];
+        private BigDecimal[] jurosBD = new BigDecimal[0];
+
+        boolean emUso;
+        private ParametrosRedistribuicao parametros;
+        private FuncaoObjetivo funcao;
+        // Busca sobre os parâmetros de forma da curva em vez dos principais
+        boolean curvaAtiva;
+        // Cópias em double dos parâmetros, usadas pelo modo RAPIDO
+        private double valorParcelaDouble;
+        private double saldoPrincipalDouble;
+        private double saldoJurosDouble;
+        private double taxaJurosDouble;
+        // Rastreamento da chamada corrente (0 = desativado)
+        int intervaloAmostragem;
+        private long idOtimizacao;
+        private int avaliacoes;
+
+        void iniciar(ParametrosRedistribuicao parametros, FuncaoObjetivo funcao) {
+            this.emUso = true;
+            this.parametros = parametros;
+            this.funcao = funcao;
+            this.valorParcelaDouble = parametros.valorParcela().doubleValue();
+            this.saldoPrincipalDouble = parametros.saldoPrincipal().doubleValue();
+            this.saldoJurosDouble = parametros.saldoJuros().doubleValue();
+            this.taxaJurosDouble = parametros.taxaJuros() == null ? 0.0 : parametros.taxaJuros().doubleValue();
+            int n = parametros.quantidadeParcelas();
+            this.curvaAtiva = parametrizacao == ParametrizacaoPrincipal.CURVA && funcao != FuncaoObjetivo.SAC && n > nosCurva + 1;
+            if (curvaAtiva && principaisCurva.length != n) {
+                principaisCurva = new double[n];
+            }
+            if (!modoRapido && principalBD.length < n) {
+                principalBD = new BigDecimal[n];
+                jurosBD = new BigDecimal[n];
+            }
+            // Rastreamento desativado: uma única leitura volátil e nenhuma instrumentação por avaliação
+            this.intervaloAmostragem = RastreamentoPenalidade.intervaloAmostragem();
+            this.idOtimizacao = intervaloAmostragem > 0 ? RastreamentoPenalidade.proximoId() : 0;
+            this.avaliacoes = 0;
+        }
+
+        void encerrar() {
+            this.parametros = null;
+            this.emUso = false;
+        }
+
+        NelderMeadSimplex simplex(int n) {
+            return simplexPorDimensao.computeIfAbsent(n, NelderMeadSimplex::new);
+        }
+
+        /**
+         * Simplex dos parâmetros de forma, com passos na escala de cada parâmetro: o crescimento é por parcela e
+         * um passo unitário multiplicaria o principal por {@code e} a cada parcela.
+         */
+        NelderMeadSimplex simplexCurva() {
+            if (simplexCurva == null) {
+                double[] passos = new double[nosCurva + 1];
+                Arrays.fill(passos, PASSO_NO);
+                passos[0] = PASSO_CRESCIMENTO;
+                simplexCurva = new NelderMeadSimplex(passos);
+            }
+            return simplexCurva;
+        }
+
+        /**
+         * Mapeia os parâmetros de forma {@code [crescimento, nó 1, ..., nó k]} para os principais no destino.
+         * <p>
+         * Parâmetros todos nulos mapeiam para o principal constante; crescimento {@code ln(1+i)} com nós nulos
+         * mapeia para a amortização da tabela PRICE.
+         * </p>
+         */
+        double[] mapearCurva(double[] forma, double[] destino) {
+            int n = destino.length;
+            int nos = forma.length - 1;
+            double maximo = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double posicao = (double) i / (n - 1) * (nos + 1);
+                int segmento = Math.min((int) posicao, nos);
+                double esquerda = segmento == 0 ? 0.0 : forma[segmento];
+                double direita = segmento == nos ? 0.0 : forma[segmento + 1];
+                destino[i] = forma[0] * i + esquerda + (direita - esquerda) * (posicao - segmento);
+                maximo = Math.max(maximo, destino[i]);
+            }
+            // Exponencial relativa ao maior expoente: sem overflow para qualquer ponto visitado pelo simplex
+            double soma = 0;
+            for (int i = 0; i < n; i++) {
+                destino[i] = Math.exp(destino[i] - maximo);
+                soma += destino[i];
+            }
+            double escala = saldoPrincipalDouble / soma;
+            for (int i = 0; i < n; i++) {
+                destino[i] *= escala;
+            }
+            return destino;
+        }
+
+        @Override
+        public double value(double[] ponto) {
+            double[] principals = curvaAtiva ? mapearCurva(ponto, principaisCurva) : ponto;
+            double penalidade = avaliar(principals, null);
+            if (intervaloAmostragem > 0 && ++avaliacoes % intervaloAmostragem == 0) {
+                RastreamentoPenalidade.registrarAmostra(idOtimizacao, avaliacoes, penalidade);
+            }
+            return penalidade;
+        }
+
+        double avaliar(double[] principals, double[] termos) {
+            return switch (funcao) {
+                case PRINCIPAL_CONSTANTE -> modoRapido ? funcaoObjetivoRapida(principals, termos) : funcaoObjetivo(principals, termos);
+                case PRINCIPAL_VARIAVEL -> modoRapido ? funcaoObjetivoPrincipalVariavelRapida(principals, termos) : funcaoObjetivoPrincipalVariavel(principals, termos);
+                case SAC -> modoRapido ? funcaoObjetivoSACRapida(principals, termos) : funcaoObjetivoSAC(principals, termos);
+            };
+        }
+
+        /**
+         * Reavalia a função objetivo no melhor ponto acumulando a penalidade por termo e registra a decomposição
+         * no buffer de rastreamento da thread.
+         */
+        void registrarDecomposicao(double[] principalsDouble, ResultadoRedistribuicao resultado) {
+            double[] termos = new double[TermoPenalidade.values().length];
+            double penalidadeTotal = avaliar(principalsDouble, termos);
+            int ultima = principalsDouble.length - 1;
+            double correcaoUltimaParcela = Math.abs(principalsDouble[ultima] - resultado.principal()[ultima].doubleValue());
+            RastreamentoPenalidade.registrarDecomposicao(new DecomposicaoPenalidade(
+                    idOtimizacao,
+                    parametros.sistemaAmortizacao(),
+                    principalsDouble.length,
+                    curvaAtiva ? nosCurva + 1 : principalsDouble.length,
+                    otimizador.getEvaluations(),
+                    penalidadeTotal,
+                    termos,
+                    correcaoUltimaParcela));
+        }
+
+        /**
+         * Chute inicial dos parâmetros de forma, equivalente ao de {@link #gerarChuteInicial()}: principal
+         * constante ou, com a partida por anuidade e taxa positiva, crescimento geométrico de {@code ln(1+i)}.
+         */
+        double[] gerarChuteCurva() {
+            double[] forma = new double[nosCurva + 1];
+            if (partidaAnuidade && taxaJurosDouble > 0.0) {
+                forma[0] = Math.log1p(taxaJurosDouble);
+            }
+            return forma;
+        }
+
+        /**
+         * Gera um chute inicial para o vetor de principais a ser usado na otimização.
+         * <p>
+         * O chute inicial consiste em dividir o saldo principal igualmente entre todas as parcelas,
+         * servindo como ponto de partida para o algoritmo de otimização. Com a partida por anuidade, PRICE e SFF
+         * com taxa positiva partem da amortização da tabela PRICE, {@code P·i·(1+i)^k / ((1+i)^n - 1)}, que já
+         * é crescente e soma o saldo principal.
+         * </p>
+         *
+         * <b>Exemplo prático:</b>
+         * <pre>
+         *     // Suponha saldoPrincipal = 3000, quantidadeParcelas = 3
+         *     // O chute inicial será [1000.0, 1000.0, 1000.0]
+         * </pre>
+         *
+         * @return Vetor double[] com valores iniciais para os principais de cada parcela (buffer reutilizado;
+         * {@link InitialGuess} faz a própria cópia).
+         */
+        double[] gerarChuteInicial() {
+            int n = parametros.quantidadeParcelas();
+            if (chute.length != n) {
+                chute = new double[n];
+            }
+            if (partidaAnuidade && funcao != FuncaoObjetivo.SAC && taxaJurosDouble > 0.0) {
+                double fator = 1.0 + taxaJurosDouble;
+                double amortizacao = saldoPrincipalDouble * taxaJurosDouble / Math.expm1(n * Math.log1p(taxaJurosDouble));
+                for (int k = 0; k < n; k++) {
+                    chute[k] = amortizacao;
+                    amortizacao *= fator;
+                }
+                return chute;
+            }
+            if (modoRapido) {
+                Arrays.fill(chute, saldoPrincipalDouble / n);
+                return chute;
+            }
+            // Inicializa com principal igual ao saldoPrincipal/n
+            BigDecimal principalBase = parametros.saldoPrincipal().divide(BigDecimal.valueOf(n), mc);
+            Arrays.fill(chute, principalBase.doubleValue());
+            return chute;
+        }
+
+        /**
+         * Função objetivo para otimização do sistema PRICE.
+         * Penaliza desvios nas somas, principais negativos, juros negativos,
+         * e garante que os juros sejam decrescentes e o principal crescente.
+         *
+         * Exemplo de uso:
+         * <pre>
+         *     double[] principals = {900.0, 950.0, 1000.0};
+         *     double penalidade = area.funcaoObjetivo(principals, null);
+         *     // penalidade será 0 se os principais estiverem corretos para o sistema PRICE
+         * </pre>
+         *
+         * @param principals Array de valores de principal para cada parcela.
+         * @param termos     Acumulador opcional da penalidade por {@link TermoPenalidade}; {@code null} fora do rastreamento.
+         * @return Valor da penalidade calculada para o vetor de principais fornecido.
+         */
+        private double funcaoObjetivo(double[] principals, double[] termos) {
+            int n = parametros.quantidadeParcelas();
+            BigDecimal valorParcela = parametros.valorParcela();
+            BigDecimal somaPrincipals = BigDecimal.ZERO;
+            BigDecimal somaJuros = BigDecimal.ZERO;
+
+            for (int i = 0; i < n; i++) {
+                principalBD[i] = new BigDecimal(principals[i], mc);
+                jurosBD[i] = valorParcela.subtract(principalBD[i],mc);
+                somaPrincipals = somaPrincipals.add(principalBD[i]);
+                somaJuros = somaJuros.add(jurosBD[i]);
+            }
+
+            double penalidade = 0;
+
+            // Restrições de soma
+            penalidade += acumular(termos, TermoPenalidade.SOMA_PRINCIPAL, 1e12 * Math.pow(somaPrincipals.subtract(parametros.saldoPrincipal()).doubleValue(), 2));
+            penalidade += acumular(termos, TermoPenalidade.SOMA_JUROS, 1e12 * Math.pow(somaJuros.subtract(parametros.saldoJuros()).doubleValue(), 2));
+
+            // Não-negatividade
+            for (int i = 0; i < n; i++) {
+                if (principalBD[i].compareTo(BigDecimal.ZERO) < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * Math.pow(principalBD[i].doubleValue(), 2));
+                if (jurosBD[i].compareTo(BigDecimal.ZERO) < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * Math.pow(jurosBD[i].doubleValue(), 2));
+            }
+
+            // Price: juros decrescentes, principal crescente
+            for (int i = 1; i < n; i++) {
+                if (jurosBD[i].compareTo(jurosBD[i-1]) <= 0)
+                    penalidade += acumular(termos, TermoPenalidade.MONOTONICIDADE_PRICE, 1e8 * Math.pow(jurosBD[i].subtract(jurosBD[i-1]).doubleValue(), 2));
+                if (principalBD[i].compareTo(principalBD[i-1]) >= 0)
+                    penalidade += acumular(termos, TermoPenalidade.MONOTONICIDADE_PRICE, 1e8 * Math.pow(principalBD[i-1].subtract(principalBD[i]).doubleValue(), 2));
+            }
+
+            return penalidade;
+        }
+
+        /**
+         * Função objetivo para otimização do sistema de principal variável.
+         * Penaliza desvios nas somas, principais negativos, juros negativos,
+         * principais não crescentes e principais muito iguais (opcional).
+         *
+         * Exemplo de uso:
+         * <pre>
+         *     double[] principals = {1000.0, 1100.0, 1200.0};
+         *     double penalidade = area.funcaoObjetivoPrincipalVariavel(principals, null);
+         *     // penalidade será 0 se os principais estiverem corretos para o sistema desejado
+         * </pre>
+         *
+         * @param principals Array de valores de principal para cada parcela.
+         * @param termos     Acumulador opcional da penalidade por {@link TermoPenalidade}; {@code null} fora do rastreamento.
+         * @return Valor da penalidade calculada para o vetor de principais fornecido.
+         */
+        private double funcaoObjetivoPrincipalVariavel(double[] principals, double[] termos) {
+            int n = parametros.quantidadeParcelas();
+            BigDecimal valorParcela = parametros.valorParcela();
+            BigDecimal somaPrincipals = BigDecimal.ZERO;
+            BigDecimal somaJuros = BigDecimal.ZERO;
+
+            for (int i = 0; i < n; i++) {
+                principalBD[i] = new BigDecimal(principals[i], mc);
+                jurosBD[i] = valorParcela.subtract(principalBD[i]);
+                somaPrincipals = somaPrincipals.add(principalBD[i]);
+                somaJuros = somaJuros.add(jurosBD[i]);
+            }
+
+            double penalidade = 0;
+
+            // Restrições de soma
+            penalidade += acumular(termos, TermoPenalidade.SOMA_PRINCIPAL, 1e12 * Math.pow(somaPrincipals.subtract(parametros.saldoPrincipal()).doubleValue(), 2));
+            penalidade += acumular(termos, TermoPenalidade.SOMA_JUROS, 1e12 * Math.pow(somaJuros.subtract(parametros.saldoJuros()).doubleValue(), 2));
+
+            // Penalidade para todos os principais iguais (opcional)
+            BigDecimal media = somaPrincipals.divide(BigDecimal.valueOf(n), mc);
+            for (int i = 0; i < n; i++) {
+                penalidade += acumular(termos, TermoPenalidade.PRINCIPAL_MEDIA, 1e4 * Math.pow(principalBD[i].subtract(media).doubleValue(), 2));
+            }
+
+            // Para principal crescente:
+            for (int i = 1; i < n; i++) {
+                if (principalBD[i].compareTo(principalBD[i-1]) < 0)
+                    penalidade += acumular(termos, TermoPenalidade.PRINCIPAL_CRESCENTE, 1e8 * Math.pow(principalBD[i-1].subtract(principalBD[i]).doubleValue(), 2));
+            }
+
+            // Não-negatividade
+            for (int i = 0; i < n; i++) {
+                if (principalBD[i].compareTo(BigDecimal.ZERO) < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * Math.pow(principalBD[i].doubleValue(), 2));
+                if (jurosBD[i].compareTo(BigDecimal.ZERO) < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * Math.pow(jurosBD[i].doubleValue(), 2));
+            }
+
+            // Não há penalidade de monotonicidade para principal variável
+
+            return penalidade;
+        }
+
+        /**
+         * Função objetivo para otimização do sistema SAC (Sistema de Amortização Constante).
+         * Penaliza desvios em relação ao principal constante, juros negativos, principais negativos,
+         * e diferenças entre a soma principal+juros e o valor da parcela.
+         *
+         * Exemplo de uso:
+         * <pre>
+         *     double[] principals = {1000.0, 1000.0, 1000.0};
+         *     double penalidade = area.funcaoObjetivoSAC(principals, null);
+         *     // penalidade será 0 se os principais estiverem corretos para SAC
+         * </pre>
+         *
+         * @param principals Array de valores de principal para cada parcela.
+         * @param termos     Acumulador opcional da penalidade por {@link TermoPenalidade}; {@code null} fora do rastreamento.
+         * @return Valor da penalidade calculada para o vetor de principais fornecido.
+         */
+        private double funcaoObjetivoSAC(double[] principals, double[] termos) {
+            int n = parametros.quantidadeParcelas();
+            BigDecimal valorParcela = parametros.valorParcela();
+            BigDecimal saldoPrincipal = parametros.saldoPrincipal();
+            BigDecimal taxa = parametros.taxaJuros();
+
+            // Principal SAC esperado
+            BigDecimal principalSAC = saldoPrincipal.divide(BigDecimal.valueOf(n), mc);
+
+            // Calcula juros SAC para cada parcela
+            BigDecimal saldoDevedor = saldoPrincipal;
+            BigDecimal somaPrincipals = BigDecimal.ZERO;
+            double penalidade = 0;
+
+            for (int i = 0; i < n; i++) {
+                principalBD[i] = new BigDecimal(principals[i], mc);
+                somaPrincipals = somaPrincipals.add(principalBD[i]);
+                // Juros SAC: saldo devedor * taxa
+                jurosBD[i] = saldoDevedor.multiply(taxa, mc);
+                saldoDevedor = saldoDevedor.subtract(principalSAC, mc);
+
+                // Penalidade para principal diferente do SAC
+                penalidade += acumular(termos, TermoPenalidade.PRINCIPAL_SAC, 1e10 * Math.pow(principalBD[i].subtract(principalSAC).doubleValue(), 2));
+
+                // Penalidade para principal negativo
+                if (principalBD[i].compareTo(BigDecimal.ZERO) < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * Math.pow(principalBD[i].doubleValue(), 2));
+
+                // Penalidade para juros negativo
+                if (jurosBD[i].compareTo(BigDecimal.ZERO) < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * Math.pow(jurosBD[i].doubleValue(), 2));
+
+                // Penalidade para principal + juros diferente da parcela
+                penalidade += acumular(termos, TermoPenalidade.PARCELA_SAC, 1e8 * Math.pow(principalBD[i].add(jurosBD[i]).subtract(valorParcela).doubleValue(), 2));
+            }
+
+            // Penalidade para soma dos principais diferente do saldo principal
+            penalidade += acumular(termos, TermoPenalidade.SOMA_PRINCIPAL, 1e12 * Math.pow(somaPrincipals.subtract(saldoPrincipal).doubleValue(), 2));
+
+            return penalidade;
+        }
+
+        /**
+         * Versão em {@code double} de {@link #funcaoObjetivo(double[], double[])}, usada no modo {@link ModoPrecisao#RAPIDO}.
+         * Aplica exatamente as mesmas penalidades, sem alocar objetos por avaliação.
+         *
+         * @param principals Array de valores de principal para cada parcela.
+         * @param termos     Acumulador opcional da penalidade por {@link TermoPenalidade}; {@code null} fora do rastreamento.
+         * @return Valor da penalidade calculada para o vetor de principais fornecido.
+         */
+        private double funcaoObjetivoRapida(double[] principals, double[] termos) {
+            int n = principals.length;
+            double somaPrincipals = 0;
+            double somaJuros = 0;
+            double penalidade = 0;
+
+            for (int i = 0; i < n; i++) {
+                double principal = principals[i];
+                double juros = valorParcelaDouble - principal;
+                somaPrincipals += principal;
+                somaJuros += juros;
+
+                // Não-negatividade
+                if (principal < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * principal * principal);
+                if (juros < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * juros * juros);
+
+                // Price: juros decrescentes, principal crescente
+                if (i > 0) {
+                    double jurosAnterior = valorParcelaDouble - principals[i - 1];
+                    if (juros <= jurosAnterior)
+                        penalidade += acumular(termos, TermoPenalidade.MONOTONICIDADE_PRICE, 1e8 * (juros - jurosAnterior) * (juros - jurosAnterior));
+                    if (principal >= principals[i - 1])
+                        penalidade += acumular(termos, TermoPenalidade.MONOTONICIDADE_PRICE, 1e8 * (principals[i - 1] - principal) * (principals[i - 1] - principal));
+                }
+            }
+
+            // Restrições de soma
+            penalidade += acumular(termos, TermoPenalidade.SOMA_PRINCIPAL, 1e12 * (somaPrincipals - saldoPrincipalDouble) * (somaPrincipals - saldoPrincipalDouble));
+            penalidade += acumular(termos, TermoPenalidade.SOMA_JUROS, 1e12 * (somaJuros - saldoJurosDouble) * (somaJuros - saldoJurosDouble));
+
+            return penalidade;
+        }
+
+        /**
+         * Versão em {@code double} de {@link #funcaoObjetivoPrincipalVariavel(double[], double[])}.
+         *
+         * @param principals Array de valores de principal para cada parcela.
+         * @param termos     Acumulador opcional da penalidade por {@link TermoPenalidade}; {@code null} fora do rastreamento.
+         * @return Valor da penalidade calculada para o vetor de principais fornecido.
+         */
+        private double funcaoObjetivoPrincipalVariavelRapida(double[] principals, double[] termos) {
+            int n = principals.length;
+            double somaPrincipals = 0;
+            double somaJuros = 0;
+            double penalidade = 0;
+
+            for (int i = 0; i < n; i++) {
+                double principal = principals[i];
+                double juros = valorParcelaDouble - principal;
+                somaPrincipals += principal;
+                somaJuros += juros;
+
+                // Para principal crescente:
+                if (i > 0 && principal < principals[i - 1])
+                    penalidade += acumular(termos, TermoPenalidade.PRINCIPAL_CRESCENTE, 1e8 * (principals[i - 1] - principal) * (principals[i - 1] - principal));
+
+                // Não-negatividade
+                if (principal < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * principal * principal);
+                if (juros < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * juros * juros);
+            }
+
+            // Restrições de soma
+            penalidade += acumular(termos, TermoPenalidade.SOMA_PRINCIPAL, 1e12 * (somaPrincipals - saldoPrincipalDouble) * (somaPrincipals - saldoPrincipalDouble));
+            penalidade += acumular(termos, TermoPenalidade.SOMA_JUROS, 1e12 * (somaJuros - saldoJurosDouble) * (somaJuros - saldoJurosDouble));
+
+            // Penalidade para todos os principais iguais (opcional)
+            double media = somaPrincipals / n;
+            for (int i = 0; i < n; i++) {
+                penalidade += acumular(termos, TermoPenalidade.PRINCIPAL_MEDIA, 1e4 * (principals[i] - media) * (principals[i] - media));
+            }
+
+            return penalidade;
+        }
+
+        /**
+         * Versão em {@code double} de {@link #funcaoObjetivoSAC(double[], double[])}.
+         *
+         * @param principals Array de valores de principal para cada parcela.
+         * @param termos     Acumulador opcional da penalidade por {@link TermoPenalidade}; {@code null} fora do rastreamento.
+         * @return Valor da penalidade calculada para o vetor de principais fornecido.
+         */
+        private double funcaoObjetivoSACRapida(double[] principals, double[] termos) {
+            int n = principals.length;
+            double principalSAC = saldoPrincipalDouble / n;
+            double saldoDevedor = saldoPrincipalDouble;
+            double somaPrincipals = 0;
+            double penalidade = 0;
+
+            for (int i = 0; i < n; i++) {
+                double principal = principals[i];
+                // Juros SAC: saldo devedor * taxa
+                double juros = saldoDevedor * taxaJurosDouble;
+                saldoDevedor -= principalSAC;
+                somaPrincipals += principal;
+
+                // Penalidade para principal diferente do SAC
+                penalidade += acumular(termos, TermoPenalidade.PRINCIPAL_SAC, 1e10 * (principal - principalSAC) * (principal - principalSAC));
+
+                // Penalidade para principal negativo
+                if (principal < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * principal * principal);
+
+                // Penalidade para juros negativo
+                if (juros < 0)
+                    penalidade += acumular(termos, TermoPenalidade.NAO_NEGATIVIDADE, 1e12 * juros * juros);
+
+                // Penalidade para principal + juros diferente da parcela
+                double diferencaParcela = principal + juros - valorParcelaDouble;
+                penalidade += acumular(termos, TermoPenalidade.PARCELA_SAC, 1e8 * diferencaParcela * diferencaParcela);
+            }
+
+            // Penalidade para soma dos principais diferente do saldo principal
+            penalidade += acumular(termos, TermoPenalidade.SOMA_PRINCIPAL, 1e12 * (somaPrincipals - saldoPrincipalDouble) * (somaPrincipals - saldoPrincipalDouble));
+
+            return penalidade;
+        }
+    }
+
+    /**
+     * Builder class for MotorOtimizacao.
+     */
+    public static class Builder {
+        private ConfiguracaoPrecisao precisao = ConfiguracaoPrecisao.padrao();
+        private ParametrizacaoPrincipal parametrizacao = ParametrizacaoPrincipal.PONTO_A_PONTO;
+        private int nosCurva = 3;
+        private boolean partidaAnuidade;
+
+        public Builder precisao(ConfiguracaoPrecisao precisao) {
+            this.precisao = precisao;
+            return this;
+        }
+
+        public Builder parametrizacao(ParametrizacaoPrincipal parametrizacao) {
+            this.parametrizacao = parametrizacao;
+            return this;
+        }
+
+        /**
+         * Quantidade de nós internos da spline no modo {@link ParametrizacaoPrincipal#CURVA}. Padrão: 3.
+         */
+        public Builder nosCurva(int nosCurva) {
+            this.nosCurva = nosCurva;
+            return this;
+        }
+
+        /**
+         * Parte da amortização da tabela PRICE em vez do principal constante (PRICE e SFF, ponto a ponto ou
+         * por curva).
+         * Padrão: desativado.
+         */
+        public Builder partidaAnuidade(boolean partidaAnuidade) {
+            this.partidaAnuidade = partidaAnuidade;
+            return this;
+        }
+
+        public MotorOtimizacao build() {
+            if (nosCurva < 0) {
+                throw new IllegalArgumentException("Quantidade de nós da curva não pode ser negativa: " + nosCurva);
+            }
+            return new MotorOtimizacao(precisao, parametrizacao, nosCurva, partidaAnuidade);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.com.pangolin.redistribuicao;
+
+/**
+ * Abstração de um motor capaz de redistribuir parcelas a partir de {@link ParametrosRedistribuicao}.
+ * <p>
+ * Permite que componentes de infraestrutura (pipelines, filas, execução em lote) recebam o motor por
+ * injeção, sem depender de como a redistribuição é calculada.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     MotorRedistribuicao motor = MotorRedistribuicao.padrao();
+ *     ResultadoRedistribuicao resultado = motor.redistribuir(parametros);
+ * </pre>
+ */
+@FunctionalInterface
+public interface MotorRedistribuicao {
+
+    ResultadoRedistribuicao redistribuir(ParametrosRedistribuicao parametros);
+
+    /**
+     * @return {@link MotorOtimizacao} compartilhado, com a precisão padrão.
+     */
+    static MotorRedistribuicao padrao() {
+        return MotorOtimizacao.padrao();
+    }
+}
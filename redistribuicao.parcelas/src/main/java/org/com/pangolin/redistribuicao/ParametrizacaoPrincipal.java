@@ -0,0 +1,17 @@
+package org.com.pangolin.redistribuicao;
+
+/**
+ * Espaço de busca do {@link MotorOtimizacao} para a curva de principais.
+ *
+ * <ul>
+ *     <li>{@link #PONTO_A_PONTO}: uma variável livre por parcela; o simplex tem a dimensão do prazo.</li>
+ *     <li>{@link #CURVA}: poucos parâmetros de forma (um fator de crescimento geométrico e os nós de uma
+ *     spline linear) mapeados para os principais, com a soma igual ao saldo principal e principais positivos
+ *     por construção. O número de avaliações deixa de depender do prazo. Aplica-se a PRICE e SFF; o SAC
+ *     continua ponto a ponto.</li>
+ * </ul>
+ */
+public enum ParametrizacaoPrincipal {
+    PONTO_A_PONTO,
+    CURVA
+}
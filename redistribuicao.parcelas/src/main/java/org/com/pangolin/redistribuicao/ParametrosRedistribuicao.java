@@ -15,6 +15,28 @@ public record ParametrosRedistribuicao(
     public static  Builder builder() {
         return new Builder();
     }
+
+    /**
+     * Forma canônica dos parâmetros: valores sem zeros à direita, de modo que parâmetros numericamente
+     * iguais (por exemplo {@code 1200} e {@code 1200.00}) sejam {@code equals} e tenham o mesmo hash.
+     * Adequada como chave de mapas e caches.
+     */
+    public ParametrosRedistribuicao canonico() {
+        return new ParametrosRedistribuicao(
+                semZeros(saldoDevedorParcelas),
+                semZeros(saldoPrincipal),
+                semZeros(saldoJuros),
+                semZeros(valorParcela),
+                quantidadeParcelas,
+                semZeros(taxaJuros),
+                sistemaAmortizacao,
+                principalConstante
+        );
+    }
+
+    private static BigDecimal semZeros(BigDecimal valor) {
+        return valor == null ? null : valor.stripTrailingZeros();
+    }
     /**
      * Builder class for ParametrosRedistribuicao.
      * This class provides a fluent API to create instances of ParametrosRedistribuicao.
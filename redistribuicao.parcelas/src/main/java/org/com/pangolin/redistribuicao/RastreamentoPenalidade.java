@@ -0,0 +1,177 @@
+package org.com.pangolin.redistribuicao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rastreamento opcional das penalidades do otimizador.
+ * <p>
+ * Quando ativo, cada otimização registra a {@link DecomposicaoPenalidade} no melhor ponto e uma amostra da
+ * trajetória a cada {@code intervaloAmostragem} avaliações. Os registros vão para um buffer circular da
+ * própria thread, sem contenção entre threads; quando o buffer enche, os registros mais antigos são
+ * sobrescritos. Desativado, o custo é uma leitura volátil por otimização.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     RastreamentoPenalidade.ativar(100, 1024);
+ *     motor.redistribuir(parametros);
+ *     for (DecomposicaoPenalidade d : RastreamentoPenalidade.decomposicoes()) {
+ *         System.out.println(d.termoDominante() + " " + d.correcaoUltimaParcela());
+ *     }
+ *     RastreamentoPenalidade.desativar();
+ * </pre>
+ */
+public final class RastreamentoPenalidade {
+
+    private record Configuracao(int intervaloAmostragem, int capacidadePorThread) {
+    }
+
+    private static volatile Configuracao configuracao;
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final Set<Buffer> BUFFERS = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Buffer> BUFFER_THREAD = new ThreadLocal<>();
+
+    private RastreamentoPenalidade() {
+    }
+
+    /**
+     * Ativa o rastreamento.
+     *
+     * @param intervaloAmostragem Registra uma amostra da trajetória a cada N avaliações da função objetivo.
+     * @param capacidadePorThread Quantidade de decomposições e de amostras retidas por thread.
+     */
+    public static void ativar(int intervaloAmostragem, int capacidadePorThread) {
+        if (intervaloAmostragem <= 0 || capacidadePorThread <= 0) {
+            throw new IllegalArgumentException("Intervalo de amostragem e capacidade devem ser positivos");
+        }
+        configuracao = new Configuracao(intervaloAmostragem, capacidadePorThread);
+    }
+
+    public static void desativar() {
+        configuracao = null;
+    }
+
+    public static boolean ativo() {
+        return configuracao != null;
+    }
+
+    /**
+     * @return Decomposições retidas em todas as threads, da mais antiga para a mais recente em cada thread.
+     */
+    public static List<DecomposicaoPenalidade> decomposicoes() {
+        List<DecomposicaoPenalidade> todas = new ArrayList<>();
+        for (Buffer buffer : BUFFERS) {
+            buffer.copiarDecomposicoes(todas);
+        }
+        return todas;
+    }
+
+    /**
+     * @return Amostras de trajetória retidas em todas as threads.
+     */
+    public static List<AmostraTrajetoria> amostras() {
+        List<AmostraTrajetoria> todas = new ArrayList<>();
+        for (Buffer buffer : BUFFERS) {
+            buffer.copiarAmostras(todas);
+        }
+        return todas;
+    }
+
+    /**
+     * Descarta os registros de todas as threads.
+     */
+    public static void limpar() {
+        BUFFERS.clear();
+    }
+
+    /**
+     * @return Intervalo de amostragem corrente, ou 0 se o rastreamento estiver desativado.
+     */
+    static int intervaloAmostragem() {
+        Configuracao atual = configuracao;
+        return atual == null ? 0 : atual.intervaloAmostragem();
+    }
+
+    static long proximoId() {
+        return IDS.incrementAndGet();
+    }
+
+    static void registrarAmostra(long idOtimizacao, int avaliacao, double penalidade) {
+        Buffer buffer = buffer();
+        if (buffer != null) {
+            buffer.registrarAmostra(idOtimizacao, avaliacao, penalidade);
+        }
+    }
+
+    static void registrarDecomposicao(DecomposicaoPenalidade decomposicao) {
+        Buffer buffer = buffer();
+        if (buffer != null) {
+            buffer.registrarDecomposicao(decomposicao);
+        }
+    }
+
+    private static Buffer buffer() {
+        Configuracao atual = configuracao;
+        if (atual == null) {
+            return null;
+        }
+        Buffer buffer = BUFFER_THREAD.get();
+        if (buffer == null || buffer.capacidade != atual.capacidadePorThread() || !BUFFERS.contains(buffer)) {
+            buffer = new Buffer(atual.capacidadePorThread());
+            BUFFER_THREAD.set(buffer);
+            BUFFERS.add(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Buffer circular de uma thread. As amostras ficam em arrays primitivos para não alocar por avaliação.
+     */
+    private static final class Buffer {
+        private final int capacidade;
+        private final DecomposicaoPenalidade[] decomposicoes;
+        private long totalDecomposicoes;
+        private final long[] idsAmostra;
+        private final int[] avaliacoesAmostra;
+        private final double[] valoresAmostra;
+        private long totalAmostras;
+
+        Buffer(int capacidade) {
+            this.capacidade = capacidade;
+            this.decomposicoes = new DecomposicaoPenalidade[capacidade];
+            this.idsAmostra = new long[capacidade];
+            this.avaliacoesAmostra = new int[capacidade];
+            this.valoresAmostra = new double[capacidade];
+        }
+
+        synchronized void registrarDecomposicao(DecomposicaoPenalidade decomposicao) {
+            decomposicoes[(int) (totalDecomposicoes++ % capacidade)] = decomposicao;
+        }
+
+        synchronized void registrarAmostra(long idOtimizacao, int avaliacao, double penalidade) {
+            int posicao = (int) (totalAmostras++ % capacidade);
+            idsAmostra[posicao] = idOtimizacao;
+            avaliacoesAmostra[posicao] = avaliacao;
+            valoresAmostra[posicao] = penalidade;
+        }
+
+        synchronized void copiarDecomposicoes(List<DecomposicaoPenalidade> destino) {
+            long inicio = Math.max(0, totalDecomposicoes - capacidade);
+            for (long i = inicio; i < totalDecomposicoes; i++) {
+                destino.add(decomposicoes[(int) (i % capacidade)]);
+            }
+        }
+
+        synchronized void copiarAmostras(List<AmostraTrajetoria> destino) {
+            long inicio = Math.max(0, totalAmostras - capacidade);
+            for (long i = inicio; i < totalAmostras; i++) {
+                int posicao = (int) (i % capacidade);
+                destino.add(new AmostraTrajetoria(idsAmostra[posicao], avaliacoesAmostra[posicao], valoresAmostra[posicao]));
+            }
+        }
+    }
+}
@@ -1,17 +1,9 @@
 package org.com.pangolin.redistribuicao;
 
-import java.math.BigDecimal;
 import java.math.MathContext;
-import java.math.RoundingMode;
-import java.util.Arrays;
-
-import org.apache.commons.math3.analysis.MultivariateFunction;
-import org.apache.commons.math3.optim.*;
-import org.apache.commons.math3.optim.linear.NonNegativeConstraint;
-import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
-import org.apache.commons.math3.optim.nonlinear.scalar.ObjectiveFunction;
-import org.apache.commons.math3.optim.nonlinear.scalar.noderiv.NelderMeadSimplex;
-import org.apache.commons.math3.optim.nonlinear.scalar.noderiv.SimplexOptimizer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -22,6 +14,20 @@ import org.apache.commons.math3.optim.nonlinear.scalar.noderiv.SimplexOptimizer;
  * Suporta diferentes sistemas de amortização, como PRICE, SAC e SFF, utilizando otimização numérica
  * para garantir que as restrições financeiras sejam respeitadas.
  * </p>
+ * <p>
+ * O modo aritmético é escolhido por {@link ConfiguracaoPrecisao}: {@link ModoPrecisao#RAPIDO} trabalha em
+ * {@code double} e arredonda para centavos apenas na saída; {@link ModoPrecisao#EXATO} (padrão) usa
+ * {@code BigDecimal} com o {@link MathContext} configurado. Em ambos os casos o resultado informa o maior
+ * desvio de arredondamento introduzido.
+ * </p>
+ * <p>
+ * A otimização é delegada a um {@link MotorOtimizacao} compartilhado por configuração de precisão, que
+ * reaproveita otimizador, simplex e buffers entre chamadas. Só as configurações predefinidas (modo rápido e
+ * modo exato com o contexto padrão, {@code DECIMAL32}, {@code DECIMAL64} ou {@code DECIMAL128}) têm motor
+ * compartilhado; outros {@link MathContext} recebem um motor próprio por instância, para que contextos
+ * arbitrários não acumulem motores. Esta classe mantém apenas os parâmetros e pode ser criada por requisição
+ * sem custo relevante; serviços podem usar o motor diretamente.
+ * </p>
  *
  * <h2>Exemplo de uso geral</h2>
  * <pre>
@@ -58,22 +64,47 @@ import org.apache.commons.math3.optim.nonlinear.scalar.noderiv.SimplexOptimizer;
  */
 public class RedistribuicaoFinanciamento {
 
-    private static final MathContext MC = new MathContext(15, RoundingMode.HALF_EVEN);
+    // Um motor por configuração predefinida; os motores são seguros para uso concorrente
+    private static final Set<ConfiguracaoPrecisao> PREDEFINIDAS = Set.of(
+            ConfiguracaoPrecisao.rapido(),
+            ConfiguracaoPrecisao.exato(),
+            ConfiguracaoPrecisao.exato(MathContext.DECIMAL32),
+            ConfiguracaoPrecisao.exato(MathContext.DECIMAL64),
+            ConfiguracaoPrecisao.exato(MathContext.DECIMAL128));
+    private static final Map<ConfiguracaoPrecisao, MotorOtimizacao> MOTORES = new ConcurrentHashMap<>();
 
     private final ParametrosRedistribuicao parametros;
+    private final MotorOtimizacao motor;
 
     public RedistribuicaoFinanciamento(ParametrosRedistribuicao parametros) {
+        this(parametros, ConfiguracaoPrecisao.padrao());
+    }
+
+    /**
+     * Cria o motor com o modo de precisão informado.
+     *
+     * <b>Exemplo de uso:</b>
+     * <pre>
+     *     ResultadoRedistribuicao cotacao = new RedistribuicaoFinanciamento(parametros, ConfiguracaoPrecisao.rapido()).redistribuir();
+     *     cotacao.desvioMaximoArredondamento(); // maior ajuste aplicado ao converter para centavos
+     * </pre>
+     *
+     * @param parametros Parâmetros da redistribuição.
+     * @param precisao   Modo aritmético e {@link MathContext} do modo exato.
+     */
+    public RedistribuicaoFinanciamento(ParametrosRedistribuicao parametros, ConfiguracaoPrecisao precisao) {
         this.parametros = parametros;
-        validarDados();
+        MotorOtimizacao.validar(parametros);
+        this.motor = motor(precisao);
     }
 
-    private void validarDados() {
-        BigDecimal totalEsperado = parametros.saldoPrincipal().add(parametros.saldoJuros());
-        if (parametros.saldoDevedorParcelas().compareTo(totalEsperado) != 0) {
-            throw new IllegalArgumentException(
-                    String.format("Soma das parcelas (%s) deve igualar saldoPrincipal + saldoJuros (%s)",
-                            parametros.saldoDevedorParcelas(), totalEsperado));
+    private static MotorOtimizacao motor(ConfiguracaoPrecisao precisao) {
+        // O modo rápido ignora o MathContext: qualquer contexto usa o motor rápido compartilhado
+        ConfiguracaoPrecisao chave = precisao.modo() == ModoPrecisao.RAPIDO ? ConfiguracaoPrecisao.rapido() : precisao;
+        if (PREDEFINIDAS.contains(chave)) {
+            return MOTORES.computeIfAbsent(chave, p -> MotorOtimizacao.builder().precisao(p).build());
         }
+        return MotorOtimizacao.builder().precisao(chave).build();
     }
 
     /**
@@ -107,336 +138,7 @@ public class RedistribuicaoFinanciamento {
      * @return ResultadoRedistribuicao contendo os arrays de principais e juros redistribuídos.
      */
     public ResultadoRedistribuicao redistribuir() {
-        return switch (parametros.sistemaAmortizacao()) {
-            case SAC -> redistribuirComSAC();
-            case PRICE, SFF -> redistribuirComPrincipalConstante();
-            // Adicione outros casos se necessário
-        };
-
-    }
-
-    private ResultadoRedistribuicao redistribuirComPrincipalConstante() {
-        return rodarOtimizacao(this::funcaoObjetivo);
-    }
-
-    private ResultadoRedistribuicao redistribuirComPrincipalVariavel() {
-        return rodarOtimizacao(this::funcaoObjetivoPrincipalVariavel);
-    }
-
-    // Para SAC, use:
-    private ResultadoRedistribuicao redistribuirComSAC() {
-        return rodarOtimizacao(this::funcaoObjetivoSAC);
-    }
-
-    /**
-     * Executa a otimização para redistribuição dos principais e juros das parcelas.
-     * <p>
-     * Utiliza o algoritmo Nelder-Mead para encontrar a melhor distribuição dos principais,
-     * de acordo com a função objetivo fornecida, respeitando as restrições do problema.
-     * </p>
-     *
-     * <b>Exemplo de uso:</b>
-     * <pre>
-     *     ParametrosRedistribuicao parametros = ...;
-     *     RedistribuicaoFinanciamento r = new RedistribuicaoFinanciamento(parametros);
-     *     ResultadoRedistribuicao resultado = r.rodarOtimizacao(r::funcaoObjetivo);
-     *     BigDecimal[] principals = resultado.getPrincipals();
-     *     BigDecimal[] juros = resultado.getJuros();
-     * </pre>
-     *
-     * <b>Exemplo prático:</b>
-     * <pre>
-     *     // Suponha saldoPrincipal = 3000, saldoJuros = 600, quantidadeParcelas = 3, valorParcela = 1200
-     *     // A função objetivo pode ser r::funcaoObjetivo, r::funcaoObjetivoSAC, etc.
-     *     ParametrosRedistribuicao parametros = ParametrosRedistribuicao.builder()
-     *         .saldoPrincipal(new BigDecimal("3000"))
-     *         .saldoJuros(new BigDecimal("600"))
-     *         .quantidadeParcelas(3)
-     *         .valorParcela(new BigDecimal("1200"))
-     *         .build();
-     *     RedistribuicaoFinanciamento r = new RedistribuicaoFinanciamento(parametros);
-     *     ResultadoRedistribuicao resultado = r.rodarOtimizacao(r::funcaoObjetivo);
-     *     // resultado.getPrincipals() e resultado.getJuros() terão os valores otimizados
-     * </pre>
-     *
-     * @param funcaoObjetivo Função objetivo a ser minimizada durante a otimização.
-     * @return ResultadoRedistribuicao contendo os arrays de principais e juros otimizados.
-     */
-
-    private ResultadoRedistribuicao rodarOtimizacao(MultivariateFunction funcaoObjetivo) {
-        int n = parametros.quantidadeParcelas();
-        BigDecimal valorParcela = parametros.valorParcela();
-
-        ConvergenceChecker<PointValuePair> checker = new SimpleValueChecker(1e-12, 1e-12);
-        SimplexOptimizer optimizer = new SimplexOptimizer(checker);
-        NelderMeadSimplex simplex = new NelderMeadSimplex(n);
-
-        ObjectiveFunction objective = new ObjectiveFunction(funcaoObjetivo);
-
-        PointValuePair solution = optimizer.optimize(
-                new MaxEval(100000),
-                objective,
-                GoalType.MINIMIZE,
-                simplex,
-                new InitialGuess(gerarChuteInicial()),
-                new NonNegativeConstraint(true)
-        );
-
-        double[] principalsDouble = solution.getPoint();
-        BigDecimal[] principals = new BigDecimal[n];
-        BigDecimal[] juros = new BigDecimal[n];
-
-        for (int i = 0; i < n; i++) {
-            principals[i] = new BigDecimal(principalsDouble[i], MC).setScale(2, RoundingMode.HALF_EVEN);
-            juros[i] = valorParcela.subtract(principals[i]).setScale(2, RoundingMode.HALF_EVEN);
-        }
-
-        // Ajuste final para garantir que as somas batam exatamente
-        ajustarUltimaParcela(principals, juros, parametros.saldoPrincipal(), parametros.saldoJuros(), valorParcela);
-
-        return  ResultadoRedistribuicao.builder()
-                .principal(principals)
-                .juros(juros)
-                .parcela(valorParcela)
-                .saldoPrincipal(parametros.saldoPrincipal())
-                .saldoJuros(parametros.saldoJuros())
-                .build();
-
-    }
-
-
-    /**
-     * Gera um chute inicial para o vetor de principais a ser usado na otimização.
-     * <p>
-     * O chute inicial consiste em dividir o saldo principal igualmente entre todas as parcelas,
-     * servindo como ponto de partida para o algoritmo de otimização.
-     * </p>
-     *
-     * <b>Exemplo de uso:</b>
-     * <pre>
-     *     ParametrosRedistribuicao parametros = ...;
-     *     RedistribuicaoFinanciamento r = new RedistribuicaoFinanciamento(parametros);
-     *     double[] chute = r.gerarChuteInicial();
-     *     // chute terá tamanho igual à quantidade de parcelas, cada valor igual a saldoPrincipal/n
-     * </pre>
-     *
-     * <b>Exemplo prático:</b>
-     * <pre>
-     *     // Suponha saldoPrincipal = 3000, quantidadeParcelas = 3
-     *     // O chute inicial será [1000.0, 1000.0, 1000.0]
-     * </pre>
-     *
-     * @return Vetor double[] com valores iniciais para os principais de cada parcela.
-     */
-    private double[] gerarChuteInicial() {
-        int n = parametros.quantidadeParcelas();
-        double[] chute = new double[n];
-        // Inicializa com principal igual ao saldoPrincipal/n
-        BigDecimal principalBase = parametros.saldoPrincipal().divide(BigDecimal.valueOf(n), MC);
-        for (int i = 0; i < n; i++) {
-            chute[i] = principalBase.doubleValue();
-        }
-        return chute;
-    }
-
-    /**
-     * Função objetivo para otimização do sistema PRICE.
-     * Penaliza desvios nas somas, principais negativos, juros negativos,
-     * e garante que os juros sejam decrescentes e o principal crescente.
-     *
-     * Exemplo de uso:
-     * <pre>
-     *     ParametrosRedistribuicao parametros = ...;
-     *     RedistribuicaoFinanciamento r = new RedistribuicaoFinanciamento(parametros);
-     *     double[] principals = {900.0, 950.0, 1000.0};
-     *     double penalidade = r.funcaoObjetivo(principals);
-     *     // penalidade será 0 se os principais estiverem corretos para o sistema PRICE
-     * </pre>
-     *
-     * @param principals Array de valores de principal para cada parcela.
-     * @return Valor da penalidade calculada para o vetor de principais fornecido.
-     */
-    private double funcaoObjetivo(double[] principals) {
-        int n = parametros.quantidadeParcelas();
-        BigDecimal[] principalBD = new BigDecimal[n];
-        BigDecimal[] jurosBD = new BigDecimal[n];
-        BigDecimal valorParcela = parametros.valorParcela();
-
-        for (int i = 0; i < n; i++) {
-            principalBD[i] = new BigDecimal(principals[i], MC);
-            jurosBD[i] = valorParcela.subtract(principalBD[i],MC);
-        }
-
-        BigDecimal somaPrincipals = Arrays.stream(principalBD).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal somaJuros = Arrays.stream(jurosBD).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        double penalidade = 0;
-
-        // Restrições de soma
-        penalidade += 1e12 * Math.pow(somaPrincipals.subtract(parametros.saldoPrincipal()).doubleValue(), 2);
-        penalidade += 1e12 * Math.pow(somaJuros.subtract(parametros.saldoJuros()).doubleValue(), 2);
-
-        // Não-negatividade
-        for (int i = 0; i < n; i++) {
-            if (principalBD[i].compareTo(BigDecimal.ZERO) < 0)
-                penalidade += 1e12 * Math.pow(principalBD[i].doubleValue(), 2);
-            if (jurosBD[i].compareTo(BigDecimal.ZERO) < 0)
-                penalidade += 1e12 * Math.pow(jurosBD[i].doubleValue(), 2);
-        }
-
-        // Price: juros decrescentes, principal crescente
-        for (int i = 1; i < n; i++) {
-            if (jurosBD[i].compareTo(jurosBD[i-1]) <= 0)
-                penalidade += 1e8 * Math.pow(jurosBD[i].subtract(jurosBD[i-1]).doubleValue(), 2);
-            if (principalBD[i].compareTo(principalBD[i-1]) >= 0)
-                penalidade += 1e8 * Math.pow(principalBD[i-1].subtract(principalBD[i]).doubleValue(), 2);
-        }
-
-        return penalidade;
-    }
-
-    /**
-     * Função objetivo para otimização do sistema de principal variável.
-     * Penaliza desvios nas somas, principais negativos, juros negativos,
-     * principais não crescentes e principais muito iguais (opcional).
-     *
-     * Exemplo de uso:
-     * <pre>
-     *     ParametrosRedistribuicao parametros = ...;
-     *     RedistribuicaoFinanciamento r = new RedistribuicaoFinanciamento(parametros);
-     *     double[] principals = {1000.0, 1100.0, 1200.0};
-     *     double penalidade = r.funcaoObjetivoPrincipalVariavel(principals);
-     *     // penalidade será 0 se os principais estiverem corretos para o sistema desejado
-     * </pre>
-     *
-     * @param principals Array de valores de principal para cada parcela.
-     * @return Valor da penalidade calculada para o vetor de principais fornecido.
-     */
-    private double funcaoObjetivoPrincipalVariavel(double[] principals) {
-        int n = parametros.quantidadeParcelas();
-        BigDecimal[] principalBD = new BigDecimal[n];
-        BigDecimal[] jurosBD = new BigDecimal[n];
-        BigDecimal valorParcela = parametros.valorParcela();
-
-        for (int i = 0; i < n; i++) {
-            principalBD[i] = new BigDecimal(principals[i], MC);
-            jurosBD[i] = valorParcela.subtract(principalBD[i]);
-        }
-        BigDecimal somaPrincipals = Arrays.stream(principalBD).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal somaJuros = Arrays.stream(jurosBD).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        double penalidade = 0;
-
-        // Restrições de soma
-        penalidade += 1e12 * Math.pow(somaPrincipals.subtract(parametros.saldoPrincipal()).doubleValue(), 2);
-        penalidade += 1e12 * Math.pow(somaJuros.subtract(parametros.saldoJuros()).doubleValue(), 2);
-
-        // Penalidade para todos os principais iguais (opcional)
-        BigDecimal media = somaPrincipals.divide(BigDecimal.valueOf(n), MC);
-        for (int i = 0; i < n; i++) {
-            penalidade += 1e4 * Math.pow(principalBD[i].subtract(media).doubleValue(), 2);
-        }
-
-        // Para principal crescente:
-        for (int i = 1; i < n; i++) {
-            if (principalBD[i].compareTo(principalBD[i-1]) < 0)
-                penalidade += 1e8 * Math.pow(principalBD[i-1].subtract(principalBD[i]).doubleValue(), 2);
-        }
-
-        // Não-negatividade
-        for (int i = 0; i < n; i++) {
-            if (principalBD[i].compareTo(BigDecimal.ZERO) < 0)
-                penalidade += 1e12 * Math.pow(principalBD[i].doubleValue(), 2);
-            if (jurosBD[i].compareTo(BigDecimal.ZERO) < 0)
-                penalidade += 1e12 * Math.pow(jurosBD[i].doubleValue(), 2);
-        }
-
-        // Não há penalidade de monotonicidade para principal variável
-
-        return penalidade;
-    }
-
-    /**
-     * Função objetivo para otimização do sistema SAC (Sistema de Amortização Constante).
-     * Penaliza desvios em relação ao principal constante, juros negativos, principais negativos,
-     * e diferenças entre a soma principal+juros e o valor da parcela.
-     *
-     * Exemplo de uso:
-     * <pre>
-     *     ParametrosRedistribuicao parametros = ...;
-     *     RedistribuicaoFinanciamento r = new RedistribuicaoFinanciamento(parametros);
-     *     double[] principals = {1000.0, 1000.0, 1000.0};
-     *     double penalidade = r.funcaoObjetivoSAC(principals);
-     *     // penalidade será 0 se os principais estiverem corretos para SAC
-     * </pre>
-     *
-     * @param principals Array de valores de principal para cada parcela.
-     * @return Valor da penalidade calculada para o vetor de principais fornecido.
-     */
-    private double funcaoObjetivoSAC(double[] principals) {
-        int n = parametros.quantidadeParcelas();
-        BigDecimal[] principalBD = new BigDecimal[n];
-        BigDecimal[] jurosBD = new BigDecimal[n];
-        BigDecimal valorParcela = parametros.valorParcela();
-        BigDecimal saldoPrincipal = parametros.saldoPrincipal();
-        BigDecimal taxa = parametros.taxaJuros();
-
-        // Principal SAC esperado
-        BigDecimal principalSAC = saldoPrincipal.divide(BigDecimal.valueOf(n), MC);
-
-        // Calcula juros SAC para cada parcela
-        BigDecimal saldoDevedor = saldoPrincipal;
-        double penalidade = 0;
-
-        for (int i = 0; i < n; i++) {
-            principalBD[i] = new BigDecimal(principals[i], MC);
-            // Juros SAC: saldo devedor * taxa
-            jurosBD[i] = saldoDevedor.multiply(taxa, MC);
-            saldoDevedor = saldoDevedor.subtract(principalSAC, MC);
-
-            // Penalidade para principal diferente do SAC
-            penalidade += 1e10 * Math.pow(principalBD[i].subtract(principalSAC).doubleValue(), 2);
-
-            // Penalidade para principal negativo
-            if (principalBD[i].compareTo(BigDecimal.ZERO) < 0)
-                penalidade += 1e12 * Math.pow(principalBD[i].doubleValue(), 2);
-
-            // Penalidade para juros negativo
-            if (jurosBD[i].compareTo(BigDecimal.ZERO) < 0)
-                penalidade += 1e12 * Math.pow(jurosBD[i].doubleValue(), 2);
-
-            // Penalidade para principal + juros diferente da parcela
-            penalidade += 1e8 * Math.pow(principalBD[i].add(jurosBD[i]).subtract(valorParcela).doubleValue(), 2);
-        }
-
-        // Penalidade para soma dos principais diferente do saldo principal
-        BigDecimal somaPrincipals = Arrays.stream(principalBD).reduce(BigDecimal.ZERO, BigDecimal::add);
-        penalidade += 1e12 * Math.pow(somaPrincipals.subtract(saldoPrincipal).doubleValue(), 2);
-
-        return penalidade;
-    }
-
-    /**
-     * Adjusts the last installment to ensure that the sum of principals and interest matches the expected balances.
-     * This is necessary due to possible rounding errors during the optimization process.
-     *
-     * @param principals      Array of principal values for each installment.
-     * @param juros           Array of interest values for each installment.
-     * @param saldoPrincipal  Total expected principal balance.
-     * @param saldoJuros      Total expected interest balance.
-     * @param valorParcela    Value of each installment.
-     */
-    private void ajustarUltimaParcela(BigDecimal[] principals, BigDecimal[] juros, BigDecimal saldoPrincipal, BigDecimal saldoJuros, BigDecimal valorParcela) {
-        int n = principals.length;
-        // Ajusta o último principal para garantir soma exata
-        BigDecimal somaPrincipals = Arrays.stream(principals).limit(n-1).reduce(BigDecimal.ZERO, BigDecimal::add);
-        principals[n-1] = saldoPrincipal.subtract(somaPrincipals).setScale(2, RoundingMode.HALF_EVEN);
-        juros[n-1] = valorParcela.subtract(principals[n-1]).setScale(2, RoundingMode.HALF_EVEN);
-
-        // Ajusta o último juros para garantir soma exata
-        BigDecimal somaJuros = Arrays.stream(juros).limit(n-1).reduce(BigDecimal.ZERO, BigDecimal::add);
-        juros[n-1] = saldoJuros.subtract(somaJuros).setScale(2, RoundingMode.HALF_EVEN);
-        //principals[n-1] = valorParcela.subtract(juros[n-1]).setScale(2, RoundingMode.HALF_EVEN);*/
+        return motor.redistribuir(parametros);
     }
    /*    public static class ResultadoRedistribuicao {
         private final BigDecimal[] principals;
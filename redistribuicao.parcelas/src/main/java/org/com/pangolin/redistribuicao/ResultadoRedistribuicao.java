@@ -3,11 +3,32 @@ package org.com.pangolin.redistribuicao;
 import java.math.BigDecimal;
 import java.util.Arrays;
 
+/**
+ * Resultado de uma redistribuição.
+ *
+ * @param principal                  Principal de cada parcela, em centavos.
+ * @param juros                      Juros de cada parcela, em centavos.
+ * @param desvioMaximoArredondamento Maior diferença absoluta entre os valores contínuos produzidos pelo
+ *                                   otimizador e os valores em centavos devolvidos, incluindo o ajuste
+ *                                   da última parcela.
+ */
 public record ResultadoRedistribuicao(
         BigDecimal[] principal,
-        BigDecimal[] juros
+        BigDecimal[] juros,
+        BigDecimal desvioMaximoArredondamento
         ) {
 
+        public ResultadoRedistribuicao(BigDecimal[] principal, BigDecimal[] juros) {
+                this(principal, juros, BigDecimal.ZERO);
+        }
+
+        /**
+         * @return Cópia com arrays independentes, que podem ser alterados sem afetar este resultado.
+         */
+        public ResultadoRedistribuicao copia() {
+                return new ResultadoRedistribuicao(principal.clone(), juros.clone(), desvioMaximoArredondamento);
+        }
+
         public  static Builder builder() {
                 return new Builder();
         }
@@ -18,6 +39,7 @@ public record ResultadoRedistribuicao(
                 private BigDecimal parcela;
                 private BigDecimal saldoPrincipal;
                 private BigDecimal saldoJuros;
+                private BigDecimal desvioMaximoArredondamento = BigDecimal.ZERO;
 
                 public  Builder principal(BigDecimal[] principal) {
                         this.principal = principal;
@@ -41,9 +63,14 @@ public record ResultadoRedistribuicao(
                         return this;
                 }
 
+                public Builder desvioMaximoArredondamento(BigDecimal desvioMaximoArredondamento) {
+                        this.desvioMaximoArredondamento = desvioMaximoArredondamento;
+                        return this;
+                }
+
                 public ResultadoRedistribuicao build() {
                         validate();
-                        return new ResultadoRedistribuicao(principal, juros);
+                        return new ResultadoRedistribuicao(principal, juros, desvioMaximoArredondamento);
                 }
                 private void validate() {
                         if (principal == null || juros == null) {
@@ -58,6 +85,9 @@ public record ResultadoRedistribuicao(
                         if (saldoPrincipal == null || saldoJuros == null) {
                                 throw new IllegalArgumentException("Saldo principal and saldo juros must not be null");
                         }
+                        if (desvioMaximoArredondamento == null) {
+                                throw new IllegalArgumentException("Desvio maximo de arredondamento must not be null");
+                        }
                         if (principal.length == 0) {
                                 throw new IllegalArgumentException("Principal and juros arrays must not be empty");
                         }
@@ -0,0 +1,23 @@
+package org.com.pangolin.redistribuicao;
+
+/**
+ * Termos que compõem as funções objetivo do otimizador, usados na decomposição da penalidade.
+ */
+public enum TermoPenalidade {
+    /** Soma dos principais diferente de {@code saldoPrincipal}. */
+    SOMA_PRINCIPAL,
+    /** Soma dos juros diferente de {@code saldoJuros}. */
+    SOMA_JUROS,
+    /** Principais ou juros negativos. */
+    NAO_NEGATIVIDADE,
+    /** Monotonicidade de juros e principal do sistema PRICE em {@code funcaoObjetivo}. */
+    MONOTONICIDADE_PRICE,
+    /** Principal decrescente em {@code funcaoObjetivoPrincipalVariavel}. */
+    PRINCIPAL_CRESCENTE,
+    /** Distância de cada principal à média em {@code funcaoObjetivoPrincipalVariavel}. */
+    PRINCIPAL_MEDIA,
+    /** Principal diferente do principal constante SAC. */
+    PRINCIPAL_SAC,
+    /** Principal + juros SAC diferente do valor da parcela. */
+    PARCELA_SAC
+}
@@ -0,0 +1,290 @@
+package org.com.pangolin.redistribuicao.aquecimento;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.com.pangolin.redistribuicao.ConfiguracaoPrecisao;
+import org.com.pangolin.redistribuicao.MotorOtimizacao;
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrizacaoPrincipal;
+import org.com.pangolin.redistribuicao.ParametrosFinanciamento;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.carga.ContratoSintetico;
+import org.com.pangolin.redistribuicao.carga.GeradorCarteira;
+import org.com.pangolin.redistribuicao.cronograma.CronogramaFechado;
+import org.com.pangolin.redistribuicao.cronograma.TabelaFatoresAnuidade;
+
+/**
+ * Aquecimento do motor na subida do processo, com sinal de prontidão para o balanceador de carga.
+ * <p>
+ * Primeiro pré-carrega as tabelas de fatores de anuidade das taxas configuradas. Depois executa rodadas sobre
+ * um conjunto representativo de contratos (por padrão uma carteira sintética de {@link GeradorCarteira}),
+ * passando cada contrato por todos os motores configurados e pelo cronograma fechado PRICE ou SAC, de modo que
+ * os caminhos {@code BigDecimal}, do otimizador e das funções objetivo sejam compilados antes do tráfego real.
+ * Ao fim de cada rodada, o p99 do primeiro motor (o que atende o tráfego) é comparado com a latência alvo; o
+ * processo fica pronto quando o alvo é atingido. Esgotadas as rodadas ou o tempo máximo sem atingir o alvo,
+ * o processo é liberado assim mesmo, com {@link RelatorioAquecimento#metaAtingida()} falso, para que um nó
+ * lento não fique fora do balanceamento indefinidamente.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     AquecimentoMotor aquecimento = AquecimentoMotor.builder()
+ *         .motor(motorDoServico)
+ *         .preCarregar(taxasDoCatalogo, 420)
+ *         .latenciaAlvo(Duration.ofMillis(40))
+ *         .build();
+ *     aquecimento.aoFicarPronto(relatorio -&gt; healthCheck.marcarPronto());
+ *     aquecimento.iniciar(); // em segundo plano
+ * </pre>
+ */
+public final class AquecimentoMotor {
+
+    private final List<MotorRedistribuicao> motores;
+    private final List<ParametrosRedistribuicao> contratos;
+    // Taxas distintas: o relatório conta o que este aquecimento carregou, não o tamanho do cache global
+    private final double[] taxas;
+    private final int prazoTabelas;
+    private final long latenciaAlvoNanos;
+    private final int maximoRodadas;
+    private final long tempoMaximoNanos;
+
+    private final AtomicBoolean executado = new AtomicBoolean();
+    private final List<Consumer<RelatorioAquecimento>> ouvintes = new ArrayList<>();
+    private volatile RelatorioAquecimento relatorio;
+
+    private AquecimentoMotor(Builder builder) {
+        this.motores = List.copyOf(builder.motores);
+        this.contratos = List.copyOf(builder.contratos);
+        this.taxas = builder.taxas.stream().mapToDouble(BigDecimal::doubleValue).distinct().toArray();
+        this.prazoTabelas = builder.prazoTabelas;
+        this.latenciaAlvoNanos = builder.latenciaAlvo.toNanos();
+        this.maximoRodadas = builder.maximoRodadas;
+        this.tempoMaximoNanos = builder.tempoMaximo.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return Se o aquecimento terminou e o processo pode receber tráfego.
+     */
+    public boolean pronto() {
+        return relatorio != null;
+    }
+
+    /**
+     * @return Relatório do aquecimento, ou {@code null} se ainda não terminou.
+     */
+    public RelatorioAquecimento relatorio() {
+        return relatorio;
+    }
+
+    /**
+     * Registra uma ação a executar quando o processo ficar pronto. Se já estiver pronto, a ação executa
+     * imediatamente na thread chamadora.
+     */
+    public void aoFicarPronto(Consumer<RelatorioAquecimento> ouvinte) {
+        Objects.requireNonNull(ouvinte, "ouvinte");
+        synchronized (ouvintes) {
+            if (relatorio == null) {
+                ouvintes.add(ouvinte);
+                return;
+            }
+        }
+        ouvinte.accept(relatorio);
+    }
+
+    /**
+     * Executa o aquecimento em uma thread de segundo plano.
+     */
+    public CompletableFuture<RelatorioAquecimento> iniciar() {
+        CompletableFuture<RelatorioAquecimento> futuro = new CompletableFuture<>();
+        Thread.ofPlatform().name("aquecimento-motor").daemon(true).start(() -> {
+            try {
+                futuro.complete(executar());
+            } catch (Throwable e) {
+                futuro.completeExceptionally(e);
+            }
+        });
+        return futuro;
+    }
+
+    /**
+     * Executa o aquecimento na thread chamadora e notifica os ouvintes ao final.
+     *
+     * @throws IllegalStateException se o aquecimento já foi executado ou está em execução.
+     */
+    public RelatorioAquecimento executar() {
+        if (!executado.compareAndSet(false, true)) {
+            throw new IllegalStateException("Aquecimento já executado");
+        }
+        long inicio = System.nanoTime();
+        for (double taxa : taxas) {
+            TabelaFatoresAnuidade.para(taxa, prazoTabelas);
+        }
+
+        long[] latencias = new long[contratos.size()];
+        long chamadas = 0;
+        long falhas = 0;
+        long p99 = Long.MAX_VALUE;
+        int rodadas = 0;
+        boolean metaAtingida = false;
+        while (rodadas < maximoRodadas && System.nanoTime() - inicio < tempoMaximoNanos) {
+            rodadas++;
+            for (int c = 0; c < contratos.size(); c++) {
+                ParametrosRedistribuicao parametros = contratos.get(c);
+                for (int m = 0; m < motores.size(); m++) {
+                    long antes = System.nanoTime();
+                    try {
+                        motores.get(m).redistribuir(parametros);
+                    } catch (RuntimeException e) {
+                        falhas++;
+                    }
+                    if (m == 0) {
+                        latencias[c] = System.nanoTime() - antes;
+                    }
+                    chamadas++;
+                }
+                exercitarCronogramaFechado(parametros);
+            }
+            p99 = percentil99(latencias);
+            if (p99 <= latenciaAlvoNanos) {
+                metaAtingida = true;
+                break;
+            }
+        }
+
+        RelatorioAquecimento concluido = new RelatorioAquecimento(rodadas, chamadas, falhas, p99, metaAtingida,
+                System.nanoTime() - inicio, taxas.length);
+        List<Consumer<RelatorioAquecimento>> notificar;
+        synchronized (ouvintes) {
+            relatorio = concluido;
+            notificar = new ArrayList<>(ouvintes);
+            ouvintes.clear();
+        }
+        notificar.forEach(ouvinte -> ouvinte.accept(concluido));
+        return concluido;
+    }
+
+    private static void exercitarCronogramaFechado(ParametrosRedistribuicao parametros) {
+        if (parametros.saldoPrincipal() == null || parametros.saldoPrincipal().signum() <= 0
+                || parametros.taxaJuros() == null || parametros.quantidadeParcelas() <= 0) {
+            return;
+        }
+        ParametrosFinanciamento financiamento = new ParametrosFinanciamento(
+                parametros.saldoPrincipal(), parametros.taxaJuros(), parametros.quantidadeParcelas());
+        try {
+            (parametros.sistemaAmortizacao() == RedistribuicaoSistemaAmortizacao.SAC
+                    ? CronogramaFechado.sac(financiamento)
+                    : CronogramaFechado.price(financiamento)).materializar();
+        } catch (RuntimeException e) {
+            // Entradas que o cronograma fechado recusa não impedem o aquecimento
+        }
+    }
+
+    private static long percentil99(long[] latencias) {
+        if (latencias.length == 0) {
+            return 0;
+        }
+        long[] ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        return ordenadas[(int) Math.ceil(0.99 * ordenadas.length) - 1];
+    }
+
+    /**
+     * Builder class for AquecimentoMotor.
+     */
+    public static class Builder {
+        private final List<MotorRedistribuicao> motores = new ArrayList<>();
+        private List<ParametrosRedistribuicao> contratos;
+        private final List<BigDecimal> taxas = new ArrayList<>();
+        private int prazoTabelas = 420;
+        private Duration latenciaAlvo = Duration.ofMillis(50);
+        private int maximoRodadas = 20;
+        private Duration tempoMaximo = Duration.ofMinutes(2);
+
+        /**
+         * Acrescenta um motor a aquecer. O primeiro é o motor medido contra a latência alvo. Padrão: o motor
+         * padrão, seguido do modo rápido e da parametrização em curva.
+         */
+        public Builder motor(MotorRedistribuicao motor) {
+            this.motores.add(Objects.requireNonNull(motor, "motor"));
+            return this;
+        }
+
+        /**
+         * Conjunto de aquecimento. Padrão: 100 contratos sintéticos de até 120 parcelas.
+         */
+        public Builder contratos(List<ParametrosRedistribuicao> contratos) {
+            this.contratos = contratos;
+            return this;
+        }
+
+        /**
+         * Taxas cujas tabelas de fatores de anuidade são pré-carregadas, até {@code prazoMaximo} parcelas.
+         */
+        public Builder preCarregar(List<BigDecimal> taxas, int prazoMaximo) {
+            this.taxas.addAll(taxas);
+            this.prazoTabelas = prazoMaximo;
+            return this;
+        }
+
+        /**
+         * p99 do primeiro motor a partir do qual o processo é considerado pronto. Padrão: 50 ms.
+         */
+        public Builder latenciaAlvo(Duration latenciaAlvo) {
+            this.latenciaAlvo = latenciaAlvo;
+            return this;
+        }
+
+        public Builder maximoRodadas(int maximoRodadas) {
+            this.maximoRodadas = maximoRodadas;
+            return this;
+        }
+
+        public Builder tempoMaximo(Duration tempoMaximo) {
+            this.tempoMaximo = tempoMaximo;
+            return this;
+        }
+
+        public AquecimentoMotor build() {
+            if (motores.isEmpty()) {
+                motores.add(MotorRedistribuicao.padrao());
+                motores.add(MotorOtimizacao.builder().precisao(ConfiguracaoPrecisao.rapido()).build());
+                motores.add(MotorOtimizacao.builder().parametrizacao(ParametrizacaoPrincipal.CURVA).build());
+            }
+            if (contratos == null) {
+                contratos = GeradorCarteira.builder().prazoMaximo(120).build().gerar(100).stream()
+                        .map(ContratoSintetico::parametros)
+                        .toList();
+            }
+            if (contratos.isEmpty()) {
+                throw new IllegalArgumentException("Conjunto de aquecimento não pode ser vazio");
+            }
+            Objects.requireNonNull(latenciaAlvo, "latenciaAlvo");
+            Objects.requireNonNull(tempoMaximo, "tempoMaximo");
+            if (maximoRodadas <= 0) {
+                throw new IllegalArgumentException("Máximo de rodadas deve ser positivo: " + maximoRodadas);
+            }
+            if (prazoTabelas < 0) {
+                throw new IllegalArgumentException("Prazo das tabelas não pode ser negativo: " + prazoTabelas);
+            }
+            for (BigDecimal taxa : taxas) {
+                if (taxa == null || taxa.signum() < 0) {
+                    throw new IllegalArgumentException("Taxa a pré-carregar inválida: " + taxa);
+                }
+            }
+            return new AquecimentoMotor(this);
+        }
+    }
+}
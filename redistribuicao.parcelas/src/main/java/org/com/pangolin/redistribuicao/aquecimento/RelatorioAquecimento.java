@@ -0,0 +1,23 @@
+package org.com.pangolin.redistribuicao.aquecimento;
+
+/**
+ * Resultado de um {@link AquecimentoMotor}.
+ *
+ * @param rodadas             Rodadas executadas sobre o conjunto de aquecimento.
+ * @param chamadas            Chamadas feitas a todos os motores, incluindo as que falharam.
+ * @param falhas              Chamadas que lançaram exceção.
+ * @param p99Nanos            p99 da latência do motor medido na última rodada.
+ * @param metaAtingida        Se o p99 da última rodada ficou dentro da latência alvo.
+ * @param duracaoNanos        Duração total do aquecimento.
+ * @param taxasPreCarregadas  Taxas distintas cuja tabela de fatores de anuidade este aquecimento pré-carregou,
+ *                            independentemente do que já estava no cache global.
+ */
+public record RelatorioAquecimento(
+        int rodadas,
+        long chamadas,
+        long falhas,
+        long p99Nanos,
+        boolean metaAtingida,
+        long duracaoNanos,
+        int taxasPreCarregadas) {
+}
@@ -0,0 +1,159 @@
+package org.com.pangolin.redistribuicao.calendario;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Calendário de dias úteis em um intervalo fixo de datas.
+ * <p>
+ * Cada dia do intervalo ocupa um bit (1 = dia útil) e, para cada palavra de 64 dias, guarda-se a quantidade
+ * de dias úteis anteriores a ela. A quantidade de dias úteis entre duas datas é então a diferença de duas
+ * posições, cada uma obtida com um acesso ao acumulado e um {@link Long#bitCount(long)}: custo constante,
+ * independentemente da distância entre as datas. Um intervalo de 100 anos ocupa menos de 6 KB.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     CalendarioDiasUteis calendario = CalendarioDiasUteis.builder(LocalDate.of(2020, 1, 1), LocalDate.of(2060, 12, 31))
+ *         .feriados(feriadosNacionais)
+ *         .build();
+ *     int du = calendario.diasUteis(LocalDate.of(2026, 1, 2), LocalDate.of(2026, 2, 2)); // [de, ate)
+ * </pre>
+ */
+public final class CalendarioDiasUteis {
+
+    private final long primeiroDia;
+    private final int quantidadeDias;
+    private final long[] bits;
+    // acumulado[w] = dias úteis nos dias anteriores à palavra w
+    private final int[] acumulado;
+
+    private CalendarioDiasUteis(long primeiroDia, int quantidadeDias, long[] bits) {
+        this.primeiroDia = primeiroDia;
+        this.quantidadeDias = quantidadeDias;
+        this.bits = bits;
+        this.acumulado = new int[bits.length + 1];
+        for (int w = 0; w < bits.length; w++) {
+            acumulado[w + 1] = acumulado[w] + Long.bitCount(bits[w]);
+        }
+    }
+
+    /**
+     * @param inicio Primeira data coberta pelo calendário.
+     * @param fim    Última data coberta pelo calendário.
+     */
+    public static Builder builder(LocalDate inicio, LocalDate fim) {
+        return new Builder(inicio, fim);
+    }
+
+    public LocalDate inicio() {
+        return LocalDate.ofEpochDay(primeiroDia);
+    }
+
+    public LocalDate fim() {
+        return LocalDate.ofEpochDay(primeiroDia + quantidadeDias - 1);
+    }
+
+    public boolean diaUtil(LocalDate data) {
+        int d = deslocamento(data, false);
+        return (bits[d >>> 6] & (1L << d)) != 0;
+    }
+
+    /**
+     * @return Quantidade de dias úteis no intervalo {@code [de, ate)}; negativa se {@code ate} for anterior a {@code de}.
+     */
+    public int diasUteis(LocalDate de, LocalDate ate) {
+        return posicao(ate) - posicao(de);
+    }
+
+    /**
+     * @return Quantidade de dias úteis entre o início do calendário (inclusive) e a data (exclusive). A data
+     * pode ser o dia seguinte ao fim do calendário.
+     */
+    public int posicao(LocalDate data) {
+        return posicao(deslocamento(data, true));
+    }
+
+    /**
+     * @return A própria data, se for dia útil, ou o primeiro dia útil posterior a ela.
+     * @throws IllegalArgumentException se não houver dia útil até o fim do calendário.
+     */
+    public LocalDate proximoDiaUtil(LocalDate data) {
+        int d = deslocamento(data, false);
+        int w = d >>> 6;
+        long palavra = bits[w] & (-1L << d);
+        while (palavra == 0) {
+            if (++w == bits.length) {
+                throw new IllegalArgumentException("Não há dia útil até o fim do calendário a partir de " + data);
+            }
+            palavra = bits[w];
+        }
+        return LocalDate.ofEpochDay(primeiroDia + ((long) w << 6) + Long.numberOfTrailingZeros(palavra));
+    }
+
+    private int posicao(int d) {
+        int w = d >>> 6;
+        int resto = d & 63;
+        if (resto == 0) {
+            return acumulado[w];
+        }
+        return acumulado[w] + Long.bitCount(bits[w] & ((1L << resto) - 1));
+    }
+
+    private int deslocamento(LocalDate data, boolean aceitaFimExclusivo) {
+        long d = data.toEpochDay() - primeiroDia;
+        int limite = aceitaFimExclusivo ? quantidadeDias : quantidadeDias - 1;
+        if (d < 0 || d > limite) {
+            throw new IllegalArgumentException(String.format(
+                    "Data %s fora do calendário [%s, %s]", data, inicio(), fim()));
+        }
+        return (int) d;
+    }
+
+    /**
+     * Builder class for CalendarioDiasUteis.
+     */
+    public static class Builder {
+        private final long primeiroDia;
+        private final int quantidadeDias;
+        private final long[] bits;
+
+        private Builder(LocalDate inicio, LocalDate fim) {
+            if (fim.isBefore(inicio)) {
+                throw new IllegalArgumentException("Fim do calendário anterior ao início: " + inicio + " > " + fim);
+            }
+            this.primeiroDia = inicio.toEpochDay();
+            this.quantidadeDias = Math.toIntExact(fim.toEpochDay() - primeiroDia + 1);
+            this.bits = new long[(quantidadeDias + 63) >>> 6];
+            // Segunda a sexta são úteis até que feriados sejam informados
+            LocalDate data = inicio;
+            for (int d = 0; d < quantidadeDias; d++, data = data.plusDays(1)) {
+                DayOfWeek dia = data.getDayOfWeek();
+                if (dia != DayOfWeek.SATURDAY && dia != DayOfWeek.SUNDAY) {
+                    bits[d >>> 6] |= 1L << d;
+                }
+            }
+        }
+
+        /**
+         * Marca a data como não útil. Datas fora do intervalo do calendário são ignoradas.
+         */
+        public Builder feriado(LocalDate data) {
+            long d = data.toEpochDay() - primeiroDia;
+            if (d >= 0 && d < quantidadeDias) {
+                bits[(int) (d >>> 6)] &= ~(1L << d);
+            }
+            return this;
+        }
+
+        public Builder feriados(Collection<LocalDate> datas) {
+            datas.forEach(this::feriado);
+            return this;
+        }
+
+        public CalendarioDiasUteis build() {
+            return new CalendarioDiasUteis(primeiroDia, quantidadeDias, bits.clone());
+        }
+    }
+}
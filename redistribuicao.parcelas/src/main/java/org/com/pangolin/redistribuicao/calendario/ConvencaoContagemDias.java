@@ -0,0 +1,28 @@
+package org.com.pangolin.redistribuicao.calendario;
+
+/**
+ * Convenção de contagem de dias para o cálculo de juros pró-rata a partir da taxa mensal.
+ */
+public enum ConvencaoContagemDias {
+    /**
+     * Dias corridos, com mês de 30 dias: taxa diária {@code (1 + i)^(1/30) - 1}.
+     */
+    CORRIDOS_30(30.0),
+    /**
+     * Dias úteis, com ano de 252 dias úteis: taxa diária {@code (1 + i)^(12/252) - 1}.
+     */
+    UTEIS_252(252.0 / 12.0);
+
+    private final double diasPorMes;
+
+    ConvencaoContagemDias(double diasPorMes) {
+        this.diasPorMes = diasPorMes;
+    }
+
+    /**
+     * @return Taxa diária equivalente à taxa mensal informada.
+     */
+    public double taxaDiaria(double taxaMensal) {
+        return Math.pow(1.0 + taxaMensal, 1.0 / diasPorMes) - 1.0;
+    }
+}
@@ -0,0 +1,150 @@
+package org.com.pangolin.redistribuicao.calendario;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Juros pró-rata por dia entre datas de vencimento, a partir da taxa mensal do contrato.
+ * <p>
+ * A contagem de dias segue a {@link ConvencaoContagemDias}: em {@link ConvencaoContagemDias#CORRIDOS_30} é a
+ * diferença entre as datas; em {@link ConvencaoContagemDias#UTEIS_252} vem do {@link CalendarioDiasUteis}. Em
+ * ambos os casos o custo é constante, e o fator de capitalização sai da {@link TabelaFatoresDiarios}, de modo
+ * que calcular os juros de cada parcela de cada contrato não exige potências nem varredura de datas.
+ * Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     JurosProRata juros = JurosProRata.builder()
+ *         .taxaMensal(new BigDecimal("0.015"))
+ *         .convencao(ConvencaoContagemDias.UTEIS_252)
+ *         .calendario(calendario)
+ *         .build();
+ *     BigDecimal[] jurosParcelas = juros.jurosPorParcela(saldoInicial, principais, dataContratacao, vencimentos);
+ * </pre>
+ */
+public final class JurosProRata {
+
+    private final ConvencaoContagemDias convencao;
+    private final CalendarioDiasUteis calendario;
+    private final TabelaFatoresDiarios fatores;
+
+    private JurosProRata(Builder builder) {
+        this.convencao = builder.convencao;
+        this.calendario = builder.calendario;
+        this.fatores = builder.fatores;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ConvencaoContagemDias convencao() {
+        return convencao;
+    }
+
+    /**
+     * @return Quantidade de dias entre as datas na convenção configurada, no intervalo {@code [de, ate)}.
+     */
+    public int dias(LocalDate de, LocalDate ate) {
+        if (convencao == ConvencaoContagemDias.UTEIS_252) {
+            return calendario.diasUteis(de, ate);
+        }
+        return Math.toIntExact(ate.toEpochDay() - de.toEpochDay());
+    }
+
+    /**
+     * @return Fator de capitalização entre as datas.
+     */
+    public double fator(LocalDate de, LocalDate ate) {
+        int dias = dias(de, ate);
+        if (dias < 0) {
+            throw new IllegalArgumentException("Data final anterior à inicial: " + de + " > " + ate);
+        }
+        return fatores.fator(dias);
+    }
+
+    /**
+     * @return Juros sobre o saldo entre as datas, arredondados para centavos.
+     */
+    public BigDecimal juros(BigDecimal saldo, LocalDate de, LocalDate ate) {
+        double juros = saldo.doubleValue() * (fator(de, ate) - 1.0);
+        return BigDecimal.valueOf(juros).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Calcula os juros de cada parcela sobre o saldo devedor do período, com os vencimentos do cronograma.
+     *
+     * @param saldoInicial Saldo devedor no início do primeiro período.
+     * @param principal    Principal amortizado em cada parcela.
+     * @param inicio       Início do primeiro período (por exemplo, a data de contratação).
+     * @param vencimentos  Data de vencimento de cada parcela, em ordem crescente.
+     * @return Juros de cada parcela, em centavos.
+     */
+    public BigDecimal[] jurosPorParcela(BigDecimal saldoInicial, BigDecimal[] principal, LocalDate inicio, LocalDate[] vencimentos) {
+        if (principal.length != vencimentos.length) {
+            throw new IllegalArgumentException("Principal e vencimentos devem ter o mesmo tamanho");
+        }
+        BigDecimal[] juros = new BigDecimal[principal.length];
+        BigDecimal saldo = saldoInicial;
+        LocalDate anterior = inicio;
+        for (int k = 0; k < principal.length; k++) {
+            juros[k] = juros(saldo, anterior, vencimentos[k]);
+            saldo = saldo.subtract(principal[k]);
+            anterior = vencimentos[k];
+        }
+        return juros;
+    }
+
+    /**
+     * Builder class for JurosProRata.
+     */
+    public static class Builder {
+        private BigDecimal taxaMensal;
+        private ConvencaoContagemDias convencao = ConvencaoContagemDias.CORRIDOS_30;
+        private CalendarioDiasUteis calendario;
+        private int maximoDias = -1;
+        private TabelaFatoresDiarios fatores;
+
+        public Builder taxaMensal(BigDecimal taxaMensal) {
+            this.taxaMensal = taxaMensal;
+            return this;
+        }
+
+        public Builder convencao(ConvencaoContagemDias convencao) {
+            this.convencao = convencao;
+            return this;
+        }
+
+        public Builder calendario(CalendarioDiasUteis calendario) {
+            this.calendario = calendario;
+            return this;
+        }
+
+        /**
+         * Tamanho da tabela de fatores. Padrão: 92 dias corridos ou 63 dias úteis, um trimestre, que cobre o
+         * maior período entre vencimentos mensais com folga; a tabela custa uma potência por dia, e cada
+         * contrato tem sua taxa, então ela deve acompanhar o período, não o prazo do contrato. Períodos mais
+         * longos que a tabela são calculados na hora.
+         */
+        public Builder maximoDias(int maximoDias) {
+            this.maximoDias = maximoDias;
+            return this;
+        }
+
+        public JurosProRata build() {
+            Objects.requireNonNull(taxaMensal, "taxaMensal");
+            Objects.requireNonNull(convencao, "convencao");
+            if (convencao == ConvencaoContagemDias.UTEIS_252 && calendario == null) {
+                throw new IllegalArgumentException("Convenção em dias úteis exige um calendário");
+            }
+            if (maximoDias < 0) {
+                maximoDias = convencao == ConvencaoContagemDias.UTEIS_252 ? 63 : 92;
+            }
+            this.fatores = TabelaFatoresDiarios.de(taxaMensal.doubleValue(), convencao, maximoDias);
+            return new JurosProRata(this);
+        }
+    }
+}
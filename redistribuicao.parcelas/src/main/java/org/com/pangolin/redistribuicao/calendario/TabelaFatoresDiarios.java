@@ -0,0 +1,62 @@
+package org.com.pangolin.redistribuicao.calendario;
+
+/**
+ * Fatores de capitalização pré-calculados por quantidade de dias: {@code fator(d) = (1 + taxaDiaria)^d}.
+ * <p>
+ * Cada fator é calculado uma vez com {@link Math#pow(double, double)} na construção; consultas dentro da
+ * tabela são um acesso a array. Quantidades de dias além da tabela são calculadas na hora.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     TabelaFatoresDiarios tabela = TabelaFatoresDiarios.de(0.015, ConvencaoContagemDias.UTEIS_252, 9000);
+ *     double juros = saldo * (tabela.fator(21) - 1.0);
+ * </pre>
+ */
+public final class TabelaFatoresDiarios {
+
+    private final double taxaDiaria;
+    private final double[] fatores;
+
+    private TabelaFatoresDiarios(double taxaDiaria, int maximoDias) {
+        this.taxaDiaria = taxaDiaria;
+        this.fatores = new double[maximoDias + 1];
+        double base = 1.0 + taxaDiaria;
+        for (int d = 0; d <= maximoDias; d++) {
+            fatores[d] = Math.pow(base, d);
+        }
+    }
+
+    /**
+     * @param taxaMensal Taxa mensal do contrato.
+     * @param convencao  Convenção que converte a taxa mensal em diária.
+     * @param maximoDias Maior quantidade de dias atendida pela tabela.
+     */
+    public static TabelaFatoresDiarios de(double taxaMensal, ConvencaoContagemDias convencao, int maximoDias) {
+        if (taxaMensal <= -1.0 || Double.isNaN(taxaMensal)) {
+            throw new IllegalArgumentException("Taxa mensal inválida: " + taxaMensal);
+        }
+        if (maximoDias < 0) {
+            throw new IllegalArgumentException("Quantidade máxima de dias não pode ser negativa: " + maximoDias);
+        }
+        return new TabelaFatoresDiarios(convencao.taxaDiaria(taxaMensal), maximoDias);
+    }
+
+    public double taxaDiaria() {
+        return taxaDiaria;
+    }
+
+    public int maximoDias() {
+        return fatores.length - 1;
+    }
+
+    /**
+     * @param dias Quantidade de dias, não negativa.
+     */
+    public double fator(int dias) {
+        if (dias < fatores.length) {
+            return fatores[dias];
+        }
+        return Math.pow(1.0 + taxaDiaria, dias);
+    }
+}
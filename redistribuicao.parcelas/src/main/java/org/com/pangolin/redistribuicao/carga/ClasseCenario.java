@@ -0,0 +1,30 @@
+package org.com.pangolin.redistribuicao.carga;
+
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+
+/**
+ * Classe de cenário de um teste de carga: sistema de amortização e faixa de prazo.
+ *
+ * @param sistema Sistema de amortização do contrato.
+ * @param faixa   Faixa de prazo do contrato.
+ */
+public record ClasseCenario(RedistribuicaoSistemaAmortizacao sistema, FaixaPrazo faixa) {
+
+    static final int QUANTIDADE = RedistribuicaoSistemaAmortizacao.values().length * FaixaPrazo.values().length;
+
+    static ClasseCenario porIndice(int indice) {
+        int faixas = FaixaPrazo.values().length;
+        return new ClasseCenario(RedistribuicaoSistemaAmortizacao.values()[indice / faixas], FaixaPrazo.values()[indice % faixas]);
+    }
+
+    int indice() {
+        return sistema.ordinal() * FaixaPrazo.values().length + faixa.ordinal();
+    }
+
+    /**
+     * @return Rótulo estável usado nos relatórios, por exemplo {@code PRICE/LONGO}.
+     */
+    public String rotulo() {
+        return sistema.descricao() + "/" + faixa.name();
+    }
+}
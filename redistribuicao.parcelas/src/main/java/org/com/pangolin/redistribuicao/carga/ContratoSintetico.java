@@ -0,0 +1,13 @@
+package org.com.pangolin.redistribuicao.carga;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+
+/**
+ * Contrato gerado pelo {@link GeradorCarteira}.
+ *
+ * @param classe           Classe de cenário do contrato.
+ * @param parametros       Parâmetros de redistribuição do contrato.
+ * @param pagamentoParcial Se o saldo foi reduzido por um pagamento parcial.
+ */
+public record ContratoSintetico(ClasseCenario classe, ParametrosRedistribuicao parametros, boolean pagamentoParcial) {
+}
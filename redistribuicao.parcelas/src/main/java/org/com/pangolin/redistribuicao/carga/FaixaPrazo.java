@@ -0,0 +1,26 @@
+package org.com.pangolin.redistribuicao.carga;
+
+/**
+ * Faixas de prazo usadas para classificar os contratos de um teste de carga.
+ */
+public enum FaixaPrazo {
+    /**
+     * Até 24 parcelas.
+     */
+    CURTO,
+    /**
+     * De 25 a 120 parcelas.
+     */
+    MEDIO,
+    /**
+     * Mais de 120 parcelas.
+     */
+    LONGO;
+
+    public static FaixaPrazo de(int quantidadeParcelas) {
+        if (quantidadeParcelas <= 24) {
+            return CURTO;
+        }
+        return quantidadeParcelas <= 120 ? MEDIO : LONGO;
+    }
+}
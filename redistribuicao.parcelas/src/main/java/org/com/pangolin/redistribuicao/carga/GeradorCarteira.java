@@ -0,0 +1,217 @@
+package org.com.pangolin.redistribuicao.carga;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+
+/**
+ * Gerador de carteiras sintéticas com o formato de uma carteira real de fim de mês.
+ * <p>
+ * O principal segue uma distribuição log-normal em torno da mediana configurada; a taxa mensal é uniforme no
+ * intervalo configurado, com quatro casas; o prazo, de 1 a {@code prazoMaximo}, concentra 60% dos contratos até
+ * 60 parcelas, 25% até 180 e o restante acima disso; o sistema é sorteado pelos pesos configurados. Parte dos
+ * contratos recebe um pagamento parcial de 10% a 90% de uma parcela, abatido primeiro dos juros. O saldo de juros
+ * vem da expressão fechada do sistema, de modo que os parâmetros gerados são sempre válidos.
+ * </p>
+ * <p>
+ * A mesma semente produz a mesma carteira. Instâncias não são seguras para uso concorrente.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     List&lt;ContratoSintetico&gt; carteira = GeradorCarteira.builder()
+ *         .semente(42)
+ *         .proporcaoPagamentoParcial(0.3)
+ *         .build()
+ *         .gerar(100_000);
+ * </pre>
+ */
+public final class GeradorCarteira {
+
+    private static final double DISPERSAO_PRINCIPAL = 0.9;
+
+    private final SplittableRandom aleatorio;
+    private final double logPrincipalMediano;
+    private final double taxaMinima;
+    private final double taxaMaxima;
+    private final int prazoMaximo;
+    private final double proporcaoPagamentoParcial;
+    private final double[] pesosAcumulados;
+
+    private GeradorCarteira(Builder builder) {
+        this.aleatorio = new SplittableRandom(builder.semente);
+        this.logPrincipalMediano = Math.log(builder.principalMediano.doubleValue());
+        this.taxaMinima = builder.taxaMinima.doubleValue();
+        this.taxaMaxima = builder.taxaMaxima.doubleValue();
+        this.prazoMaximo = builder.prazoMaximo;
+        this.proporcaoPagamentoParcial = builder.proporcaoPagamentoParcial;
+        double[] pesos = builder.pesos;
+        this.pesosAcumulados = new double[pesos.length];
+        double soma = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            soma += pesos[i];
+            pesosAcumulados[i] = soma;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<ContratoSintetico> gerar(int quantidade) {
+        List<ContratoSintetico> carteira = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            carteira.add(proximo());
+        }
+        return carteira;
+    }
+
+    public ContratoSintetico proximo() {
+        RedistribuicaoSistemaAmortizacao sistema = sortearSistema();
+        int prazo = sortearPrazo();
+        long principal = Math.max(50_000, Math.min(200_000_000,
+                Math.round(Math.exp(logPrincipalMediano + DISPERSAO_PRINCIPAL * aleatorio.nextGaussian()) * 100.0)));
+        double taxa = Math.round((taxaMinima + (taxaMaxima - taxaMinima) * aleatorio.nextDouble()) * 10_000.0) / 10_000.0;
+
+        long juros;
+        long parcela;
+        if (sistema == RedistribuicaoSistemaAmortizacao.SAC) {
+            juros = Math.round(principal * taxa * (prazo + 1) / 2.0);
+            parcela = principal / prazo + Math.round(principal * taxa);
+        } else {
+            double fator = taxa == 0.0 ? 1.0 / prazo : taxa / -Math.expm1(-prazo * Math.log1p(taxa));
+            parcela = Math.round(principal * fator);
+            juros = Math.max(0, prazo * parcela - principal);
+        }
+
+        boolean pagamentoParcial = aleatorio.nextDouble() < proporcaoPagamentoParcial;
+        if (pagamentoParcial) {
+            long pago = Math.round(parcela * (0.1 + 0.8 * aleatorio.nextDouble()));
+            long pagoJuros = Math.min(pago, juros);
+            juros -= pagoJuros;
+            principal = Math.max(prazo, principal - (pago - pagoJuros));
+        }
+
+        BigDecimal saldoPrincipal = BigDecimal.valueOf(principal, 2);
+        BigDecimal saldoJuros = BigDecimal.valueOf(juros, 2);
+        BigDecimal saldoDevedor = saldoPrincipal.add(saldoJuros);
+        ParametrosRedistribuicao parametros = ParametrosRedistribuicao.builder()
+                .saldoPrincipal(saldoPrincipal)
+                .saldoJuros(saldoJuros)
+                .saldoDevedorParcelas(saldoDevedor)
+                .valorParcela(saldoDevedor.divide(BigDecimal.valueOf(prazo), 2, RoundingMode.HALF_UP))
+                .quantidadeParcelas(prazo)
+                .taxaJuros(BigDecimal.valueOf(taxa).setScale(4, RoundingMode.HALF_UP))
+                .sistemaAmortizacao(sistema)
+                .build();
+        return new ContratoSintetico(new ClasseCenario(sistema, FaixaPrazo.de(prazo)), parametros, pagamentoParcial);
+    }
+
+    private RedistribuicaoSistemaAmortizacao sortearSistema() {
+        double sorteio = aleatorio.nextDouble() * pesosAcumulados[pesosAcumulados.length - 1];
+        RedistribuicaoSistemaAmortizacao[] sistemas = RedistribuicaoSistemaAmortizacao.values();
+        for (int i = 0; i < sistemas.length; i++) {
+            if (sorteio < pesosAcumulados[i]) {
+                return sistemas[i];
+            }
+        }
+        return sistemas[sistemas.length - 1];
+    }
+
+    private int sortearPrazo() {
+        double faixa = aleatorio.nextDouble();
+        int prazo;
+        if (faixa < 0.60) {
+            prazo = 1 + aleatorio.nextInt(60);
+        } else if (faixa < 0.85) {
+            prazo = 61 + aleatorio.nextInt(120);
+        } else {
+            prazo = 181 + aleatorio.nextInt(240);
+        }
+        return Math.min(prazo, prazoMaximo);
+    }
+
+    /**
+     * Builder class for GeradorCarteira.
+     */
+    public static class Builder {
+        private long semente = 1L;
+        private BigDecimal principalMediano = new BigDecimal("25000");
+        private BigDecimal taxaMinima = new BigDecimal("0.005");
+        private BigDecimal taxaMaxima = new BigDecimal("0.035");
+        private int prazoMaximo = 420;
+        private double proporcaoPagamentoParcial = 0.2;
+        private final double[] pesos = new double[RedistribuicaoSistemaAmortizacao.values().length];
+
+        public Builder() {
+            pesos[RedistribuicaoSistemaAmortizacao.PRICE.ordinal()] = 0.50;
+            pesos[RedistribuicaoSistemaAmortizacao.SAC.ordinal()] = 0.35;
+            pesos[RedistribuicaoSistemaAmortizacao.SFF.ordinal()] = 0.15;
+        }
+
+        public Builder semente(long semente) {
+            this.semente = semente;
+            return this;
+        }
+
+        public Builder principalMediano(BigDecimal principalMediano) {
+            this.principalMediano = principalMediano;
+            return this;
+        }
+
+        public Builder taxas(BigDecimal taxaMinima, BigDecimal taxaMaxima) {
+            this.taxaMinima = taxaMinima;
+            this.taxaMaxima = taxaMaxima;
+            return this;
+        }
+
+        public Builder prazoMaximo(int prazoMaximo) {
+            this.prazoMaximo = prazoMaximo;
+            return this;
+        }
+
+        public Builder proporcaoPagamentoParcial(double proporcaoPagamentoParcial) {
+            this.proporcaoPagamentoParcial = proporcaoPagamentoParcial;
+            return this;
+        }
+
+        /**
+         * Peso relativo do sistema no sorteio. Padrão: PRICE 0,50, SAC 0,35 e SFF 0,15.
+         */
+        public Builder pesoSistema(RedistribuicaoSistemaAmortizacao sistema, double peso) {
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso não pode ser negativo: " + peso);
+            }
+            this.pesos[sistema.ordinal()] = peso;
+            return this;
+        }
+
+        public GeradorCarteira build() {
+            if (principalMediano == null || principalMediano.signum() <= 0) {
+                throw new IllegalArgumentException("Principal mediano deve ser positivo: " + principalMediano);
+            }
+            if (taxaMinima == null || taxaMaxima == null || taxaMinima.signum() < 0 || taxaMaxima.compareTo(taxaMinima) < 0) {
+                throw new IllegalArgumentException("Intervalo de taxas inválido: " + taxaMinima + " a " + taxaMaxima);
+            }
+            if (prazoMaximo < 1) {
+                throw new IllegalArgumentException("Prazo máximo deve ser positivo: " + prazoMaximo);
+            }
+            if (proporcaoPagamentoParcial < 0 || proporcaoPagamentoParcial > 1) {
+                throw new IllegalArgumentException("Proporção de pagamento parcial deve estar entre 0 e 1: " + proporcaoPagamentoParcial);
+            }
+            double soma = 0;
+            for (double peso : pesos) {
+                soma += peso;
+            }
+            if (soma <= 0) {
+                throw new IllegalArgumentException("Ao menos um sistema deve ter peso positivo");
+            }
+            return new GeradorCarteira(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.com.pangolin.redistribuicao.carga;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma log-linear de latências em nanossegundos, seguro para gravação concorrente.
+ * <p>
+ * Cada potência de dois é dividida em {@value #SUBFAIXAS} faixas lineares, o que limita o erro relativo de um
+ * percentil a cerca de 3% com memória fixa, qualquer que seja o número de amostras.
+ * </p>
+ */
+final class HistogramaLatencia {
+
+    private static final int SUBFAIXAS = 32;
+    private static final int BITS_SUBFAIXA = 5;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(SUBFAIXAS + (63 - BITS_SUBFAIXA) * SUBFAIXAS);
+
+    void registrar(long nanos) {
+        contagens.incrementAndGet(indice(Math.max(0, nanos)));
+    }
+
+    long quantidade() {
+        long total = 0;
+        for (int i = 0; i < contagens.length(); i++) {
+            total += contagens.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param percentil Entre 0 e 100.
+     * @return Limite superior da faixa que contém o percentil, ou 0 se não há amostras.
+     */
+    long percentil(double percentil) {
+        long total = quantidade();
+        if (total == 0) {
+            return 0;
+        }
+        long posicao = Math.max(1, (long) Math.ceil(percentil / 100.0 * total));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length(); i++) {
+            acumulado += contagens.get(i);
+            if (acumulado >= posicao) {
+                return limiteSuperior(i);
+            }
+        }
+        return limiteSuperior(contagens.length() - 1);
+    }
+
+    long maximo() {
+        for (int i = contagens.length() - 1; i >= 0; i--) {
+            if (contagens.get(i) > 0) {
+                return limiteSuperior(i);
+            }
+        }
+        return 0;
+    }
+
+    private static int indice(long valor) {
+        if (valor < SUBFAIXAS) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - BITS_SUBFAIXA;
+        int subfaixa = (int) (valor >>> deslocamento) - SUBFAIXAS;
+        return SUBFAIXAS + deslocamento * SUBFAIXAS + subfaixa;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBFAIXAS) {
+            return indice;
+        }
+        int deslocamento = (indice - SUBFAIXAS) / SUBFAIXAS;
+        int subfaixa = (indice - SUBFAIXAS) % SUBFAIXAS;
+        return ((long) (SUBFAIXAS + subfaixa + 1) << deslocamento) - 1;
+    }
+}
@@ -0,0 +1,112 @@
+package org.com.pangolin.redistribuicao.carga;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resultado de um {@link TesteCarga}, por classe de cenário e no total.
+ * <p>
+ * É gravado em CSV com colunas fixas e classes em ordem estável, para que execuções diferentes possam ser
+ * comparadas linha a linha, por ferramentas externas ou por {@link #variacaoP99(RelatorioCarga)}.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     RelatorioCarga atual = teste.executar();
+ *     atual.gravar(Path.of("carga-atual.csv"));
+ *     RelatorioCarga referencia = RelatorioCarga.ler(Path.of("carga-referencia.csv"));
+ *     Map&lt;String, Double&gt; variacao = atual.variacaoP99(referencia); // 0.10 = p99 10% maior
+ * </pre>
+ *
+ * @param modo             Descrição do modo de carga, por exemplo {@code fechado:8} ou {@code aberto:500/s}.
+ * @param duracaoSegundos  Duração da fase medida.
+ * @param classes          Métricas por classe, seguidas da linha {@code TOTAL}.
+ */
+public record RelatorioCarga(String modo, double duracaoSegundos, List<ResultadoClasse> classes) {
+
+    public static final String TOTAL = "TOTAL";
+    private static final String CABECALHO =
+            "modo,duracao_segundos,classe,operacoes,falhas,p50_ns,p99_ns,p999_ns,maximo_ns,vazao_por_segundo,bytes_por_operacao";
+
+    public RelatorioCarga {
+        classes = List.copyOf(classes);
+    }
+
+    public Optional<ResultadoClasse> classe(String rotulo) {
+        return classes.stream().filter(c -> c.classe().equals(rotulo)).findFirst();
+    }
+
+    public ResultadoClasse total() {
+        return classe(TOTAL).orElseThrow();
+    }
+
+    /**
+     * Variação relativa do p99 de cada classe presente nos dois relatórios.
+     */
+    public Map<String, Double> variacaoP99(RelatorioCarga referencia) {
+        Map<String, Double> variacao = new LinkedHashMap<>();
+        for (ResultadoClasse atual : classes) {
+            referencia.classe(atual.classe())
+                    .filter(anterior -> anterior.p99Nanos() > 0)
+                    .ifPresent(anterior -> variacao.put(atual.classe(),
+                            (double) atual.p99Nanos() / anterior.p99Nanos() - 1.0));
+        }
+        return variacao;
+    }
+
+    public String paraCsv() {
+        StringBuilder csv = new StringBuilder(CABECALHO).append('\n');
+        for (ResultadoClasse c : classes) {
+            csv.append(modo).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f", duracaoSegundos)).append(',')
+                    .append(c.classe()).append(',')
+                    .append(c.operacoes()).append(',')
+                    .append(c.falhas()).append(',')
+                    .append(c.p50Nanos()).append(',')
+                    .append(c.p99Nanos()).append(',')
+                    .append(c.p999Nanos()).append(',')
+                    .append(c.maximoNanos()).append(',')
+                    .append(String.format(Locale.ROOT, "%.1f", c.vazaoPorSegundo())).append(',')
+                    .append(c.bytesPorOperacao()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    public void gravar(Path arquivo) throws IOException {
+        Files.writeString(arquivo, paraCsv(), StandardCharsets.UTF_8);
+    }
+
+    public static RelatorioCarga ler(Path arquivo) throws IOException {
+        List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+        if (linhas.isEmpty() || !linhas.get(0).equals(CABECALHO)) {
+            throw new IllegalArgumentException("Arquivo não é um relatório de carga: " + arquivo);
+        }
+        String modo = null;
+        double duracao = 0;
+        List<ResultadoClasse> classes = new ArrayList<>();
+        for (String linha : linhas.subList(1, linhas.size())) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            String[] campos = linha.split(",");
+            if (campos.length != 11) {
+                throw new IllegalArgumentException("Linha inválida no relatório de carga: " + linha);
+            }
+            modo = campos[0];
+            duracao = Double.parseDouble(campos[1]);
+            classes.add(new ResultadoClasse(campos[2],
+                    Long.parseLong(campos[3]), Long.parseLong(campos[4]),
+                    Long.parseLong(campos[5]), Long.parseLong(campos[6]), Long.parseLong(campos[7]), Long.parseLong(campos[8]),
+                    Double.parseDouble(campos[9]), Long.parseLong(campos[10])));
+        }
+        return new RelatorioCarga(modo, duracao, classes);
+    }
+}
@@ -0,0 +1,26 @@
+package org.com.pangolin.redistribuicao.carga;
+
+/**
+ * Métricas de uma classe de cenário num teste de carga.
+ *
+ * @param classe           Rótulo da {@link ClasseCenario}, ou {@code TOTAL}.
+ * @param operacoes        Chamadas concluídas com sucesso.
+ * @param falhas           Chamadas que lançaram exceção.
+ * @param p50Nanos         Latência mediana.
+ * @param p99Nanos         Percentil 99 da latência.
+ * @param p999Nanos        Percentil 99,9 da latência.
+ * @param maximoNanos      Maior latência observada.
+ * @param vazaoPorSegundo  Chamadas concluídas por segundo de teste.
+ * @param bytesPorOperacao Bytes alocados em média por chamada, ou -1 se a JVM não informa alocação por thread.
+ */
+public record ResultadoClasse(
+        String classe,
+        long operacoes,
+        long falhas,
+        long p50Nanos,
+        long p99Nanos,
+        long p999Nanos,
+        long maximoNanos,
+        double vazaoPorSegundo,
+        long bytesPorOperacao) {
+}
@@ -0,0 +1,266 @@
+package org.com.pangolin.redistribuicao.carga;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+
+/**
+ * Teste de carga de ponta a ponta de um {@link MotorRedistribuicao} sobre uma carteira sintética.
+ * <p>
+ * Em malha fechada, {@code concorrencia} threads chamam o motor em sequência, cada uma iniciando a próxima
+ * chamada ao terminar a anterior; a latência é a duração da chamada. Em malha aberta, as chamadas são
+ * disparadas na taxa alvo, independentemente de quanto o motor demora, e a latência é medida a partir do
+ * instante em que a chamada deveria ter começado, de modo que o tempo em fila entra na medida quando o
+ * motor não acompanha a taxa.
+ * </p>
+ * <p>
+ * A carteira é percorrida em ciclo. Para cada {@link ClasseCenario} são apurados p50, p99, p99,9 e máximo
+ * da latência, vazão, falhas e bytes alocados por chamada (quando a JVM informa alocação por thread). As
+ * chamadas de aquecimento não entram nas métricas.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     RelatorioCarga relatorio = TesteCarga.builder()
+ *         .motor(MotorRedistribuicao.padrao())
+ *         .carteira(GeradorCarteira.builder().semente(42).build().gerar(50_000))
+ *         .malhaAberta(800, 8)
+ *         .aquecimento(5_000)
+ *         .operacoes(200_000)
+ *         .build()
+ *         .executar();
+ *     relatorio.gravar(Path.of("carga-fim-de-mes.csv"));
+ * </pre>
+ */
+public final class TesteCarga {
+
+    private final MotorRedistribuicao motor;
+    private final List<ContratoSintetico> carteira;
+    private final int concorrencia;
+    private final double operacoesPorSegundo;
+    private final long operacoes;
+    private final long aquecimento;
+    private final com.sun.management.ThreadMXBean alocacao;
+
+    private TesteCarga(Builder builder) {
+        this.motor = builder.motor;
+        this.carteira = List.copyOf(builder.carteira);
+        this.concorrencia = builder.concorrencia;
+        this.operacoesPorSegundo = builder.operacoesPorSegundo;
+        this.operacoes = builder.operacoes;
+        this.aquecimento = builder.aquecimento;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        this.alocacao = threads instanceof com.sun.management.ThreadMXBean mx && mx.isThreadAllocatedMemorySupported()
+                && mx.isThreadAllocatedMemoryEnabled() ? mx : null;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public RelatorioCarga executar() {
+        for (long k = 0; k < aquecimento; k++) {
+            try {
+                motor.redistribuir(carteira.get((int) (k % carteira.size())).parametros());
+            } catch (RuntimeException e) {
+                // Falhas no aquecimento aparecem na fase medida
+            }
+        }
+
+        Acumulador[] porClasse = new Acumulador[ClasseCenario.QUANTIDADE];
+        for (int i = 0; i < porClasse.length; i++) {
+            porClasse[i] = new Acumulador();
+        }
+        Acumulador total = new Acumulador();
+        ExecutorService executor = Executors.newFixedThreadPool(concorrencia,
+                Thread.ofPlatform().name("teste-carga-", 0).daemon(true).factory());
+        long inicio = System.nanoTime();
+        try {
+            if (operacoesPorSegundo > 0) {
+                dispararMalhaAberta(executor, inicio, porClasse, total);
+            } else {
+                AtomicLong proxima = new AtomicLong();
+                for (int t = 0; t < concorrencia; t++) {
+                    executor.execute(() -> {
+                        long k;
+                        while ((k = proxima.getAndIncrement()) < operacoes) {
+                            executar(contrato(k), System.nanoTime(), porClasse, total);
+                        }
+                    });
+                }
+            }
+            executor.shutdown();
+            aguardar(executor);
+        } finally {
+            executor.shutdownNow();
+        }
+        double duracao = (System.nanoTime() - inicio) / 1e9;
+
+        List<ResultadoClasse> classes = new ArrayList<>();
+        for (int i = 0; i < porClasse.length; i++) {
+            if (porClasse[i].histograma.quantidade() > 0 || porClasse[i].falhas.sum() > 0) {
+                classes.add(porClasse[i].resultado(ClasseCenario.porIndice(i).rotulo(), duracao));
+            }
+        }
+        classes.add(total.resultado(RelatorioCarga.TOTAL, duracao));
+        String modo = operacoesPorSegundo > 0
+                ? String.format(Locale.ROOT, "aberto:%.0f/s", operacoesPorSegundo)
+                : "fechado:" + concorrencia;
+        return new RelatorioCarga(modo, duracao, classes);
+    }
+
+    private void dispararMalhaAberta(ExecutorService executor, long inicio, Acumulador[] porClasse, Acumulador total) {
+        double intervalo = 1e9 / operacoesPorSegundo;
+        for (long k = 0; k < operacoes; k++) {
+            long previsto = inicio + (long) (k * intervalo);
+            long espera;
+            while ((espera = previsto - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            ContratoSintetico contrato = contrato(k);
+            executor.execute(() -> executar(contrato, previsto, porClasse, total));
+        }
+    }
+
+    private ContratoSintetico contrato(long k) {
+        return carteira.get((int) (k % carteira.size()));
+    }
+
+    private void executar(ContratoSintetico contrato, long inicio, Acumulador[] porClasse, Acumulador total) {
+        Acumulador classe = porClasse[contrato.classe().indice()];
+        long bytesAntes = alocacao != null ? alocacao.getCurrentThreadAllocatedBytes() : 0;
+        try {
+            motor.redistribuir(contrato.parametros());
+        } catch (RuntimeException e) {
+            classe.falhas.increment();
+            total.falhas.increment();
+            return;
+        }
+        long latencia = System.nanoTime() - inicio;
+        long bytes = alocacao != null ? alocacao.getCurrentThreadAllocatedBytes() - bytesAntes : -1;
+        classe.registrar(latencia, bytes);
+        total.registrar(latencia, bytes);
+    }
+
+    private static void aguardar(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Continua aguardando: a duração do teste é definida pelo número de operações
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Teste de carga interrompido", e);
+        }
+    }
+
+    private static final class Acumulador {
+        final HistogramaLatencia histograma = new HistogramaLatencia();
+        final LongAdder falhas = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        volatile boolean semAlocacao;
+
+        void registrar(long latencia, long bytesAlocados) {
+            histograma.registrar(latencia);
+            if (bytesAlocados < 0) {
+                semAlocacao = true;
+            } else {
+                bytes.add(bytesAlocados);
+            }
+        }
+
+        ResultadoClasse resultado(String rotulo, double duracao) {
+            long quantidade = histograma.quantidade();
+            long bytesPorOperacao = semAlocacao ? -1 : quantidade == 0 ? 0 : bytes.sum() / quantidade;
+            return new ResultadoClasse(rotulo, quantidade, falhas.sum(),
+                    histograma.percentil(50), histograma.percentil(99), histograma.percentil(99.9), histograma.maximo(),
+                    duracao > 0 ? quantidade / duracao : 0, bytesPorOperacao);
+        }
+    }
+
+    /**
+     * Builder class for TesteCarga.
+     */
+    public static class Builder {
+        private MotorRedistribuicao motor;
+        private List<ContratoSintetico> carteira;
+        private int concorrencia = Runtime.getRuntime().availableProcessors();
+        private double operacoesPorSegundo;
+        private long operacoes = 10_000;
+        private long aquecimento;
+
+        public Builder motor(MotorRedistribuicao motor) {
+            this.motor = motor;
+            return this;
+        }
+
+        public Builder carteira(List<ContratoSintetico> carteira) {
+            this.carteira = carteira;
+            return this;
+        }
+
+        /**
+         * Malha fechada com a concorrência informada. É o modo padrão, com uma thread por processador.
+         */
+        public Builder malhaFechada(int concorrencia) {
+            this.concorrencia = concorrencia;
+            this.operacoesPorSegundo = 0;
+            return this;
+        }
+
+        /**
+         * Malha aberta: dispara chamadas na taxa alvo, executadas por {@code threads} threads.
+         */
+        public Builder malhaAberta(double operacoesPorSegundo, int threads) {
+            if (operacoesPorSegundo <= 0) {
+                throw new IllegalArgumentException("Taxa alvo deve ser positiva: " + operacoesPorSegundo);
+            }
+            this.operacoesPorSegundo = operacoesPorSegundo;
+            this.concorrencia = threads;
+            return this;
+        }
+
+        /**
+         * Quantidade de chamadas medidas.
+         */
+        public Builder operacoes(long operacoes) {
+            this.operacoes = operacoes;
+            return this;
+        }
+
+        /**
+         * Quantidade de chamadas de aquecimento, feitas antes da medição e fora das métricas.
+         */
+        public Builder aquecimento(long aquecimento) {
+            this.aquecimento = aquecimento;
+            return this;
+        }
+
+        public TesteCarga build() {
+            if (motor == null) {
+                motor = MotorRedistribuicao.padrao();
+            }
+            Objects.requireNonNull(carteira, "carteira");
+            if (carteira.isEmpty()) {
+                throw new IllegalArgumentException("Carteira não pode ser vazia");
+            }
+            if (concorrencia <= 0) {
+                throw new IllegalArgumentException("Concorrência deve ser positiva: " + concorrencia);
+            }
+            if (operacoes <= 0 || aquecimento < 0) {
+                throw new IllegalArgumentException("Operações devem ser positivas e aquecimento não negativo");
+            }
+            return new TesteCarga(this);
+        }
+    }
+}
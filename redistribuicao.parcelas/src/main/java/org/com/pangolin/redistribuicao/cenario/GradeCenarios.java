@@ -0,0 +1,109 @@
+package org.com.pangolin.redistribuicao.cenario;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import org.com.pangolin.redistribuicao.ParametrosFinanciamento;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.com.pangolin.redistribuicao.cronograma.CronogramaFechado;
+
+/**
+ * Resultado de uma {@link SimulacaoGrade}: matriz compacta, em centavos, indexada por sistema, taxa e prazo.
+ * <p>
+ * No PRICE (e SFF) a primeira e a última parcela são iguais; no SAC são a maior e a menor parcela. O
+ * cronograma completo de uma célula pode ser obtido sob demanda por {@link #cronograma(int, int, int)}, e os
+ * parâmetros para redistribuí-la pelo motor, por {@link #parametros(int, int, int)}.
+ * </p>
+ */
+public final class GradeCenarios {
+
+    private final BigDecimal saldoPrincipal;
+    private final List<RedistribuicaoSistemaAmortizacao> sistemas;
+    private final List<BigDecimal> taxas;
+    private final int[] prazos;
+    private final long[] primeiraParcelaCentavos;
+    private final long[] ultimaParcelaCentavos;
+    private final long[] totalJurosCentavos;
+
+    GradeCenarios(BigDecimal saldoPrincipal, List<RedistribuicaoSistemaAmortizacao> sistemas, List<BigDecimal> taxas, int[] prazos) {
+        this.saldoPrincipal = saldoPrincipal;
+        this.sistemas = sistemas;
+        this.taxas = taxas;
+        this.prazos = prazos;
+        int celulas = sistemas.size() * taxas.size() * prazos.length;
+        this.primeiraParcelaCentavos = new long[celulas];
+        this.ultimaParcelaCentavos = new long[celulas];
+        this.totalJurosCentavos = new long[celulas];
+    }
+
+    public List<RedistribuicaoSistemaAmortizacao> sistemas() {
+        return sistemas;
+    }
+
+    public List<BigDecimal> taxas() {
+        return taxas;
+    }
+
+    public int[] prazos() {
+        return prazos.clone();
+    }
+
+    public BigDecimal primeiraParcela(int sistema, int taxa, int prazo) {
+        return BigDecimal.valueOf(primeiraParcelaCentavos[indice(sistema, taxa, prazo)], 2);
+    }
+
+    public BigDecimal ultimaParcela(int sistema, int taxa, int prazo) {
+        return BigDecimal.valueOf(ultimaParcelaCentavos[indice(sistema, taxa, prazo)], 2);
+    }
+
+    public BigDecimal totalJuros(int sistema, int taxa, int prazo) {
+        return BigDecimal.valueOf(totalJurosCentavos[indice(sistema, taxa, prazo)], 2);
+    }
+
+    /**
+     * Materializa o cronograma da célula. SFF usa o cronograma PRICE, que tem a mesma parcela constante.
+     */
+    public ResultadoRedistribuicao cronograma(int sistema, int taxa, int prazo) {
+        ParametrosFinanciamento financiamento = new ParametrosFinanciamento(saldoPrincipal, taxas.get(taxa), prazos[prazo]);
+        return sistemas.get(sistema) == RedistribuicaoSistemaAmortizacao.SAC
+                ? CronogramaFechado.sac(financiamento).materializar()
+                : CronogramaFechado.price(financiamento).materializar();
+    }
+
+    /**
+     * Parâmetros de redistribuição da célula, para levar o cenário escolhido ao
+     * {@link org.com.pangolin.redistribuicao.MotorRedistribuicao}: saldo principal do contrato base, juros totais
+     * e prazo da célula. A parcela é a da célula no PRICE e no SFF e a média das parcelas no SAC.
+     */
+    public ParametrosRedistribuicao parametros(int sistema, int taxa, int prazo) {
+        int indice = indice(sistema, taxa, prazo);
+        BigDecimal principal = saldoPrincipal.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal juros = BigDecimal.valueOf(totalJurosCentavos[indice], 2);
+        BigDecimal total = principal.add(juros);
+        RedistribuicaoSistemaAmortizacao sistemaCelula = sistemas.get(sistema);
+        return ParametrosRedistribuicao.builder()
+                .saldoPrincipal(principal)
+                .saldoJuros(juros)
+                .saldoDevedorParcelas(total)
+                .valorParcela(sistemaCelula == RedistribuicaoSistemaAmortizacao.SAC
+                        ? total.divide(BigDecimal.valueOf(prazos[prazo]), 2, RoundingMode.HALF_UP)
+                        : BigDecimal.valueOf(primeiraParcelaCentavos[indice], 2))
+                .quantidadeParcelas(prazos[prazo])
+                .taxaJuros(taxas.get(taxa))
+                .sistemaAmortizacao(sistemaCelula)
+                .build();
+    }
+
+    int indice(int sistema, int taxa, int prazo) {
+        return (sistema * taxas.size() + taxa) * prazos.length + prazo;
+    }
+
+    void gravar(int indice, long primeiraParcela, long ultimaParcela, long totalJuros) {
+        primeiraParcelaCentavos[indice] = primeiraParcela;
+        ultimaParcelaCentavos[indice] = ultimaParcela;
+        totalJurosCentavos[indice] = totalJuros;
+    }
+}
@@ -0,0 +1,177 @@
+package org.com.pangolin.redistribuicao.cenario;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.cronograma.TabelaFatoresAnuidade;
+
+/**
+ * Simulação de uma grade de renegociação: para um contrato base, calcula parcela e juros totais do
+ * refinanciamento do saldo principal em todas as combinações de sistema de amortização, taxa e prazo.
+ * <p>
+ * A grade não substitui {@link org.com.pangolin.redistribuicao.MotorRedistribuicao#redistribuir} célula a
+ * célula. Uma redistribuição reparte entre as parcelas o {@code saldoJuros} do contrato, que são os juros do
+ * cronograma vigente, na taxa e no prazo vigentes; uma célula com outra taxa ou outro prazo reprecifica esses
+ * juros, e somá-los aos da célula os cobraria duas vezes. Cada célula é então o cronograma de refinanciamento
+ * do {@code saldoPrincipal} na taxa, prazo e sistema da célula, calculado pela expressão fechada do sistema; o
+ * saldo de juros, o saldo devedor das parcelas e o valor da parcela do contrato base não entram no cálculo. Para
+ * redistribuir o cenário escolhido, {@link GradeCenarios#parametros(int, int, int)} monta os parâmetros da
+ * célula para o motor.
+ * </p>
+ * <p>
+ * As potências {@code (1 + i)^n} de cada taxa são calculadas uma vez, até o maior prazo,
+ * numa {@link TabelaFatoresAnuidade} compartilhada por todos os prazos e sistemas daquela taxa; com elas,
+ * cada célula custa poucas operações. As linhas de taxa são processadas em paralelo.
+ * </p>
+ * <p>
+ * PRICE/SFF: parcela {@code P·i/(1-(1+i)^-n)} arredondada para centavos e juros totais {@code n·parcela - P},
+ * como no {@link org.com.pangolin.redistribuicao.cronograma.CronogramaFechado}. SAC: primeira parcela
+ * {@code P/n + P·i}, última {@code (P/n)(1+i)} e juros totais {@code P·i·(n+1)/2}; por serem valores
+ * contínuos arredondados, podem diferir em centavos do cronograma materializado.
+ * </p>
+ * <p>
+ * O SFF, cuja parcela é constante como no PRICE, é calculado pela expressão do PRICE. O saldo principal é
+ * arredondado para centavos ({@code HALF_UP}), como no cronograma fechado.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     GradeCenarios grade = SimulacaoGrade.builder()
+ *         .base(parametros)
+ *         .taxas(new BigDecimal("0.010"), new BigDecimal("0.012"), new BigDecimal("0.015"))
+ *         .prazos(12, 24, 36, 48)
+ *         .sistemas(RedistribuicaoSistemaAmortizacao.PRICE, RedistribuicaoSistemaAmortizacao.SAC)
+ *         .build()
+ *         .calcular();
+ *     BigDecimal parcela = grade.primeiraParcela(0, 1, 2); // PRICE, 1,2% a.m., 36 meses
+ * </pre>
+ */
+public final class SimulacaoGrade {
+
+    private final BigDecimal saldoPrincipal;
+    private final List<RedistribuicaoSistemaAmortizacao> sistemas;
+    private final List<BigDecimal> taxas;
+    private final int[] prazos;
+    private final boolean paralelo;
+
+    private SimulacaoGrade(Builder builder) {
+        this.saldoPrincipal = builder.base.saldoPrincipal();
+        this.sistemas = List.copyOf(builder.sistemas);
+        this.taxas = List.copyOf(builder.taxas);
+        this.prazos = builder.prazos.clone();
+        this.paralelo = builder.paralelo;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public GradeCenarios calcular() {
+        GradeCenarios grade = new GradeCenarios(saldoPrincipal, sistemas, taxas, prazos);
+        int prazoMaximo = Arrays.stream(prazos).max().orElse(0);
+        long principalCentavos = saldoPrincipal.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+        double principal = principalCentavos / 100.0;
+
+        IntStream linhas = IntStream.range(0, taxas.size());
+        if (paralelo) {
+            linhas = linhas.parallel();
+        }
+        linhas.forEach(t -> {
+            double taxa = taxas.get(t).doubleValue();
+            TabelaFatoresAnuidade tabela = TabelaFatoresAnuidade.para(taxa, prazoMaximo);
+            for (int s = 0; s < sistemas.size(); s++) {
+                boolean sac = sistemas.get(s) == RedistribuicaoSistemaAmortizacao.SAC;
+                for (int p = 0; p < prazos.length; p++) {
+                    int n = prazos[p];
+                    int indice = grade.indice(s, t, p);
+                    if (sac) {
+                        double amortizacao = principal / n;
+                        grade.gravar(indice,
+                                Math.round((amortizacao + principal * taxa) * 100.0),
+                                Math.round(amortizacao * (1.0 + taxa) * 100.0),
+                                Math.round(principal * taxa * (n + 1) / 2.0 * 100.0));
+                    } else {
+                        long parcela = Math.round(principal * tabela.fatorAnuidade(n) * 100.0);
+                        grade.gravar(indice, parcela, parcela, n * parcela - principalCentavos);
+                    }
+                }
+            }
+        });
+        return grade;
+    }
+
+    /**
+     * Builder class for SimulacaoGrade.
+     */
+    public static class Builder {
+        private ParametrosRedistribuicao base;
+        private List<BigDecimal> taxas;
+        private int[] prazos;
+        private List<RedistribuicaoSistemaAmortizacao> sistemas;
+        private boolean paralelo = true;
+
+        /**
+         * Contrato base: fornece o saldo principal e, se os eixos não forem informados, a taxa, o prazo e o sistema.
+         * Os demais campos do contrato não são usados.
+         */
+        public Builder base(ParametrosRedistribuicao base) {
+            this.base = base;
+            return this;
+        }
+
+        public Builder taxas(BigDecimal... taxas) {
+            this.taxas = new ArrayList<>(Arrays.asList(taxas));
+            return this;
+        }
+
+        public Builder prazos(int... prazos) {
+            this.prazos = prazos.clone();
+            return this;
+        }
+
+        public Builder sistemas(RedistribuicaoSistemaAmortizacao... sistemas) {
+            this.sistemas = new ArrayList<>(Arrays.asList(sistemas));
+            return this;
+        }
+
+        public Builder paralelo(boolean paralelo) {
+            this.paralelo = paralelo;
+            return this;
+        }
+
+        public SimulacaoGrade build() {
+            Objects.requireNonNull(base, "base");
+            Objects.requireNonNull(base.saldoPrincipal(), "saldoPrincipal");
+            if (taxas == null) {
+                taxas = List.of(Objects.requireNonNull(base.taxaJuros(), "taxaJuros"));
+            }
+            if (prazos == null) {
+                prazos = new int[]{base.quantidadeParcelas()};
+            }
+            if (sistemas == null) {
+                sistemas = List.of(Objects.requireNonNull(base.sistemaAmortizacao(), "sistemaAmortizacao"));
+            }
+            if (taxas.isEmpty() || prazos.length == 0 || sistemas.isEmpty()) {
+                throw new IllegalArgumentException("Eixos de taxa, prazo e sistema não podem ser vazios");
+            }
+            for (BigDecimal taxa : taxas) {
+                if (taxa.signum() < 0) {
+                    throw new IllegalArgumentException("Taxa não pode ser negativa: " + taxa);
+                }
+            }
+            for (int prazo : prazos) {
+                if (prazo <= 0) {
+                    throw new IllegalArgumentException("Prazo deve ser positivo: " + prazo);
+                }
+            }
+            return new SimulacaoGrade(this);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.com.pangolin.redistribuicao.coalescencia;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Coalescência de requisições idênticas em andamento ("single-flight").
+ * <p>
+ * Chamadores concorrentes com parâmetros iguais na forma {@link ParametrosRedistribuicao#canonico() canônica}
+ * compartilham uma única execução do motor delegado: o primeiro calcula na própria thread e os demais
+ * aguardam o mesmo resultado. Cada chamador recebe arrays independentes. Se o cálculo falhar, a mesma
+ * exceção é relançada para todos os que aguardavam. Nada é mantido após a conclusão: uma chamada
+ * posterior com os mesmos parâmetros calcula novamente, portanto esta classe não é um cache.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     MotorRedistribuicao motor = new MotorCoalescente(MotorRedistribuicao.padrao());
+ *     // Várias threads de ingestão chamando com os mesmos parâmetros executam uma única otimização
+ *     ResultadoRedistribuicao resultado = motor.redistribuir(parametros);
+ * </pre>
+ */
+public class MotorCoalescente implements MotorRedistribuicao {
+
+    private final MotorRedistribuicao delegado;
+    private final Map<ParametrosRedistribuicao, CompletableFuture<ResultadoRedistribuicao>> emAndamento =
+            new ConcurrentHashMap<>();
+    private final LongAdder execucoes = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+
+    public MotorCoalescente(MotorRedistribuicao delegado) {
+        this.delegado = Objects.requireNonNull(delegado, "delegado");
+    }
+
+    @Override
+    public ResultadoRedistribuicao redistribuir(ParametrosRedistribuicao parametros) {
+        ParametrosRedistribuicao chave = parametros.canonico();
+        CompletableFuture<ResultadoRedistribuicao> proprio = new CompletableFuture<>();
+        CompletableFuture<ResultadoRedistribuicao> existente = emAndamento.putIfAbsent(chave, proprio);
+        if (existente != null) {
+            coalescidas.increment();
+            return aguardar(existente).copia();
+        }
+
+        execucoes.increment();
+        try {
+            ResultadoRedistribuicao resultado = delegado.redistribuir(parametros);
+            // O futuro guarda uma cópia privada, que ninguém altera; cada um que aguarda recebe uma cópia
+            // dela, e o original fica apenas com quem calculou
+            proprio.complete(resultado.copia());
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            proprio.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, proprio);
+        }
+    }
+
+    /**
+     * @return Quantidade de execuções efetivas do motor delegado.
+     */
+    public long execucoes() {
+        return execucoes.sum();
+    }
+
+    /**
+     * @return Quantidade de chamadas atendidas por uma execução já em andamento.
+     */
+    public long coalescidas() {
+        return coalescidas.sum();
+    }
+
+    private static ResultadoRedistribuicao aguardar(CompletableFuture<ResultadoRedistribuicao> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+}
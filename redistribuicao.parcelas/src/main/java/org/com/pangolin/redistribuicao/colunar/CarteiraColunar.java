@@ -0,0 +1,234 @@
+package org.com.pangolin.redistribuicao.colunar;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+
+/**
+ * Carteira de contratos armazenada fora do heap, em colunas de tipos primitivos.
+ * <p>
+ * Os valores monetários são guardados em centavos ({@code long}), a taxa com dez casas decimais
+ * ({@code long}), a quantidade de parcelas como {@code int} e o sistema e os indicadores em um byte cada:
+ * {@value #BYTES_POR_CONTRATO} bytes por contrato, em blocos de {@code contratosPorBloco} contratos alocados
+ * com {@link ByteBuffer#allocateDirect(int)}. O heap guarda apenas a lista de blocos, e o custo de coleta não
+ * depende do tamanho da carteira. Valores que não cabem exatamente na coluna (mais de duas casas em valores
+ * monetários, mais de dez na taxa) são recusados em vez de arredondados.
+ * </p>
+ * <p>
+ * A leitura é feita por um {@link ContratoColunar}, que lê as colunas sem alocar e só cria um
+ * {@link ParametrosRedistribuicao} quando pedido, já na forma {@link ParametrosRedistribuicao#canonico()}.
+ * A inclusão de contratos não é segura para uso concorrente; concluída a carga, leituras concorrentes com
+ * cursores distintos são seguras.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     CarteiraColunar carteira = CarteiraColunar.builder().build();
+ *     contratos.forEach(carteira::adicionar);
+ *     carteira.paraCadaEmParalelo(contrato -&gt; {
+ *         if (contrato.saldoPrincipalCentavos() &gt; 1_000_000_00L) {
+ *             gravar(contrato.indice(), motor.redistribuir(contrato.parametros()));
+ *         }
+ *     });
+ * </pre>
+ */
+public final class CarteiraColunar {
+
+    static final int ESCALA_TAXA = 10;
+    static final byte SISTEMA_AUSENTE = -1;
+    static final int BYTES_POR_CONTRATO = 5 * Long.BYTES + Integer.BYTES + 2;
+
+    // Colunas de 8 bytes, na ordem dos deslocamentos abaixo
+    static final int SALDO_DEVEDOR = 0;
+    static final int SALDO_PRINCIPAL = 1;
+    static final int SALDO_JUROS = 2;
+    static final int VALOR_PARCELA = 3;
+    static final int TAXA = 4;
+    // Indicadores: bit 0 é principalConstante; bit 1 + coluna indica valor ausente
+    static final int PRINCIPAL_CONSTANTE = 1;
+
+    private final int contratosPorBloco;
+    private final List<ByteBuffer> blocos = new ArrayList<>();
+    private long tamanho;
+
+    private CarteiraColunar(Builder builder) {
+        this.contratosPorBloco = builder.contratosPorBloco;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Inclui o contrato ao final da carteira.
+     *
+     * @return Índice do contrato.
+     * @throws IllegalArgumentException se algum valor não cabe exatamente na coluna.
+     */
+    public long adicionar(ParametrosRedistribuicao parametros) {
+        Objects.requireNonNull(parametros, "parametros");
+        long[] valores = {
+                centavos(parametros.saldoDevedorParcelas(), "saldoDevedorParcelas"),
+                centavos(parametros.saldoPrincipal(), "saldoPrincipal"),
+                centavos(parametros.saldoJuros(), "saldoJuros"),
+                centavos(parametros.valorParcela(), "valorParcela"),
+                taxa(parametros.taxaJuros())};
+        BigDecimal[] originais = {parametros.saldoDevedorParcelas(), parametros.saldoPrincipal(),
+                parametros.saldoJuros(), parametros.valorParcela(), parametros.taxaJuros()};
+        byte indicadores = (byte) (parametros.principalConstante() ? PRINCIPAL_CONSTANTE : 0);
+        for (int c = 0; c < originais.length; c++) {
+            if (originais[c] == null) {
+                indicadores |= (byte) (2 << c);
+            }
+        }
+
+        long indice = tamanho;
+        int posicao = (int) (indice % contratosPorBloco);
+        if (posicao == 0) {
+            blocos.add(ByteBuffer.allocateDirect(contratosPorBloco * BYTES_POR_CONTRATO).order(ByteOrder.nativeOrder()));
+        }
+        ByteBuffer bloco = blocos.get(blocos.size() - 1);
+        for (int c = 0; c < valores.length; c++) {
+            bloco.putLong(deslocamentoLong(c, posicao), valores[c]);
+        }
+        bloco.putInt(deslocamentoParcelas(posicao), parametros.quantidadeParcelas());
+        RedistribuicaoSistemaAmortizacao sistema = parametros.sistemaAmortizacao();
+        bloco.put(deslocamentoSistema(posicao), sistema == null ? SISTEMA_AUSENTE : (byte) sistema.ordinal());
+        bloco.put(deslocamentoIndicadores(posicao), indicadores);
+        tamanho++;
+        return indice;
+    }
+
+    /**
+     * @return Novo cursor de leitura. Cada thread deve usar o seu.
+     */
+    public ContratoColunar cursor() {
+        return new ContratoColunar(this);
+    }
+
+    /**
+     * Materializa o contrato do índice informado, na forma canônica.
+     */
+    public ParametrosRedistribuicao parametros(long indice) {
+        return cursor().posicionar(indice).parametros();
+    }
+
+    /**
+     * Divide a carteira em até {@code partes} faixas contíguas de tamanhos que diferem em no máximo um contrato.
+     */
+    public List<FaixaCarteira> faixas(int partes) {
+        if (partes <= 0) {
+            throw new IllegalArgumentException("Quantidade de partes deve ser positiva: " + partes);
+        }
+        int quantidade = (int) Math.max(1, Math.min(partes, tamanho));
+        List<FaixaCarteira> faixas = new ArrayList<>(quantidade);
+        long inicio = 0;
+        for (int p = 0; p < quantidade; p++) {
+            long fim = inicio + tamanho / quantidade + (p < tamanho % quantidade ? 1 : 0);
+            faixas.add(new FaixaCarteira(inicio, fim));
+            inicio = fim;
+        }
+        return faixas;
+    }
+
+    /**
+     * Percorre a faixa com um único cursor, reposicionado a cada contrato.
+     */
+    public void paraCada(FaixaCarteira faixa, Consumer<ContratoColunar> acao) {
+        if (faixa.inicio() < 0 || faixa.fim() > tamanho || faixa.inicio() > faixa.fim()) {
+            throw new IllegalArgumentException(String.format(
+                    "Faixa [%d, %d) fora da carteira de %d contratos", faixa.inicio(), faixa.fim(), tamanho));
+        }
+        ContratoColunar cursor = cursor();
+        for (long i = faixa.inicio(); i < faixa.fim(); i++) {
+            acao.accept(cursor.posicionar(i));
+        }
+    }
+
+    /**
+     * Percorre a carteira em paralelo no pool comum, em faixas de um cursor cada. A ação recebe o cursor e não
+     * deve guardá-lo além da chamada.
+     */
+    public void paraCadaEmParalelo(Consumer<ContratoColunar> acao) {
+        Objects.requireNonNull(acao, "acao");
+        // Algumas faixas por thread, para equilibrar contratos de custos diferentes
+        faixas(4 * Runtime.getRuntime().availableProcessors()).parallelStream().forEach(faixa -> paraCada(faixa, acao));
+    }
+
+    ByteBuffer bloco(long indice) {
+        return blocos.get((int) (indice / contratosPorBloco));
+    }
+
+    int posicao(long indice) {
+        return (int) (indice % contratosPorBloco);
+    }
+
+    int deslocamentoLong(int coluna, int posicao) {
+        return (coluna * contratosPorBloco + posicao) * Long.BYTES;
+    }
+
+    int deslocamentoParcelas(int posicao) {
+        return 5 * contratosPorBloco * Long.BYTES + posicao * Integer.BYTES;
+    }
+
+    int deslocamentoSistema(int posicao) {
+        return contratosPorBloco * (5 * Long.BYTES + Integer.BYTES) + posicao;
+    }
+
+    int deslocamentoIndicadores(int posicao) {
+        return contratosPorBloco * (5 * Long.BYTES + Integer.BYTES + 1) + posicao;
+    }
+
+    private static long centavos(BigDecimal valor, String campo) {
+        return escalar(valor, 2, campo);
+    }
+
+    private static long taxa(BigDecimal taxa) {
+        return escalar(taxa, ESCALA_TAXA, "taxaJuros");
+    }
+
+    private static long escalar(BigDecimal valor, int escala, String campo) {
+        if (valor == null) {
+            return 0;
+        }
+        try {
+            return valor.setScale(escala).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format(
+                    "%s não cabe exatamente em %d casas decimais: %s", campo, escala, valor.toPlainString()));
+        }
+    }
+
+    /**
+     * Builder class for CarteiraColunar.
+     */
+    public static class Builder {
+        private int contratosPorBloco = 1 << 20;
+
+        /**
+         * Contratos por bloco alocado. Padrão: 1.048.576 (cerca de 46 MB por bloco).
+         */
+        public Builder contratosPorBloco(int contratosPorBloco) {
+            this.contratosPorBloco = contratosPorBloco;
+            return this;
+        }
+
+        public CarteiraColunar build() {
+            if (contratosPorBloco <= 0 || (long) contratosPorBloco * BYTES_POR_CONTRATO > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Contratos por bloco fora do intervalo permitido: " + contratosPorBloco);
+            }
+            return new CarteiraColunar(this);
+        }
+    }
+}
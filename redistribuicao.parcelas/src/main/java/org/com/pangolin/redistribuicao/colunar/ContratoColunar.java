@@ -0,0 +1,122 @@
+package org.com.pangolin.redistribuicao.colunar;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+
+/**
+ * Cursor reposicionável sobre uma {@link CarteiraColunar}: os acessores leem as colunas do contrato corrente
+ * sem alocar, e {@link #parametros()} cria o {@link ParametrosRedistribuicao} somente quando chamado.
+ * <p>
+ * Não é seguro para uso concorrente; os valores lidos mudam a cada {@link #posicionar(long)}.
+ * </p>
+ */
+public final class ContratoColunar {
+
+    private static final RedistribuicaoSistemaAmortizacao[] SISTEMAS = RedistribuicaoSistemaAmortizacao.values();
+
+    private final CarteiraColunar carteira;
+    private ByteBuffer bloco;
+    private int posicao;
+    private long indice = -1;
+
+    ContratoColunar(CarteiraColunar carteira) {
+        this.carteira = carteira;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException se o índice não está na carteira.
+     */
+    public ContratoColunar posicionar(long indice) {
+        if (indice < 0 || indice >= carteira.tamanho()) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fora da carteira de " + carteira.tamanho() + " contratos");
+        }
+        this.bloco = carteira.bloco(indice);
+        this.posicao = carteira.posicao(indice);
+        this.indice = indice;
+        return this;
+    }
+
+    public long indice() {
+        return indice;
+    }
+
+    public long saldoDevedorParcelasCentavos() {
+        return coluna(CarteiraColunar.SALDO_DEVEDOR);
+    }
+
+    public long saldoPrincipalCentavos() {
+        return coluna(CarteiraColunar.SALDO_PRINCIPAL);
+    }
+
+    public long saldoJurosCentavos() {
+        return coluna(CarteiraColunar.SALDO_JUROS);
+    }
+
+    public long valorParcelaCentavos() {
+        return coluna(CarteiraColunar.VALOR_PARCELA);
+    }
+
+    /**
+     * @return Taxa mensal aproximada em {@code double}, para filtros e estimativas.
+     */
+    public double taxaJuros() {
+        return coluna(CarteiraColunar.TAXA) / 1e10;
+    }
+
+    public int quantidadeParcelas() {
+        return bloco().getInt(carteira.deslocamentoParcelas(posicao));
+    }
+
+    /**
+     * @return Sistema de amortização, ou {@code null} se o contrato foi incluído sem sistema.
+     */
+    public RedistribuicaoSistemaAmortizacao sistemaAmortizacao() {
+        byte sistema = bloco().get(carteira.deslocamentoSistema(posicao));
+        return sistema == CarteiraColunar.SISTEMA_AUSENTE ? null : SISTEMAS[sistema];
+    }
+
+    public boolean principalConstante() {
+        return (indicadores() & CarteiraColunar.PRINCIPAL_CONSTANTE) != 0;
+    }
+
+    /**
+     * Materializa o contrato corrente na forma {@link ParametrosRedistribuicao#canonico()}.
+     */
+    public ParametrosRedistribuicao parametros() {
+        return ParametrosRedistribuicao.builder()
+                .saldoDevedorParcelas(decimal(CarteiraColunar.SALDO_DEVEDOR, 2))
+                .saldoPrincipal(decimal(CarteiraColunar.SALDO_PRINCIPAL, 2))
+                .saldoJuros(decimal(CarteiraColunar.SALDO_JUROS, 2))
+                .valorParcela(decimal(CarteiraColunar.VALOR_PARCELA, 2))
+                .quantidadeParcelas(quantidadeParcelas())
+                .taxaJuros(decimal(CarteiraColunar.TAXA, CarteiraColunar.ESCALA_TAXA))
+                .sistemaAmortizacao(sistemaAmortizacao())
+                .principalConstante(principalConstante())
+                .build();
+    }
+
+    private long coluna(int coluna) {
+        return bloco().getLong(carteira.deslocamentoLong(coluna, posicao));
+    }
+
+    private ByteBuffer bloco() {
+        if (bloco == null) {
+            throw new IllegalStateException("Cursor não posicionado");
+        }
+        return bloco;
+    }
+
+    private int indicadores() {
+        return bloco().get(carteira.deslocamentoIndicadores(posicao));
+    }
+
+    private BigDecimal decimal(int coluna, int escala) {
+        if ((indicadores() & (2 << coluna)) != 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(coluna(coluna), escala).stripTrailingZeros();
+    }
+}
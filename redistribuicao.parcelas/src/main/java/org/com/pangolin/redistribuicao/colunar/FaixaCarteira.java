@@ -0,0 +1,12 @@
+package org.com.pangolin.redistribuicao.colunar;
+
+/**
+ * Intervalo de índices {@code [inicio, fim)} de uma {@link CarteiraColunar}, unidade de divisão do
+ * processamento paralelo.
+ */
+public record FaixaCarteira(long inicio, long fim) {
+
+    public long tamanho() {
+        return fim - inicio;
+    }
+}
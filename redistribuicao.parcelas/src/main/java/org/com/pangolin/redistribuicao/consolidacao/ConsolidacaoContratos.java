@@ -0,0 +1,248 @@
+package org.com.pangolin.redistribuicao.consolidacao;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Objects;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Consolida vários contratos de um cliente em um único cronograma redistribuído.
+ * <p>
+ * Os saldos de principal e de juros das origens são somados em uma única passagem, junto com a média da taxa
+ * ponderada pelo principal (usada quando a taxa não é informada). O contrato consolidado é redistribuído pelo
+ * motor com o prazo e o sistema configurados; o prazo restante das origens não é usado.
+ * </p>
+ * <p>
+ * Para a contabilidade, o principal e os juros de cada parcela nova são atribuídos às origens em proporção ao
+ * saldo de cada origem ainda não atribuído, com maiores restos para fechar os centavos. Assim, para cada
+ * parcela, a soma das atribuições é exatamente a parcela nova; para cada origem, a soma ao longo do cronograma
+ * é exatamente o seu saldo; e nenhuma atribuição é negativa.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     ConsolidacaoContratos consolidacao = ConsolidacaoContratos.builder()
+ *         .quantidadeParcelas(48)
+ *         .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+ *         .build();
+ *     ResultadoConsolidacao resultado = consolidacao.consolidar(List.of(cartao, chequeEspecial, pessoal));
+ *     BigDecimal doCartaoNaPrimeira = resultado.parcelaDaOrigem(0, 0);
+ * </pre>
+ */
+public final class ConsolidacaoContratos {
+
+    private static final MathContext MC = MathContext.DECIMAL64;
+
+    private final MotorRedistribuicao motor;
+    private final int quantidadeParcelas;
+    private final RedistribuicaoSistemaAmortizacao sistemaAmortizacao;
+    private final BigDecimal taxaJuros;
+
+    private ConsolidacaoContratos(Builder builder) {
+        this.motor = builder.motor;
+        this.quantidadeParcelas = builder.quantidadeParcelas;
+        this.sistemaAmortizacao = builder.sistemaAmortizacao;
+        this.taxaJuros = builder.taxaJuros;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @throws IllegalArgumentException se não há origens, se algum saldo está ausente, é negativo ou tem mais de
+     *                                  duas casas, ou se o principal consolidado não é positivo.
+     */
+    public ResultadoConsolidacao consolidar(List<ParametrosRedistribuicao> origens) {
+        Objects.requireNonNull(origens, "origens");
+        int m = origens.size();
+        if (m == 0) {
+            throw new IllegalArgumentException("Consolidação exige ao menos um contrato de origem");
+        }
+        long[] principalOrigem = new long[m];
+        long[] jurosOrigem = new long[m];
+        long principalTotal = 0;
+        long jurosTotal = 0;
+        BigDecimal taxaPonderada = BigDecimal.ZERO;
+        for (int j = 0; j < m; j++) {
+            ParametrosRedistribuicao origem = origens.get(j);
+            principalOrigem[j] = centavos(origem.saldoPrincipal(), "saldoPrincipal", j);
+            jurosOrigem[j] = centavos(origem.saldoJuros(), "saldoJuros", j);
+            principalTotal = Math.addExact(principalTotal, principalOrigem[j]);
+            jurosTotal = Math.addExact(jurosTotal, jurosOrigem[j]);
+            if (taxaJuros == null) {
+                if (origem.taxaJuros() == null) {
+                    throw new IllegalArgumentException("Contrato de origem " + j + " sem taxa de juros e taxa consolidada não informada");
+                }
+                taxaPonderada = taxaPonderada.add(origem.taxaJuros().multiply(BigDecimal.valueOf(principalOrigem[j])));
+            }
+        }
+        if (principalTotal <= 0) {
+            throw new IllegalArgumentException("Saldo principal consolidado deve ser positivo");
+        }
+
+        BigDecimal saldoPrincipal = BigDecimal.valueOf(principalTotal, 2);
+        BigDecimal saldoJuros = BigDecimal.valueOf(jurosTotal, 2);
+        BigDecimal saldoDevedor = saldoPrincipal.add(saldoJuros);
+        ParametrosRedistribuicao consolidado = ParametrosRedistribuicao.builder()
+                .saldoPrincipal(saldoPrincipal)
+                .saldoJuros(saldoJuros)
+                .saldoDevedorParcelas(saldoDevedor)
+                .valorParcela(saldoDevedor.divide(BigDecimal.valueOf(quantidadeParcelas), 2, RoundingMode.HALF_UP))
+                .quantidadeParcelas(quantidadeParcelas)
+                .taxaJuros(taxaJuros != null ? taxaJuros
+                        : taxaPonderada.divide(BigDecimal.valueOf(principalTotal), MC).stripTrailingZeros())
+                .sistemaAmortizacao(sistemaAmortizacao)
+                .build();
+        ResultadoRedistribuicao cronograma = motor.redistribuir(consolidado);
+
+        return new ResultadoConsolidacao(consolidado, cronograma,
+                atribuir(cronograma.principal(), principalOrigem, principalTotal),
+                atribuir(cronograma.juros(), jurosOrigem, jurosTotal));
+    }
+
+    /**
+     * Reparte cada parcela entre as origens em proporção ao saldo ainda não atribuído de cada uma. Como a última
+     * parcela encontra o saldo restante total, ela devolve exatamente o restante de cada origem.
+     */
+    private static BigDecimal[][] atribuir(BigDecimal[] parcelas, long[] saldoOrigem, long saldoTotal) {
+        int m = saldoOrigem.length;
+        int n = parcelas.length;
+        long[] restante = saldoOrigem.clone();
+        long restanteTotal = saldoTotal;
+        long[] quotas = new long[m];
+        long[] restos = new long[m];
+        BigDecimal[][] atribuicao = new BigDecimal[m][n];
+        for (int k = 0; k < n; k++) {
+            long parcela = centavosResultado(parcelas[k], k);
+            if (parcela < 0 || parcela > restanteTotal) {
+                throw new IllegalStateException(String.format(
+                        "Parcela %d (%s) fora do saldo restante a atribuir (%s)", k, parcelas[k], BigDecimal.valueOf(restanteTotal, 2)));
+            }
+            long distribuido = 0;
+            for (int j = 0; j < m; j++) {
+                if (restanteTotal == 0) {
+                    quotas[j] = 0;
+                    restos[j] = 0;
+                    continue;
+                }
+                long[] divisao = dividir(restante[j], parcela, restanteTotal);
+                quotas[j] = divisao[0];
+                restos[j] = divisao[1];
+                distribuido += quotas[j];
+            }
+            // Os centavos que faltam vão para as origens de maior resto; empates pela ordem das origens
+            for (long faltam = parcela - distribuido; faltam > 0; faltam--) {
+                int maior = -1;
+                for (int j = 0; j < m; j++) {
+                    if (restos[j] >= 0 && (maior < 0 || restos[j] > restos[maior])) {
+                        maior = j;
+                    }
+                }
+                quotas[maior]++;
+                restos[maior] = -1;
+            }
+            for (int j = 0; j < m; j++) {
+                restante[j] -= quotas[j];
+                atribuicao[j][k] = BigDecimal.valueOf(quotas[j], 2);
+            }
+            restanteTotal -= parcela;
+        }
+        if (restanteTotal != 0) {
+            throw new IllegalStateException(String.format(
+                    "Cronograma consolidado difere dos saldos de origem em %s", BigDecimal.valueOf(restanteTotal, 2)));
+        }
+        return atribuicao;
+    }
+
+    /**
+     * @return Quociente e resto de {@code a·b / c}, sem estouro.
+     */
+    private static long[] dividir(long a, long b, long c) {
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+        if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+            return new long[]{lo / c, lo % c};
+        }
+        BigInteger[] divisao = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divideAndRemainder(BigInteger.valueOf(c));
+        return new long[]{divisao[0].longValueExact(), divisao[1].longValueExact()};
+    }
+
+    private static long centavos(BigDecimal valor, String campo, int origem) {
+        if (valor == null || valor.signum() < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "%s do contrato de origem %d deve ser informado e não negativo: %s", campo, origem, valor));
+        }
+        try {
+            return valor.setScale(2).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format(
+                    "%s do contrato de origem %d não está em centavos: %s", campo, origem, valor.toPlainString()));
+        }
+    }
+
+    private static long centavosResultado(BigDecimal valor, int parcela) {
+        try {
+            return valor.setScale(2).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalStateException("Parcela " + parcela + " do cronograma consolidado não está em centavos: " + valor);
+        }
+    }
+
+    /**
+     * Builder class for ConsolidacaoContratos.
+     */
+    public static class Builder {
+        private MotorRedistribuicao motor;
+        private int quantidadeParcelas;
+        private RedistribuicaoSistemaAmortizacao sistemaAmortizacao;
+        private BigDecimal taxaJuros;
+
+        public Builder motor(MotorRedistribuicao motor) {
+            this.motor = motor;
+            return this;
+        }
+
+        /**
+         * Prazo do contrato consolidado.
+         */
+        public Builder quantidadeParcelas(int quantidadeParcelas) {
+            this.quantidadeParcelas = quantidadeParcelas;
+            return this;
+        }
+
+        public Builder sistemaAmortizacao(RedistribuicaoSistemaAmortizacao sistemaAmortizacao) {
+            this.sistemaAmortizacao = sistemaAmortizacao;
+            return this;
+        }
+
+        /**
+         * Taxa do contrato consolidado. Padrão: média das taxas de origem ponderada pelo principal.
+         */
+        public Builder taxaJuros(BigDecimal taxaJuros) {
+            this.taxaJuros = taxaJuros;
+            return this;
+        }
+
+        public ConsolidacaoContratos build() {
+            if (motor == null) {
+                motor = MotorRedistribuicao.padrao();
+            }
+            Objects.requireNonNull(sistemaAmortizacao, "sistemaAmortizacao");
+            if (quantidadeParcelas <= 0) {
+                throw new IllegalArgumentException("Quantidade de parcelas deve ser positiva: " + quantidadeParcelas);
+            }
+            if (taxaJuros != null && taxaJuros.signum() < 0) {
+                throw new IllegalArgumentException("Taxa de juros não pode ser negativa: " + taxaJuros);
+            }
+            return new ConsolidacaoContratos(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.com.pangolin.redistribuicao.consolidacao;
+
+import java.math.BigDecimal;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Resultado de uma consolidação de contratos.
+ *
+ * @param parametros         Parâmetros do contrato consolidado, enviados ao motor.
+ * @param cronograma         Cronograma redistribuído do contrato consolidado.
+ * @param principalPorOrigem Principal de cada parcela nova atribuído a cada contrato de origem, em centavos,
+ *                           indexado por {@code [origem][parcela]}.
+ * @param jurosPorOrigem     Juros de cada parcela nova atribuídos a cada contrato de origem, em centavos,
+ *                           indexado por {@code [origem][parcela]}.
+ */
+public record ResultadoConsolidacao(
+        ParametrosRedistribuicao parametros,
+        ResultadoRedistribuicao cronograma,
+        BigDecimal[][] principalPorOrigem,
+        BigDecimal[][] jurosPorOrigem) {
+
+    public int quantidadeOrigens() {
+        return principalPorOrigem.length;
+    }
+
+    /**
+     * @return Valor da parcela nova {@code parcela} atribuído ao contrato de origem {@code origem}.
+     */
+    public BigDecimal parcelaDaOrigem(int origem, int parcela) {
+        return principalPorOrigem[origem][parcela].add(jurosPorOrigem[origem][parcela]);
+    }
+}
@@ -0,0 +1,29 @@
+package org.com.pangolin.redistribuicao.cronograma;
+
+import java.math.BigDecimal;
+
+/**
+ * Alteração de uma parcela entre dois cronogramas. Parcelas incluídas têm valores anteriores {@code null};
+ * parcelas removidas têm valores novos {@code null}.
+ *
+ * @param indice            Posição da parcela, a partir de zero.
+ * @param principalAnterior Principal no cronograma anterior.
+ * @param jurosAnterior     Juros no cronograma anterior.
+ * @param principalNovo     Principal no cronograma novo.
+ * @param jurosNovo         Juros no cronograma novo.
+ */
+public record AlteracaoParcela(
+        int indice,
+        BigDecimal principalAnterior,
+        BigDecimal jurosAnterior,
+        BigDecimal principalNovo,
+        BigDecimal jurosNovo) {
+
+    public boolean inclusao() {
+        return principalAnterior == null;
+    }
+
+    public boolean remocao() {
+        return principalNovo == null;
+    }
+}
@@ -0,0 +1,268 @@
+package org.com.pangolin.redistribuicao.cronograma;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+import org.com.pangolin.redistribuicao.ParametrosFinanciamento;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Cronograma PRICE ou SAC consultável parcela a parcela sem materializar os {@code BigDecimal} do cronograma.
+ * <p>
+ * No PRICE a parcela é fixa (calculada como em {@code Main.calcularParcelasPrice}) e os saldos seguem a mesma
+ * recorrência em centavos de {@code Main.decomporParcelasPrice}: juros do saldo anterior arredondados
+ * para centavos, principal igual a parcela menos juros. Essa recorrência depende do caminho (o arredondamento
+ * dos juros de cada período se propaga com {@code (1+i)^k}), de modo que nenhuma expressão fechada a reproduz
+ * centavo a centavo em prazos longos. Os saldos são então calculados uma única vez na construção, em
+ * aritmética inteira de centavos, e guardados num {@code long[]} de {@code n + 1} posições: a construção é
+ * O(n) em tempo e memória e cada consulta é O(1).
+ * </p>
+ * <p>
+ * A última parcela fecha sempre sobre o saldo real: o principal é o saldo após a penúltima parcela e os juros
+ * são a parcela menos esse principal. Aqui há um desvio deliberado de {@code Main}, que só faz esse ajuste quando
+ * o resíduo passa de um centavo e, com resíduo de exatamente R$ 0,01, deixa esse centavo em aberto. Nesses
+ * contratos a última parcela daqui difere da de {@code Main} em R$ 0,01 de principal e de juros, e a soma dos
+ * principais é exatamente o valor financiado. Se o resíduo acumulado tornaria os juros da última parcela
+ * negativos (em {@code Main} eles ficariam negativos), a última parcela passa a ser o saldo mais os juros do
+ * período. As demais parcelas coincidem com {@code Main} centavo a centavo.
+ * </p>
+ * <p>
+ * No SAC o saldo após {@code k} parcelas é {@code P(n-k)/n} arredondado para centavos e os juros incidem
+ * sobre o saldo em centavos da parcela anterior. Em ambos os sistemas o principal da parcela {@code k} é a
+ * diferença entre dois saldos consecutivos, a soma dos principais é exatamente o valor financiado e
+ * {@link #parcela(int)} e {@link #saldoDevedor(int)} coincidem centavo a centavo com {@link #materializar()}.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     CronogramaFechado cronograma = CronogramaFechado.price(
+ *         new ParametrosFinanciamento(new BigDecimal("1500.00"), new BigDecimal("0.08"), 12));
+ *     ParcelaCronograma setima = cronograma.parcela(6);      // principal, juros e saldo após a 7ª parcela
+ *     BigDecimal saldo = cronograma.saldoDevedor(6);         // saldo após 6 parcelas pagas
+ * </pre>
+ */
+public final class CronogramaFechado {
+
+    private static final MathContext MC = MathContext.DECIMAL128;
+
+    private final RedistribuicaoSistemaAmortizacao sistema;
+    private final BigDecimal valorFinanciado;
+    private final BigDecimal taxa;
+    private final BigDecimal fator;
+    private final int quantidadeParcelas;
+    // PRICE: parcela fixa. SAC: amortização contínua P/n.
+    private final BigDecimal valorBase;
+    // PRICE: saldo em centavos após k parcelas, k = 0..n. SAC: null.
+    private final long[] saldosCentavos;
+
+    private CronogramaFechado(RedistribuicaoSistemaAmortizacao sistema, ParametrosFinanciamento parametros) {
+        Objects.requireNonNull(parametros.valorFinanciado(), "valorFinanciado");
+        Objects.requireNonNull(parametros.taxaMensal(), "taxaMensal");
+        if (parametros.numParcelas() <= 0) {
+            throw new IllegalArgumentException("Quantidade de parcelas deve ser positiva: " + parametros.numParcelas());
+        }
+        if (parametros.valorFinanciado().signum() <= 0) {
+            throw new IllegalArgumentException("Valor financiado deve ser positivo: " + parametros.valorFinanciado());
+        }
+        if (parametros.taxaMensal().signum() < 0) {
+            throw new IllegalArgumentException("Taxa de juros não pode ser negativa: " + parametros.taxaMensal());
+        }
+        this.sistema = sistema;
+        this.valorFinanciado = parametros.valorFinanciado().setScale(2, RoundingMode.HALF_UP);
+        this.taxa = parametros.taxaMensal();
+        this.fator = BigDecimal.ONE.add(taxa);
+        this.quantidadeParcelas = parametros.numParcelas();
+        this.valorBase = sistema == RedistribuicaoSistemaAmortizacao.SAC
+                ? valorFinanciado.divide(BigDecimal.valueOf(quantidadeParcelas), MC)
+                : calcularParcelaPrice();
+        this.saldosCentavos = sistema == RedistribuicaoSistemaAmortizacao.SAC ? null : calcularSaldosPrice();
+    }
+
+    public static CronogramaFechado price(ParametrosFinanciamento parametros) {
+        return new CronogramaFechado(RedistribuicaoSistemaAmortizacao.PRICE, parametros);
+    }
+
+    public static CronogramaFechado sac(ParametrosFinanciamento parametros) {
+        return new CronogramaFechado(RedistribuicaoSistemaAmortizacao.SAC, parametros);
+    }
+
+    /**
+     * @throws IllegalArgumentException para sistemas sem expressão fechada (SFF).
+     */
+    public static CronogramaFechado de(RedistribuicaoSistemaAmortizacao sistema, ParametrosFinanciamento parametros) {
+        return switch (sistema) {
+            case PRICE -> price(parametros);
+            case SAC -> sac(parametros);
+            case SFF -> throw new IllegalArgumentException("Sistema sem cronograma fechado: " + sistema);
+        };
+    }
+
+    public RedistribuicaoSistemaAmortizacao sistema() {
+        return sistema;
+    }
+
+    public int quantidadeParcelas() {
+        return quantidadeParcelas;
+    }
+
+    public BigDecimal valorFinanciado() {
+        return valorFinanciado;
+    }
+
+    /**
+     * @return Valor fixo da parcela no PRICE. A última parcela só difere dele quando o resíduo de arredondamento
+     *         excede a parcela (ver a descrição da classe).
+     * @throws IllegalStateException no SAC, em que o valor varia por parcela.
+     */
+    public BigDecimal valorParcelaPrice() {
+        if (sistema != RedistribuicaoSistemaAmortizacao.PRICE) {
+            throw new IllegalStateException("Valor de parcela fixo só existe no PRICE");
+        }
+        return valorBase;
+    }
+
+    /**
+     * Saldo devedor de principal após {@code pagas} parcelas.
+     *
+     * @param pagas Quantidade de parcelas pagas, entre 0 e {@link #quantidadeParcelas()}.
+     */
+    public BigDecimal saldoDevedor(int pagas) {
+        if (pagas < 0 || pagas > quantidadeParcelas) {
+            throw new IllegalArgumentException(String.format(
+                    "Quantidade de parcelas pagas %d fora do intervalo [0, %d]", pagas, quantidadeParcelas));
+        }
+        if (pagas == 0) {
+            return valorFinanciado;
+        }
+        if (pagas == quantidadeParcelas) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        if (sistema == RedistribuicaoSistemaAmortizacao.SAC) {
+            return valorFinanciado.subtract(valorBase.multiply(BigDecimal.valueOf(pagas), MC), MC)
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+        return BigDecimal.valueOf(saldosCentavos[pagas], 2);
+    }
+
+    public BigDecimal principal(int indice) {
+        validarIndice(indice);
+        return saldoDevedor(indice).subtract(saldoDevedor(indice + 1));
+    }
+
+    public BigDecimal juros(int indice) {
+        return parcela(indice).juros();
+    }
+
+    /**
+     * @param indice Posição da parcela, a partir de zero.
+     */
+    public ParcelaCronograma parcela(int indice) {
+        validarIndice(indice);
+        BigDecimal saldoAnterior = saldoDevedor(indice);
+        BigDecimal saldoPosterior = saldoDevedor(indice + 1);
+        return montarParcela(indice, saldoAnterior, saldoPosterior);
+    }
+
+    /**
+     * Materializa o cronograma completo com os mesmos saldos usados nas consultas pontuais.
+     */
+    public ResultadoRedistribuicao materializar() {
+        BigDecimal[] principal = new BigDecimal[quantidadeParcelas];
+        BigDecimal[] juros = new BigDecimal[quantidadeParcelas];
+        BigDecimal saldoAnterior = saldoDevedor(0);
+        for (int k = 0; k < quantidadeParcelas; k++) {
+            BigDecimal saldoPosterior = saldoDevedor(k + 1);
+            ParcelaCronograma parcela = montarParcela(k, saldoAnterior, saldoPosterior);
+            principal[k] = parcela.principal();
+            juros[k] = parcela.juros();
+            saldoAnterior = saldoPosterior;
+        }
+        return new ResultadoRedistribuicao(principal, juros);
+    }
+
+    private ParcelaCronograma montarParcela(int indice, BigDecimal saldoAnterior, BigDecimal saldoPosterior) {
+        BigDecimal principal = saldoAnterior.subtract(saldoPosterior);
+        BigDecimal juros;
+        if (sistema == RedistribuicaoSistemaAmortizacao.SAC) {
+            juros = saldoAnterior.multiply(taxa).setScale(2, RoundingMode.HALF_UP);
+        } else if (indice < quantidadeParcelas - 1 || valorBase.compareTo(principal) >= 0) {
+            juros = valorBase.subtract(principal);
+        } else {
+            // Resíduo de arredondamento maior que a última parcela: cobra o saldo mais os juros do período
+            juros = saldoAnterior.multiply(taxa).setScale(2, RoundingMode.HALF_UP);
+        }
+        return new ParcelaCronograma(indice, principal, juros, principal.add(juros), saldoPosterior);
+    }
+
+    // Recorrência de Main.decomporParcelasPrice em centavos: S_k = S_{k-1} - (A - arred(S_{k-1} * i))
+    private long[] calcularSaldosPrice() {
+        long parcela = valorBase.movePointRight(2).longValueExact();
+        long[] saldos = new long[quantidadeParcelas + 1];
+        saldos[0] = valorFinanciado.movePointRight(2).longValueExact();
+        BigDecimal taxaReduzida = taxa.stripTrailingZeros();
+        long taxaSemEscala = taxaReduzida.scale() >= 0 && taxaReduzida.scale() <= 18 && taxaReduzida.precision() <= 18
+                ? taxaReduzida.unscaledValue().longValue() : -1;
+        long divisor = taxaSemEscala < 0 ? 0 : pow10(taxaReduzida.scale());
+        for (int k = 1; k < quantidadeParcelas; k++) {
+            long juros = jurosCentavos(saldos[k - 1], taxaSemEscala, divisor);
+            if (k == 1 && parcela <= juros) {
+                throw new IllegalArgumentException(String.format(
+                        "Parcela %s não amortiza o saldo %s: juros do primeiro período são %s",
+                        valorBase, valorFinanciado, BigDecimal.valueOf(juros, 2)));
+            }
+            saldos[k] = saldos[k - 1] - (parcela - juros);
+            if (saldos[k] < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Arredondamento da parcela %s quita o saldo antes da parcela %d de %d",
+                        valorBase, k + 1, quantidadeParcelas));
+            }
+        }
+        if (quantidadeParcelas == 1 && parcela <= jurosCentavos(saldos[0], taxaSemEscala, divisor)) {
+            throw new IllegalArgumentException(String.format(
+                    "Parcela %s não amortiza o saldo %s", valorBase, valorFinanciado));
+        }
+        // A última parcela fecha sobre o saldo real
+        saldos[quantidadeParcelas] = 0;
+        return saldos;
+    }
+
+    // arred(saldo * i) em centavos, HALF_UP; aritmética inteira quando cabe em long
+    private long jurosCentavos(long saldoCentavos, long taxaSemEscala, long divisor) {
+        if (taxaSemEscala >= 0 && saldoCentavos >= 0
+                && Math.multiplyHigh(saldoCentavos, taxaSemEscala) == 0) {
+            long produto = saldoCentavos * taxaSemEscala;
+            long metade = divisor / 2;
+            if (produto >= 0 && produto <= Long.MAX_VALUE - metade) {
+                return (produto + metade) / divisor;
+            }
+        }
+        return BigDecimal.valueOf(saldoCentavos).multiply(taxa).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static long pow10(int expoente) {
+        long valor = 1;
+        for (int e = 0; e < expoente; e++) {
+            valor *= 10;
+        }
+        return valor;
+    }
+
+    private BigDecimal calcularParcelaPrice() {
+        if (taxa.signum() == 0) {
+            return valorFinanciado.divide(BigDecimal.valueOf(quantidadeParcelas), 2, RoundingMode.HALF_UP);
+        }
+        BigDecimal potencia = fator.pow(quantidadeParcelas, MC);
+        BigDecimal numerador = taxa.multiply(potencia, MC);
+        BigDecimal denominador = potencia.subtract(BigDecimal.ONE, MC);
+        return valorFinanciado.multiply(numerador, MC).divide(denominador, 2, RoundingMode.HALF_UP);
+    }
+
+    private void validarIndice(int indice) {
+        if (indice < 0 || indice >= quantidadeParcelas) {
+            throw new IllegalArgumentException("Parcela inexistente: " + indice);
+        }
+    }
+}
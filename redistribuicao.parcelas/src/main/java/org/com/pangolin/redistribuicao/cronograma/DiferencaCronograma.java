@@ -0,0 +1,121 @@
+package org.com.pangolin.redistribuicao.cronograma;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Conjunto de alterações entre dois cronogramas do mesmo contrato.
+ * <p>
+ * Somente as parcelas cujo principal ou juros mudaram (comparados por valor, independentemente da escala)
+ * entram em {@link #alteracoes()}, de modo que a gravação a jusante pode se limitar a elas. Os totais
+ * resumem a variação de principal e de juros entre os cronogramas.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     DiferencaCronograma diferenca = DiferencaCronograma.entre(cronogramaGravado, novoCronograma);
+ *     for (AlteracaoParcela alteracao : diferenca.alteracoes()) {
+ *         repositorio.atualizarParcela(contratoId, alteracao);
+ *     }
+ *     // Em outra réplica, a partir do cronograma armazenado
+ *     ResultadoRedistribuicao atualizado = diferenca.aplicar(cronogramaArmazenado);
+ * </pre>
+ *
+ * @param quantidadeAnterior Quantidade de parcelas do cronograma anterior.
+ * @param quantidadeNova     Quantidade de parcelas do cronograma novo.
+ * @param alteracoes         Parcelas alteradas, incluídas ou removidas, em ordem de índice.
+ * @param variacaoPrincipal  Soma dos principais novos menos a dos anteriores.
+ * @param variacaoJuros      Soma dos juros novos menos a dos anteriores.
+ * @param desvioArredondamentoNovo Desvio máximo de arredondamento do cronograma novo, repassado ao
+ *                                 cronograma produzido por {@link #aplicar(ResultadoRedistribuicao)}.
+ */
+public record DiferencaCronograma(
+        int quantidadeAnterior,
+        int quantidadeNova,
+        List<AlteracaoParcela> alteracoes,
+        BigDecimal variacaoPrincipal,
+        BigDecimal variacaoJuros,
+        BigDecimal desvioArredondamentoNovo) {
+
+    public DiferencaCronograma {
+        alteracoes = List.copyOf(alteracoes);
+    }
+
+    /**
+     * Compara dois cronogramas do mesmo contrato.
+     */
+    public static DiferencaCronograma entre(ResultadoRedistribuicao anterior, ResultadoRedistribuicao novo) {
+        BigDecimal[] principalAnterior = anterior.principal();
+        BigDecimal[] jurosAnterior = anterior.juros();
+        BigDecimal[] principalNovo = novo.principal();
+        BigDecimal[] jurosNovo = novo.juros();
+        int n = Math.max(principalAnterior.length, principalNovo.length);
+
+        List<AlteracaoParcela> alteracoes = new ArrayList<>();
+        BigDecimal variacaoPrincipal = BigDecimal.ZERO;
+        BigDecimal variacaoJuros = BigDecimal.ZERO;
+        for (int i = 0; i < n; i++) {
+            BigDecimal pa = i < principalAnterior.length ? principalAnterior[i] : null;
+            BigDecimal ja = i < jurosAnterior.length ? jurosAnterior[i] : null;
+            BigDecimal pn = i < principalNovo.length ? principalNovo[i] : null;
+            BigDecimal jn = i < jurosNovo.length ? jurosNovo[i] : null;
+            if (iguais(pa, pn) && iguais(ja, jn)) {
+                continue;
+            }
+            alteracoes.add(new AlteracaoParcela(i, pa, ja, pn, jn));
+            variacaoPrincipal = variacaoPrincipal.add(valor(pn)).subtract(valor(pa));
+            variacaoJuros = variacaoJuros.add(valor(jn)).subtract(valor(ja));
+        }
+        return new DiferencaCronograma(principalAnterior.length, principalNovo.length, alteracoes,
+                variacaoPrincipal, variacaoJuros, novo.desvioMaximoArredondamento());
+    }
+
+    public boolean vazia() {
+        return alteracoes.isEmpty();
+    }
+
+    /**
+     * Aplica as alterações a um cronograma armazenado, devolvendo um novo cronograma com o desvio de
+     * arredondamento do cronograma novo da diferença.
+     *
+     * @throws IllegalStateException se o cronograma armazenado não corresponde ao cronograma anterior da
+     *                               diferença nas parcelas alteradas ou na quantidade de parcelas.
+     */
+    public ResultadoRedistribuicao aplicar(ResultadoRedistribuicao armazenado) {
+        if (armazenado.principal().length != quantidadeAnterior) {
+            throw new IllegalStateException(String.format(
+                    "Cronograma armazenado tem %d parcelas; a diferença foi gerada para %d",
+                    armazenado.principal().length, quantidadeAnterior));
+        }
+        BigDecimal[] principal = Arrays.copyOf(armazenado.principal(), quantidadeNova);
+        BigDecimal[] juros = Arrays.copyOf(armazenado.juros(), quantidadeNova);
+        for (AlteracaoParcela alteracao : alteracoes) {
+            int i = alteracao.indice();
+            if (!alteracao.inclusao()
+                    && (!iguais(armazenado.principal()[i], alteracao.principalAnterior())
+                    || !iguais(armazenado.juros()[i], alteracao.jurosAnterior()))) {
+                throw new IllegalStateException("Parcela " + i + " do cronograma armazenado difere do cronograma anterior da diferença");
+            }
+            if (!alteracao.remocao()) {
+                principal[i] = alteracao.principalNovo();
+                juros[i] = alteracao.jurosNovo();
+            }
+        }
+        return new ResultadoRedistribuicao(principal, juros, desvioArredondamentoNovo);
+    }
+
+    private static boolean iguais(BigDecimal a, BigDecimal b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.compareTo(b) == 0;
+    }
+
+    private static BigDecimal valor(BigDecimal valor) {
+        return valor == null ? BigDecimal.ZERO : valor;
+    }
+}
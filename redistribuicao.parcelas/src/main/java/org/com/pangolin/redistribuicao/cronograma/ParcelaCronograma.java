@@ -0,0 +1,20 @@
+package org.com.pangolin.redistribuicao.cronograma;
+
+import java.math.BigDecimal;
+
+/**
+ * Uma parcela do cronograma, em centavos.
+ *
+ * @param indice       Posição da parcela, a partir de zero.
+ * @param principal    Principal amortizado pela parcela.
+ * @param juros        Juros da parcela.
+ * @param valor        Valor da parcela ({@code principal + juros}).
+ * @param saldoDevedor Saldo devedor de principal após o pagamento da parcela.
+ */
+public record ParcelaCronograma(
+        int indice,
+        BigDecimal principal,
+        BigDecimal juros,
+        BigDecimal valor,
+        BigDecimal saldoDevedor) {
+}
@@ -0,0 +1,112 @@
+package org.com.pangolin.redistribuicao.cronograma;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Potências {@code (1 + i)^n} e fatores de anuidade pré-calculados para uma taxa, de {@code n = 0} até um prazo
+ * máximo.
+ * <p>
+ * As potências são acumuladas uma única vez por taxa e compartilhadas por todos os prazos (cada prazo é o
+ * prefixo do seguinte). As tabelas ficam num cache global por taxa, limitado às {@value #TAXAS_RETIDAS} taxas
+ * usadas mais recentemente; uma consulta com prazo maior que o da tabela em cache substitui a tabela por outra
+ * maior. Quem guarda a tabela devolvida continua a usá-la mesmo depois de removida do cache. Instâncias são
+ * imutáveis.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     TabelaFatoresAnuidade tabela = TabelaFatoresAnuidade.para(0.015, 420);
+ *     double parcela = saldo * tabela.fatorAnuidade(360); // i / (1 - (1 + i)^-360)
+ * </pre>
+ */
+public final class TabelaFatoresAnuidade {
+
+    static final int TAXAS_RETIDAS = 256;
+
+    // Acesso sempre sob a trava do próprio mapa
+    private static final Map<Long, TabelaFatoresAnuidade> CACHE =
+            new LinkedHashMap<>(TAXAS_RETIDAS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, TabelaFatoresAnuidade> maisAntiga) {
+                    return size() > TAXAS_RETIDAS;
+                }
+            };
+
+    private final double taxa;
+    private final double[] potencias;
+
+    private TabelaFatoresAnuidade(double taxa, int prazoMaximo) {
+        this.taxa = taxa;
+        this.potencias = new double[prazoMaximo + 1];
+        potencias[0] = 1.0;
+        double fator = 1.0 + taxa;
+        for (int n = 1; n <= prazoMaximo; n++) {
+            potencias[n] = potencias[n - 1] * fator;
+        }
+    }
+
+    /**
+     * @return Tabela em cache para a taxa, com prazo máximo de ao menos {@code prazoMaximo}.
+     */
+    public static TabelaFatoresAnuidade para(double taxa, int prazoMaximo) {
+        if (taxa <= -1.0 || Double.isNaN(taxa)) {
+            throw new IllegalArgumentException("Taxa inválida: " + taxa);
+        }
+        if (prazoMaximo < 0) {
+            throw new IllegalArgumentException("Prazo máximo não pode ser negativo: " + prazoMaximo);
+        }
+        Long chave = Double.doubleToLongBits(taxa);
+        synchronized (CACHE) {
+            TabelaFatoresAnuidade atual = CACHE.get(chave);
+            if (atual != null && atual.prazoMaximo() >= prazoMaximo) {
+                return atual;
+            }
+        }
+        // A tabela é montada fora da trava; se outra thread montou uma maior nesse meio tempo, ela prevalece
+        TabelaFatoresAnuidade nova = new TabelaFatoresAnuidade(taxa, prazoMaximo);
+        synchronized (CACHE) {
+            TabelaFatoresAnuidade atual = CACHE.get(chave);
+            if (atual != null && atual.prazoMaximo() >= prazoMaximo) {
+                return atual;
+            }
+            CACHE.put(chave, nova);
+            return nova;
+        }
+    }
+
+    /**
+     * @return Quantidade de taxas com tabela em cache, no máximo {@value #TAXAS_RETIDAS}.
+     */
+    public static int taxasEmCache() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    public double taxa() {
+        return taxa;
+    }
+
+    public int prazoMaximo() {
+        return potencias.length - 1;
+    }
+
+    /**
+     * @return {@code (1 + i)^n}.
+     */
+    public double potencia(int n) {
+        return potencias[n];
+    }
+
+    /**
+     * @return Fator que multiplica o saldo para obter a parcela PRICE: {@code i / (1 - (1 + i)^-n)}, ou
+     * {@code 1/n} com taxa zero.
+     */
+    public double fatorAnuidade(int n) {
+        if (taxa == 0.0) {
+            return 1.0 / n;
+        }
+        return taxa * potencias[n] / (potencias[n] - 1.0);
+    }
+}
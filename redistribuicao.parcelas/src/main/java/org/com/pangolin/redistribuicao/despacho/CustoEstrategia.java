@@ -0,0 +1,27 @@
+package org.com.pangolin.redistribuicao.despacho;
+
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.carga.FaixaPrazo;
+
+/**
+ * Custo aprendido de uma estratégia numa faixa de contratos.
+ *
+ * @param sistema            Sistema de amortização da faixa.
+ * @param faixaPrazo         Faixa de prazo.
+ * @param faixaTaxa          Faixa de taxa.
+ * @param estrategia         Motor avaliado.
+ * @param amostras           Chamadas observadas.
+ * @param latenciaMediaNanos Média móvel exponencial da latência.
+ * @param taxaSucesso        Média móvel exponencial da proporção de resultados dentro do erro máximo.
+ * @param preferida          Se é a estratégia escolhida hoje para a faixa.
+ */
+public record CustoEstrategia(
+        RedistribuicaoSistemaAmortizacao sistema,
+        FaixaPrazo faixaPrazo,
+        FaixaTaxa faixaTaxa,
+        EstrategiaMotor estrategia,
+        long amostras,
+        double latenciaMediaNanos,
+        double taxaSucesso,
+        boolean preferida) {
+}
@@ -0,0 +1,350 @@
+package org.com.pangolin.redistribuicao.despacho;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+import org.com.pangolin.redistribuicao.MotorOtimizacao;
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrizacaoPrincipal;
+import org.com.pangolin.redistribuicao.ParametrosFinanciamento;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.com.pangolin.redistribuicao.carga.FaixaPrazo;
+import org.com.pangolin.redistribuicao.cronograma.CronogramaFechado;
+
+/**
+ * Motor que escolhe, por faixa de contrato, a {@link EstrategiaMotor} mais barata que atende ao erro máximo,
+ * a partir do custo observado em produção.
+ * <p>
+ * Os contratos são agrupados por sistema, {@link FaixaPrazo} e {@link FaixaTaxa}. Para cada faixa e estratégia
+ * são mantidas médias móveis exponenciais da latência e da taxa de sucesso, em que sucesso é um resultado sem
+ * principal nem juros negativos cujo erro (o maior entre as diferenças das somas de principal e de juros para os
+ * saldos e, em PRICE e SFF, a diferença de cada parcela para {@code valorParcela}) não passa do erro máximo. O
+ * desvio de arredondamento informado pelo motor não entra: ele mede a distância entre o ótimo contínuo e os
+ * centavos, que o ajuste da última parcela leva para as somas e as parcelas já verificadas, e só os motores de
+ * otimização o informam.
+ * </p>
+ * <p>
+ * Enquanto uma estratégia tem menos de {@code amostrasMinimas} chamadas na faixa, ela é explorada na ordem do
+ * enum; depois, a escolhida é a de menor custo esperado entre as de taxa de sucesso não inferior a
+ * {@code taxaSucessoMinima}, em que o custo esperado é a latência da estratégia mais a latência de
+ * {@link EstrategiaMotor#PADRAO} ponderada pela taxa de falha, que é o custo de escalar. Uma estratégia
+ * barata que falha às vezes é então preferida enquanto a economia nos acertos pagar as escaladas. A cada {@code intervaloExploracao} chamadas da faixa, uma das outras estratégias é
+ * usada em rodízio, para que a tabela acompanhe mudanças na carga.
+ * </p>
+ * <p>
+ * Um resultado fora do erro máximo, ou uma exceção, escala para as estratégias seguintes na ordem do enum até
+ * {@link EstrategiaMotor#PADRAO}, cujo resultado é devolvido mesmo fora do erro máximo; exceções do padrão são
+ * propagadas. Todas as tentativas alimentam a tabela, exposta por {@link #tabela()}.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     DespachoAdaptativo despacho = DespachoAdaptativo.builder()
+ *         .erroMaximo(new BigDecimal("0.05"))
+ *         .build();
+ *     ResultadoRedistribuicao resultado = despacho.redistribuir(parametros);
+ *     despacho.tabela().forEach(custo -&gt; metricas.registrar(custo));
+ * </pre>
+ */
+public final class DespachoAdaptativo implements MotorRedistribuicao {
+
+    private static final EstrategiaMotor[] ESTRATEGIAS = EstrategiaMotor.values();
+    private static final RedistribuicaoSistemaAmortizacao[] SISTEMAS = RedistribuicaoSistemaAmortizacao.values();
+    private static final FaixaPrazo[] PRAZOS = FaixaPrazo.values();
+    private static final FaixaTaxa[] TAXAS = FaixaTaxa.values();
+
+    private final MotorRedistribuicao[] motores = new MotorRedistribuicao[ESTRATEGIAS.length];
+    private final BigDecimal erroMaximo;
+    private final double taxaSucessoMinima;
+    private final int amostrasMinimas;
+    private final int intervaloExploracao;
+    private final double pesoRecente;
+    private final LongSupplier relogio;
+    private final Celula[] celulas = new Celula[SISTEMAS.length * PRAZOS.length * TAXAS.length];
+
+    private DespachoAdaptativo(Builder builder) {
+        for (EstrategiaMotor estrategia : ESTRATEGIAS) {
+            motores[estrategia.ordinal()] = builder.motores.get(estrategia);
+        }
+        this.erroMaximo = builder.erroMaximo;
+        this.taxaSucessoMinima = builder.taxaSucessoMinima;
+        this.amostrasMinimas = builder.amostrasMinimas;
+        this.intervaloExploracao = builder.intervaloExploracao;
+        this.pesoRecente = builder.pesoRecente;
+        this.relogio = builder.relogio;
+        for (int c = 0; c < celulas.length; c++) {
+            celulas[c] = new Celula();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public ResultadoRedistribuicao redistribuir(ParametrosRedistribuicao parametros) {
+        MotorOtimizacao.validar(parametros);
+        Celula celula = celulas[indice(parametros.sistemaAmortizacao(), FaixaPrazo.de(parametros.quantidadeParcelas()),
+                FaixaTaxa.de(parametros.taxaJuros() == null ? 0.0 : parametros.taxaJuros().doubleValue()))];
+        int escolhida = celula.escolher();
+        for (int e = escolhida; e < ESTRATEGIAS.length; e++) {
+            if (e > escolhida && e != ESTRATEGIAS.length - 1 && celula.reprovada(e)) {
+                // Estratégias intermediárias que já se mostraram insuficientes na faixa não são tentadas
+                continue;
+            }
+            boolean ultima = e == ESTRATEGIAS.length - 1;
+            long inicio = relogio.getAsLong();
+            ResultadoRedistribuicao resultado;
+            try {
+                resultado = motores[e].redistribuir(parametros);
+            } catch (RuntimeException ex) {
+                celula.registrar(e, relogio.getAsLong() - inicio, false);
+                if (ultima) {
+                    throw ex;
+                }
+                continue;
+            }
+            boolean sucesso = dentroDoErro(parametros, resultado);
+            celula.registrar(e, relogio.getAsLong() - inicio, sucesso);
+            if (sucesso || ultima) {
+                return resultado;
+            }
+        }
+        throw new IllegalStateException("Nenhuma estratégia executada");
+    }
+
+    /**
+     * @return Estratégia que seria escolhida hoje para a faixa, fora das chamadas de exploração.
+     */
+    public EstrategiaMotor estrategiaPreferida(RedistribuicaoSistemaAmortizacao sistema, FaixaPrazo faixaPrazo, FaixaTaxa faixaTaxa) {
+        Celula celula = celulas[indice(sistema, faixaPrazo, faixaTaxa)];
+        synchronized (celula) {
+            return ESTRATEGIAS[celula.preferida()];
+        }
+    }
+
+    /**
+     * @return Custo aprendido de cada estratégia com ao menos uma amostra, por faixa.
+     */
+    public List<CustoEstrategia> tabela() {
+        List<CustoEstrategia> tabela = new ArrayList<>();
+        for (RedistribuicaoSistemaAmortizacao sistema : SISTEMAS) {
+            for (FaixaPrazo prazo : PRAZOS) {
+                for (FaixaTaxa taxa : TAXAS) {
+                    Celula celula = celulas[indice(sistema, prazo, taxa)];
+                    synchronized (celula) {
+                        int preferida = celula.preferida();
+                        for (int e = 0; e < ESTRATEGIAS.length; e++) {
+                            if (celula.amostras[e] > 0) {
+                                tabela.add(new CustoEstrategia(sistema, prazo, taxa, ESTRATEGIAS[e], celula.amostras[e],
+                                        celula.latencia[e], celula.sucesso[e], e == preferida));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return tabela;
+    }
+
+    private boolean dentroDoErro(ParametrosRedistribuicao parametros, ResultadoRedistribuicao resultado) {
+        if (resultado == null || resultado.principal() == null || resultado.juros() == null
+                || resultado.principal().length != parametros.quantidadeParcelas()
+                || resultado.juros().length != parametros.quantidadeParcelas()) {
+            return false;
+        }
+        // SAC não tem parcela constante; PRICE e SFF têm, e cada parcela deve reproduzi-la
+        BigDecimal valorParcela = parametros.sistemaAmortizacao() == RedistribuicaoSistemaAmortizacao.SAC
+                ? null : parametros.valorParcela();
+        BigDecimal somaPrincipal = BigDecimal.ZERO;
+        BigDecimal somaJuros = BigDecimal.ZERO;
+        for (int k = 0; k < resultado.principal().length; k++) {
+            BigDecimal principal = resultado.principal()[k];
+            BigDecimal juros = resultado.juros()[k];
+            if (principal == null || juros == null || principal.signum() < 0 || juros.signum() < 0) {
+                return false;
+            }
+            if (valorParcela != null && principal.add(juros).subtract(valorParcela).abs().compareTo(erroMaximo) > 0) {
+                return false;
+            }
+            somaPrincipal = somaPrincipal.add(principal);
+            somaJuros = somaJuros.add(juros);
+        }
+        return somaPrincipal.subtract(parametros.saldoPrincipal()).abs().compareTo(erroMaximo) <= 0
+                && somaJuros.subtract(parametros.saldoJuros()).abs().compareTo(erroMaximo) <= 0;
+    }
+
+    private static int indice(RedistribuicaoSistemaAmortizacao sistema, FaixaPrazo prazo, FaixaTaxa taxa) {
+        return (sistema.ordinal() * PRAZOS.length + prazo.ordinal()) * TAXAS.length + taxa.ordinal();
+    }
+
+    private static ResultadoRedistribuicao cronogramaFechado(ParametrosRedistribuicao parametros) {
+        ParametrosFinanciamento financiamento = new ParametrosFinanciamento(
+                parametros.saldoPrincipal(), parametros.taxaJuros(), parametros.quantidadeParcelas());
+        return (parametros.sistemaAmortizacao() == RedistribuicaoSistemaAmortizacao.SAC
+                ? CronogramaFechado.sac(financiamento)
+                : CronogramaFechado.price(financiamento)).materializar();
+    }
+
+    /**
+     * Custos de uma faixa. Acesso sincronizado na própria instância: as seções são curtas e as faixas
+     * distribuem a contenção.
+     */
+    private final class Celula {
+        final long[] amostras = new long[ESTRATEGIAS.length];
+        final double[] latencia = new double[ESTRATEGIAS.length];
+        final double[] sucesso = new double[ESTRATEGIAS.length];
+        private long chamadas;
+        private int rodizio;
+
+        synchronized int escolher() {
+            chamadas++;
+            for (int e = 0; e < ESTRATEGIAS.length; e++) {
+                if (amostras[e] < amostrasMinimas) {
+                    return e;
+                }
+            }
+            int preferida = preferida();
+            if (chamadas % intervaloExploracao == 0) {
+                rodizio = (rodizio + 1) % ESTRATEGIAS.length;
+                if (rodizio == preferida) {
+                    rodizio = (rodizio + 1) % ESTRATEGIAS.length;
+                }
+                return rodizio;
+            }
+            return preferida;
+        }
+
+        int preferida() {
+            int ultima = ESTRATEGIAS.length - 1;
+            int melhor = ultima;
+            double menorCusto = latencia[ultima];
+            for (int e = 0; e < ultima; e++) {
+                if (amostras[e] >= amostrasMinimas && sucesso[e] >= taxaSucessoMinima) {
+                    // Uma falha escala e, no pior caso, paga também o padrão
+                    double custo = latencia[e] + (1.0 - sucesso[e]) * latencia[ultima];
+                    if (custo < menorCusto) {
+                        melhor = e;
+                        menorCusto = custo;
+                    }
+                }
+            }
+            return melhor;
+        }
+
+        synchronized boolean reprovada(int estrategia) {
+            return amostras[estrategia] >= amostrasMinimas && sucesso[estrategia] < taxaSucessoMinima;
+        }
+
+        synchronized void registrar(int estrategia, long nanos, boolean ok) {
+            double valor = ok ? 1.0 : 0.0;
+            if (amostras[estrategia] == 0) {
+                latencia[estrategia] = nanos;
+                sucesso[estrategia] = valor;
+            } else {
+                latencia[estrategia] += pesoRecente * (nanos - latencia[estrategia]);
+                sucesso[estrategia] += pesoRecente * (valor - sucesso[estrategia]);
+            }
+            amostras[estrategia]++;
+        }
+    }
+
+    /**
+     * Builder class for DespachoAdaptativo.
+     */
+    public static class Builder {
+        private final Map<EstrategiaMotor, MotorRedistribuicao> motores = new EnumMap<>(EstrategiaMotor.class);
+        private BigDecimal erroMaximo = new BigDecimal("0.05");
+        private double taxaSucessoMinima = 0.5;
+        private int amostrasMinimas = 8;
+        private int intervaloExploracao = 64;
+        private double pesoRecente = 0.1;
+        private LongSupplier relogio = System::nanoTime;
+
+        /**
+         * Substitui o motor de uma estratégia. Padrão: {@link CronogramaFechado} para {@code FECHADO} e
+         * {@link MotorOtimizacao} configurado para as demais.
+         */
+        public Builder motor(EstrategiaMotor estrategia, MotorRedistribuicao motor) {
+            this.motores.put(Objects.requireNonNull(estrategia, "estrategia"), Objects.requireNonNull(motor, "motor"));
+            return this;
+        }
+
+        /**
+         * Maior erro aceito num resultado. Padrão: 0,05.
+         */
+        public Builder erroMaximo(BigDecimal erroMaximo) {
+            this.erroMaximo = erroMaximo;
+            return this;
+        }
+
+        /**
+         * Taxa de sucesso mínima para uma estratégia ser preferida; acima dela, decide o custo esperado. Padrão: 0,5.
+         */
+        public Builder taxaSucessoMinima(double taxaSucessoMinima) {
+            this.taxaSucessoMinima = taxaSucessoMinima;
+            return this;
+        }
+
+        /**
+         * Amostras de cada estratégia numa faixa antes de a tabela ser usada. Padrão: 8.
+         */
+        public Builder amostrasMinimas(int amostrasMinimas) {
+            this.amostrasMinimas = amostrasMinimas;
+            return this;
+        }
+
+        /**
+         * A cada quantas chamadas de uma faixa outra estratégia é experimentada. Padrão: 64.
+         */
+        public Builder intervaloExploracao(int intervaloExploracao) {
+            this.intervaloExploracao = intervaloExploracao;
+            return this;
+        }
+
+        /**
+         * Peso da observação mais recente nas médias móveis. Padrão: 0,1.
+         */
+        public Builder pesoRecente(double pesoRecente) {
+            this.pesoRecente = pesoRecente;
+            return this;
+        }
+
+        /**
+         * Fonte de tempo, em nanossegundos, usada para medir a latência das estratégias. Padrão:
+         * {@link System#nanoTime()}.
+         */
+        public Builder relogio(LongSupplier relogio) {
+            this.relogio = Objects.requireNonNull(relogio, "relogio");
+            return this;
+        }
+
+        public DespachoAdaptativo build() {
+            motores.putIfAbsent(EstrategiaMotor.FECHADO, DespachoAdaptativo::cronogramaFechado);
+            motores.putIfAbsent(EstrategiaMotor.CURVA,
+                    MotorOtimizacao.builder().parametrizacao(ParametrizacaoPrincipal.CURVA).build());
+            motores.putIfAbsent(EstrategiaMotor.PARTIDA_ANUIDADE, MotorOtimizacao.builder().partidaAnuidade(true).build());
+            motores.putIfAbsent(EstrategiaMotor.PADRAO, MotorRedistribuicao.padrao());
+            if (erroMaximo == null || erroMaximo.signum() < 0) {
+                throw new IllegalArgumentException("Erro máximo não pode ser negativo: " + erroMaximo);
+            }
+            if (taxaSucessoMinima < 0 || taxaSucessoMinima > 1) {
+                throw new IllegalArgumentException("Taxa de sucesso mínima deve estar entre 0 e 1: " + taxaSucessoMinima);
+            }
+            if (amostrasMinimas <= 0 || intervaloExploracao <= 0) {
+                throw new IllegalArgumentException("Amostras mínimas e intervalo de exploração devem ser positivos");
+            }
+            if (pesoRecente <= 0 || pesoRecente > 1) {
+                throw new IllegalArgumentException("Peso recente deve estar em (0, 1]: " + pesoRecente);
+            }
+            return new DespachoAdaptativo(this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.com.pangolin.redistribuicao.despacho;
+
+/**
+ * Motores entre os quais o {@link DespachoAdaptativo} escolhe, na ordem em que são explorados e escalados.
+ *
+ * <ul>
+ *     <li>{@link #FECHADO}: cronograma PRICE ou SAC por expressão fechada, sem otimização. Só atende contratos
+ *     cujos saldos coincidem com os da tabela.</li>
+ *     <li>{@link #CURVA}: otimizador sobre a parametrização em curva, de poucas dimensões.</li>
+ *     <li>{@link #PARTIDA_ANUIDADE}: otimizador ponto a ponto partindo da amortização da tabela PRICE.</li>
+ *     <li>{@link #PADRAO}: otimizador ponto a ponto com o chute padrão. É o último recurso.</li>
+ * </ul>
+ */
+public enum EstrategiaMotor {
+    FECHADO,
+    CURVA,
+    PARTIDA_ANUIDADE,
+    PADRAO
+}
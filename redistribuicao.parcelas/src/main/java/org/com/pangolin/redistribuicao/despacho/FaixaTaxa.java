@@ -0,0 +1,26 @@
+package org.com.pangolin.redistribuicao.despacho;
+
+/**
+ * Faixas de taxa mensal usadas para agrupar o custo observado dos motores.
+ */
+public enum FaixaTaxa {
+    /**
+     * Abaixo de 1% ao mês.
+     */
+    BAIXA,
+    /**
+     * De 1% a 3% ao mês, exclusive.
+     */
+    MEDIA,
+    /**
+     * 3% ao mês ou mais.
+     */
+    ALTA;
+
+    public static FaixaTaxa de(double taxaMensal) {
+        if (taxaMensal < 0.01) {
+            return BAIXA;
+        }
+        return taxaMensal < 0.03 ? MEDIA : ALTA;
+    }
+}
@@ -0,0 +1,568 @@
+package org.com.pangolin.redistribuicao.distribuido;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.journal.CodecRedistribuicao;
+import org.com.pangolin.redistribuicao.lote.ItemLote;
+
+/**
+ * Coordenador de execução em lote distribuída entre vários processos trabalhadores, no mesmo host ou em outros
+ * nós.
+ * <p>
+ * A carteira é dividida em {@code numeroParticoes} partições pelo CRC32C da codificação binária
+ * ({@link CodecRedistribuicao}) da forma canônica de cada contrato, de modo que o mesmo contrato cai sempre na
+ * mesma partição, inclusive entre processos e reinícios. Os trabalhadores ({@link TrabalhadorDistribuido})
+ * conectam-se por socket no endereço configurado em {@link Builder#endereco(InetAddress)}, pedem uma partição
+ * por vez e devolvem os resultados; o coordenador remonta os {@link ItemLote} na ordem da entrada.
+ * </p>
+ * <p>
+ * O endereço padrão é o de loopback, que só aceita trabalhadores do próprio host. Para escalar entre nós,
+ * configure o endereço de uma interface de rede (ou o curinga {@code 0.0.0.0}) e inicie em cada nó
+ * {@code TrabalhadorDistribuido <host> <porta>} apontando para este coordenador. O protocolo não tem
+ * autenticação nem criptografia: fora do loopback, a porta só deve ser exposta em rede confiável.
+ * </p>
+ * <p>
+ * Uma partição entregue fica sob posse da conexão que a recebeu. Cada batimento leva quantos contratos da
+ * partição o trabalhador já concluiu. Se a conexão cai, se o trabalhador fica {@code timeoutBatimento} sem enviar
+ * batimento ou se fica {@code timeoutProgresso} sem concluir contrato (motor travado ou em laço, com a thread de
+ * batimento ainda viva), a conexão é fechada e a partição volta para o início da fila, para o próximo trabalhador
+ * que pedir. Resultados só são aceitos da conexão que detém a partição, de modo que
+ * um trabalhador dado como morto que responda depois não duplica nem sobrescreve resultados.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     try (CoordenadorDistribuido coordenador = CoordenadorDistribuido.builder()
+ *             .numeroParticoes(256)
+ *             .timeoutBatimento(Duration.ofSeconds(10))
+ *             .build()
+ *             .iniciar()) {
+ *         List&lt;Process&gt; processos = coordenador.iniciarProcessosLocais(8);
+ *         ResultadoDistribuido resultado = coordenador.executar(contratos);
+ *     }
+ * </pre>
+ */
+public final class CoordenadorDistribuido implements AutoCloseable {
+
+    private static final int ESPERA_MILLIS = 50;
+
+    private final InetAddress endereco;
+    private final int portaSolicitada;
+    private final int numeroParticoes;
+    private final long timeoutBatimentoNanos;
+    private final long timeoutProgressoNanos;
+    private final long tempoMaximoNanos;
+    private final ThreadFactory fabricaConexoes =
+            Thread.ofPlatform().name("coordenador-distribuido-conexao-", 0).daemon(true).factory();
+
+    private final Object estado = new Object();
+    private final List<Conexao> conexoes = new ArrayList<>();
+    private Execucao execucao;
+    private ServerSocket servidor;
+    private volatile boolean encerrado;
+
+    private CoordenadorDistribuido(Builder builder) {
+        this.endereco = builder.endereco;
+        this.portaSolicitada = builder.porta;
+        this.numeroParticoes = builder.numeroParticoes;
+        this.timeoutBatimentoNanos = builder.timeoutBatimento.toNanos();
+        this.timeoutProgressoNanos = builder.timeoutProgresso.toNanos();
+        this.tempoMaximoNanos = builder.tempoMaximo.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Abre o socket no endereço configurado e passa a aceitar trabalhadores.
+     *
+     * @throws IllegalStateException se o coordenador já foi iniciado ou encerrado.
+     * @throws UncheckedIOException  se não for possível abrir o socket.
+     */
+    public CoordenadorDistribuido iniciar() {
+        synchronized (estado) {
+            if (servidor != null || encerrado) {
+                throw new IllegalStateException("Coordenador já iniciado");
+            }
+            try {
+                servidor = new ServerSocket(portaSolicitada, 50, endereco);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        Thread.ofPlatform().name("coordenador-distribuido-aceite").daemon(true).start(this::aceitar);
+        Thread.ofPlatform().name("coordenador-distribuido-monitor").daemon(true).start(this::monitorar);
+        return this;
+    }
+
+    /**
+     * @return Porta em que o coordenador aceita trabalhadores.
+     */
+    public int porta() {
+        synchronized (estado) {
+            if (servidor == null) {
+                throw new IllegalStateException("Coordenador não iniciado");
+            }
+            return servidor.getLocalPort();
+        }
+    }
+
+    /**
+     * Inicia {@code quantidade} processos trabalhadores com a mesma JVM e o mesmo classpath do processo atual.
+     * Os processos terminam sozinhos quando o coordenador é encerrado. Trabalhadores de outros nós são
+     * iniciados à parte, com {@code TrabalhadorDistribuido <host> <porta>}.
+     *
+     * @throws UncheckedIOException se um processo não puder ser iniciado.
+     */
+    public List<Process> iniciarProcessosLocais(int quantidade) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade de processos deve ser positiva: " + quantidade);
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        InetAddress local = endereco.isAnyLocalAddress() ? InetAddress.getLoopbackAddress() : endereco;
+        ProcessBuilder construtor = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                TrabalhadorDistribuido.class.getName(), local.getHostAddress(), Integer.toString(porta()))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+        List<Process> processos = new ArrayList<>(quantidade);
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                processos.add(construtor.start());
+            }
+        } catch (IOException e) {
+            processos.forEach(Process::destroy);
+            throw new UncheckedIOException(e);
+        }
+        return processos;
+    }
+
+    /**
+     * Distribui os contratos entre os trabalhadores conectados e aguarda todos os resultados. Trabalhadores
+     * podem conectar-se antes ou durante a execução.
+     *
+     * @throws IllegalStateException se o coordenador não foi iniciado, já há uma execução em andamento, o
+     *                               coordenador foi encerrado ou o tempo máximo se esgotou com partições
+     *                               pendentes.
+     */
+    public ResultadoDistribuido executar(List<ParametrosRedistribuicao> contratos) {
+        Objects.requireNonNull(contratos, "contratos");
+        Execucao nova = new Execucao(contratos, numeroParticoes);
+        synchronized (estado) {
+            if (servidor == null) {
+                throw new IllegalStateException("Coordenador não iniciado");
+            }
+            if (execucao != null) {
+                throw new IllegalStateException("Já existe uma execução distribuída em andamento");
+            }
+            execucao = nova;
+            long limite = System.nanoTime() + tempoMaximoNanos;
+            try {
+                while (nova.concluidas < nova.indices.length) {
+                    if (encerrado) {
+                        throw new IllegalStateException("Coordenador encerrado durante a execução");
+                    }
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        throw new IllegalStateException(String.format(
+                                "Tempo máximo esgotado com %d de %d partições concluídas",
+                                nova.concluidas, nova.indices.length));
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(estado, restante);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrompido aguardando a execução distribuída", e);
+            } finally {
+                execucao = null;
+            }
+            return new ResultadoDistribuido(Arrays.asList(nova.itens), nova.indices.length, nova.reatribuicoes,
+                    nova.contribuintes.size(), nova.falhas);
+        }
+    }
+
+    /**
+     * Encerra o socket e todas as conexões. Trabalhadores conectados terminam e uma execução em andamento
+     * falha com {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        List<Conexao> abertas;
+        synchronized (estado) {
+            encerrado = true;
+            abertas = new ArrayList<>(conexoes);
+            estado.notifyAll();
+        }
+        try {
+            if (servidor != null) {
+                servidor.close();
+            }
+        } catch (IOException e) {
+            // Encerramento: nada a fazer
+        }
+        abertas.forEach(Conexao::close);
+    }
+
+    private void aceitar() {
+        while (!encerrado) {
+            Socket socket;
+            try {
+                socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+            } catch (IOException e) {
+                if (encerrado) {
+                    return;
+                }
+                continue;
+            }
+            Conexao conexao;
+            try {
+                conexao = new Conexao(socket);
+            } catch (IOException e) {
+                fecharSilenciosamente(socket);
+                continue;
+            }
+            synchronized (estado) {
+                if (encerrado) {
+                    conexao.close();
+                    return;
+                }
+                conexoes.add(conexao);
+            }
+            fabricaConexoes.newThread(() -> atender(conexao)).start();
+        }
+    }
+
+    private void atender(Conexao conexao) {
+        try {
+            while (true) {
+                byte tipo = conexao.entrada.readByte();
+                switch (tipo) {
+                    case ProtocoloDistribuido.PEDIR -> responderPedido(conexao);
+                    case ProtocoloDistribuido.BATIMENTO -> {
+                        conexao.entrada.readInt();
+                        int processados = conexao.entrada.readInt();
+                        long agora = System.nanoTime();
+                        conexao.ultimoSinal = agora;
+                        if (processados != conexao.processados) {
+                            conexao.processados = processados;
+                            conexao.ultimoProgresso = agora;
+                        }
+                    }
+                    case ProtocoloDistribuido.RESULTADO -> {
+                        int particao = conexao.entrada.readInt();
+                        receber(conexao, particao, ProtocoloDistribuido.lerItens(conexao.entrada));
+                    }
+                    default -> throw new IOException("Mensagem desconhecida do trabalhador: " + tipo);
+                }
+            }
+        } catch (IOException e) {
+            // Conexão encerrada ou protocolo violado: a partição em andamento volta para a fila
+        } finally {
+            synchronized (estado) {
+                liberar(conexao);
+                conexoes.remove(conexao);
+            }
+            conexao.close();
+        }
+    }
+
+    private void responderPedido(Conexao conexao) throws IOException {
+        int particao = -1;
+        List<ParametrosRedistribuicao> contratos = null;
+        boolean fim;
+        synchronized (estado) {
+            fim = encerrado;
+            if (!fim && execucao != null && conexao.particao < 0 && !execucao.pendentes.isEmpty()) {
+                particao = execucao.pendentes.pollFirst();
+                execucao.donos[particao] = conexao;
+                conexao.execucao = execucao;
+                conexao.particao = particao;
+                conexao.processados = 0;
+                conexao.ultimoSinal = System.nanoTime();
+                conexao.ultimoProgresso = conexao.ultimoSinal;
+                contratos = execucao.contratos(particao);
+            }
+        }
+        DataOutputStream saida = conexao.saida;
+        if (fim) {
+            saida.writeByte(ProtocoloDistribuido.FIM);
+            saida.flush();
+        } else if (contratos != null) {
+            ProtocoloDistribuido.escreverTarefa(saida, particao, contratos);
+        } else {
+            saida.writeByte(ProtocoloDistribuido.AGUARDAR);
+            saida.writeInt(ESPERA_MILLIS);
+            saida.flush();
+        }
+    }
+
+    private void receber(Conexao conexao, int particao, List<ItemLote> itens) throws IOException {
+        synchronized (estado) {
+            Execucao atual = execucao;
+            if (atual == null || conexao.execucao != atual || conexao.particao != particao
+                    || atual.donos[particao] != conexao) {
+                // Partição reatribuída ou de uma execução anterior: resultado descartado. Se a conexão ainda se
+                // julgava dona dela, ou de algo de uma execução encerrada, fica livre para pedir nova partição
+                if (conexao.execucao != atual || conexao.particao == particao) {
+                    conexao.execucao = null;
+                    conexao.particao = -1;
+                }
+                return;
+            }
+            int[] indices = atual.indices[particao];
+            if (itens.size() != indices.length) {
+                throw new IOException(String.format("Partição %d com %d resultados; esperado %d",
+                        particao, itens.size(), indices.length));
+            }
+            for (int i = 0; i < indices.length; i++) {
+                ItemLote item = itens.get(i);
+                atual.itens[indices[i]] = new ItemLote(indices[i], item.resultado(), item.falha());
+                if (!item.sucesso()) {
+                    atual.falhas++;
+                }
+            }
+            atual.donos[particao] = null;
+            atual.contribuintes.add(conexao);
+            atual.concluidas++;
+            conexao.execucao = null;
+            conexao.particao = -1;
+            if (atual.concluidas == atual.indices.length) {
+                estado.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Devolve à fila a partição detida pela conexão, se ela pertencer à execução atual. Chamado com
+     * {@code estado} travado.
+     */
+    private void liberar(Conexao conexao) {
+        Execucao atual = execucao;
+        int particao = conexao.particao;
+        if (atual != null && conexao.execucao == atual && particao >= 0 && atual.donos[particao] == conexao) {
+            atual.donos[particao] = null;
+            atual.pendentes.addFirst(particao);
+            atual.reatribuicoes++;
+        }
+        conexao.execucao = null;
+        conexao.particao = -1;
+    }
+
+    private void monitorar() {
+        long intervaloMillis = Math.max(1,
+                TimeUnit.NANOSECONDS.toMillis(Math.min(timeoutBatimentoNanos, timeoutProgressoNanos)) / 4);
+        while (!encerrado) {
+            try {
+                Thread.sleep(intervaloMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            List<Conexao> expiradas = new ArrayList<>();
+            synchronized (estado) {
+                long agora = System.nanoTime();
+                for (Conexao conexao : conexoes) {
+                    if (conexao.particao >= 0 && (agora - conexao.ultimoSinal > timeoutBatimentoNanos
+                            || agora - conexao.ultimoProgresso > timeoutProgressoNanos)) {
+                        liberar(conexao);
+                        expiradas.add(conexao);
+                    }
+                }
+            }
+            expiradas.forEach(Conexao::close);
+        }
+    }
+
+    private static void fecharSilenciosamente(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Encerramento: nada a fazer
+        }
+    }
+
+    private static final class Execucao {
+        private final List<ParametrosRedistribuicao> entrada;
+        private final int[][] indices;
+        private final ArrayDeque<Integer> pendentes = new ArrayDeque<>();
+        private final Conexao[] donos;
+        private final ItemLote[] itens;
+        private final Set<Conexao> contribuintes = new HashSet<>();
+        private int concluidas;
+        private int reatribuicoes;
+        private long falhas;
+
+        private Execucao(List<ParametrosRedistribuicao> entrada, int numeroParticoes) {
+            this.entrada = List.copyOf(entrada);
+            List<List<Integer>> baldes = new ArrayList<>(numeroParticoes);
+            for (int p = 0; p < numeroParticoes; p++) {
+                baldes.add(new ArrayList<>());
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream saida = new DataOutputStream(bytes);
+            CRC32C crc = new CRC32C();
+            for (int i = 0; i < this.entrada.size(); i++) {
+                // Hash estável entre processos: hashCode() do enum depende da identidade do objeto
+                bytes.reset();
+                crc.reset();
+                try {
+                    CodecRedistribuicao.escreverParametros(saida, this.entrada.get(i).canonico());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                crc.update(bytes.toByteArray());
+                baldes.get(Math.floorMod((int) crc.getValue(), numeroParticoes)).add(i);
+            }
+            this.indices = baldes.stream()
+                    .filter(balde -> !balde.isEmpty())
+                    .map(balde -> balde.stream().mapToInt(Integer::intValue).toArray())
+                    .toArray(int[][]::new);
+            for (int p = 0; p < indices.length; p++) {
+                pendentes.addLast(p);
+            }
+            this.donos = new Conexao[indices.length];
+            this.itens = new ItemLote[this.entrada.size()];
+        }
+
+        private List<ParametrosRedistribuicao> contratos(int particao) {
+            int[] posicoes = indices[particao];
+            List<ParametrosRedistribuicao> contratos = new ArrayList<>(posicoes.length);
+            for (int posicao : posicoes) {
+                contratos.add(entrada.get(posicao));
+            }
+            return contratos;
+        }
+    }
+
+    private static final class Conexao implements Closeable {
+        private final Socket socket;
+        private final DataInputStream entrada;
+        private final DataOutputStream saida;
+        private Execucao execucao;
+        private int particao = -1;
+        private volatile long ultimoSinal;
+        // Contratos concluídos na partição atual, segundo o último batimento
+        private volatile int processados;
+        private volatile long ultimoProgresso;
+
+        private Conexao(Socket socket) throws IOException {
+            this.socket = socket;
+            this.entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.saida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        @Override
+        public void close() {
+            fecharSilenciosamente(socket);
+        }
+    }
+
+    /**
+     * Builder class for CoordenadorDistribuido.
+     */
+    public static class Builder {
+        private InetAddress endereco = InetAddress.getLoopbackAddress();
+        private int porta;
+        private int numeroParticoes = 64;
+        private Duration timeoutBatimento = Duration.ofSeconds(10);
+        private Duration timeoutProgresso = Duration.ofMinutes(1);
+        private Duration tempoMaximo = Duration.ofHours(1);
+
+        /**
+         * Endereço em que o coordenador aceita trabalhadores. Padrão: loopback, só o próprio host; use o endereço
+         * de uma interface de rede, ou {@code 0.0.0.0}, para aceitar trabalhadores de outros nós.
+         */
+        public Builder endereco(InetAddress endereco) {
+            this.endereco = endereco;
+            return this;
+        }
+
+        /**
+         * Porta no endereço configurado. Padrão: 0, uma porta livre escolhida pelo sistema.
+         */
+        public Builder porta(int porta) {
+            this.porta = porta;
+            return this;
+        }
+
+        /**
+         * Quantidade de partições por hash. Partições vazias não são distribuídas. Padrão: 64.
+         */
+        public Builder numeroParticoes(int numeroParticoes) {
+            this.numeroParticoes = numeroParticoes;
+            return this;
+        }
+
+        /**
+         * Tempo sem batimento após o qual o trabalhador é dado como morto e sua partição é reatribuída.
+         * Padrão: 10 s.
+         */
+        public Builder timeoutBatimento(Duration timeoutBatimento) {
+            this.timeoutBatimento = timeoutBatimento;
+            return this;
+        }
+
+        /**
+         * Tempo sem nenhum contrato concluído após o qual a partição é reatribuída, mesmo com batimentos em dia.
+         * Deve superar com folga o tempo de um contrato. Padrão: 1 min.
+         */
+        public Builder timeoutProgresso(Duration timeoutProgresso) {
+            this.timeoutProgresso = timeoutProgresso;
+            return this;
+        }
+
+        /**
+         * Tempo máximo de espera de {@link #executar(List)}. Padrão: 1 h.
+         */
+        public Builder tempoMaximo(Duration tempoMaximo) {
+            this.tempoMaximo = tempoMaximo;
+            return this;
+        }
+
+        public CoordenadorDistribuido build() {
+            Objects.requireNonNull(endereco, "endereco");
+            Objects.requireNonNull(timeoutBatimento, "timeoutBatimento");
+            Objects.requireNonNull(timeoutProgresso, "timeoutProgresso");
+            Objects.requireNonNull(tempoMaximo, "tempoMaximo");
+            if (porta < 0 || porta > 65535) {
+                throw new IllegalArgumentException("Porta inválida: " + porta);
+            }
+            if (numeroParticoes <= 0) {
+                throw new IllegalArgumentException("Número de partições deve ser positivo: " + numeroParticoes);
+            }
+            if (timeoutBatimento.isNegative() || timeoutBatimento.isZero()) {
+                throw new IllegalArgumentException("Timeout de batimento deve ser positivo: " + timeoutBatimento);
+            }
+            if (timeoutProgresso.isNegative() || timeoutProgresso.isZero()) {
+                throw new IllegalArgumentException("Timeout de progresso deve ser positivo: " + timeoutProgresso);
+            }
+            if (tempoMaximo.isNegative() || tempoMaximo.isZero()) {
+                throw new IllegalArgumentException("Tempo máximo deve ser positivo: " + tempoMaximo);
+            }
+            return new CoordenadorDistribuido(this);
+        }
+    }
+}
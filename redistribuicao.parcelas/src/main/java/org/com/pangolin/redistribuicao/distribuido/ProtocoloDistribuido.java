@@ -0,0 +1,85 @@
+package org.com.pangolin.redistribuicao.distribuido;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.journal.CodecRedistribuicao;
+import org.com.pangolin.redistribuicao.lote.ItemLote;
+
+/**
+ * Mensagens trocadas entre {@link CoordenadorDistribuido} e {@link TrabalhadorDistribuido} sobre um socket TCP.
+ * <p>
+ * Cada mensagem começa com um byte de tipo. Trabalhador para coordenador: {@link #PEDIR} (sem corpo),
+ * {@link #BATIMENTO} {@code [partição][contratos concluídos]} e {@link #RESULTADO} {@code [partição][quantidade][itens...]}, com cada
+ * item como {@code [sucesso][resultado | falha]}. Coordenador para trabalhador: {@link #TAREFA}
+ * {@code [partição][quantidade][parâmetros...]}, {@link #AGUARDAR} {@code [milissegundos]} e {@link #FIM}.
+ * Parâmetros e resultados usam {@link CodecRedistribuicao}.
+ * </p>
+ */
+final class ProtocoloDistribuido {
+
+    static final byte PEDIR = 1;
+    static final byte BATIMENTO = 2;
+    static final byte RESULTADO = 3;
+    static final byte TAREFA = 10;
+    static final byte AGUARDAR = 11;
+    static final byte FIM = 12;
+
+    private static final int TAMANHO_MAXIMO_FALHA = 1024;
+
+    private ProtocoloDistribuido() {
+    }
+
+    static void escreverTarefa(DataOutputStream saida, int particao, List<ParametrosRedistribuicao> contratos) throws IOException {
+        saida.writeByte(TAREFA);
+        saida.writeInt(particao);
+        saida.writeInt(contratos.size());
+        for (ParametrosRedistribuicao parametros : contratos) {
+            CodecRedistribuicao.escreverParametros(saida, parametros);
+        }
+        saida.flush();
+    }
+
+    static List<ParametrosRedistribuicao> lerContratos(DataInputStream entrada) throws IOException {
+        int quantidade = entrada.readInt();
+        List<ParametrosRedistribuicao> contratos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            contratos.add(CodecRedistribuicao.lerParametros(entrada));
+        }
+        return contratos;
+    }
+
+    /**
+     * Escreve os itens de uma partição; o índice de cada item é a posição dentro da partição.
+     */
+    static void escreverResultado(DataOutputStream saida, int particao, List<ItemLote> itens) throws IOException {
+        saida.writeByte(RESULTADO);
+        saida.writeInt(particao);
+        saida.writeInt(itens.size());
+        for (ItemLote item : itens) {
+            saida.writeBoolean(item.sucesso());
+            if (item.sucesso()) {
+                CodecRedistribuicao.escreverResultado(saida, item.resultado());
+            } else {
+                String falha = item.falha();
+                saida.writeUTF(falha.length() > TAMANHO_MAXIMO_FALHA ? falha.substring(0, TAMANHO_MAXIMO_FALHA) : falha);
+            }
+        }
+        saida.flush();
+    }
+
+    static List<ItemLote> lerItens(DataInputStream entrada) throws IOException {
+        int quantidade = entrada.readInt();
+        List<ItemLote> itens = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            itens.add(entrada.readBoolean()
+                    ? new ItemLote(i, CodecRedistribuicao.lerResultado(entrada), null)
+                    : new ItemLote(i, null, entrada.readUTF()));
+        }
+        return itens;
+    }
+}
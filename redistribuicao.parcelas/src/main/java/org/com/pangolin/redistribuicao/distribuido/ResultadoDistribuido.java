@@ -0,0 +1,24 @@
+package org.com.pangolin.redistribuicao.distribuido;
+
+import java.util.List;
+
+import org.com.pangolin.redistribuicao.lote.ItemLote;
+
+/**
+ * Resultado de uma execução de {@link CoordenadorDistribuido}.
+ *
+ * @param itens          Resultado de cada contrato, na ordem da entrada; {@link ItemLote#indice()} é a posição
+ *                       do contrato na entrada.
+ * @param particoes      Partições não vazias distribuídas aos trabalhadores.
+ * @param reatribuicoes  Vezes em que uma partição voltou para a fila porque o trabalhador caiu ou parou de
+ *                       enviar batimentos.
+ * @param trabalhadores  Conexões de trabalhador que entregaram ao menos uma partição.
+ * @param falhas         Contratos cujo motor lançou exceção no trabalhador.
+ */
+public record ResultadoDistribuido(
+        List<ItemLote> itens,
+        int particoes,
+        int reatribuicoes,
+        int trabalhadores,
+        long falhas) {
+}
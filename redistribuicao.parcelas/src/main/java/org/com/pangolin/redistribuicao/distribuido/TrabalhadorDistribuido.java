@@ -0,0 +1,228 @@
+package org.com.pangolin.redistribuicao.distribuido;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.lote.ItemLote;
+
+/**
+ * Trabalhador de uma execução distribuída: conecta-se ao {@link CoordenadorDistribuido}, pede partições,
+ * redistribui cada contrato com o motor configurado e devolve os resultados.
+ * <p>
+ * Enquanto processa uma partição, uma thread de segundo plano envia batimentos a cada
+ * {@code intervaloBatimento} com a quantidade de contratos já concluídos na partição; o intervalo deve ser bem
+ * menor que os timeouts de batimento e de progresso do coordenador, que reatribui a partição de um trabalhador
+ * cujo motor deixa de concluir contratos. Exceções
+ * do motor são devolvidas como falha do contrato e não interrompem o trabalhador. O trabalhador termina quando o
+ * coordenador responde {@code FIM} ou encerra a conexão.
+ * </p>
+ * <p>
+ * Pode rodar numa thread do próprio processo ou como processo separado, neste ou em outro nó, por
+ * {@link #main(String[])} com o host e a porta do coordenador como argumentos.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     TrabalhadorDistribuido trabalhador = TrabalhadorDistribuido.builder()
+ *         .porta(coordenador.porta())
+ *         .motor(MotorRedistribuicao.padrao())
+ *         .build();
+ *     long particoes = trabalhador.executar(); // bloqueia até o coordenador encerrar
+ * </pre>
+ */
+public final class TrabalhadorDistribuido {
+
+    private final String host;
+    private final int porta;
+    private final MotorRedistribuicao motor;
+    private final long intervaloBatimentoMillis;
+
+    private TrabalhadorDistribuido(Builder builder) {
+        this.host = builder.host;
+        this.porta = builder.porta;
+        this.motor = builder.motor;
+        this.intervaloBatimentoMillis = Math.max(1, builder.intervaloBatimento.toMillis());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Executa um trabalhador com o motor padrão. Argumentos: host e porta do coordenador.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Uso: TrabalhadorDistribuido <host> <porta>");
+        }
+        builder().host(args[0]).porta(Integer.parseInt(args[1])).build().executar();
+    }
+
+    /**
+     * Processa partições até o coordenador encerrar.
+     *
+     * @return Partições processadas e entregues por este trabalhador.
+     * @throws UncheckedIOException se não for possível conectar ao coordenador ou a comunicação falhar por outro
+     *                              motivo que não o encerramento da conexão.
+     */
+    public long executar() {
+        long particoes = 0;
+        try (Socket socket = new Socket(host, porta)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            AtomicInteger particaoAtual = new AtomicInteger(-1);
+            AtomicInteger processados = new AtomicInteger();
+            Thread batimento = Thread.ofPlatform().name("trabalhador-distribuido-batimento").daemon(true)
+                    .start(() -> enviarBatimentos(saida, particaoAtual, processados));
+            try {
+                while (true) {
+                    synchronized (saida) {
+                        saida.writeByte(ProtocoloDistribuido.PEDIR);
+                        saida.flush();
+                    }
+                    byte tipo = entrada.readByte();
+                    switch (tipo) {
+                        case ProtocoloDistribuido.TAREFA -> {
+                            int particao = entrada.readInt();
+                            List<ParametrosRedistribuicao> contratos = ProtocoloDistribuido.lerContratos(entrada);
+                            processados.set(0);
+                            particaoAtual.set(particao);
+                            List<ItemLote> itens = processar(contratos, processados);
+                            synchronized (saida) {
+                                ProtocoloDistribuido.escreverResultado(saida, particao, itens);
+                            }
+                            particaoAtual.set(-1);
+                            particoes++;
+                        }
+                        case ProtocoloDistribuido.AGUARDAR -> Thread.sleep(entrada.readInt());
+                        case ProtocoloDistribuido.FIM -> {
+                            return particoes;
+                        }
+                        default -> throw new IOException("Mensagem desconhecida do coordenador: " + tipo);
+                    }
+                }
+            } finally {
+                batimento.interrupt();
+            }
+        } catch (EOFException | SocketException e) {
+            // Coordenador encerrou a conexão
+            return particoes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return particoes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<ItemLote> processar(List<ParametrosRedistribuicao> contratos, AtomicInteger processados) {
+        List<ItemLote> itens = new ArrayList<>(contratos.size());
+        for (int i = 0; i < contratos.size(); i++) {
+            try {
+                itens.add(new ItemLote(i, motor.redistribuir(contratos.get(i)), null));
+            } catch (RuntimeException e) {
+                itens.add(new ItemLote(i, null, descricao(e)));
+            }
+            processados.incrementAndGet();
+        }
+        return itens;
+    }
+
+    private void enviarBatimentos(DataOutputStream saida, AtomicInteger particaoAtual, AtomicInteger processados) {
+        while (true) {
+            try {
+                Thread.sleep(intervaloBatimentoMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            int particao = particaoAtual.get();
+            if (particao < 0) {
+                continue;
+            }
+            try {
+                synchronized (saida) {
+                    saida.writeByte(ProtocoloDistribuido.BATIMENTO);
+                    saida.writeInt(particao);
+                    saida.writeInt(processados.get());
+                    saida.flush();
+                }
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private static String descricao(RuntimeException e) {
+        // Truncada para o tamanho máximo por ProtocoloDistribuido.escreverResultado
+        return e.getMessage() != null ? e.getClass().getSimpleName() + ": " + e.getMessage() : e.getClass().getName();
+    }
+
+    /**
+     * Builder class for TrabalhadorDistribuido.
+     */
+    public static class Builder {
+        private String host = "127.0.0.1";
+        private int porta;
+        private MotorRedistribuicao motor;
+        private Duration intervaloBatimento = Duration.ofSeconds(1);
+
+        /**
+         * Host do coordenador. Padrão: {@code 127.0.0.1}.
+         */
+        public Builder host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        public Builder porta(int porta) {
+            this.porta = porta;
+            return this;
+        }
+
+        /**
+         * Motor usado nos contratos. Padrão: {@link MotorRedistribuicao#padrao()}.
+         */
+        public Builder motor(MotorRedistribuicao motor) {
+            this.motor = motor;
+            return this;
+        }
+
+        /**
+         * Intervalo entre batimentos enquanto uma partição é processada. Padrão: 1 s.
+         */
+        public Builder intervaloBatimento(Duration intervaloBatimento) {
+            this.intervaloBatimento = intervaloBatimento;
+            return this;
+        }
+
+        public TrabalhadorDistribuido build() {
+            Objects.requireNonNull(host, "host");
+            Objects.requireNonNull(intervaloBatimento, "intervaloBatimento");
+            if (porta <= 0 || porta > 65535) {
+                throw new IllegalArgumentException("Porta do coordenador inválida: " + porta);
+            }
+            if (intervaloBatimento.isNegative() || intervaloBatimento.isZero()) {
+                throw new IllegalArgumentException("Intervalo de batimento deve ser positivo: " + intervaloBatimento);
+            }
+            if (motor == null) {
+                motor = MotorRedistribuicao.padrao();
+            }
+            return new TrabalhadorDistribuido(this);
+        }
+    }
+}
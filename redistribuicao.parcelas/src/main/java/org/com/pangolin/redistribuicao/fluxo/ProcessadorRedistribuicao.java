@@ -0,0 +1,354 @@
+package org.com.pangolin.redistribuicao.fluxo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * {@link Flow.Processor} que redistribui um fluxo contínuo de {@link ParametrosRedistribuicao} em micro-lotes.
+ * <p>
+ * Os itens recebidos são agrupados até atingir {@code tamanhoLote} ou até {@code intervaloLote} após o
+ * primeiro item do lote, o que ocorrer primeiro. Cada lote é processado por um pool fixo de trabalhadores e
+ * os resultados são publicados para os assinantes por um {@link SubmissionPublisher} com buffer limitado.
+ * </p>
+ * <p>
+ * A contrapressão é dirigida pela demanda em toda a cadeia: o processador nunca solicita ao produtor mais do
+ * que {@code capacidade} itens ainda não concluídos, e a publicação bloqueia o trabalhador quando o buffer de
+ * algum assinante está cheio. Assim, nenhuma fila cresce sem limite em rajadas. A ordem dos resultados é
+ * preservada dentro de um lote, mas não entre lotes processados em paralelo.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     ProcessadorRedistribuicao processador = ProcessadorRedistribuicao.builder()
+ *         .tamanhoLote(64)
+ *         .intervaloLote(Duration.ofMillis(5))
+ *         .paralelismo(4)
+ *         .build();
+ *     produtor.subscribe(processador);
+ *     processador.subscribe(consumidorDeResultados);
+ * </pre>
+ */
+public class ProcessadorRedistribuicao
+        implements Flow.Processor<ParametrosRedistribuicao, ResultadoRedistribuicao>, AutoCloseable {
+
+    private final MotorRedistribuicao motor;
+    private final int tamanhoLote;
+    private final Duration intervaloLote;
+    private final int capacidade;
+    private final BiConsumer<ParametrosRedistribuicao, RuntimeException> tratadorFalha;
+    private final ThreadPoolExecutor trabalhadores;
+    private final ScheduledExecutorService temporizador;
+    private final SubmissionPublisher<ResultadoRedistribuicao> publicador;
+
+    private final Object trava = new Object();
+    private Flow.Subscription assinatura;
+    private List<ParametrosRedistribuicao> loteAtual;
+    private long geracaoLote;
+    private int lotesPendentes;
+    private boolean upstreamConcluido;
+    private Throwable erroUpstream;
+    private boolean finalizado;
+
+    private ProcessadorRedistribuicao(Builder builder) {
+        this.motor = builder.motor;
+        this.tamanhoLote = builder.tamanhoLote;
+        this.intervaloLote = builder.intervaloLote;
+        this.capacidade = builder.capacidade;
+        this.tratadorFalha = builder.tratadorFalha;
+        // Cada lote contém ao menos um item não concluído, logo nunca há mais de 'capacidade' lotes na fila
+        this.trabalhadores = new ThreadPoolExecutor(builder.paralelismo, builder.paralelismo, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidade), threadDaemon("redistribuicao-lote"));
+        this.temporizador = Executors.newSingleThreadScheduledExecutor(threadDaemon("redistribuicao-temporizador"));
+        this.publicador = new SubmissionPublisher<>(builder.executorPublicacao, builder.bufferAssinante);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ResultadoRedistribuicao> assinante) {
+        publicador.subscribe(assinante);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (trava) {
+            if (assinatura != null || finalizado) {
+                subscription.cancel();
+                return;
+            }
+            assinatura = subscription;
+        }
+        subscription.request(capacidade);
+    }
+
+    @Override
+    public void onNext(ParametrosRedistribuicao item) {
+        Objects.requireNonNull(item, "item");
+        synchronized (trava) {
+            if (finalizado) {
+                return;
+            }
+            if (loteAtual == null) {
+                loteAtual = new ArrayList<>(tamanhoLote);
+                long geracao = ++geracaoLote;
+                temporizador.schedule(() -> expirarLote(geracao), intervaloLote.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            loteAtual.add(item);
+            if (loteAtual.size() >= tamanhoLote) {
+                despachar();
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (trava) {
+            upstreamConcluido = true;
+            erroUpstream = throwable;
+            if (loteAtual != null) {
+                despachar();
+            }
+            tentarFinalizar();
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (trava) {
+            upstreamConcluido = true;
+            if (loteAtual != null) {
+                despachar();
+            }
+            tentarFinalizar();
+        }
+    }
+
+    /**
+     * @return Quantidade de lotes aguardando ou em processamento.
+     */
+    public int lotesPendentes() {
+        synchronized (trava) {
+            return lotesPendentes;
+        }
+    }
+
+    /**
+     * Cancela a assinatura do produtor, encerra os assinantes e libera as threads do processador.
+     */
+    @Override
+    public void close() {
+        Flow.Subscription cancelar = null;
+        synchronized (trava) {
+            if (!finalizado) {
+                finalizado = true;
+                cancelar = assinatura;
+                publicador.close();
+            }
+        }
+        if (cancelar != null) {
+            cancelar.cancel();
+        }
+        temporizador.shutdownNow();
+        trabalhadores.shutdownNow();
+    }
+
+    private void expirarLote(long geracao) {
+        synchronized (trava) {
+            if (!finalizado && loteAtual != null && geracaoLote == geracao) {
+                despachar();
+            }
+        }
+    }
+
+    // Deve ser chamado com a trava adquirida
+    private void despachar() {
+        List<ParametrosRedistribuicao> lote = loteAtual;
+        loteAtual = null;
+        lotesPendentes++;
+        try {
+            trabalhadores.execute(() -> processarLote(lote));
+        } catch (RejectedExecutionException e) {
+            lotesPendentes--;
+            falhar(new IllegalStateException("Produtor enviou mais itens do que a demanda solicitada", e));
+        }
+    }
+
+    private void processarLote(List<ParametrosRedistribuicao> lote) {
+        RuntimeException erro = null;
+        try {
+            for (ParametrosRedistribuicao item : lote) {
+                ResultadoRedistribuicao resultado;
+                try {
+                    resultado = motor.redistribuir(item);
+                } catch (RuntimeException e) {
+                    if (tratadorFalha == null) {
+                        erro = e;
+                        break;
+                    }
+                    tratadorFalha.accept(item, e);
+                    continue;
+                }
+                try {
+                    publicador.submit(resultado);
+                } catch (IllegalStateException e) {
+                    // Publicador já encerrado: descarta o restante do lote
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Exceção do tratador de falhas: encerra o fluxo com erro
+            erro = e;
+        } finally {
+            // O lote sai da contagem em qualquer caso; do contrário o fluxo nunca seria finalizado
+            Flow.Subscription solicitar = null;
+            synchronized (trava) {
+                lotesPendentes--;
+                if (erro != null) {
+                    falhar(erro);
+                } else {
+                    solicitar = finalizado ? null : assinatura;
+                    tentarFinalizar();
+                }
+            }
+            if (solicitar != null) {
+                solicitar.request(lote.size());
+            }
+        }
+    }
+
+    // Deve ser chamado com a trava adquirida
+    private void falhar(Throwable erro) {
+        if (finalizado) {
+            return;
+        }
+        finalizado = true;
+        if (assinatura != null) {
+            assinatura.cancel();
+        }
+        publicador.closeExceptionally(erro);
+        encerrarExecutores();
+    }
+
+    // Deve ser chamado com a trava adquirida
+    private void tentarFinalizar() {
+        if (finalizado || !upstreamConcluido || lotesPendentes > 0 || loteAtual != null) {
+            return;
+        }
+        finalizado = true;
+        if (erroUpstream != null) {
+            publicador.closeExceptionally(erroUpstream);
+        } else {
+            publicador.close();
+        }
+        encerrarExecutores();
+    }
+
+    private void encerrarExecutores() {
+        temporizador.shutdown();
+        trabalhadores.shutdown();
+    }
+
+    private static ThreadFactory threadDaemon(String prefixo) {
+        return Thread.ofPlatform().name(prefixo + "-", 0).daemon(true).factory();
+    }
+
+    /**
+     * Builder class for ProcessadorRedistribuicao.
+     */
+    public static class Builder {
+        private MotorRedistribuicao motor = MotorRedistribuicao.padrao();
+        private int tamanhoLote = 32;
+        private Duration intervaloLote = Duration.ofMillis(10);
+        private int paralelismo = Runtime.getRuntime().availableProcessors();
+        private int capacidade = -1;
+        private int bufferAssinante = Flow.defaultBufferSize();
+        private Executor executorPublicacao = ForkJoinPool.commonPool();
+        private BiConsumer<ParametrosRedistribuicao, RuntimeException> tratadorFalha;
+
+        public Builder motor(MotorRedistribuicao motor) {
+            this.motor = motor;
+            return this;
+        }
+
+        public Builder tamanhoLote(int tamanhoLote) {
+            this.tamanhoLote = tamanhoLote;
+            return this;
+        }
+
+        public Builder intervaloLote(Duration intervaloLote) {
+            this.intervaloLote = intervaloLote;
+            return this;
+        }
+
+        public Builder paralelismo(int paralelismo) {
+            this.paralelismo = paralelismo;
+            return this;
+        }
+
+        /**
+         * Máximo de itens solicitados ao produtor e ainda não concluídos. Padrão: {@code 4 * paralelismo * tamanhoLote}.
+         */
+        public Builder capacidade(int capacidade) {
+            this.capacidade = capacidade;
+            return this;
+        }
+
+        public Builder bufferAssinante(int bufferAssinante) {
+            this.bufferAssinante = bufferAssinante;
+            return this;
+        }
+
+        public Builder executorPublicacao(Executor executorPublicacao) {
+            this.executorPublicacao = executorPublicacao;
+            return this;
+        }
+
+        /**
+         * Tratador para itens cuja redistribuição falhou. Sem tratador, a primeira falha encerra o fluxo com erro.
+         */
+        public Builder tratadorFalha(BiConsumer<ParametrosRedistribuicao, RuntimeException> tratadorFalha) {
+            this.tratadorFalha = tratadorFalha;
+            return this;
+        }
+
+        public ProcessadorRedistribuicao build() {
+            Objects.requireNonNull(motor, "motor");
+            Objects.requireNonNull(intervaloLote, "intervaloLote");
+            Objects.requireNonNull(executorPublicacao, "executorPublicacao");
+            if (tamanhoLote <= 0 || paralelismo <= 0 || bufferAssinante <= 0) {
+                throw new IllegalArgumentException("tamanhoLote, paralelismo e bufferAssinante devem ser positivos");
+            }
+            if (intervaloLote.isNegative() || intervaloLote.isZero()) {
+                throw new IllegalArgumentException("intervaloLote deve ser positivo: " + intervaloLote);
+            }
+            if (capacidade < 0) {
+                capacidade = 4 * paralelismo * tamanhoLote;
+            }
+            if (capacidade < tamanhoLote) {
+                throw new IllegalArgumentException(String.format(
+                        "capacidade (%d) deve ser ao menos o tamanho do lote (%d)", capacidade, tamanhoLote));
+            }
+            return new ProcessadorRedistribuicao(this);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.com.pangolin.redistribuicao.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Codificação binária compacta de {@link ParametrosRedistribuicao} e {@link ResultadoRedistribuicao}.
+ * <p>
+ * Valores {@link BigDecimal} são gravados como escala mais valor não escalado, preservando a representação
+ * exata. Campos opcionais ({@code taxaJuros}, {@code sistemaAmortizacao}) aceitam {@code null}.
+ * </p>
+ */
+public final class CodecRedistribuicao {
+
+    private CodecRedistribuicao() {
+    }
+
+    public static void escreverParametros(DataOutput saida, ParametrosRedistribuicao parametros) throws IOException {
+        escreverDecimal(saida, parametros.saldoDevedorParcelas());
+        escreverDecimal(saida, parametros.saldoPrincipal());
+        escreverDecimal(saida, parametros.saldoJuros());
+        escreverDecimal(saida, parametros.valorParcela());
+        saida.writeInt(parametros.quantidadeParcelas());
+        escreverDecimal(saida, parametros.taxaJuros());
+        RedistribuicaoSistemaAmortizacao sistema = parametros.sistemaAmortizacao();
+        saida.writeByte(sistema == null ? -1 : sistema.ordinal());
+        saida.writeBoolean(parametros.principalConstante());
+    }
+
+    public static ParametrosRedistribuicao lerParametros(DataInput entrada) throws IOException {
+        BigDecimal saldoDevedorParcelas = lerDecimal(entrada);
+        BigDecimal saldoPrincipal = lerDecimal(entrada);
+        BigDecimal saldoJuros = lerDecimal(entrada);
+        BigDecimal valorParcela = lerDecimal(entrada);
+        int quantidadeParcelas = entrada.readInt();
+        BigDecimal taxaJuros = lerDecimal(entrada);
+        byte sistema = entrada.readByte();
+        boolean principalConstante = entrada.readBoolean();
+        return new ParametrosRedistribuicao(
+                saldoDevedorParcelas,
+                saldoPrincipal,
+                saldoJuros,
+                valorParcela,
+                quantidadeParcelas,
+                taxaJuros,
+                sistema < 0 ? null : RedistribuicaoSistemaAmortizacao.values()[sistema],
+                principalConstante);
+    }
+
+    public static void escreverResultado(DataOutput saida, ResultadoRedistribuicao resultado) throws IOException {
+        int n = resultado.principal().length;
+        saida.writeInt(n);
+        for (int i = 0; i < n; i++) {
+            escreverDecimal(saida, resultado.principal()[i]);
+            escreverDecimal(saida, resultado.juros()[i]);
+        }
+        escreverDecimal(saida, resultado.desvioMaximoArredondamento());
+    }
+
+    public static ResultadoRedistribuicao lerResultado(DataInput entrada) throws IOException {
+        int n = entrada.readInt();
+        if (n < 0) {
+            throw new IOException("Quantidade de parcelas inválida: " + n);
+        }
+        BigDecimal[] principal = new BigDecimal[n];
+        BigDecimal[] juros = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            principal[i] = lerDecimal(entrada);
+            juros[i] = lerDecimal(entrada);
+        }
+        return new ResultadoRedistribuicao(principal, juros, lerDecimal(entrada));
+    }
+
+    public static void escreverDecimal(DataOutput saida, BigDecimal valor) throws IOException {
+        if (valor == null) {
+            saida.writeShort(-1);
+            return;
+        }
+        byte[] naoEscalado = valor.unscaledValue().toByteArray();
+        saida.writeShort(naoEscalado.length);
+        saida.write(naoEscalado);
+        saida.writeInt(valor.scale());
+    }
+
+    public static BigDecimal lerDecimal(DataInput entrada) throws IOException {
+        short tamanho = entrada.readShort();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] naoEscalado = new byte[tamanho];
+        entrada.readFully(naoEscalado);
+        return new BigDecimal(new BigInteger(naoEscalado), entrada.readInt());
+    }
+}
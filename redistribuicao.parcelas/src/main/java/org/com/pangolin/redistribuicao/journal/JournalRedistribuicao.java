@@ -0,0 +1,283 @@
+package org.com.pangolin.redistribuicao.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Journal local, somente de acréscimo, dos pares {@link ParametrosRedistribuicao} → {@link ResultadoRedistribuicao}.
+ * <p>
+ * Cada registro é gravado como {@code [comprimento][crc32c][sequência][payload]} em segmentos
+ * {@code segmento-<primeira sequência>.wal}, rotacionados ao atingir {@code tamanhoMaximoSegmento}.
+ * </p>
+ * <p>
+ * As escritas usam <i>group commit</i>: chamadores concorrentes apenas enfileiram o registro já serializado,
+ * e uma única thread grava tudo o que estiver na fila e executa um {@link FileChannel#force(boolean)} para o
+ * lote inteiro. O custo de durabilidade passa a ser um fsync por lote de chamadas. A fila é limitada, de
+ * modo que produtores mais rápidos que o disco são bloqueados em vez de acumular memória.
+ * </p>
+ * <p>
+ * Ao abrir, o último segmento é varrido e uma eventual cauda incompleta (escrita interrompida por queda)
+ * é truncada antes de novos acréscimos. Para recuperação use {@link LeitorJournal}.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     try (JournalRedistribuicao journal = JournalRedistribuicao.abrir(Path.of("/var/lib/redistribuicao/wal"))) {
+ *         ResultadoRedistribuicao resultado = motor.redistribuir(parametros);
+ *         journal.registrar(parametros, resultado); // retorna após o fsync do lote
+ *         return resultado;
+ *     }
+ * </pre>
+ */
+public class JournalRedistribuicao implements AutoCloseable {
+
+    public static final long TAMANHO_SEGMENTO_PADRAO = 64L * 1024 * 1024;
+    private static final int CAPACIDADE_FILA = 4096;
+
+    private final Path diretorio;
+    private final long tamanhoMaximoSegmento;
+    private final BlockingQueue<Pendente> fila = new ArrayBlockingQueue<>(CAPACIDADE_FILA);
+    private final Thread threadCommit;
+    private final AtomicLong sincronizacoes = new AtomicLong();
+
+    private FileChannel segmentoAtual;
+    private long ultimaSequencia;
+    private volatile long ultimaSequenciaDuravel;
+    private volatile boolean fechado;
+    private volatile IOException falha;
+
+    private record Pendente(byte[] payload, CompletableFuture<Long> conclusao) {
+    }
+
+    private static final Pendente FIM = new Pendente(new byte[0], new CompletableFuture<>());
+
+    private JournalRedistribuicao(Path diretorio, long tamanhoMaximoSegmento) throws IOException {
+        this.diretorio = diretorio;
+        this.tamanhoMaximoSegmento = tamanhoMaximoSegmento;
+        Files.createDirectories(diretorio);
+        recuperar();
+        this.threadCommit = Thread.ofPlatform().name("journal-redistribuicao").daemon(true).start(this::executarCommits);
+    }
+
+    public static JournalRedistribuicao abrir(Path diretorio) {
+        return abrir(diretorio, TAMANHO_SEGMENTO_PADRAO);
+    }
+
+    public static JournalRedistribuicao abrir(Path diretorio, long tamanhoMaximoSegmento) {
+        Objects.requireNonNull(diretorio, "diretorio");
+        if (tamanhoMaximoSegmento <= LeitorJournal.TAMANHO_CABECALHO) {
+            throw new IllegalArgumentException("Tamanho máximo de segmento inválido: " + tamanhoMaximoSegmento);
+        }
+        try {
+            return new JournalRedistribuicao(diretorio, tamanhoMaximoSegmento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Registra o par e bloqueia até que esteja durável em disco.
+     *
+     * @return Sequência atribuída ao registro.
+     * @throws UncheckedIOException se a gravação ou o fsync falharem.
+     */
+    public long registrar(ParametrosRedistribuicao parametros, ResultadoRedistribuicao resultado) {
+        try {
+            return registrarAsync(parametros, resultado).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o journal", e);
+        } catch (ExecutionException e) {
+            throw propagar(e.getCause());
+        }
+    }
+
+    /**
+     * Enfileira o par para gravação; o futuro é concluído com a sequência após o fsync do lote.
+     * Bloqueia apenas se a fila de gravação estiver cheia.
+     */
+    public CompletableFuture<Long> registrarAsync(ParametrosRedistribuicao parametros, ResultadoRedistribuicao resultado) {
+        verificarAberto();
+        Pendente pendente = new Pendente(LeitorJournal.codificar(parametros, resultado), new CompletableFuture<>());
+        try {
+            fila.put(pendente);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando espaço na fila do journal", e);
+        }
+        if (fechado && fila.remove(pendente)) {
+            pendente.conclusao().completeExceptionally(new IllegalStateException("Journal fechado"));
+        }
+        return pendente.conclusao();
+    }
+
+    /**
+     * @return Sequência do último registro já sincronizado em disco.
+     */
+    public long ultimaSequenciaDuravel() {
+        return ultimaSequenciaDuravel;
+    }
+
+    /**
+     * @return Quantidade de fsyncs executados desde a abertura.
+     */
+    public long quantidadeSincronizacoes() {
+        return sincronizacoes.get();
+    }
+
+    @Override
+    public void close() {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        try {
+            fila.put(FIM);
+            threadCommit.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            segmentoAtual.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void verificarAberto() {
+        if (falha != null) {
+            throw new UncheckedIOException("Journal indisponível após falha de gravação", falha);
+        }
+        if (fechado) {
+            throw new IllegalStateException("Journal fechado");
+        }
+    }
+
+    private void recuperar() throws IOException {
+        List<Path> segmentos = LeitorJournal.listarSegmentos(diretorio);
+        if (segmentos.isEmpty()) {
+            ultimaSequencia = 0;
+            abrirSegmento(1);
+        } else {
+            Path ultimo = segmentos.get(segmentos.size() - 1);
+            long sequenciaAnterior = LeitorJournal.primeiraSequencia(ultimo) - 1;
+            LeitorJournal.Varredura varredura = LeitorJournal.varrer(ultimo, sequenciaAnterior, null);
+            segmentoAtual = FileChannel.open(ultimo, StandardOpenOption.WRITE);
+            if (varredura.caudaInvalida()) {
+                segmentoAtual.truncate(varredura.comprimentoValido());
+                segmentoAtual.force(true);
+            }
+            segmentoAtual.position(varredura.comprimentoValido());
+            ultimaSequencia = varredura.ultimaSequencia();
+        }
+        ultimaSequenciaDuravel = ultimaSequencia;
+    }
+
+    private void abrirSegmento(long primeiraSequencia) throws IOException {
+        Path caminho = diretorio.resolve(LeitorJournal.nomeSegmento(primeiraSequencia));
+        segmentoAtual = FileChannel.open(caminho, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        sincronizarDiretorio();
+    }
+
+    private void sincronizarDiretorio() {
+        // Garante que a entrada do novo segmento no diretório sobreviva a uma queda; nem todo SO suporta
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException | UnsupportedOperationException ignorado) {
+            // melhor esforço
+        }
+    }
+
+    private void executarCommits() {
+        List<Pendente> lote = new ArrayList<>();
+        boolean encerrar = false;
+        while (!encerrar) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            fila.drainTo(lote);
+            if (lote.remove(FIM)) {
+                encerrar = true;
+            }
+            if (!lote.isEmpty()) {
+                gravarLote(lote);
+            }
+            lote.clear();
+        }
+        // Qualquer pendente que tenha chegado após o encerramento é rejeitado
+        Pendente restante;
+        while ((restante = fila.poll()) != null) {
+            restante.conclusao().completeExceptionally(new IllegalStateException("Journal fechado"));
+        }
+    }
+
+    private void gravarLote(List<Pendente> lote) {
+        if (falha != null) {
+            lote.forEach(p -> p.conclusao().completeExceptionally(new UncheckedIOException(falha)));
+            return;
+        }
+        long[] sequencias = new long[lote.size()];
+        try {
+            for (int i = 0; i < lote.size(); i++) {
+                byte[] payload = lote.get(i).payload();
+                long tamanhoRegistro = LeitorJournal.TAMANHO_CABECALHO + payload.length;
+                if (segmentoAtual.position() > 0 && segmentoAtual.position() + tamanhoRegistro > tamanhoMaximoSegmento) {
+                    segmentoAtual.force(false);
+                    sincronizacoes.incrementAndGet();
+                    segmentoAtual.close();
+                    abrirSegmento(ultimaSequencia + 1);
+                }
+                long sequencia = ++ultimaSequencia;
+                ByteBuffer registro = ByteBuffer.allocate((int) tamanhoRegistro);
+                registro.putInt(payload.length)
+                        .putInt(LeitorJournal.crc(sequencia, payload))
+                        .putLong(sequencia)
+                        .put(payload)
+                        .flip();
+                while (registro.hasRemaining()) {
+                    segmentoAtual.write(registro);
+                }
+                sequencias[i] = sequencia;
+            }
+            segmentoAtual.force(false);
+            sincronizacoes.incrementAndGet();
+        } catch (IOException e) {
+            falha = e;
+            lote.forEach(p -> p.conclusao().completeExceptionally(new UncheckedIOException(e)));
+            return;
+        }
+        ultimaSequenciaDuravel = ultimaSequencia;
+        for (int i = 0; i < lote.size(); i++) {
+            lote.get(i).conclusao().complete(sequencias[i]);
+        }
+    }
+
+    private static RuntimeException propagar(Throwable causa) {
+        if (causa instanceof CompletionException && causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        if (causa instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException(causa);
+    }
+}
@@ -0,0 +1,168 @@
+package org.com.pangolin.redistribuicao.journal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Leitor de recuperação do {@link JournalRedistribuicao}.
+ * <p>
+ * Percorre os segmentos em ordem de sequência validando o checksum CRC32C e a continuidade das sequências
+ * de cada registro. Um registro incompleto ou corrompido no final do último segmento é tratado como escrita
+ * interrompida e encerra a leitura; o mesmo defeito em um segmento intermediário indica perda de dados e
+ * resulta em {@link IllegalStateException}.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     long ultima = LeitorJournal.reproduzir(diretorio, registro -> repositorio.salvar(registro));
+ * </pre>
+ */
+public final class LeitorJournal {
+
+    static final String PREFIXO_SEGMENTO = "segmento-";
+    static final String SUFIXO_SEGMENTO = ".wal";
+    // comprimento do payload (int) + crc (int) + sequência (long)
+    static final int TAMANHO_CABECALHO = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private LeitorJournal() {
+    }
+
+    /**
+     * Entrega todos os registros válidos ao consumidor, em ordem de sequência.
+     *
+     * @return Sequência do último registro entregue, ou 0 se o journal estiver vazio.
+     */
+    public static long reproduzir(Path diretorio, Consumer<RegistroJournal> consumidor) {
+        List<Path> segmentos = listarSegmentos(diretorio);
+        long ultimaSequencia = 0;
+        for (int i = 0; i < segmentos.size(); i++) {
+            Varredura varredura = varrer(segmentos.get(i), ultimaSequencia, consumidor);
+            if (varredura.caudaInvalida() && i < segmentos.size() - 1) {
+                throw new IllegalStateException("Journal corrompido no segmento intermediário " + segmentos.get(i));
+            }
+            ultimaSequencia = varredura.ultimaSequencia();
+        }
+        return ultimaSequencia;
+    }
+
+    public static List<RegistroJournal> lerTodos(Path diretorio) {
+        List<RegistroJournal> registros = new ArrayList<>();
+        reproduzir(diretorio, registros::add);
+        return registros;
+    }
+
+    static List<Path> listarSegmentos(Path diretorio) {
+        if (!Files.isDirectory(diretorio)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .filter(p -> p.getFileName().toString().startsWith(PREFIXO_SEGMENTO)
+                            && p.getFileName().toString().endsWith(SUFIXO_SEGMENTO))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String nomeSegmento(long primeiraSequencia) {
+        return String.format("%s%020d%s", PREFIXO_SEGMENTO, primeiraSequencia, SUFIXO_SEGMENTO);
+    }
+
+    static long primeiraSequencia(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - SUFIXO_SEGMENTO.length()));
+    }
+
+    static int crc(long sequencia, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequencia));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    static byte[] codificar(ParametrosRedistribuicao parametros, ResultadoRedistribuicao resultado) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            CodecRedistribuicao.escreverParametros(saida, parametros);
+            CodecRedistribuicao.escreverResultado(saida, resultado);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Resultado da varredura de um segmento.
+     *
+     * @param ultimaSequencia   Última sequência válida encontrada (ou a recebida, se nenhuma).
+     * @param comprimentoValido Bytes do segmento ocupados por registros válidos.
+     * @param caudaInvalida     Indica bytes após o último registro válido.
+     */
+    record Varredura(long ultimaSequencia, long comprimentoValido, boolean caudaInvalida) {
+    }
+
+    static Varredura varrer(Path segmento, long sequenciaAnterior, Consumer<RegistroJournal> consumidor) {
+        long esperada = sequenciaAnterior == 0 ? primeiraSequencia(segmento) : sequenciaAnterior + 1;
+        long ultimaSequencia = esperada - 1;
+        long comprimentoValido = 0;
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ);
+             DataInputStream entrada = new DataInputStream(new BufferedInputStream(Channels.newInputStream(canal), 1 << 16))) {
+            long tamanhoArquivo = canal.size();
+            while (comprimentoValido < tamanhoArquivo) {
+                int tamanho;
+                int crcGravado;
+                long sequencia;
+                byte[] payload;
+                try {
+                    tamanho = entrada.readInt();
+                    crcGravado = entrada.readInt();
+                    sequencia = entrada.readLong();
+                    if (tamanho < 0 || tamanho > tamanhoArquivo - comprimentoValido - TAMANHO_CABECALHO) {
+                        break;
+                    }
+                    payload = new byte[tamanho];
+                    entrada.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (sequencia != esperada || crc(sequencia, payload) != crcGravado) {
+                    break;
+                }
+                if (consumidor != null) {
+                    DataInputStream dados = new DataInputStream(new ByteArrayInputStream(payload));
+                    consumidor.accept(new RegistroJournal(sequencia,
+                            CodecRedistribuicao.lerParametros(dados),
+                            CodecRedistribuicao.lerResultado(dados)));
+                }
+                ultimaSequencia = sequencia;
+                esperada++;
+                comprimentoValido += TAMANHO_CABECALHO + tamanho;
+            }
+            return new Varredura(ultimaSequencia, comprimentoValido, comprimentoValido < tamanhoArquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.com.pangolin.redistribuicao.journal;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Registro durável de uma redistribuição devolvida ao chamador.
+ *
+ * @param sequencia  Número de sequência atribuído pelo journal, crescente e sem lacunas.
+ * @param parametros Parâmetros recebidos.
+ * @param resultado  Resultado devolvido.
+ */
+public record RegistroJournal(long sequencia, ParametrosRedistribuicao parametros, ResultadoRedistribuicao resultado) {
+}
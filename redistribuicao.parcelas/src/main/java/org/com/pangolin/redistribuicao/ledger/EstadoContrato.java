@@ -0,0 +1,202 @@
+package org.com.pangolin.redistribuicao.ledger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Estado em memória de um contrato: principal e juros em aberto de cada parcela e os saldos totais.
+ * <p>
+ * Os saldos {@link #saldoPrincipal()} e {@link #saldoJuros()} são mantidos incrementalmente a cada
+ * evento, portanto consultá-los não percorre o cronograma. Instâncias devolvidas pelo
+ * {@link LedgerContratos} são cópias e podem ser lidas livremente; apenas o ledger aplica eventos.
+ * </p>
+ *
+ * <b>Exemplo prático:</b>
+ * <pre>
+ *     // Parcela 0 com principal 120,00 e juros 30,00; pagamento parcial de 100,00
+ *     // juros pagos = 30,00, principal pago = 70,00, saldo devedor da parcela = 50,00
+ *     EstadoContrato estado = ledger.estadoAtual("C-1");
+ *     estado.saldoDevedorParcela(0); // 50.00
+ * </pre>
+ */
+public final class EstadoContrato {
+
+    private static final BigDecimal TOLERANCIA = new BigDecimal("0.01");
+
+    private final String contratoId;
+    private long versao;
+    private BigDecimal[] principal;
+    private BigDecimal[] juros;
+    private BigDecimal saldoPrincipal;
+    private BigDecimal saldoJuros;
+
+    EstadoContrato(String contratoId, BigDecimal[] principal, BigDecimal[] juros) {
+        if (principal.length != juros.length) {
+            throw new IllegalArgumentException("Principal and juros arrays must have the same length");
+        }
+        this.contratoId = contratoId;
+        this.principal = Arrays.copyOf(principal, principal.length);
+        this.juros = Arrays.copyOf(juros, juros.length);
+        this.saldoPrincipal = somar(this.principal);
+        this.saldoJuros = somar(this.juros);
+    }
+
+    private EstadoContrato(EstadoContrato origem) {
+        this.contratoId = origem.contratoId;
+        this.versao = origem.versao;
+        this.principal = origem.principal.clone();
+        this.juros = origem.juros.clone();
+        this.saldoPrincipal = origem.saldoPrincipal;
+        this.saldoJuros = origem.saldoJuros;
+    }
+
+    public String contratoId() {
+        return contratoId;
+    }
+
+    /**
+     * @return Quantidade de eventos aplicados desde a abertura do contrato.
+     */
+    public long versao() {
+        return versao;
+    }
+
+    public int quantidadeParcelas() {
+        return principal.length;
+    }
+
+    public BigDecimal[] principal() {
+        return principal.clone();
+    }
+
+    public BigDecimal[] juros() {
+        return juros.clone();
+    }
+
+    public BigDecimal saldoPrincipal() {
+        return saldoPrincipal;
+    }
+
+    public BigDecimal saldoJuros() {
+        return saldoJuros;
+    }
+
+    public BigDecimal saldoDevedorParcela(int indice) {
+        return principal[indice].add(juros[indice]);
+    }
+
+    EstadoContrato copia() {
+        return new EstadoContrato(this);
+    }
+
+    /**
+     * Aplica o evento ao estado. O estado só é alterado se o evento for válido; caso contrário
+     * uma {@link IllegalArgumentException} é lançada e nenhum campo é modificado.
+     */
+    void aplicar(EventoContrato evento) {
+        switch (evento) {
+            case EventoContrato.ParcelaPaga e -> aplicarParcelaPaga(e.indice());
+            case EventoContrato.PagamentoParcial e -> aplicarPagamentoParcial(e.indice(), e.valor());
+            case EventoContrato.AmortizacaoExtraordinaria e -> aplicarAmortizacao(e.valor());
+            case EventoContrato.Redistribuicao e -> aplicarRedistribuicao(e.aPartirDe(), e.resultado());
+        }
+        versao++;
+    }
+
+    private void aplicarParcelaPaga(int indice) {
+        validarIndice(indice);
+        saldoPrincipal = saldoPrincipal.subtract(principal[indice]);
+        saldoJuros = saldoJuros.subtract(juros[indice]);
+        principal[indice] = BigDecimal.ZERO;
+        juros[indice] = BigDecimal.ZERO;
+    }
+
+    private void aplicarPagamentoParcial(int indice, BigDecimal valor) {
+        validarIndice(indice);
+        if (valor.signum() <= 0) {
+            throw new IllegalArgumentException("Valor do pagamento parcial deve ser positivo: " + valor);
+        }
+        if (valor.compareTo(saldoDevedorParcela(indice)) > 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Pagamento parcial (%s) excede o saldo devedor da parcela %d (%s)",
+                    valor, indice, saldoDevedorParcela(indice)));
+        }
+        // Juros são abatidos antes do principal
+        BigDecimal jurosPago = valor.min(juros[indice]);
+        BigDecimal principalPago = valor.subtract(jurosPago);
+
+        juros[indice] = juros[indice].subtract(jurosPago);
+        principal[indice] = principal[indice].subtract(principalPago);
+        saldoJuros = saldoJuros.subtract(jurosPago);
+        saldoPrincipal = saldoPrincipal.subtract(principalPago);
+    }
+
+    private void aplicarAmortizacao(BigDecimal valor) {
+        if (valor.signum() <= 0) {
+            throw new IllegalArgumentException("Valor da amortização deve ser positivo: " + valor);
+        }
+        if (valor.compareTo(saldoPrincipal) > 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Amortização (%s) excede o saldo principal (%s)", valor, saldoPrincipal));
+        }
+        BigDecimal restante = valor;
+        for (int i = principal.length - 1; i >= 0 && restante.signum() > 0; i--) {
+            if (principal[i].signum() == 0) {
+                continue;
+            }
+            BigDecimal abatido = restante.min(principal[i]);
+            principal[i] = principal[i].subtract(abatido);
+            restante = restante.subtract(abatido);
+            if (principal[i].signum() == 0) {
+                // Parcela eliminada pela redução de prazo: os juros dela deixam de existir
+                saldoJuros = saldoJuros.subtract(juros[i]);
+                juros[i] = BigDecimal.ZERO;
+            }
+        }
+        saldoPrincipal = saldoPrincipal.subtract(valor);
+    }
+
+    private void aplicarRedistribuicao(int aPartirDe, ResultadoRedistribuicao resultado) {
+        if (aPartirDe < 0 || aPartirDe > principal.length) {
+            throw new IllegalArgumentException("Índice inicial da redistribuição inválido: " + aPartirDe);
+        }
+        BigDecimal somaPrincipal = somar(resultado.principal());
+        BigDecimal somaJuros = somar(resultado.juros());
+        if (somaPrincipal.subtract(saldoPrincipal).abs().compareTo(TOLERANCIA) > 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Soma dos principais redistribuídos (%s) não corresponde ao saldo principal (%s)",
+                    somaPrincipal, saldoPrincipal));
+        }
+        if (somaJuros.subtract(saldoJuros).abs().compareTo(TOLERANCIA) > 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Soma dos juros redistribuídos (%s) não corresponde ao saldo de juros (%s)",
+                    somaJuros, saldoJuros));
+        }
+
+        int n = aPartirDe + resultado.principal().length;
+        BigDecimal[] novoPrincipal = new BigDecimal[n];
+        BigDecimal[] novoJuros = new BigDecimal[n];
+        Arrays.fill(novoPrincipal, 0, aPartirDe, BigDecimal.ZERO);
+        Arrays.fill(novoJuros, 0, aPartirDe, BigDecimal.ZERO);
+        System.arraycopy(resultado.principal(), 0, novoPrincipal, aPartirDe, resultado.principal().length);
+        System.arraycopy(resultado.juros(), 0, novoJuros, aPartirDe, resultado.juros().length);
+
+        principal = novoPrincipal;
+        juros = novoJuros;
+        saldoPrincipal = somaPrincipal;
+        saldoJuros = somaJuros;
+    }
+
+    private void validarIndice(int indice) {
+        if (indice < 0 || indice >= principal.length) {
+            throw new IllegalArgumentException("Parcela inexistente: " + indice);
+        }
+    }
+
+    private static BigDecimal somar(BigDecimal[] valores) {
+        return Arrays.stream(valores).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,58 @@
+package org.com.pangolin.redistribuicao.ledger;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Evento aplicado ao estado de um contrato no {@link LedgerContratos}.
+ * <p>
+ * Os eventos são imutáveis e descrevem apenas o fato ocorrido; a regra de aplicação
+ * fica concentrada em {@link EstadoContrato}.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     ledger.registrar("C-1", new EventoContrato.PagamentoParcial(0, new BigDecimal("150.00")));
+ *     ledger.registrar("C-1", new EventoContrato.ParcelaPaga(1));
+ * </pre>
+ */
+public sealed interface EventoContrato {
+
+    /**
+     * Quitação integral do saldo em aberto da parcela {@code indice}.
+     */
+    record ParcelaPaga(int indice) implements EventoContrato {
+    }
+
+    /**
+     * Pagamento parcial da parcela {@code indice}, abatendo primeiro os juros e depois o principal.
+     */
+    record PagamentoParcial(int indice, BigDecimal valor) implements EventoContrato {
+        public PagamentoParcial {
+            Objects.requireNonNull(valor, "valor");
+        }
+    }
+
+    /**
+     * Amortização extraordinária do saldo principal, aplicada da última parcela para a primeira
+     * (redução de prazo). Parcelas cujo principal é totalmente amortizado têm os juros cancelados.
+     */
+    record AmortizacaoExtraordinaria(BigDecimal valor) implements EventoContrato {
+        public AmortizacaoExtraordinaria {
+            Objects.requireNonNull(valor, "valor");
+        }
+    }
+
+    /**
+     * Substitui as parcelas em aberto a partir de {@code aPartirDe} pelo cronograma redistribuído.
+     * Saldos em aberto de parcelas anteriores a {@code aPartirDe} são absorvidos pela redistribuição,
+     * como ocorre com o resíduo de um pagamento parcial.
+     */
+    record Redistribuicao(int aPartirDe, ResultadoRedistribuicao resultado) implements EventoContrato {
+        public Redistribuicao {
+            Objects.requireNonNull(resultado, "resultado");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.com.pangolin.redistribuicao.ledger;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Ledger de contratos baseado em eventos, com snapshots periódicos.
+ * <p>
+ * Cada contrato mantém o histórico completo de {@link EventoContrato} e um snapshot do estado a cada
+ * {@code intervaloSnapshot} eventos. Reconstruir o estado em qualquer versão custa a cópia de um
+ * snapshot mais no máximo {@code intervaloSnapshot - 1} eventos, independentemente da idade do contrato.
+ * O estado corrente é mantido materializado, pois é necessário para validar cada novo evento.
+ * </p>
+ * <p>
+ * A classe é segura para uso concorrente: eventos de um mesmo contrato são serializados, e contratos
+ * distintos não competem entre si.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     LedgerContratos ledger = new LedgerContratos(16);
+ *     ledger.abrir("C-1", resultado);
+ *     ledger.registrar("C-1", new EventoContrato.PagamentoParcial(0, new BigDecimal("150.00")));
+ *     EstadoContrato atual = ledger.estadoAtual("C-1");
+ *     EstadoContrato anterior = ledger.estadoNaVersao("C-1", 0);
+ * </pre>
+ */
+public class LedgerContratos {
+
+    public static final int INTERVALO_SNAPSHOT_PADRAO = 16;
+
+    private final int intervaloSnapshot;
+    private final Map<String, Historico> contratos = new ConcurrentHashMap<>();
+
+    public LedgerContratos() {
+        this(INTERVALO_SNAPSHOT_PADRAO);
+    }
+
+    public LedgerContratos(int intervaloSnapshot) {
+        if (intervaloSnapshot <= 0) {
+            throw new IllegalArgumentException("Intervalo de snapshot deve ser positivo: " + intervaloSnapshot);
+        }
+        this.intervaloSnapshot = intervaloSnapshot;
+    }
+
+    /**
+     * Abre um contrato a partir do cronograma original (versão 0).
+     *
+     * @param contratoId Identificador do contrato.
+     * @param cronograma Principais e juros de cada parcela na originação.
+     * @throws IllegalStateException se o contrato já existir.
+     */
+    public void abrir(String contratoId, ResultadoRedistribuicao cronograma) {
+        abrir(contratoId, cronograma.principal(), cronograma.juros());
+    }
+
+    public void abrir(String contratoId, BigDecimal[] principal, BigDecimal[] juros) {
+        Historico historico = new Historico(new EstadoContrato(contratoId, principal, juros));
+        if (contratos.putIfAbsent(contratoId, historico) != null) {
+            throw new IllegalStateException("Contrato já aberto no ledger: " + contratoId);
+        }
+    }
+
+    /**
+     * Registra e aplica um evento ao contrato. Eventos inválidos são rejeitados sem alterar o histórico.
+     *
+     * @return Versão do contrato após o evento.
+     */
+    public long registrar(String contratoId, EventoContrato evento) {
+        return historico(contratoId).registrar(evento);
+    }
+
+    /**
+     * @return Cópia do estado corrente do contrato.
+     */
+    public EstadoContrato estadoAtual(String contratoId) {
+        return historico(contratoId).estadoAtual();
+    }
+
+    /**
+     * Reconstrói o estado do contrato na versão informada a partir do snapshot mais próximo.
+     *
+     * @param versao Versão desejada, entre 0 e a versão corrente.
+     */
+    public EstadoContrato estadoNaVersao(String contratoId, long versao) {
+        return historico(contratoId).estadoNaVersao(versao);
+    }
+
+    /**
+     * @return Cópia dos eventos registrados para o contrato, em ordem de aplicação.
+     */
+    public List<EventoContrato> eventos(String contratoId) {
+        return historico(contratoId).eventos();
+    }
+
+    public boolean contem(String contratoId) {
+        return contratos.containsKey(contratoId);
+    }
+
+    private Historico historico(String contratoId) {
+        Historico historico = contratos.get(contratoId);
+        if (historico == null) {
+            throw new IllegalArgumentException("Contrato não encontrado no ledger: " + contratoId);
+        }
+        return historico;
+    }
+
+    private final class Historico {
+        private final List<EventoContrato> eventos = new ArrayList<>();
+        // snapshots.get(k) guarda o estado na versão k * intervaloSnapshot
+        private final List<EstadoContrato> snapshots = new ArrayList<>();
+        private final EstadoContrato atual;
+
+        Historico(EstadoContrato inicial) {
+            this.atual = inicial;
+            this.snapshots.add(inicial.copia());
+        }
+
+        synchronized long registrar(EventoContrato evento) {
+            atual.aplicar(evento);
+            eventos.add(evento);
+            if (atual.versao() % intervaloSnapshot == 0) {
+                snapshots.add(atual.copia());
+            }
+            return atual.versao();
+        }
+
+        synchronized EstadoContrato estadoAtual() {
+            return atual.copia();
+        }
+
+        synchronized EstadoContrato estadoNaVersao(long versao) {
+            if (versao < 0 || versao > atual.versao()) {
+                throw new IllegalArgumentException(String.format(
+                        "Versão %d fora do intervalo [0, %d]", versao, atual.versao()));
+            }
+            int indiceSnapshot = (int) (versao / intervaloSnapshot);
+            EstadoContrato estado = snapshots.get(indiceSnapshot).copia();
+            for (long v = estado.versao(); v < versao; v++) {
+                estado.aplicar(eventos.get((int) v));
+            }
+            return estado;
+        }
+
+        synchronized List<EventoContrato> eventos() {
+            return List.copyOf(eventos);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.com.pangolin.redistribuicao.lote;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.journal.CodecRedistribuicao;
+
+/**
+ * Formato em disco de uma partição concluída:
+ * {@code [magia][partição][primeiro índice][quantidade][impressão da entrada][itens...][crc32c]}.
+ * <p>
+ * O arquivo é gravado com outro nome, sincronizado e então renomeado atomicamente; a existência de um arquivo
+ * íntegro é o próprio checkpoint da partição. A impressão da entrada (CRC32C dos parâmetros codificados) permite
+ * descartar checkpoints de uma entrada diferente.
+ * </p>
+ */
+final class ArquivoParticao {
+
+    private static final int MAGIA = 0x4C4F5445; // "LOTE"
+    private static final String PREFIXO = "particao-";
+    private static final String SUFIXO = ".res";
+    private static final String SUFIXO_TEMPORARIO = ".tmp";
+
+    private ArquivoParticao() {
+    }
+
+    /**
+     * Conteúdo válido de uma partição.
+     */
+    record Conteudo(int particao, int primeiroIndice, int impressao, List<ItemLote> itens) {
+    }
+
+    static Path caminho(Path diretorio, int particao) {
+        return diretorio.resolve(String.format("%s%06d%s", PREFIXO, particao, SUFIXO));
+    }
+
+    static int impressao(List<ParametrosRedistribuicao> entrada) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * entrada.size());
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            for (ParametrosRedistribuicao parametros : entrada) {
+                CodecRedistribuicao.escreverParametros(saida, parametros);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        return (int) crc.getValue();
+    }
+
+    static void gravar(Path diretorio, int particao, int primeiroIndice, int impressao, List<ItemLote> itens) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * itens.size() + 32);
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            saida.writeInt(MAGIA);
+            saida.writeInt(particao);
+            saida.writeInt(primeiroIndice);
+            saida.writeInt(itens.size());
+            saida.writeInt(impressao);
+            for (ItemLote item : itens) {
+                saida.writeBoolean(item.sucesso());
+                if (item.sucesso()) {
+                    CodecRedistribuicao.escreverResultado(saida, item.resultado());
+                } else {
+                    saida.writeUTF(item.falha());
+                }
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        ByteBuffer conteudo = ByteBuffer.allocate(bytes.size() + Integer.BYTES);
+        conteudo.put(bytes.toByteArray()).putInt((int) crc.getValue()).flip();
+
+        substituirAtomicamente(caminho(diretorio, particao), conteudo);
+    }
+
+    /**
+     * Grava o conteúdo num temporário forçado para o disco e o renomeia atomicamente sobre o destino, de modo que
+     * após uma queda o destino tenha o conteúdo anterior ou o novo, nunca um arquivo vazio ou truncado.
+     */
+    static void substituirAtomicamente(Path destino, ByteBuffer conteudo) throws IOException {
+        Path temporario = destino.resolveSibling(destino.getFileName() + SUFIXO_TEMPORARIO);
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        sincronizarDiretorio(destino.getParent());
+    }
+
+    /**
+     * @return Conteúdo da partição, ou {@code null} se o arquivo não existe ou está incompleto ou corrompido.
+     */
+    static Conteudo ler(Path diretorio, int particao) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(caminho(diretorio, particao));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (bytes.length < 6 * Integer.BYTES) {
+            return null;
+        }
+        int corpo = bytes.length - Integer.BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, corpo);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes, corpo, Integer.BYTES).getInt()) {
+            return null;
+        }
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(bytes, 0, corpo))) {
+            if (entrada.readInt() != MAGIA || entrada.readInt() != particao) {
+                return null;
+            }
+            int primeiroIndice = entrada.readInt();
+            int quantidade = entrada.readInt();
+            int impressao = entrada.readInt();
+            List<ItemLote> itens = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                itens.add(entrada.readBoolean()
+                        ? new ItemLote(primeiroIndice + i, CodecRedistribuicao.lerResultado(entrada), null)
+                        : new ItemLote(primeiroIndice + i, null, entrada.readUTF()));
+            }
+            return new Conteudo(particao, primeiroIndice, impressao, itens);
+        }
+    }
+
+    static void removerTemporarios(Path diretorio) throws IOException {
+        try (var arquivos = Files.list(diretorio)) {
+            for (Path arquivo : arquivos.filter(a -> a.getFileName().toString().endsWith(SUFIXO_TEMPORARIO)).toList()) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    static void sincronizarDiretorio(Path diretorio) {
+        // Torna a renomeação durável; nem todo sistema permite abrir diretórios, e nesse caso não há o que fazer
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Ignorado
+        }
+    }
+}
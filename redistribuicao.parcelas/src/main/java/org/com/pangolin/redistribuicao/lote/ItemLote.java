@@ -0,0 +1,17 @@
+package org.com.pangolin.redistribuicao.lote;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Resultado de um contrato num lote de redistribuição.
+ *
+ * @param indice    Posição do contrato na entrada do lote.
+ * @param resultado Resultado da redistribuição, ou {@code null} se falhou.
+ * @param falha     Mensagem da exceção lançada pelo motor, ou {@code null} em caso de sucesso.
+ */
+public record ItemLote(int indice, ResultadoRedistribuicao resultado, String falha) {
+
+    public boolean sucesso() {
+        return falha == null;
+    }
+}
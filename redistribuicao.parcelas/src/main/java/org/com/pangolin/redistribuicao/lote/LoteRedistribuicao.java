@@ -0,0 +1,272 @@
+package org.com.pangolin.redistribuicao.lote;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Execução em lote de redistribuições com checkpoint por partição, retomável após queda.
+ * <p>
+ * A entrada é dividida em partições de {@code tamanhoParticao} contratos consecutivos. Cada partição concluída
+ * é gravada em {@code particao-NNNNNN.res} no diretório do lote: o arquivo é escrito com outro nome,
+ * sincronizado em disco e renomeado atomicamente, de modo que ou a partição está inteira e durável, ou não
+ * existe. Ao executar de novo sobre o mesmo diretório, apenas as partições sem arquivo íntegro são processadas;
+ * o trabalho perdido numa queda limita-se às partições em andamento.
+ * </p>
+ * <p>
+ * A saída é idempotente: reprocessar uma partição substitui o arquivo pelo mesmo conteúdo, sem duplicar
+ * resultados. Cada arquivo guarda uma impressão dos parâmetros da partição, e um checkpoint gravado para uma
+ * entrada diferente é descartado e reprocessado. Exceções do motor são registradas como falha do contrato e
+ * não interrompem o lote.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     LoteRedistribuicao lote = LoteRedistribuicao.builder()
+ *         .diretorio(Path.of("/var/lib/redistribuicao/lote-2026-10"))
+ *         .tamanhoParticao(5_000)
+ *         .paralelismo(8)
+ *         .build();
+ *     ResumoLote resumo = lote.executar(contratos); // após um restart, retoma de onde parou
+ *     LoteRedistribuicao.ler(lote.diretorio(), item -&gt; repositorio.gravar(contratos.get(item.indice()), item));
+ * </pre>
+ */
+public final class LoteRedistribuicao {
+
+    private static final String MANIFESTO = "lote.manifesto";
+    private static final int TAMANHO_MAXIMO_FALHA = 1024;
+
+    private final Path diretorio;
+    private final MotorRedistribuicao motor;
+    private final int tamanhoParticao;
+    private final int paralelismo;
+
+    private LoteRedistribuicao(Builder builder) {
+        this.diretorio = builder.diretorio;
+        this.motor = builder.motor;
+        this.tamanhoParticao = builder.tamanhoParticao;
+        this.paralelismo = builder.paralelismo;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Path diretorio() {
+        return diretorio;
+    }
+
+    /**
+     * Processa as partições ainda não concluídas da entrada.
+     *
+     * @throws IllegalStateException se o diretório contém um lote com outra quantidade de contratos ou outro
+     *                               tamanho de partição.
+     * @throws UncheckedIOException  se a gravação de um checkpoint falhar.
+     */
+    public ResumoLote executar(List<ParametrosRedistribuicao> contratos) {
+        Objects.requireNonNull(contratos, "contratos");
+        int particoes = (contratos.size() + tamanhoParticao - 1) / tamanhoParticao;
+        List<Integer> pendentes = new ArrayList<>();
+        try {
+            Files.createDirectories(diretorio);
+            verificarManifesto(contratos.size());
+            ArquivoParticao.removerTemporarios(diretorio);
+            for (int p = 0; p < particoes; p++) {
+                ArquivoParticao.Conteudo conteudo = ArquivoParticao.ler(diretorio, p);
+                if (conteudo == null || conteudo.impressao() != ArquivoParticao.impressao(entrada(contratos, p))) {
+                    pendentes.add(p);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        AtomicLong executados = new AtomicLong();
+        AtomicLong falhas = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(paralelismo, pendentes.size())),
+                Thread.ofPlatform().name("lote-redistribuicao-", 0).daemon(true).factory());
+        try {
+            List<Future<?>> tarefas = new ArrayList<>(pendentes.size());
+            for (int particao : pendentes) {
+                tarefas.add(executor.submit(() -> {
+                    processar(contratos, particao, executados, falhas);
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                aguardar(tarefa);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ResumoLote(particoes, particoes - pendentes.size(), pendentes.size(), executados.get(), falhas.get());
+    }
+
+    /**
+     * Entrega os resultados de um lote concluído, em ordem de índice.
+     *
+     * @throws IllegalStateException se alguma partição do lote não está concluída.
+     */
+    public static void ler(Path diretorio, Consumer<ItemLote> consumidor) {
+        try {
+            int[] manifesto = lerManifesto(diretorio);
+            if (manifesto == null) {
+                throw new IllegalStateException("Diretório não contém um lote: " + diretorio);
+            }
+            int particoes = (manifesto[0] + manifesto[1] - 1) / manifesto[1];
+            for (int p = 0; p < particoes; p++) {
+                ArquivoParticao.Conteudo conteudo = ArquivoParticao.ler(diretorio, p);
+                if (conteudo == null) {
+                    throw new IllegalStateException("Lote incompleto: partição " + p + " pendente");
+                }
+                conteudo.itens().forEach(consumidor);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void processar(List<ParametrosRedistribuicao> contratos, int particao, AtomicLong executados, AtomicLong falhas)
+            throws IOException {
+        List<ParametrosRedistribuicao> entrada = entrada(contratos, particao);
+        int primeiroIndice = particao * tamanhoParticao;
+        List<ItemLote> itens = new ArrayList<>(entrada.size());
+        for (int i = 0; i < entrada.size(); i++) {
+            try {
+                ResultadoRedistribuicao resultado = motor.redistribuir(entrada.get(i));
+                itens.add(new ItemLote(primeiroIndice + i, resultado, null));
+            } catch (RuntimeException e) {
+                itens.add(new ItemLote(primeiroIndice + i, null, descricao(e)));
+                falhas.incrementAndGet();
+            }
+        }
+        ArquivoParticao.gravar(diretorio, particao, primeiroIndice, ArquivoParticao.impressao(entrada), itens);
+        executados.addAndGet(entrada.size());
+    }
+
+    private List<ParametrosRedistribuicao> entrada(List<ParametrosRedistribuicao> contratos, int particao) {
+        int inicio = particao * tamanhoParticao;
+        return contratos.subList(inicio, Math.min(contratos.size(), inicio + tamanhoParticao));
+    }
+
+    private void verificarManifesto(int quantidadeContratos) throws IOException {
+        int[] existente = lerManifesto(diretorio);
+        if (existente == null) {
+            String conteudo = "contratos=" + quantidadeContratos + "\ntamanhoParticao=" + tamanhoParticao + "\n";
+            ArquivoParticao.substituirAtomicamente(diretorio.resolve(MANIFESTO),
+                    ByteBuffer.wrap(conteudo.getBytes(StandardCharsets.UTF_8)));
+        } else if (existente[0] != quantidadeContratos || existente[1] != tamanhoParticao) {
+            throw new IllegalStateException(String.format(
+                    "Diretório %s contém um lote de %d contratos em partições de %d; recebido %d contratos em partições de %d",
+                    diretorio, existente[0], existente[1], quantidadeContratos, tamanhoParticao));
+        }
+    }
+
+    private static int[] lerManifesto(Path diretorio) throws IOException {
+        Path manifesto = diretorio.resolve(MANIFESTO);
+        if (!Files.exists(manifesto)) {
+            return null;
+        }
+        int[] valores = new int[2];
+        for (String linha : Files.readAllLines(manifesto, StandardCharsets.UTF_8)) {
+            if (linha.startsWith("contratos=")) {
+                valores[0] = Integer.parseInt(linha.substring("contratos=".length()));
+            } else if (linha.startsWith("tamanhoParticao=")) {
+                valores[1] = Integer.parseInt(linha.substring("tamanhoParticao=".length()));
+            }
+        }
+        if (valores[1] <= 0) {
+            throw new IllegalStateException("Manifesto de lote inválido: " + manifesto);
+        }
+        return valores;
+    }
+
+    private static String descricao(RuntimeException e) {
+        String descricao = e.getMessage() != null ? e.getClass().getSimpleName() + ": " + e.getMessage() : e.getClass().getName();
+        return descricao.length() > TAMANHO_MAXIMO_FALHA ? descricao.substring(0, TAMANHO_MAXIMO_FALHA) : descricao;
+    }
+
+    private static void aguardar(Future<?> tarefa) {
+        try {
+            tarefa.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o lote", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(causa);
+        }
+    }
+
+    /**
+     * Builder class for LoteRedistribuicao.
+     */
+    public static class Builder {
+        private Path diretorio;
+        private MotorRedistribuicao motor;
+        private int tamanhoParticao = 1_000;
+        private int paralelismo = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Diretório local do lote, onde ficam o manifesto e os checkpoints das partições.
+         */
+        public Builder diretorio(Path diretorio) {
+            this.diretorio = diretorio;
+            return this;
+        }
+
+        public Builder motor(MotorRedistribuicao motor) {
+            this.motor = motor;
+            return this;
+        }
+
+        public Builder tamanhoParticao(int tamanhoParticao) {
+            this.tamanhoParticao = tamanhoParticao;
+            return this;
+        }
+
+        public Builder paralelismo(int paralelismo) {
+            this.paralelismo = paralelismo;
+            return this;
+        }
+
+        public LoteRedistribuicao build() {
+            Objects.requireNonNull(diretorio, "diretorio");
+            if (motor == null) {
+                motor = MotorRedistribuicao.padrao();
+            }
+            if (tamanhoParticao <= 0) {
+                throw new IllegalArgumentException("Tamanho de partição deve ser positivo: " + tamanhoParticao);
+            }
+            if (paralelismo <= 0) {
+                throw new IllegalArgumentException("Paralelismo deve ser positivo: " + paralelismo);
+            }
+            return new LoteRedistribuicao(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.com.pangolin.redistribuicao.lote;
+
+/**
+ * Resumo de uma execução de {@link LoteRedistribuicao}.
+ *
+ * @param particoes           Total de partições do lote.
+ * @param particoesRetomadas  Partições já concluídas em execuções anteriores, não reprocessadas.
+ * @param particoesExecutadas Partições processadas nesta execução.
+ * @param contratosExecutados Contratos processados nesta execução.
+ * @param falhas              Contratos processados nesta execução cujo motor lançou exceção.
+ */
+public record ResumoLote(
+        int particoes,
+        int particoesRetomadas,
+        int particoesExecutadas,
+        long contratosExecutados,
+        long falhas) {
+}
@@ -0,0 +1,225 @@
+package org.com.pangolin.redistribuicao.meta;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.com.pangolin.redistribuicao.ParametrosFinanciamento;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.com.pangolin.redistribuicao.cronograma.CronogramaFechado;
+
+/**
+ * Busca de meta para renegociação: encontra o prazo, a parcela ou a taxa que atende a um valor alvo e devolve o
+ * cronograma resultante.
+ * <p>
+ * Prazo e parcela têm inversão fechada. No PRICE, {@code n = -ln(1 - P·i/A) / ln(1 + i)}, arredondado para
+ * cima para que a parcela não ultrapasse o alvo; no SAC, em que o alvo limita a primeira (maior) parcela,
+ * {@code n = P / (A - P·i)}. A taxa do SAC também é fechada ({@code i = (A - P/n) / P}); a do PRICE não tem
+ * inversão e é obtida por Newton sobre a fórmula da anuidade, com bisseção como salvaguarda. Nenhuma
+ * operação percorre prazos. SFF é tratado como PRICE. Prazos acima de {@link #PRAZO_MAXIMO} são recusados.
+ * </p>
+ * <p>
+ * As soluções são refinanciamentos do {@code saldoPrincipal} da base, não redistribuições do cronograma vigente.
+ * O {@code saldoJuros} da base são os juros do cronograma vigente, na taxa e no prazo vigentes; um novo prazo ou
+ * uma nova taxa os reprecifica, de modo que eles não são somados à solução (seriam cobrados duas vezes). Os
+ * parâmetros devolvidos trazem os juros do novo cronograma e podem ser passados ao
+ * {@link org.com.pangolin.redistribuicao.MotorRedistribuicao} para redistribuir o cenário escolhido.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     // Cliente consegue pagar 450,00 por mês: qual prazo?
+ *     SolucaoMeta solucao = BuscaMeta.prazoParaParcela(parametros, new BigDecimal("450.00"));
+ *     int prazo = solucao.parametros().quantidadeParcelas();
+ *     ResultadoRedistribuicao cronograma = solucao.cronograma();
+ * </pre>
+ */
+public final class BuscaMeta {
+
+    /**
+     * Maior prazo aceito, em parcelas.
+     */
+    public static final int PRAZO_MAXIMO = 600;
+
+    private static final int MAXIMO_ITERACOES = 200;
+    private static final double TOLERANCIA_TAXA = 1e-14;
+    private static final int ESCALA_TAXA = 10;
+
+    private BuscaMeta() {
+    }
+
+    /**
+     * Menor prazo cuja parcela (no SAC, a primeira) não ultrapassa o alvo, com a taxa e o saldo principal da base.
+     *
+     * @throws IllegalArgumentException se o alvo não cobre sequer os juros do primeiro período ou exige mais de
+     *                                  {@link #PRAZO_MAXIMO} parcelas.
+     */
+    public static SolucaoMeta prazoParaParcela(ParametrosRedistribuicao base, BigDecimal parcelaAlvo) {
+        double principal = principal(base);
+        double taxa = taxa(base);
+        double alvo = positivo(parcelaAlvo, "Parcela alvo");
+        double jurosPrimeiroPeriodo = principal * taxa;
+        if (alvo <= jurosPrimeiroPeriodo) {
+            throw new IllegalArgumentException(String.format(
+                    "Parcela alvo (%s) não cobre os juros do período (%.2f)", parcelaAlvo, jurosPrimeiroPeriodo));
+        }
+        double prazo;
+        if (sac(base)) {
+            prazo = principal / (alvo - jurosPrimeiroPeriodo);
+        } else if (taxa == 0.0) {
+            prazo = principal / alvo;
+        } else {
+            prazo = -Math.log1p(-jurosPrimeiroPeriodo / alvo) / Math.log1p(taxa);
+        }
+        // Desconta o ruído de ponto flutuante antes de arredondar para cima
+        double prazoMinimo = Math.ceil(prazo - 1e-9);
+        if (!(prazoMinimo <= PRAZO_MAXIMO)) {
+            throw prazoAcimaDoMaximo(parcelaAlvo, prazoMinimo);
+        }
+        int n = Math.max((int) prazoMinimo, 1);
+        // A parcela em centavos do prazo encontrado pode exceder o alvo por arredondamento
+        CronogramaFechado cronograma = cronograma(base, base.taxaJuros(), n);
+        if (primeiraParcela(cronograma).compareTo(parcelaAlvo) > 0) {
+            if (n == PRAZO_MAXIMO) {
+                throw prazoAcimaDoMaximo(parcelaAlvo, n + 1);
+            }
+            cronograma = cronograma(base, base.taxaJuros(), n + 1);
+        }
+        return solucao(base, cronograma, base.taxaJuros());
+    }
+
+    /**
+     * Parcela (no SAC, o cronograma com parcelas decrescentes) para o prazo informado, com a taxa e o saldo da base.
+     */
+    public static SolucaoMeta parcelaParaPrazo(ParametrosRedistribuicao base, int prazo) {
+        if (prazo <= 0) {
+            throw new IllegalArgumentException("Prazo deve ser positivo: " + prazo);
+        }
+        principal(base);
+        taxa(base);
+        return solucao(base, cronograma(base, base.taxaJuros(), prazo), base.taxaJuros());
+    }
+
+    /**
+     * Taxa mensal para a qual a parcela (no SAC, a primeira) no prazo da base iguala o alvo.
+     *
+     * @throws IllegalArgumentException se o alvo não amortiza o saldo no prazo mesmo com taxa zero.
+     */
+    public static SolucaoMeta taxaParaParcela(ParametrosRedistribuicao base, BigDecimal parcelaAlvo) {
+        double principal = principal(base);
+        double alvo = positivo(parcelaAlvo, "Parcela alvo");
+        int n = base.quantidadeParcelas();
+        if (n <= 0) {
+            throw new IllegalArgumentException("Prazo deve ser positivo: " + n);
+        }
+        if (alvo * n < principal) {
+            throw new IllegalArgumentException(String.format(
+                    "Parcela alvo (%s) não amortiza o saldo (%s) em %d parcelas", parcelaAlvo, base.saldoPrincipal(), n));
+        }
+        double taxa = sac(base) ? (alvo - principal / n) / principal : taxaPrice(principal, alvo, n);
+        BigDecimal taxaEncontrada = BigDecimal.valueOf(taxa).setScale(ESCALA_TAXA, RoundingMode.HALF_EVEN);
+        return solucao(base, cronograma(base, taxaEncontrada, n), taxaEncontrada);
+    }
+
+    private static IllegalArgumentException prazoAcimaDoMaximo(BigDecimal parcelaAlvo, double prazo) {
+        return new IllegalArgumentException(String.format(
+                "Parcela alvo (%s) exige prazo de %.0f parcelas, acima do máximo de %d", parcelaAlvo, prazo, PRAZO_MAXIMO));
+    }
+
+    // Resolve P·i/(1 - (1+i)^-n) = A por Newton, mantendo um intervalo [baixo, alto] que contém a raiz
+    static double taxaPrice(double principal, double alvo, int n) {
+        double baixo = 0.0;
+        double alto = 1.0;
+        while (anuidade(principal, alto, n) < alvo) {
+            alto *= 2;
+        }
+        // Chute inicial pela aproximação de juros simples
+        double taxa = Math.min(alto / 2, Math.max(1e-6, 2.0 * (alvo * n - principal) / (principal * (n + 1))));
+        for (int iteracao = 0; iteracao < MAXIMO_ITERACOES; iteracao++) {
+            double valor = anuidade(principal, taxa, n) - alvo;
+            if (valor > 0) {
+                alto = taxa;
+            } else {
+                baixo = taxa;
+            }
+            double passo = valor / derivadaAnuidade(principal, taxa, n);
+            double proxima = taxa - passo;
+            if (!(proxima > baixo && proxima < alto)) {
+                // Newton saiu do intervalo: bisseção
+                proxima = (baixo + alto) / 2;
+            }
+            if (Math.abs(proxima - taxa) < TOLERANCIA_TAXA) {
+                return proxima;
+            }
+            taxa = proxima;
+        }
+        return taxa;
+    }
+
+    private static double anuidade(double principal, double taxa, int n) {
+        if (taxa == 0.0) {
+            return principal / n;
+        }
+        return principal * taxa / -Math.expm1(-n * Math.log1p(taxa));
+    }
+
+    private static double derivadaAnuidade(double principal, double taxa, int n) {
+        double h = Math.max(1e-8, taxa * 1e-6);
+        return (anuidade(principal, taxa + h, n) - anuidade(principal, Math.max(0.0, taxa - h), n))
+                / (taxa + h - Math.max(0.0, taxa - h));
+    }
+
+    private static CronogramaFechado cronograma(ParametrosRedistribuicao base, BigDecimal taxa, int n) {
+        ParametrosFinanciamento financiamento = new ParametrosFinanciamento(base.saldoPrincipal(), taxa, n);
+        return sac(base) ? CronogramaFechado.sac(financiamento) : CronogramaFechado.price(financiamento);
+    }
+
+    private static BigDecimal primeiraParcela(CronogramaFechado cronograma) {
+        return cronograma.parcela(0).valor();
+    }
+
+    private static SolucaoMeta solucao(ParametrosRedistribuicao base, CronogramaFechado cronograma, BigDecimal taxa) {
+        ResultadoRedistribuicao resultado = cronograma.materializar();
+        BigDecimal saldoPrincipal = Arrays.stream(resultado.principal()).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal saldoJuros = Arrays.stream(resultado.juros()).reduce(BigDecimal.ZERO, BigDecimal::add);
+        ParametrosRedistribuicao parametros = ParametrosRedistribuicao.builder()
+                .saldoPrincipal(saldoPrincipal)
+                .saldoJuros(saldoJuros)
+                .saldoDevedorParcelas(saldoPrincipal.add(saldoJuros))
+                .valorParcela(primeiraParcela(cronograma))
+                .quantidadeParcelas(cronograma.quantidadeParcelas())
+                .taxaJuros(taxa)
+                .sistemaAmortizacao(base.sistemaAmortizacao())
+                .principalConstante(base.principalConstante())
+                .build();
+        return new SolucaoMeta(parametros, resultado);
+    }
+
+    private static boolean sac(ParametrosRedistribuicao base) {
+        return base.sistemaAmortizacao() == RedistribuicaoSistemaAmortizacao.SAC;
+    }
+
+    private static double principal(ParametrosRedistribuicao base) {
+        Objects.requireNonNull(base.sistemaAmortizacao(), "sistemaAmortizacao");
+        return positivo(base.saldoPrincipal(), "Saldo principal");
+    }
+
+    private static double taxa(ParametrosRedistribuicao base) {
+        Objects.requireNonNull(base.taxaJuros(), "taxaJuros");
+        if (base.taxaJuros().signum() < 0) {
+            throw new IllegalArgumentException("Taxa não pode ser negativa: " + base.taxaJuros());
+        }
+        return base.taxaJuros().doubleValue();
+    }
+
+    private static double positivo(BigDecimal valor, String descricao) {
+        Objects.requireNonNull(valor, descricao);
+        if (valor.signum() <= 0) {
+            throw new IllegalArgumentException(descricao + " deve ser positivo: " + valor);
+        }
+        return valor.doubleValue();
+    }
+}
@@ -0,0 +1,14 @@
+package org.com.pangolin.redistribuicao.meta;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Solução de uma {@link BuscaMeta}.
+ *
+ * @param parametros Parâmetros do contrato renegociado: prazo, taxa e parcela encontrados, com os saldos do
+ *                   cronograma resultante; o {@code saldoJuros} é o do novo cronograma, não o da base.
+ * @param cronograma Cronograma resultante, em centavos.
+ */
+public record SolucaoMeta(ParametrosRedistribuicao parametros, ResultadoRedistribuicao cronograma) {
+}
@@ -0,0 +1,15 @@
+package org.com.pangolin.redistribuicao.prioridade;
+
+/**
+ * Classes de prioridade do {@link ExecutorPrioritario}.
+ */
+public enum ClassePrioridade {
+    /**
+     * Chamadas com alguém esperando a resposta, como cotações. Passam à frente do lote e têm trabalhadores reservados.
+     */
+    INTERATIVA,
+    /**
+     * Reprocessamento em massa. Usa a capacidade ociosa e cede a vez às chamadas interativas entre um contrato e outro.
+     */
+    LOTE
+}
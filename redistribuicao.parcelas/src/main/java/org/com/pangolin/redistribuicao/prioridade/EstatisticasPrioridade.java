@@ -0,0 +1,18 @@
+package org.com.pangolin.redistribuicao.prioridade;
+
+/**
+ * Fotografia das estatísticas de uma classe de prioridade.
+ *
+ * @param classe            Classe de prioridade.
+ * @param profundidadeFila  Chamadas aguardando trabalhador no momento da leitura.
+ * @param concluidas        Chamadas já retiradas da fila e executadas.
+ * @param esperaMediaNanos  Tempo médio em fila das chamadas executadas.
+ * @param esperaMaximaNanos Maior tempo em fila observado.
+ */
+public record EstatisticasPrioridade(
+        ClassePrioridade classe,
+        int profundidadeFila,
+        long concluidas,
+        double esperaMediaNanos,
+        long esperaMaximaNanos) {
+}
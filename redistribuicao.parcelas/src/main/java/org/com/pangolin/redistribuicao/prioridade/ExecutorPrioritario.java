@@ -0,0 +1,314 @@
+package org.com.pangolin.redistribuicao.prioridade;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Camada de execução que isola chamadas interativas do reprocessamento em lote no mesmo processo.
+ * <p>
+ * Cada {@link ClassePrioridade} tem sua fila. Parte dos trabalhadores é reservada às chamadas interativas e
+ * nunca executa lote; os demais são compartilhados e sempre retiram primeiro da fila interativa, de modo que
+ * uma chamada interativa passa à frente de todo o lote enfileirado. O lote é enfileirado contrato a contrato
+ * ({@link #submeterLote(List)}), e por isso cede a vez entre um contrato e outro: uma chamada interativa espera
+ * no máximo o término do contrato em execução. Para que o lote não seja privado de execução sob carga
+ * interativa contínua, um trabalhador compartilhado executa um contrato de lote a cada {@code pesoInterativo}
+ * chamadas interativas seguidas.
+ * </p>
+ * <p>
+ * Chamadas cujo futuro já foi cancelado ou concluído pelo chamador são descartadas ao sair da fila.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     ExecutorPrioritario executor = ExecutorPrioritario.builder()
+ *         .motor(MotorRedistribuicao.padrao())
+ *         .trabalhadores(16)
+ *         .trabalhadoresReservados(4)
+ *         .build();
+ *     MotorRedistribuicao cotacoes = executor.motor(ClassePrioridade.INTERATIVA);
+ *     List&lt;CompletableFuture&lt;ResultadoRedistribuicao&gt;&gt; lote = executor.submeterLote(contratos);
+ *     ResultadoRedistribuicao cotacao = cotacoes.redistribuir(parametros); // não espera o lote
+ * </pre>
+ */
+public final class ExecutorPrioritario implements AutoCloseable {
+
+    private final MotorRedistribuicao motor;
+    private final int pesoInterativo;
+    private final List<Thread> trabalhadores = new ArrayList<>();
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition haInterativa = trava.newCondition();
+    private final Condition haTrabalho = trava.newCondition();
+    private final ArrayDeque<Tarefa> filaInterativa = new ArrayDeque<>();
+    private final ArrayDeque<Tarefa> filaLote = new ArrayDeque<>();
+    private boolean fechado;
+
+    private final LongAdder[] concluidas = new LongAdder[ClassePrioridade.values().length];
+    private final LongAdder[] esperaTotal = new LongAdder[ClassePrioridade.values().length];
+    private final LongAccumulator[] esperaMaxima = new LongAccumulator[ClassePrioridade.values().length];
+
+    private record Tarefa(ClassePrioridade classe, ParametrosRedistribuicao parametros,
+                          CompletableFuture<ResultadoRedistribuicao> futuro, long enfileiradaEm) {
+    }
+
+    private ExecutorPrioritario(Builder builder) {
+        this.motor = builder.motor;
+        this.pesoInterativo = builder.pesoInterativo;
+        for (int c = 0; c < concluidas.length; c++) {
+            concluidas[c] = new LongAdder();
+            esperaTotal[c] = new LongAdder();
+            esperaMaxima[c] = new LongAccumulator(Math::max, 0);
+        }
+        for (int i = 0; i < builder.trabalhadores; i++) {
+            boolean reservado = i < builder.trabalhadoresReservados;
+            String nome = (reservado ? "prioridade-interativa-" : "prioridade-compartilhada-") + i;
+            trabalhadores.add(Thread.ofPlatform().name(nome).daemon(true).start(() -> trabalhar(reservado)));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Enfileira uma chamada na classe informada.
+     *
+     * @throws IllegalStateException se o executor já foi fechado.
+     */
+    public CompletableFuture<ResultadoRedistribuicao> submeter(ClassePrioridade classe, ParametrosRedistribuicao parametros) {
+        Objects.requireNonNull(classe, "classe");
+        Tarefa tarefa = new Tarefa(classe, parametros, new CompletableFuture<>(), System.nanoTime());
+        trava.lock();
+        try {
+            verificarAberto();
+            if (classe == ClassePrioridade.INTERATIVA) {
+                filaInterativa.addLast(tarefa);
+                haInterativa.signal();
+            } else {
+                filaLote.addLast(tarefa);
+            }
+            haTrabalho.signal();
+        } finally {
+            trava.unlock();
+        }
+        return tarefa.futuro();
+    }
+
+    /**
+     * Enfileira os contratos como chamadas de lote individuais, na ordem da lista.
+     */
+    public List<CompletableFuture<ResultadoRedistribuicao>> submeterLote(List<ParametrosRedistribuicao> contratos) {
+        List<CompletableFuture<ResultadoRedistribuicao>> futuros = new ArrayList<>(contratos.size());
+        long agora = System.nanoTime();
+        trava.lock();
+        try {
+            verificarAberto();
+            for (ParametrosRedistribuicao parametros : contratos) {
+                Tarefa tarefa = new Tarefa(ClassePrioridade.LOTE, parametros, new CompletableFuture<>(), agora);
+                filaLote.addLast(tarefa);
+                futuros.add(tarefa.futuro());
+            }
+            haTrabalho.signalAll();
+        } finally {
+            trava.unlock();
+        }
+        return futuros;
+    }
+
+    /**
+     * Executa a chamada na classe informada e aguarda o resultado.
+     */
+    public ResultadoRedistribuicao redistribuir(ClassePrioridade classe, ParametrosRedistribuicao parametros) {
+        try {
+            return submeter(classe, parametros).join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return Visão deste executor como {@link MotorRedistribuicao} de uma única classe, para injeção em
+     * componentes que não conhecem prioridades.
+     */
+    public MotorRedistribuicao motor(ClassePrioridade classe) {
+        Objects.requireNonNull(classe, "classe");
+        return parametros -> redistribuir(classe, parametros);
+    }
+
+    public EstatisticasPrioridade estatisticas(ClassePrioridade classe) {
+        int profundidade;
+        trava.lock();
+        try {
+            profundidade = (classe == ClassePrioridade.INTERATIVA ? filaInterativa : filaLote).size();
+        } finally {
+            trava.unlock();
+        }
+        int c = classe.ordinal();
+        long quantidade = concluidas[c].sum();
+        return new EstatisticasPrioridade(classe, profundidade, quantidade,
+                quantidade == 0 ? 0.0 : (double) esperaTotal[c].sum() / quantidade, esperaMaxima[c].get());
+    }
+
+    /**
+     * Recusa novas chamadas, falha as que ainda estão em fila e aguarda as que estão em execução.
+     */
+    @Override
+    public void close() {
+        List<Tarefa> pendentes = new ArrayList<>();
+        trava.lock();
+        try {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            pendentes.addAll(filaInterativa);
+            pendentes.addAll(filaLote);
+            filaInterativa.clear();
+            filaLote.clear();
+            haInterativa.signalAll();
+            haTrabalho.signalAll();
+        } finally {
+            trava.unlock();
+        }
+        for (Tarefa tarefa : pendentes) {
+            tarefa.futuro().completeExceptionally(new IllegalStateException("Executor prioritário fechado"));
+        }
+        for (Thread trabalhador : trabalhadores) {
+            try {
+                trabalhador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void trabalhar(boolean reservado) {
+        int interativasSeguidas = 0;
+        while (true) {
+            Tarefa tarefa;
+            trava.lock();
+            try {
+                while ((tarefa = proxima(reservado, interativasSeguidas)) == null) {
+                    if (fechado) {
+                        return;
+                    }
+                    (reservado ? haInterativa : haTrabalho).awaitUninterruptibly();
+                }
+            } finally {
+                trava.unlock();
+            }
+            interativasSeguidas = tarefa.classe() == ClassePrioridade.INTERATIVA ? interativasSeguidas + 1 : 0;
+            executar(tarefa);
+        }
+    }
+
+    private Tarefa proxima(boolean reservado, int interativasSeguidas) {
+        if (reservado) {
+            return filaInterativa.pollFirst();
+        }
+        if (!filaInterativa.isEmpty() && (interativasSeguidas < pesoInterativo || filaLote.isEmpty())) {
+            return filaInterativa.pollFirst();
+        }
+        Tarefa lote = filaLote.pollFirst();
+        return lote != null ? lote : filaInterativa.pollFirst();
+    }
+
+    private void executar(Tarefa tarefa) {
+        if (tarefa.futuro().isDone()) {
+            return;
+        }
+        int c = tarefa.classe().ordinal();
+        long espera = System.nanoTime() - tarefa.enfileiradaEm();
+        concluidas[c].increment();
+        esperaTotal[c].add(espera);
+        esperaMaxima[c].accumulate(espera);
+        try {
+            tarefa.futuro().complete(motor.redistribuir(tarefa.parametros()));
+        } catch (Throwable e) {
+            tarefa.futuro().completeExceptionally(e);
+        }
+    }
+
+    private void verificarAberto() {
+        if (fechado) {
+            throw new IllegalStateException("Executor prioritário fechado");
+        }
+    }
+
+    /**
+     * Builder class for ExecutorPrioritario.
+     */
+    public static class Builder {
+        private MotorRedistribuicao motor;
+        private int trabalhadores = Runtime.getRuntime().availableProcessors();
+        private int trabalhadoresReservados = -1;
+        private int pesoInterativo = 8;
+
+        public Builder motor(MotorRedistribuicao motor) {
+            this.motor = motor;
+            return this;
+        }
+
+        /**
+         * Total de trabalhadores, incluindo os reservados. Padrão: um por processador.
+         */
+        public Builder trabalhadores(int trabalhadores) {
+            this.trabalhadores = trabalhadores;
+            return this;
+        }
+
+        /**
+         * Trabalhadores que só executam chamadas interativas. Padrão: um quarto do total, no mínimo um se houver mais de um trabalhador.
+         */
+        public Builder trabalhadoresReservados(int trabalhadoresReservados) {
+            this.trabalhadoresReservados = trabalhadoresReservados;
+            return this;
+        }
+
+        /**
+         * Chamadas interativas seguidas após as quais um trabalhador compartilhado executa um contrato de lote.
+         */
+        public Builder pesoInterativo(int pesoInterativo) {
+            this.pesoInterativo = pesoInterativo;
+            return this;
+        }
+
+        public ExecutorPrioritario build() {
+            if (motor == null) {
+                motor = MotorRedistribuicao.padrao();
+            }
+            if (trabalhadoresReservados < 0) {
+                trabalhadoresReservados = trabalhadores < 2 ? 0 : Math.max(1, trabalhadores / 4);
+            }
+            if (trabalhadores <= 0 || trabalhadoresReservados >= trabalhadores) {
+                throw new IllegalArgumentException(String.format(
+                        "É preciso ao menos um trabalhador compartilhado: %d trabalhadores, %d reservados",
+                        trabalhadores, trabalhadoresReservados));
+            }
+            if (pesoInterativo <= 0) {
+                throw new IllegalArgumentException("Peso interativo deve ser positivo: " + pesoInterativo);
+            }
+            return new ExecutorPrioritario(this);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.com.pangolin.redistribuicao.quitacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Carteira de contratos preparada para cotação de quitação em lote.
+ * <p>
+ * Os cronogramas são convertidos uma única vez para colunas de inteiros em centavos, contíguas para todos os
+ * contratos: juros de cada parcela, datas de vencimento (dia epoch) e as somas de sufixo de principal e de
+ * juros. Com isso, cotar um contrato em uma data custa uma busca binária sobre os vencimentos dele e
+ * algumas operações inteiras, sem {@code BigDecimal} e sem alocação; o lote inteiro é uma única passada
+ * sobre arrays primitivos.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     CarteiraQuitacao.Builder builder = CarteiraQuitacao.builder();
+ *     for (Contrato c : contratos) {
+ *         builder.adicionar(c.cronograma(), c.primeiroVencimento());
+ *     }
+ *     CarteiraQuitacao carteira = builder.build();
+ *     LoteQuitacao lote = motorQuitacao.cotarLote(carteira, LocalDate.now());
+ * </pre>
+ */
+public final class CarteiraQuitacao {
+
+    // inicio[c] .. inicio[c + 1] delimita as parcelas do contrato c
+    private final int[] inicio;
+    private final long[] jurosCentavos;
+    private final long[] vencimentos;
+    // Início do período da primeira parcela de cada contrato (um mês antes do primeiro vencimento)
+    private final long[] inicioPrimeiroPeriodo;
+    // Sufixos com n + 1 posições por contrato, a partir de inicio[c] + c; a última posição é zero
+    private final long[] sufixoPrincipal;
+    private final long[] sufixoJuros;
+
+    private CarteiraQuitacao(Builder builder) {
+        int contratos = builder.contratos;
+        this.inicio = Arrays.copyOf(builder.inicio, contratos + 1);
+        this.jurosCentavos = Arrays.copyOf(builder.jurosCentavos, builder.parcelas);
+        this.vencimentos = Arrays.copyOf(builder.vencimentos, builder.parcelas);
+        this.inicioPrimeiroPeriodo = Arrays.copyOf(builder.inicioPrimeiroPeriodo, contratos);
+        this.sufixoPrincipal = Arrays.copyOf(builder.sufixoPrincipal, builder.parcelas + contratos);
+        this.sufixoJuros = Arrays.copyOf(builder.sufixoJuros, builder.parcelas + contratos);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int quantidadeContratos() {
+        return inicioPrimeiroPeriodo.length;
+    }
+
+    public int quantidadeParcelas(int contrato) {
+        return inicio[contrato + 1] - inicio[contrato];
+    }
+
+    /**
+     * Cota a quitação do contrato na data, supondo adimplentes as parcelas vencidas antes dela.
+     * Grava o resultado na posição {@code destino} das colunas do lote.
+     */
+    void cotar(int contrato, long dia, LoteQuitacao lote, int destino) {
+        int base = inicio[contrato];
+        int n = inicio[contrato + 1] - base;
+        // Primeira parcela com vencimento na data ou depois dela
+        int k = Arrays.binarySearch(vencimentos, base, base + n, dia);
+        k = (k >= 0 ? k : -k - 1) - base;
+        if (k == n) {
+            gravar(lote, destino, 0, 0, 0);
+            return;
+        }
+        long inicioPeriodo = k == 0 ? inicioPrimeiroPeriodo[contrato] : vencimentos[base + k - 1];
+        long periodo = vencimentos[base + k] - inicioPeriodo;
+        long decorridos = Math.max(0, dia - inicioPeriodo);
+        long jurosDevidos = proRata(jurosCentavos[base + k], decorridos, periodo);
+        gravar(lote, destino, jurosDevidos, sufixoPrincipal[base + contrato + k], sufixoJuros[base + contrato + k]);
+    }
+
+    /**
+     * Cota a quitação no vencimento da parcela {@code indice}, incluindo os juros integrais dela.
+     */
+    void cotarNaParcela(int contrato, int indice, LoteQuitacao lote, int destino) {
+        int base = inicio[contrato];
+        int n = inicio[contrato + 1] - base;
+        if (indice < 0 || indice >= n) {
+            throw new IllegalArgumentException("Parcela inexistente: " + indice);
+        }
+        gravar(lote, destino, jurosCentavos[base + indice],
+                sufixoPrincipal[base + contrato + indice], sufixoJuros[base + contrato + indice]);
+    }
+
+    private static void gravar(LoteQuitacao lote, int destino, long jurosDevidos, long principalDevido, long jurosRestantes) {
+        lote.valorQuitacaoCentavos()[destino] = principalDevido + jurosDevidos;
+        lote.descontoJurosCentavos()[destino] = jurosRestantes - jurosDevidos;
+        lote.principalDevidoCentavos()[destino] = principalDevido;
+        lote.jurosDevidosCentavos()[destino] = jurosDevidos;
+    }
+
+    // juros * decorridos / periodo, arredondado para o centavo mais próximo (meio centavo para cima)
+    private static long proRata(long juros, long decorridos, long periodo) {
+        if (decorridos >= periodo) {
+            return juros;
+        }
+        return Math.floorDiv(2 * juros * decorridos + periodo, 2 * periodo);
+    }
+
+    static long centavos(BigDecimal valor) {
+        return valor.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    /**
+     * Builder class for CarteiraQuitacao.
+     */
+    public static class Builder {
+        private int contratos;
+        private int parcelas;
+        private int[] inicio = new int[16];
+        private long[] jurosCentavos = new long[256];
+        private long[] vencimentos = new long[256];
+        private long[] inicioPrimeiroPeriodo = new long[16];
+        private long[] sufixoPrincipal = new long[256];
+        private long[] sufixoJuros = new long[256];
+
+        /**
+         * Adiciona um contrato com vencimentos mensais a partir de {@code primeiroVencimento}.
+         *
+         * @return Posição do contrato na carteira e no {@link LoteQuitacao}.
+         */
+        public int adicionar(ResultadoRedistribuicao cronograma, LocalDate primeiroVencimento) {
+            Objects.requireNonNull(primeiroVencimento, "primeiroVencimento");
+            int n = cronograma.principal().length;
+            LocalDate[] datas = new LocalDate[n];
+            for (int k = 0; k < n; k++) {
+                datas[k] = primeiroVencimento.plusMonths(k);
+            }
+            return adicionar(cronograma, primeiroVencimento.minusMonths(1), datas);
+        }
+
+        /**
+         * Adiciona um contrato com datas de vencimento explícitas, em ordem crescente.
+         *
+         * @param inicioPrimeiroPeriodo Data a partir da qual correm os juros da primeira parcela.
+         * @return Posição do contrato na carteira e no {@link LoteQuitacao}.
+         */
+        public int adicionar(ResultadoRedistribuicao cronograma, LocalDate inicioPrimeiroPeriodo, LocalDate[] vencimentosContrato) {
+            BigDecimal[] principal = cronograma.principal();
+            BigDecimal[] juros = cronograma.juros();
+            int n = principal.length;
+            if (n == 0 || juros.length != n || vencimentosContrato.length != n) {
+                throw new IllegalArgumentException("Cronograma e vencimentos devem ter a mesma quantidade, não nula, de parcelas");
+            }
+            long anterior = inicioPrimeiroPeriodo.toEpochDay();
+            for (LocalDate vencimento : vencimentosContrato) {
+                if (vencimento.toEpochDay() <= anterior) {
+                    throw new IllegalArgumentException("Vencimentos devem ser crescentes e posteriores ao início do período: " + vencimento);
+                }
+                anterior = vencimento.toEpochDay();
+            }
+
+            garantirCapacidade(n);
+            int base = parcelas;
+            int baseSufixo = parcelas + contratos;
+            for (int k = 0; k < n; k++) {
+                jurosCentavos[base + k] = centavos(juros[k]);
+                vencimentos[base + k] = vencimentosContrato[k].toEpochDay();
+            }
+            sufixoPrincipal[baseSufixo + n] = 0;
+            sufixoJuros[baseSufixo + n] = 0;
+            for (int k = n - 1; k >= 0; k--) {
+                sufixoPrincipal[baseSufixo + k] = sufixoPrincipal[baseSufixo + k + 1] + centavos(principal[k]);
+                sufixoJuros[baseSufixo + k] = sufixoJuros[baseSufixo + k + 1] + jurosCentavos[base + k];
+            }
+            this.inicioPrimeiroPeriodo[contratos] = inicioPrimeiroPeriodo.toEpochDay();
+            parcelas += n;
+            inicio[++contratos] = parcelas;
+            return contratos - 1;
+        }
+
+        private void garantirCapacidade(int n) {
+            // inicio precisa de uma posição a mais que as colunas por contrato
+            if (contratos + 2 > inicio.length) {
+                inicio = Arrays.copyOf(inicio, inicio.length * 2);
+                inicioPrimeiroPeriodo = Arrays.copyOf(inicioPrimeiroPeriodo, inicio.length);
+            }
+            int necessario = parcelas + contratos + n + 1;
+            if (necessario > sufixoPrincipal.length) {
+                int capacidade = Math.max(necessario, sufixoPrincipal.length * 2);
+                jurosCentavos = Arrays.copyOf(jurosCentavos, capacidade);
+                vencimentos = Arrays.copyOf(vencimentos, capacidade);
+                sufixoPrincipal = Arrays.copyOf(sufixoPrincipal, capacidade);
+                sufixoJuros = Arrays.copyOf(sufixoJuros, capacidade);
+            }
+        }
+
+        public CarteiraQuitacao build() {
+            return new CarteiraQuitacao(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.com.pangolin.redistribuicao.quitacao;
+
+import java.math.BigDecimal;
+
+/**
+ * Cotação de quitação antecipada de um contrato.
+ *
+ * @param valorQuitacao   Valor a pagar para liquidar o contrato ({@code principalDevido + jurosDevidos}).
+ * @param descontoJuros   Juros das parcelas em aberto que deixam de ser cobrados pela antecipação.
+ * @param principalDevido Principal em aberto na data da quitação.
+ * @param jurosDevidos    Juros já incorridos no período corrente, proporcionais ao tempo decorrido.
+ */
+public record CotacaoQuitacao(
+        BigDecimal valorQuitacao,
+        BigDecimal descontoJuros,
+        BigDecimal principalDevido,
+        BigDecimal jurosDevidos) {
+}
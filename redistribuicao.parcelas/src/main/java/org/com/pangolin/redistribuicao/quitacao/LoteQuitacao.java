@@ -0,0 +1,46 @@
+package org.com.pangolin.redistribuicao.quitacao;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado colunar de uma cotação em lote; a posição {@code i} de cada coluna corresponde ao contrato
+ * {@code i} da {@link CarteiraQuitacao}. Valores em centavos.
+ *
+ * @param valorQuitacaoCentavos   Valor de quitação de cada contrato.
+ * @param descontoJurosCentavos   Desconto de juros de cada contrato.
+ * @param principalDevidoCentavos Principal em aberto de cada contrato.
+ * @param jurosDevidosCentavos    Juros pró-rata do período corrente de cada contrato.
+ */
+public record LoteQuitacao(
+        long[] valorQuitacaoCentavos,
+        long[] descontoJurosCentavos,
+        long[] principalDevidoCentavos,
+        long[] jurosDevidosCentavos) {
+
+    LoteQuitacao(int quantidade) {
+        this(new long[quantidade], new long[quantidade], new long[quantidade], new long[quantidade]);
+    }
+
+    public int quantidade() {
+        return valorQuitacaoCentavos.length;
+    }
+
+    public CotacaoQuitacao cotacao(int contrato) {
+        return new CotacaoQuitacao(
+                BigDecimal.valueOf(valorQuitacaoCentavos[contrato], 2),
+                BigDecimal.valueOf(descontoJurosCentavos[contrato], 2),
+                BigDecimal.valueOf(principalDevidoCentavos[contrato], 2),
+                BigDecimal.valueOf(jurosDevidosCentavos[contrato], 2));
+    }
+
+    /**
+     * @return Soma dos valores de quitação de todos os contratos do lote.
+     */
+    public BigDecimal totalQuitacao() {
+        long total = 0;
+        for (long valor : valorQuitacaoCentavos) {
+            total += valor;
+        }
+        return BigDecimal.valueOf(total, 2);
+    }
+}
@@ -0,0 +1,123 @@
+package org.com.pangolin.redistribuicao.quitacao;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Motor de cotação de quitação antecipada.
+ * <p>
+ * A quitação liquida o principal em aberto mais os juros já incorridos no período corrente, proporcionais
+ * aos dias decorridos entre o vencimento anterior e a data da quitação; os juros das demais parcelas em
+ * aberto são o desconto. Parcelas vencidas antes da data são consideradas pagas.
+ * </p>
+ * <p>
+ * Cotações avulsas a partir de um {@link ResultadoRedistribuicao} custam uma passada sobre o cronograma.
+ * Para o lote noturno, a {@link CarteiraQuitacao} pré-processa os cronogramas em colunas de centavos e
+ * {@link #cotarLote(CarteiraQuitacao, LocalDate)} cota todos os contratos numa única passada sobre arrays
+ * primitivos. A instância não guarda estado entre chamadas e pode ser compartilhada entre threads.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     MotorQuitacao motor = MotorQuitacao.padrao();
+ *     // Endpoint interativo
+ *     CotacaoQuitacao cotacao = motor.cotar(cronograma, primeiroVencimento, LocalDate.now());
+ *     // Lote noturno
+ *     LoteQuitacao lote = motor.cotarLote(carteira, LocalDate.now());
+ *     BigDecimal total = lote.totalQuitacao();
+ * </pre>
+ */
+public class MotorQuitacao {
+
+    private static final MotorQuitacao PADRAO = new MotorQuitacao(MotorRedistribuicao.padrao());
+
+    private final MotorRedistribuicao motor;
+
+    private MotorQuitacao(MotorRedistribuicao motor) {
+        this.motor = Objects.requireNonNull(motor, "motor");
+    }
+
+    public static MotorQuitacao padrao() {
+        return PADRAO;
+    }
+
+    /**
+     * @param motor Motor usado para obter o cronograma nas cotações a partir de {@link ParametrosRedistribuicao}.
+     */
+    public static MotorQuitacao com(MotorRedistribuicao motor) {
+        return new MotorQuitacao(motor);
+    }
+
+    /**
+     * Cota a quitação no vencimento da parcela {@code indice}: principal em aberto a partir dela mais os
+     * juros integrais da própria parcela.
+     */
+    public CotacaoQuitacao cotar(ResultadoRedistribuicao cronograma, int indice) {
+        CarteiraQuitacao carteira = carteiraAvulsa(cronograma, LocalDate.EPOCH);
+        LoteQuitacao lote = new LoteQuitacao(1);
+        carteira.cotarNaParcela(0, indice, lote, 0);
+        return lote.cotacao(0);
+    }
+
+    /**
+     * Cota a quitação em uma data, com vencimentos mensais a partir de {@code primeiroVencimento}.
+     */
+    public CotacaoQuitacao cotar(ResultadoRedistribuicao cronograma, LocalDate primeiroVencimento, LocalDate data) {
+        CarteiraQuitacao carteira = carteiraAvulsa(cronograma, primeiroVencimento);
+        return cotar(carteira, 0, data);
+    }
+
+    /**
+     * Redistribui os parâmetros com o motor configurado e cota a quitação no vencimento da parcela {@code indice}.
+     */
+    public CotacaoQuitacao cotar(ParametrosRedistribuicao parametros, int indice) {
+        return cotar(motor.redistribuir(parametros), indice);
+    }
+
+    public CotacaoQuitacao cotar(CarteiraQuitacao carteira, int contrato, LocalDate data) {
+        LoteQuitacao lote = new LoteQuitacao(1);
+        carteira.cotar(contrato, data.toEpochDay(), lote, 0);
+        return lote.cotacao(0);
+    }
+
+    /**
+     * Cota todos os contratos da carteira na mesma data.
+     */
+    public LoteQuitacao cotarLote(CarteiraQuitacao carteira, LocalDate data) {
+        int contratos = carteira.quantidadeContratos();
+        long dia = data.toEpochDay();
+        LoteQuitacao lote = new LoteQuitacao(contratos);
+        for (int c = 0; c < contratos; c++) {
+            carteira.cotar(c, dia, lote, c);
+        }
+        return lote;
+    }
+
+    /**
+     * Cota cada contrato da carteira no vencimento da parcela indicada para ele.
+     *
+     * @param indices Parcela de quitação de cada contrato, na ordem da carteira.
+     */
+    public LoteQuitacao cotarLote(CarteiraQuitacao carteira, int[] indices) {
+        int contratos = carteira.quantidadeContratos();
+        if (indices.length != contratos) {
+            throw new IllegalArgumentException(String.format(
+                    "Quantidade de índices (%d) difere da quantidade de contratos (%d)", indices.length, contratos));
+        }
+        LoteQuitacao lote = new LoteQuitacao(contratos);
+        for (int c = 0; c < contratos; c++) {
+            carteira.cotarNaParcela(c, indices[c], lote, c);
+        }
+        return lote;
+    }
+
+    private static CarteiraQuitacao carteiraAvulsa(ResultadoRedistribuicao cronograma, LocalDate primeiroVencimento) {
+        CarteiraQuitacao.Builder builder = CarteiraQuitacao.builder();
+        builder.adicionar(cronograma, primeiroVencimento);
+        return builder.build();
+    }
+}
@@ -0,0 +1,21 @@
+package org.com.pangolin.redistribuicao.relatorio;
+
+/**
+ * Layouts de saída do {@link RenderizadorTabela}.
+ */
+public enum LayoutTabela {
+    /**
+     * Tabela legível, idêntica à de {@code Main.imprimirTabelaAmortizacao}.
+     */
+    TEXTO,
+    /**
+     * CSV com cabeçalho, separador vírgula e ponto decimal; a última linha traz os totais.
+     */
+    CSV,
+    /**
+     * Registros de largura fixa, sem separadores: {@code D} + parcela (4 dígitos) + principal, juros, valor e
+     * saldo (15 posições cada, em centavos, com zeros à esquerda); o trailer {@code T} traz a quantidade de
+     * parcelas e os totais de principal, juros e valor.
+     */
+    LARGURA_FIXA
+}
@@ -0,0 +1,261 @@
+package org.com.pangolin.redistribuicao.relatorio;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Renderizador de tabelas de amortização para extratos em grande volume.
+ * <p>
+ * Os valores são convertidos uma vez para centavos ({@code HALF_UP}, como {@code %.2f}) e formatados à mão
+ * em ponto fixo, sem {@link java.util.Formatter}. Os totais são acumulados na mesma passada da conversão, e
+ * as linhas são montadas num buffer reutilizado entre chamadas, descarregado no destino em blocos. A saída
+ * independe do {@link java.util.Locale} padrão: o separador decimal é sempre o ponto.
+ * </p>
+ * <p>
+ * Instâncias não são seguras para uso concorrente; use uma por thread.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     RenderizadorTabela renderizador = new RenderizadorTabela(LayoutTabela.CSV);
+ *     for (Extrato extrato : extratos) {
+ *         try (FileChannel canal = FileChannel.open(extrato.caminho(), CREATE, WRITE)) {
+ *             renderizador.renderizar(extrato.cronograma(), canal);
+ *         }
+ *     }
+ * </pre>
+ */
+public final class RenderizadorTabela {
+
+    private static final int LIMITE_BUFFER = 16 * 1024;
+    private static final String SEPARADOR_LINHA = System.lineSeparator();
+    private static final int LARGURA_TEXTO = 10;
+    private static final int LARGURA_REGISTRO = 15;
+
+    private final LayoutTabela layout;
+    private final StringBuilder buffer = new StringBuilder(LIMITE_BUFFER + 256);
+    private final ByteBuffer bytes = ByteBuffer.allocate(LIMITE_BUFFER + 256);
+    private long[] principalCentavos = new long[0];
+    private long[] jurosCentavos = new long[0];
+    private long[] parcelaCentavos = new long[0];
+
+    public RenderizadorTabela(LayoutTabela layout) {
+        this.layout = Objects.requireNonNull(layout, "layout");
+    }
+
+    public LayoutTabela layout() {
+        return layout;
+    }
+
+    /**
+     * Renderiza o cronograma com o valor de cada parcela igual a principal + juros.
+     */
+    public void renderizar(ResultadoRedistribuicao cronograma, Appendable destino) throws IOException {
+        renderizar(cronograma.principal(), cronograma.juros(), null, BigDecimal.ZERO, destino);
+    }
+
+    public void renderizar(ResultadoRedistribuicao cronograma, WritableByteChannel canal) throws IOException {
+        renderizar(cronograma.principal(), cronograma.juros(), null, BigDecimal.ZERO, canal);
+    }
+
+    /**
+     * Renderiza a tabela no destino.
+     *
+     * @param parcelas        Valor de cada parcela; {@code null} para usar principal + juros.
+     * @param residualParcela Valor somado ao total das parcelas (saldo residual de parcela paga parcialmente).
+     */
+    public void renderizar(BigDecimal[] principals, BigDecimal[] juros, BigDecimal[] parcelas,
+                           BigDecimal residualParcela, Appendable destino) throws IOException {
+        Objects.requireNonNull(destino, "destino");
+        gerar(principals, juros, parcelas, residualParcela, () -> {
+            destino.append(buffer);
+            buffer.setLength(0);
+        });
+    }
+
+    public void renderizar(BigDecimal[] principals, BigDecimal[] juros, BigDecimal[] parcelas,
+                           BigDecimal residualParcela, WritableByteChannel canal) throws IOException {
+        Objects.requireNonNull(canal, "canal");
+        gerar(principals, juros, parcelas, residualParcela, () -> {
+            // Toda a saída é ASCII: um char vira um byte
+            for (int i = 0; i < buffer.length(); i++) {
+                bytes.put((byte) buffer.charAt(i));
+            }
+            buffer.setLength(0);
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                canal.write(bytes);
+            }
+            bytes.clear();
+        });
+    }
+
+    @FunctionalInterface
+    private interface Descarga {
+        void descarregar() throws IOException;
+    }
+
+    private void gerar(BigDecimal[] principals, BigDecimal[] juros, BigDecimal[] parcelas,
+                       BigDecimal residualParcela, Descarga descarga) throws IOException {
+        int n = principals.length;
+        if (juros.length != n || (parcelas != null && parcelas.length < n)) {
+            throw new IllegalArgumentException("Principal, juros e parcelas devem ter o mesmo tamanho");
+        }
+        if (principalCentavos.length < n) {
+            principalCentavos = new long[n];
+            jurosCentavos = new long[n];
+            parcelaCentavos = new long[n];
+        }
+
+        // Conversão e totais numa única passada
+        long totalPrincipal = 0;
+        long totalJuros = 0;
+        long totalParcelas = centavos(residualParcela);
+        for (int i = 0; i < n; i++) {
+            principalCentavos[i] = centavos(principals[i]);
+            jurosCentavos[i] = centavos(juros[i]);
+            parcelaCentavos[i] = parcelas != null ? centavos(parcelas[i]) : principalCentavos[i] + jurosCentavos[i];
+            totalPrincipal += principalCentavos[i];
+            totalJuros += jurosCentavos[i];
+            totalParcelas += parcelaCentavos[i];
+        }
+
+        buffer.setLength(0);
+        cabecalho();
+        long saldo = totalPrincipal;
+        for (int i = 0; i < n; i++) {
+            saldo -= principalCentavos[i];
+            linha(i + 1, principalCentavos[i], jurosCentavos[i], parcelaCentavos[i], Math.max(0, saldo));
+            if (buffer.length() >= LIMITE_BUFFER) {
+                descarga.descarregar();
+            }
+        }
+        totais(n, totalPrincipal, totalJuros, totalParcelas);
+        descarga.descarregar();
+    }
+
+    private void cabecalho() {
+        switch (layout) {
+            case TEXTO -> buffer.append("Parcela | Principal  | Juros      | Valor      | Saldo").append(SEPARADOR_LINHA)
+                    .append("-------|------------|------------|------------|------------").append(SEPARADOR_LINHA);
+            case CSV -> buffer.append("parcela,principal,juros,valor,saldo").append(SEPARADOR_LINHA);
+            case LARGURA_FIXA -> {
+            }
+        }
+    }
+
+    private void linha(int numero, long principal, long juros, long parcela, long saldo) {
+        switch (layout) {
+            case TEXTO -> {
+                inteiroAlinhado(numero, 6);
+                buffer.append(" | ");
+                decimalAlinhado(principal, LARGURA_TEXTO);
+                buffer.append(" | ");
+                decimalAlinhado(juros, LARGURA_TEXTO);
+                buffer.append(" | ");
+                decimalAlinhado(parcela, LARGURA_TEXTO);
+                buffer.append(" | ");
+                decimalAlinhado(saldo, LARGURA_TEXTO);
+            }
+            case CSV -> {
+                buffer.append(numero).append(',');
+                decimal(principal);
+                buffer.append(',');
+                decimal(juros);
+                buffer.append(',');
+                decimal(parcela);
+                buffer.append(',');
+                decimal(saldo);
+            }
+            case LARGURA_FIXA -> {
+                buffer.append('D');
+                zerosAEsquerda(numero, 4);
+                zerosAEsquerda(principal, LARGURA_REGISTRO);
+                zerosAEsquerda(juros, LARGURA_REGISTRO);
+                zerosAEsquerda(parcela, LARGURA_REGISTRO);
+                zerosAEsquerda(saldo, LARGURA_REGISTRO);
+            }
+        }
+        buffer.append(SEPARADOR_LINHA);
+    }
+
+    private void totais(int quantidade, long principal, long juros, long parcelas) {
+        switch (layout) {
+            case TEXTO -> {
+                buffer.append("TOTAL  | ");
+                decimalAlinhado(principal, LARGURA_TEXTO);
+                buffer.append(" | ");
+                decimalAlinhado(juros, LARGURA_TEXTO);
+                buffer.append(" | ");
+                decimalAlinhado(parcelas, LARGURA_TEXTO);
+            }
+            case CSV -> {
+                buffer.append("TOTAL,");
+                decimal(principal);
+                buffer.append(',');
+                decimal(juros);
+                buffer.append(',');
+                decimal(parcelas);
+                buffer.append(',');
+            }
+            case LARGURA_FIXA -> {
+                buffer.append('T');
+                zerosAEsquerda(quantidade, 4);
+                zerosAEsquerda(principal, LARGURA_REGISTRO);
+                zerosAEsquerda(juros, LARGURA_REGISTRO);
+                zerosAEsquerda(parcelas, LARGURA_REGISTRO);
+            }
+        }
+        buffer.append(SEPARADOR_LINHA);
+    }
+
+    // Centavos como "-1234.56", sem alinhamento
+    private void decimal(long centavos) {
+        if (centavos < 0) {
+            buffer.append('-');
+        }
+        long absoluto = Math.abs(centavos);
+        buffer.append(absoluto / 100).append('.');
+        long fracao = absoluto % 100;
+        buffer.append((char) ('0' + fracao / 10)).append((char) ('0' + fracao % 10));
+    }
+
+    private void decimalAlinhado(long centavos, int largura) {
+        int inicio = buffer.length();
+        decimal(centavos);
+        preencherAEsquerda(inicio, largura, ' ');
+    }
+
+    private void inteiroAlinhado(long valor, int largura) {
+        int inicio = buffer.length();
+        buffer.append(valor);
+        preencherAEsquerda(inicio, largura, ' ');
+    }
+
+    private void zerosAEsquerda(long valor, int largura) {
+        if (valor < 0) {
+            buffer.append('-');
+            largura--;
+        }
+        int inicio = buffer.length();
+        buffer.append(Math.abs(valor));
+        preencherAEsquerda(inicio, largura, '0');
+    }
+
+    private void preencherAEsquerda(int inicio, int largura, char preenchimento) {
+        int escrito = buffer.length() - inicio;
+        for (int i = escrito; i < largura; i++) {
+            buffer.insert(inicio, preenchimento);
+        }
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,186 @@
+package org.com.pangolin.redistribuicao.sensibilidade;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Sensibilidade dos juros e do valor presente de cronogramas a choques de taxa, por derivadas analíticas.
+ * <p>
+ * Os juros da parcela {@code k} são {@code J_k = i·S_{k-1}}, onde {@code S_m} é o saldo após {@code m}
+ * parcelas. No SAC o saldo {@code P(n-m)/n} não depende da taxa, e então {@code J'_k = S_{k-1}} e
+ * {@code J''_k = 0}. No PRICE (e SFF, tratado como PRICE) o saldo é
+ * {@code S_m = P((1+i)^n - (1+i)^m)/((1+i)^n - 1)}, derivado em forma fechada; com taxa zero usam-se os
+ * coeficientes da série de Taylor em {@code i = 0}, onde a expressão é indeterminada. O valor presente das
+ * parcelas {@code A_k} à taxa de desconto {@code r} tem derivadas {@code -Σ k·A_k(1+r)^-(k+1)} e
+ * {@code Σ k(k+1)·A_k(1+r)^-(k+2)}.
+ * </p>
+ * <p>
+ * Um choque de taxa passa a custar uma expansão de Taylor ({@link SensibilidadeTaxa#variacaoJurosTotais(double)})
+ * em vez de uma redistribuição completa por choque. A taxa de desconto é a taxa do contrato.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     List&lt;SensibilidadeTaxa&gt; sensibilidades = AnaliseSensibilidade.calcularLote(carteira);
+ *     double choqueAlta = sensibilidades.get(0).variacaoValorPresente(0.001); // +0,1 p.p. ao mês
+ * </pre>
+ */
+public final class AnaliseSensibilidade {
+
+    private AnaliseSensibilidade() {
+    }
+
+    /**
+     * Sensibilidades do cronograma contínuo do sistema, com as parcelas da expressão fechada no valor presente.
+     */
+    public static SensibilidadeTaxa calcular(ParametrosRedistribuicao parametros) {
+        return calcular(parametros, null);
+    }
+
+    /**
+     * Sensibilidades com o valor presente calculado sobre as parcelas de um cronograma já redistribuído.
+     *
+     * @param cronograma Cronograma cujas parcelas ({@code principal + juros}) entram no valor presente, ou
+     *                   {@code null} para usar as parcelas da expressão fechada.
+     */
+    public static SensibilidadeTaxa calcular(ParametrosRedistribuicao parametros, ResultadoRedistribuicao cronograma) {
+        Objects.requireNonNull(parametros, "parametros");
+        Objects.requireNonNull(parametros.taxaJuros(), "taxaJuros");
+        Objects.requireNonNull(parametros.saldoPrincipal(), "saldoPrincipal");
+        int n = parametros.quantidadeParcelas();
+        if (n <= 0) {
+            throw new IllegalArgumentException("Quantidade de parcelas deve ser positiva: " + n);
+        }
+        if (parametros.taxaJuros().signum() < 0) {
+            throw new IllegalArgumentException("Taxa de juros não pode ser negativa: " + parametros.taxaJuros());
+        }
+        if (cronograma != null && cronograma.principal().length != n) {
+            throw new IllegalArgumentException(String.format(
+                    "Cronograma com %d parcelas para um contrato de %d", cronograma.principal().length, n));
+        }
+
+        double principal = parametros.saldoPrincipal().doubleValue();
+        double taxa = parametros.taxaJuros().doubleValue();
+        double[] parcelas = new double[n];
+        double[] derivada1 = new double[n];
+        double[] derivada2 = new double[n];
+        if (parametros.sistemaAmortizacao() == RedistribuicaoSistemaAmortizacao.SAC) {
+            derivarSac(principal, taxa, n, parcelas, derivada1, derivada2);
+        } else {
+            derivarPrice(principal, taxa, n, parcelas, derivada1, derivada2);
+        }
+        if (cronograma != null) {
+            for (int k = 0; k < n; k++) {
+                parcelas[k] = valor(cronograma.principal()[k]) + valor(cronograma.juros()[k]);
+            }
+        }
+
+        double desconto = 1.0 / (1.0 + taxa);
+        double fator = 1.0;
+        double valorPresente = 0;
+        double valorPresente1 = 0;
+        double valorPresente2 = 0;
+        for (int k = 1; k <= n; k++) {
+            fator *= desconto;
+            double descontada = parcelas[k - 1] * fator;
+            valorPresente += descontada;
+            valorPresente1 -= k * descontada * desconto;
+            valorPresente2 += (double) k * (k + 1) * descontada * desconto * desconto;
+        }
+        return new SensibilidadeTaxa(taxa, derivada1, derivada2, valorPresente, valorPresente1, valorPresente2);
+    }
+
+    /**
+     * Calcula as sensibilidades de uma carteira em paralelo, preservando a ordem.
+     */
+    public static List<SensibilidadeTaxa> calcularLote(List<ParametrosRedistribuicao> carteira) {
+        Objects.requireNonNull(carteira, "carteira");
+        SensibilidadeTaxa[] resultados = new SensibilidadeTaxa[carteira.size()];
+        IntStream.range(0, resultados.length).parallel().forEach(i -> resultados[i] = calcular(carteira.get(i)));
+        return List.of(resultados);
+    }
+
+    /**
+     * Calcula as sensibilidades de uma carteira já redistribuída em paralelo; {@code cronogramas.get(i)}
+     * corresponde a {@code carteira.get(i)}.
+     */
+    public static List<SensibilidadeTaxa> calcularLote(List<ParametrosRedistribuicao> carteira,
+                                                       List<ResultadoRedistribuicao> cronogramas) {
+        Objects.requireNonNull(carteira, "carteira");
+        Objects.requireNonNull(cronogramas, "cronogramas");
+        if (carteira.size() != cronogramas.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Carteira com %d contratos e %d cronogramas", carteira.size(), cronogramas.size()));
+        }
+        SensibilidadeTaxa[] resultados = new SensibilidadeTaxa[carteira.size()];
+        IntStream.range(0, resultados.length).parallel()
+                .forEach(i -> resultados[i] = calcular(carteira.get(i), cronogramas.get(i)));
+        return List.of(resultados);
+    }
+
+    private static void derivarSac(double principal, double taxa, int n,
+                                   double[] parcelas, double[] derivada1, double[] derivada2) {
+        double amortizacao = principal / n;
+        for (int k = 0; k < n; k++) {
+            double saldoAnterior = principal * (n - k) / n;
+            parcelas[k] = amortizacao + taxa * saldoAnterior;
+            derivada1[k] = saldoAnterior;
+            derivada2[k] = 0;
+        }
+    }
+
+    private static void derivarPrice(double principal, double taxa, int n,
+                                     double[] parcelas, double[] derivada1, double[] derivada2) {
+        if (taxa == 0.0) {
+            derivarPriceTaxaZero(principal, n, parcelas, derivada1, derivada2);
+            return;
+        }
+        double q = 1.0 + taxa;
+        double qn = Math.pow(q, n);
+        double parcela = principal * taxa / -Math.expm1(-n * Math.log1p(taxa));
+        // Saldo relativo f = N/D, com N = q^n - q^m e D = q^n - 1, derivado em relação a q (dq/di = 1)
+        double d = qn - 1.0;
+        double d1 = n * qn / q;
+        double d2 = (double) n * (n - 1) * qn / (q * q);
+        double qm = 1.0;
+        for (int m = 0; m < n; m++) {
+            double numerador = qn - qm;
+            double numerador1 = d1 - m * qm / q;
+            double numerador2 = d2 - (double) m * (m - 1) * qm / (q * q);
+            double quociente1 = (numerador1 * d - numerador * d1) / (d * d);
+            double saldo = principal * numerador / d;
+            double saldo1 = principal * quociente1;
+            double saldo2 = principal * ((numerador2 * d - numerador * d2) / (d * d) - 2.0 * d1 * quociente1 / d);
+            parcelas[m] = parcela;
+            derivada1[m] = saldo + taxa * saldo1;
+            derivada2[m] = 2.0 * saldo1 + taxa * saldo2;
+            qm *= q;
+        }
+    }
+
+    private static void derivarPriceTaxaZero(double principal, int n,
+                                             double[] parcelas, double[] derivada1, double[] derivada2) {
+        // f(x) = Σ a_j x^j / Σ b_j x^j com a_j = C(n,j) - C(m,j) e b_j = C(n,j); c_j são os coeficientes de f em x = 0.
+        // Com J = i·S, J'(0) = S(0) = P·c0 e J''(0) = 2·S'(0) = 2·P·c1
+        double b1 = n;
+        double b2 = n * (n - 1.0) / 2.0;
+        for (int m = 0; m < n; m++) {
+            double a2 = b2 - m * (m - 1.0) / 2.0;
+            double c0 = (n - m) / b1;
+            double c1 = (a2 - c0 * b2) / b1;
+            parcelas[m] = principal / n;
+            derivada1[m] = principal * c0;
+            derivada2[m] = 2.0 * principal * c1;
+        }
+    }
+
+    private static double valor(BigDecimal valor) {
+        return valor == null ? 0.0 : valor.doubleValue();
+    }
+}
@@ -0,0 +1,54 @@
+package org.com.pangolin.redistribuicao.sensibilidade;
+
+/**
+ * Sensibilidades de primeira e segunda ordem de um cronograma em relação à taxa mensal.
+ * <p>
+ * Os valores são contínuos (sem arredondamento para centavos) e as derivadas são por unidade de taxa: um
+ * choque de 0,1 ponto percentual ao mês corresponde a {@code delta = 0.001}.
+ * </p>
+ *
+ * @param taxa                    Taxa do contrato em que as derivadas foram avaliadas.
+ * @param jurosDerivada1          Derivada primeira dos juros de cada parcela em relação à taxa do contrato.
+ * @param jurosDerivada2          Derivada segunda dos juros de cada parcela em relação à taxa do contrato.
+ * @param valorPresente           Valor presente das parcelas, descontadas à taxa de desconto.
+ * @param valorPresenteDerivada1  Derivada primeira do valor presente em relação à taxa de desconto.
+ * @param valorPresenteDerivada2  Derivada segunda do valor presente em relação à taxa de desconto.
+ */
+public record SensibilidadeTaxa(
+        double taxa,
+        double[] jurosDerivada1,
+        double[] jurosDerivada2,
+        double valorPresente,
+        double valorPresenteDerivada1,
+        double valorPresenteDerivada2) {
+
+    public double jurosTotalDerivada1() {
+        double soma = 0;
+        for (double derivada : jurosDerivada1) {
+            soma += derivada;
+        }
+        return soma;
+    }
+
+    public double jurosTotalDerivada2() {
+        double soma = 0;
+        for (double derivada : jurosDerivada2) {
+            soma += derivada;
+        }
+        return soma;
+    }
+
+    /**
+     * @return Variação estimada dos juros totais para um choque de {@code delta} na taxa (expansão de Taylor de segunda ordem).
+     */
+    public double variacaoJurosTotais(double delta) {
+        return jurosTotalDerivada1() * delta + 0.5 * jurosTotalDerivada2() * delta * delta;
+    }
+
+    /**
+     * @return Variação estimada do valor presente para um choque de {@code delta} na taxa de desconto.
+     */
+    public double variacaoValorPresente(double delta) {
+        return valorPresenteDerivada1 * delta + 0.5 * valorPresenteDerivada2 * delta * delta;
+    }
+}
@@ -0,0 +1,21 @@
+package org.com.pangolin.redistribuicao.sombra;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Comparação amostrada em que o motor candidato divergiu do primário.
+ *
+ * @param parametros                 Parâmetros da chamada.
+ * @param primario                   Resultado devolvido ao chamador.
+ * @param candidato                  Resultado do motor candidato.
+ * @param parcelasDivergentes        Parcelas em que principal ou juros diferem em ao menos um centavo.
+ * @param divergenciaMaximaCentavos  Maior diferença absoluta, em centavos, entre principal ou juros.
+ */
+public record DivergenciaSombra(
+        ParametrosRedistribuicao parametros,
+        ResultadoRedistribuicao primario,
+        ResultadoRedistribuicao candidato,
+        int parcelasDivergentes,
+        long divergenciaMaximaCentavos) {
+}
@@ -0,0 +1,37 @@
+package org.com.pangolin.redistribuicao.sombra;
+
+/**
+ * Fotografia das estatísticas acumuladas por um {@link MotorSombra}.
+ *
+ * @param chamadas                      Chamadas atendidas pelo motor primário.
+ * @param comparacoes                   Chamadas amostradas em que o candidato concluiu e foi comparado.
+ * @param comparacoesDivergentes        Comparações com ao menos uma parcela divergente.
+ * @param parcelasDivergentes           Total de parcelas divergentes em todas as comparações.
+ * @param divergenciaMaximaCentavos     Maior diferença, em centavos, já observada.
+ * @param falhasCandidato               Chamadas amostradas em que o candidato lançou exceção.
+ * @param descartadas                   Chamadas amostradas descartadas por saturação do executor.
+ * @param latenciaMediaPrimarioNanos    Latência média do primário nas chamadas amostradas.
+ * @param latenciaMaximaPrimarioNanos   Maior latência do primário nas chamadas amostradas.
+ * @param latenciaMediaCandidatoNanos   Latência média do candidato nas comparações.
+ * @param latenciaMaximaCandidatoNanos  Maior latência do candidato nas comparações.
+ */
+public record EstatisticasSombra(
+        long chamadas,
+        long comparacoes,
+        long comparacoesDivergentes,
+        long parcelasDivergentes,
+        long divergenciaMaximaCentavos,
+        long falhasCandidato,
+        long descartadas,
+        double latenciaMediaPrimarioNanos,
+        long latenciaMaximaPrimarioNanos,
+        double latenciaMediaCandidatoNanos,
+        long latenciaMaximaCandidatoNanos) {
+
+    /**
+     * @return Fração das comparações em que o candidato divergiu; zero quando não houve comparações.
+     */
+    public double taxaDivergencia() {
+        return comparacoes == 0 ? 0.0 : (double) comparacoesDivergentes / comparacoes;
+    }
+}
@@ -0,0 +1,268 @@
+package org.com.pangolin.redistribuicao.sombra;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+
+/**
+ * Execução em sombra: atende cada chamada com o motor primário e, numa amostra configurável das chamadas,
+ * executa também um motor candidato e compara os resultados centavo a centavo.
+ * <p>
+ * O candidato roda de forma assíncrona num executor próprio, fora do caminho crítico do chamador, que só
+ * paga a medição de latência do primário e o enfileiramento. Quando o executor está saturado a amostra é
+ * descartada (e contabilizada) em vez de bloquear. Falhas do candidato nunca chegam ao chamador: são
+ * apenas contadas. Somente o resultado do primário é devolvido.
+ * </p>
+ *
+ * <b>Exemplo de uso:</b>
+ * <pre>
+ *     MotorSombra motor = MotorSombra.builder()
+ *         .primario(MotorRedistribuicao.padrao())
+ *         .candidato(motorCandidato)
+ *         .taxaAmostragem(0.05)
+ *         .ouvinteDivergencia(d -> log.warn("Divergência de {} centavos", d.divergenciaMaximaCentavos()))
+ *         .build();
+ *     ResultadoRedistribuicao resultado = motor.redistribuir(parametros);
+ *     EstatisticasSombra estatisticas = motor.estatisticas();
+ * </pre>
+ */
+public class MotorSombra implements MotorRedistribuicao, AutoCloseable {
+
+    private final MotorRedistribuicao primario;
+    private final MotorRedistribuicao candidato;
+    private final double taxaAmostragem;
+    private final Executor executor;
+    private final ExecutorService executorProprio;
+    private final Consumer<DivergenciaSombra> ouvinteDivergencia;
+
+    private final LongAdder chamadas = new LongAdder();
+    private final LongAdder comparacoes = new LongAdder();
+    private final LongAdder comparacoesDivergentes = new LongAdder();
+    private final LongAdder parcelasDivergentes = new LongAdder();
+    private final LongAccumulator divergenciaMaximaCentavos = new LongAccumulator(Math::max, 0);
+    private final LongAdder falhasCandidato = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder amostrasPrimario = new LongAdder();
+    private final LongAdder latenciaTotalPrimario = new LongAdder();
+    private final LongAccumulator latenciaMaximaPrimario = new LongAccumulator(Math::max, 0);
+    private final LongAdder latenciaTotalCandidato = new LongAdder();
+    private final LongAccumulator latenciaMaximaCandidato = new LongAccumulator(Math::max, 0);
+
+    private MotorSombra(Builder builder) {
+        this.primario = builder.primario;
+        this.candidato = builder.candidato;
+        this.taxaAmostragem = builder.taxaAmostragem;
+        this.ouvinteDivergencia = builder.ouvinteDivergencia;
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.executorProprio = null;
+        } else {
+            // Fila limitada e rejeição imediata: o chamador nunca espera pelo candidato
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(builder.capacidadeFila),
+                    Thread.ofPlatform().name("redistribuicao-sombra-", 0).daemon(true).factory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.executor = pool;
+            this.executorProprio = pool;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public ResultadoRedistribuicao redistribuir(ParametrosRedistribuicao parametros) {
+        chamadas.increment();
+        if (taxaAmostragem <= 0.0 || ThreadLocalRandom.current().nextDouble() >= taxaAmostragem) {
+            return primario.redistribuir(parametros);
+        }
+
+        long inicio = System.nanoTime();
+        ResultadoRedistribuicao resultado = primario.redistribuir(parametros);
+        long latenciaPrimario = System.nanoTime() - inicio;
+
+        // A comparação assíncrona usa uma cópia: o chamador pode alterar o resultado devolvido a seguir
+        ResultadoRedistribuicao copia = resultado.copia();
+        try {
+            executor.execute(() -> comparar(parametros, copia, latenciaPrimario));
+        } catch (RejectedExecutionException e) {
+            descartadas.increment();
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Estatísticas acumuladas desde a criação ou o último {@link #zerarEstatisticas()}.
+     */
+    public EstatisticasSombra estatisticas() {
+        long amostras = amostrasPrimario.sum();
+        long totalComparacoes = comparacoes.sum();
+        return new EstatisticasSombra(
+                chamadas.sum(),
+                totalComparacoes,
+                comparacoesDivergentes.sum(),
+                parcelasDivergentes.sum(),
+                divergenciaMaximaCentavos.get(),
+                falhasCandidato.sum(),
+                descartadas.sum(),
+                amostras == 0 ? 0.0 : (double) latenciaTotalPrimario.sum() / amostras,
+                latenciaMaximaPrimario.get(),
+                totalComparacoes == 0 ? 0.0 : (double) latenciaTotalCandidato.sum() / totalComparacoes,
+                latenciaMaximaCandidato.get());
+    }
+
+    public void zerarEstatisticas() {
+        chamadas.reset();
+        comparacoes.reset();
+        comparacoesDivergentes.reset();
+        parcelasDivergentes.reset();
+        divergenciaMaximaCentavos.reset();
+        falhasCandidato.reset();
+        descartadas.reset();
+        amostrasPrimario.reset();
+        latenciaTotalPrimario.reset();
+        latenciaMaximaPrimario.reset();
+        latenciaTotalCandidato.reset();
+        latenciaMaximaCandidato.reset();
+    }
+
+    /**
+     * Encerra o executor interno, se houver. Comparações já enfileiradas são abandonadas.
+     */
+    @Override
+    public void close() {
+        if (executorProprio != null) {
+            executorProprio.shutdownNow();
+        }
+    }
+
+    private void comparar(ParametrosRedistribuicao parametros, ResultadoRedistribuicao resultadoPrimario, long latenciaPrimario) {
+        amostrasPrimario.increment();
+        latenciaTotalPrimario.add(latenciaPrimario);
+        latenciaMaximaPrimario.accumulate(latenciaPrimario);
+
+        ResultadoRedistribuicao resultadoCandidato;
+        long inicio = System.nanoTime();
+        try {
+            resultadoCandidato = candidato.redistribuir(parametros);
+        } catch (RuntimeException e) {
+            falhasCandidato.increment();
+            return;
+        }
+        long latenciaCandidato = System.nanoTime() - inicio;
+        latenciaTotalCandidato.add(latenciaCandidato);
+        latenciaMaximaCandidato.accumulate(latenciaCandidato);
+        comparacoes.increment();
+
+        BigDecimal[] principalPrimario = resultadoPrimario.principal();
+        BigDecimal[] jurosPrimario = resultadoPrimario.juros();
+        BigDecimal[] principalCandidato = resultadoCandidato.principal();
+        BigDecimal[] jurosCandidato = resultadoCandidato.juros();
+
+        int n = Math.max(principalPrimario.length, principalCandidato.length);
+        int divergentes = 0;
+        long maximaCentavos = 0;
+        for (int i = 0; i < n; i++) {
+            long diferenca = Math.max(
+                    diferencaCentavos(principalPrimario, principalCandidato, i),
+                    diferencaCentavos(jurosPrimario, jurosCandidato, i));
+            if (diferenca > 0) {
+                divergentes++;
+                maximaCentavos = Math.max(maximaCentavos, diferenca);
+            }
+        }
+        if (divergentes == 0) {
+            return;
+        }
+        comparacoesDivergentes.increment();
+        parcelasDivergentes.add(divergentes);
+        divergenciaMaximaCentavos.accumulate(maximaCentavos);
+        if (ouvinteDivergencia != null) {
+            ouvinteDivergencia.accept(new DivergenciaSombra(
+                    parametros, resultadoPrimario, resultadoCandidato, divergentes, maximaCentavos));
+        }
+    }
+
+    // Parcela ausente em um dos lados conta como diferença igual ao valor presente no outro
+    private static long diferencaCentavos(BigDecimal[] primario, BigDecimal[] candidato, int indice) {
+        BigDecimal a = indice < primario.length ? primario[indice] : BigDecimal.ZERO;
+        BigDecimal b = indice < candidato.length ? candidato[indice] : BigDecimal.ZERO;
+        return a.subtract(b).abs().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    /**
+     * Builder class for MotorSombra.
+     */
+    public static class Builder {
+        private MotorRedistribuicao primario = MotorRedistribuicao.padrao();
+        private MotorRedistribuicao candidato;
+        private double taxaAmostragem = 0.01;
+        private Executor executor;
+        private int capacidadeFila = 1024;
+        private Consumer<DivergenciaSombra> ouvinteDivergencia;
+
+        public Builder primario(MotorRedistribuicao primario) {
+            this.primario = primario;
+            return this;
+        }
+
+        public Builder candidato(MotorRedistribuicao candidato) {
+            this.candidato = candidato;
+            return this;
+        }
+
+        /**
+         * Fração das chamadas, entre 0 e 1, executadas também pelo candidato. Padrão: 0,01.
+         */
+        public Builder taxaAmostragem(double taxaAmostragem) {
+            this.taxaAmostragem = taxaAmostragem;
+            return this;
+        }
+
+        /**
+         * Executor das comparações. Sem executor, usa uma thread própria com fila de {@code capacidadeFila}.
+         * O executor informado deve rejeitar em vez de bloquear quando saturado.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder capacidadeFila(int capacidadeFila) {
+            this.capacidadeFila = capacidadeFila;
+            return this;
+        }
+
+        public Builder ouvinteDivergencia(Consumer<DivergenciaSombra> ouvinteDivergencia) {
+            this.ouvinteDivergencia = ouvinteDivergencia;
+            return this;
+        }
+
+        public MotorSombra build() {
+            Objects.requireNonNull(primario, "primario");
+            Objects.requireNonNull(candidato, "candidato");
+            if (Double.isNaN(taxaAmostragem) || taxaAmostragem < 0.0 || taxaAmostragem > 1.0) {
+                throw new IllegalArgumentException("Taxa de amostragem deve estar entre 0 e 1: " + taxaAmostragem);
+            }
+            if (capacidadeFila <= 0) {
+                throw new IllegalArgumentException("Capacidade da fila deve ser positiva: " + capacidadeFila);
+            }
+            return new MotorSombra(this);
+        }
+    }
+}
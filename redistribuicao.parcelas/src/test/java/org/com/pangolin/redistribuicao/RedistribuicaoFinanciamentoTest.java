@@ -4,7 +4,10 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.com.pangolin.Main.calcularParcelasPrice;
 import static org.junit.jupiter.api.Assertions.*;
@@ -326,4 +329,203 @@ void testCenario10_SAC_JurosZero() {
     // Assert
     assertResultado(resultado, parametros);
 }
+
+@Test
+void testCenario11_Price_ModoRapido() {
+    // Arrange
+    ParametrosRedistribuicao parametros = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("10000"))
+            .saldoJuros(new BigDecimal("8000"))
+            .quantidadeParcelas(24)
+            .valorParcela(new BigDecimal("750"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+            .taxaJuros(new BigDecimal("0.03"))
+            .saldoDevedorParcelas(new BigDecimal("18000"))
+            .build();
+    // Act
+    RedistribuicaoFinanciamento r = new RedistribuicaoFinanciamento(parametros, ConfiguracaoPrecisao.rapido());
+    var resultado = r.redistribuir();
+    var exato = new RedistribuicaoFinanciamento(parametros, ConfiguracaoPrecisao.exato()).redistribuir();
+    // Assert
+    assertResultado(resultado, parametros);
+    // O ajuste da última parcela acumula no máximo meio centavo de arredondamento por parcela
+    BigDecimal limiteDesvio = new BigDecimal("0.005").multiply(BigDecimal.valueOf(parametros.quantidadeParcelas()));
+    assertTrue(resultado.desvioMaximoArredondamento().compareTo(limiteDesvio) <= 0,
+            "Desvio de arredondamento acima do limite: " + resultado.desvioMaximoArredondamento());
+    assertTrue(exato.desvioMaximoArredondamento().compareTo(limiteDesvio) <= 0,
+            "Desvio de arredondamento acima do limite: " + exato.desvioMaximoArredondamento());
+    assertTrue(resultado.desvioMaximoArredondamento().subtract(exato.desvioMaximoArredondamento()).abs()
+            .compareTo(new BigDecimal("0.01")) <= 0, "Desvio difere entre os modos rápido e exato");
+    for (int i = 0; i < parametros.quantidadeParcelas(); i++) {
+        assertTrue(resultado.principal()[i].subtract(exato.principal()[i]).abs().compareTo(new BigDecimal("0.01")) <= 0,
+                "Principal da parcela " + (i + 1) + " difere entre os modos rápido e exato");
+        assertTrue(resultado.juros()[i].subtract(exato.juros()[i]).abs().compareTo(new BigDecimal("0.01")) <= 0,
+                "Juros da parcela " + (i + 1) + " difere entre os modos rápido e exato");
+    }
+}
+
+@Test
+void testCenario12_SAC_ModoExatoComMathContextConfigurado() {
+    // Arrange
+    ParametrosRedistribuicao parametros = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("5000"))
+            .saldoJuros(new BigDecimal("1000"))
+            .quantidadeParcelas(5)
+            .valorParcela(new BigDecimal("1200"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.SAC)
+            .taxaJuros(new BigDecimal("0.015"))
+            .saldoDevedorParcelas(new BigDecimal("6000"))
+            .build();
+    // Act
+    RedistribuicaoFinanciamento r = new RedistribuicaoFinanciamento(parametros, ConfiguracaoPrecisao.exato(MathContext.DECIMAL128));
+    var resultado = r.redistribuir();
+    // Assert
+    assertResultado(resultado, parametros);
+    assertTrue(resultado.desvioMaximoArredondamento().compareTo(new BigDecimal("0.05")) <= 0,
+            "Desvio de arredondamento acima de cinco centavos");
+}
+
+@Test
+void testCenario13_SFF_RastreamentoDecompoePenalidade() {
+    // Arrange
+    ParametrosRedistribuicao parametros = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("4500"))
+            .saldoJuros(new BigDecimal("789.23"))
+            .quantidadeParcelas(6)
+            .valorParcela(new BigDecimal("881.54"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.SFF)
+            .taxaJuros(new BigDecimal("0.018"))
+            .saldoDevedorParcelas(new BigDecimal("5289.23"))
+            .build();
+    RastreamentoPenalidade.limpar();
+    RastreamentoPenalidade.ativar(10, 64);
+    try {
+        // Act
+        new RedistribuicaoFinanciamento(parametros).redistribuir();
+        // Assert
+        var decomposicoes = RastreamentoPenalidade.decomposicoes();
+        assertEquals(1, decomposicoes.size());
+        DecomposicaoPenalidade decomposicao = decomposicoes.get(0);
+        double somaTermos = Arrays.stream(decomposicao.termos()).sum();
+        assertEquals(decomposicao.penalidadeTotal(), somaTermos, 1e-6 * Math.max(1, somaTermos));
+        assertFalse(RastreamentoPenalidade.amostras().isEmpty(), "Trajetória deveria ter sido amostrada");
+    } finally {
+        RastreamentoPenalidade.desativar();
+        RastreamentoPenalidade.limpar();
+    }
+}
+
+@Test
+void testCenario14_MotorCompartilhadoEntreThreads() throws Exception {
+    // Arrange
+    MotorOtimizacao motor = MotorOtimizacao.builder().precisao(ConfiguracaoPrecisao.rapido()).build();
+    ParametrosRedistribuicao price = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("10000"))
+            .saldoJuros(new BigDecimal("8000"))
+            .quantidadeParcelas(24)
+            .valorParcela(new BigDecimal("750"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+            .taxaJuros(new BigDecimal("0.03"))
+            .saldoDevedorParcelas(new BigDecimal("18000"))
+            .build();
+    ParametrosRedistribuicao sac = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("5000"))
+            .saldoJuros(new BigDecimal("1000"))
+            .quantidadeParcelas(5)
+            .valorParcela(new BigDecimal("1200"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.SAC)
+            .taxaJuros(new BigDecimal("0.015"))
+            .saldoDevedorParcelas(new BigDecimal("6000"))
+            .build();
+    ResultadoRedistribuicao esperadoPrice = motor.redistribuir(price);
+    ResultadoRedistribuicao esperadoSac = motor.redistribuir(sac);
+    // Act
+    var executor = Executors.newFixedThreadPool(4);
+    try {
+        var futuros = new ArrayList<Future<Boolean>>();
+        for (int i = 0; i < 16; i++) {
+            ParametrosRedistribuicao parametros = i % 2 == 0 ? price : sac;
+            ResultadoRedistribuicao esperado = i % 2 == 0 ? esperadoPrice : esperadoSac;
+            futuros.add(executor.submit(() -> {
+                ResultadoRedistribuicao resultado = motor.redistribuir(parametros);
+                return Arrays.equals(esperado.principal(), resultado.principal())
+                        && Arrays.equals(esperado.juros(), resultado.juros());
+            }));
+        }
+        // Assert
+        for (var futuro : futuros) {
+            assertTrue(futuro.get(), "Resultado concorrente divergiu do resultado sequencial");
+        }
+    } finally {
+        executor.shutdownNow();
+    }
+}
+
+@Test
+void testCenario15_ParametrizacaoPorCurvaEmContratoLongo() {
+    // Arrange
+    MotorOtimizacao curva = MotorOtimizacao.builder()
+            .precisao(ConfiguracaoPrecisao.rapido())
+            .parametrizacao(ParametrizacaoPrincipal.CURVA)
+            .partidaAnuidade(true)
+            .build();
+    // A partida por anuidade cresce 1% por parcela e a função objetivo do PRICE penaliza principal crescente:
+    // a curva precisa sair do ponto inicial
+    ParametrosRedistribuicao medio = contratoSffUmPorCento(120);
+    ParametrosRedistribuicao longo = contratoSffUmPorCento(360);
+    ParametrosRedistribuicao curto = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("10000"))
+            .saldoJuros(new BigDecimal("8000"))
+            .quantidadeParcelas(24)
+            .valorParcela(new BigDecimal("750"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+            .taxaJuros(new BigDecimal("0.03"))
+            .saldoDevedorParcelas(new BigDecimal("18000"))
+            .build();
+    RastreamentoPenalidade.limpar();
+    RastreamentoPenalidade.ativar(1000, 8);
+    try {
+        // Act
+        ResultadoRedistribuicao resultadoMedio = curva.redistribuir(medio);
+        ResultadoRedistribuicao resultadoLongo = curva.redistribuir(longo);
+        ResultadoRedistribuicao resultadoCurto = curva.redistribuir(curto);
+        // Assert
+        assertResultado(resultadoMedio, medio);
+        assertResultado(resultadoLongo, longo);
+        assertResultado(resultadoCurto, curto);
+        assertEquals(360, resultadoLongo.principal().length);
+        var decomposicoes = RastreamentoPenalidade.decomposicoes();
+        assertEquals(3, decomposicoes.size());
+        DecomposicaoPenalidade decomposicaoMedio = decomposicoes.get(0);
+        DecomposicaoPenalidade decomposicaoLongo = decomposicoes.get(1);
+        for (DecomposicaoPenalidade decomposicao : decomposicoes) {
+            assertEquals(curva.nosCurva() + 1, decomposicao.dimensaoBusca(),
+                    "Simplex deveria ter 1 + nosCurva dimensões para " + decomposicao.quantidadeParcelas() + " parcelas");
+            assertEquals(0.0, decomposicao.penalidadeTotal(), 1e-6);
+        }
+        assertEquals(360, decomposicaoLongo.quantidadeParcelas());
+        // Triplicar o prazo não deveria mudar a quantidade de avaliações de forma relevante
+        assertTrue(decomposicaoLongo.avaliacoes() < 1.5 * decomposicaoMedio.avaliacoes(),
+                "Avaliações cresceram com o prazo: " + decomposicaoMedio.avaliacoes() + " -> " + decomposicaoLongo.avaliacoes());
+        // A partida tem a última amortização ~36 vezes a primeira; a solução deixa de ser crescente
+        BigDecimal[] principal = resultadoLongo.principal();
+        assertTrue(principal[358].compareTo(principal[0]) < 0,
+                "Curva não saiu da partida crescente: " + principal[0] + " -> " + principal[358]);
+    } finally {
+        RastreamentoPenalidade.desativar();
+        RastreamentoPenalidade.limpar();
+    }
+}
+
+private static ParametrosRedistribuicao contratoSffUmPorCento(int prazo) {
+    return ParametrosRedistribuicao.builder()
+            .saldoPrincipal(BigDecimal.valueOf(1000L * prazo))
+            .saldoJuros(BigDecimal.valueOf(100L * prazo))
+            .quantidadeParcelas(prazo)
+            .valorParcela(new BigDecimal("1100"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.SFF)
+            .taxaJuros(new BigDecimal("0.01"))
+            .saldoDevedorParcelas(BigDecimal.valueOf(1100L * prazo))
+            .build();
+}
 }
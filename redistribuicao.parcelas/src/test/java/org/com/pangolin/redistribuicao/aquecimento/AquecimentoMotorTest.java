@@ -0,0 +1,121 @@
+package org.com.pangolin.redistribuicao.aquecimento;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.cronograma.TabelaFatoresAnuidade;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AquecimentoMotorTest {
+
+    private static ParametrosRedistribuicao parametros(int quantidadeParcelas, RedistribuicaoSistemaAmortizacao sistema) {
+        return ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("1000"))
+                .saldoJuros(new BigDecimal("100"))
+                .saldoDevedorParcelas(new BigDecimal("1100"))
+                .valorParcela(new BigDecimal("1100"))
+                .quantidadeParcelas(quantidadeParcelas)
+                .taxaJuros(new BigDecimal("0.01"))
+                .sistemaAmortizacao(sistema)
+                .build();
+    }
+
+    @Test
+    void testProntoAoAtingirLatenciaAlvo() throws Exception {
+        // Arrange
+        List<ParametrosRedistribuicao> contratos = List.of(
+                parametros(6, RedistribuicaoSistemaAmortizacao.PRICE),
+                parametros(12, RedistribuicaoSistemaAmortizacao.SAC),
+                parametros(3, RedistribuicaoSistemaAmortizacao.SFF));
+        AquecimentoMotor aquecimento = AquecimentoMotor.builder()
+                .motor(MotorRedistribuicao.padrao())
+                .contratos(contratos)
+                .preCarregar(List.of(new BigDecimal("0.0137"), new BigDecimal("0.0137")), 360)
+                .latenciaAlvo(Duration.ofSeconds(30))
+                .build();
+        AtomicReference<RelatorioAquecimento> notificado = new AtomicReference<>();
+        aquecimento.aoFicarPronto(notificado::set);
+        // Tabelas de outras taxas já em cache não entram na contagem do aquecimento
+        TabelaFatoresAnuidade.para(0.021, 12);
+        TabelaFatoresAnuidade.para(0.022, 12);
+        // Act
+        RelatorioAquecimento relatorio = aquecimento.iniciar().get(60, TimeUnit.SECONDS);
+        // Assert
+        assertTrue(aquecimento.pronto());
+        assertSame(relatorio, notificado.get());
+        assertTrue(relatorio.metaAtingida());
+        assertEquals(1, relatorio.rodadas());
+        assertEquals(3, relatorio.chamadas());
+        assertEquals(0, relatorio.falhas());
+        assertEquals(1, relatorio.taxasPreCarregadas());
+        assertTrue(TabelaFatoresAnuidade.para(0.0137, 0).prazoMaximo() >= 360);
+        AtomicReference<RelatorioAquecimento> tardio = new AtomicReference<>();
+        aquecimento.aoFicarPronto(tardio::set);
+        assertSame(relatorio, tardio.get());
+        assertThrows(IllegalStateException.class, aquecimento::executar);
+    }
+
+    @Test
+    void testLiberadoSemMetaAoEsgotarRodadas() {
+        // Arrange
+        AtomicInteger chamadas = new AtomicInteger();
+        MotorRedistribuicao recusa = p -> {
+            chamadas.incrementAndGet();
+            throw new IllegalArgumentException("Contrato recusado");
+        };
+        AquecimentoMotor aquecimento = AquecimentoMotor.builder()
+                .motor(recusa)
+                .contratos(List.of(parametros(6, RedistribuicaoSistemaAmortizacao.PRICE)))
+                .latenciaAlvo(Duration.ofNanos(-1))
+                .maximoRodadas(4)
+                .build();
+        // Act
+        RelatorioAquecimento relatorio = aquecimento.executar();
+        // Assert
+        assertTrue(aquecimento.pronto());
+        assertFalse(relatorio.metaAtingida());
+        assertEquals(4, relatorio.rodadas());
+        assertEquals(4, chamadas.get());
+        assertEquals(4, relatorio.falhas());
+    }
+
+    @Test
+    void testSegundaExecucaoConcorrenteRecusadaAntesDeTerminar() throws Exception {
+        // Arrange
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        MotorRedistribuicao bloqueante = p -> {
+            emExecucao.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        };
+        AquecimentoMotor aquecimento = AquecimentoMotor.builder()
+                .motor(bloqueante)
+                .contratos(List.of(parametros(6, RedistribuicaoSistemaAmortizacao.PRICE)))
+                .latenciaAlvo(Duration.ofSeconds(30))
+                .build();
+        var primeira = aquecimento.iniciar();
+        assertTrue(emExecucao.await(10, TimeUnit.SECONDS));
+        // Act / Assert
+        try {
+            assertThrows(IllegalStateException.class, aquecimento::executar);
+            assertFalse(aquecimento.pronto());
+        } finally {
+            liberar.countDown();
+        }
+        assertEquals(1, primeira.get(10, TimeUnit.SECONDS).rodadas());
+    }
+}
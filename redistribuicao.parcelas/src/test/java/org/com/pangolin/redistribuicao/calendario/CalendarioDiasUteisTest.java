@@ -0,0 +1,80 @@
+package org.com.pangolin.redistribuicao.calendario;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarioDiasUteisTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2027, 12, 31);
+    private static final Set<LocalDate> FERIADOS = Set.of(
+            LocalDate.of(2026, 1, 1), LocalDate.of(2026, 4, 21), LocalDate.of(2026, 9, 7),
+            LocalDate.of(2026, 11, 2), LocalDate.of(2026, 12, 25));
+
+    private static int contarDiasUteis(LocalDate de, LocalDate ate) {
+        int total = 0;
+        for (LocalDate d = de; d.isBefore(ate); d = d.plusDays(1)) {
+            boolean fimDeSemana = d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (!fimDeSemana && !FERIADOS.contains(d)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    @Test
+    void testDiasUteisIgualAContagemDiaADia() {
+        // Arrange
+        CalendarioDiasUteis calendario = CalendarioDiasUteis.builder(INICIO, FIM).feriados(FERIADOS).build();
+        Random aleatorio = new Random(42);
+        int dias = (int) (FIM.toEpochDay() - INICIO.toEpochDay());
+        // Act / Assert
+        for (int i = 0; i < 500; i++) {
+            LocalDate de = INICIO.plusDays(aleatorio.nextInt(dias));
+            LocalDate ate = de.plusDays(aleatorio.nextInt(dias - (int) (de.toEpochDay() - INICIO.toEpochDay()) + 1));
+            assertEquals(contarDiasUteis(de, ate), calendario.diasUteis(de, ate), de + " -> " + ate);
+        }
+        assertEquals(contarDiasUteis(INICIO, FIM.plusDays(1)), calendario.posicao(FIM.plusDays(1)));
+    }
+
+    @Test
+    void testProximoDiaUtilIgnoraFimDeSemanaEFeriado() {
+        // Arrange
+        CalendarioDiasUteis calendario = CalendarioDiasUteis.builder(INICIO, FIM)
+                .feriados(List.of(LocalDate.of(2026, 4, 20), LocalDate.of(2026, 4, 21)))
+                .build();
+        // Act
+        LocalDate ajustada = calendario.proximoDiaUtil(LocalDate.of(2026, 4, 18));
+        // Assert: sábado, domingo, e feriados na segunda e na terça
+        assertEquals(LocalDate.of(2026, 4, 22), ajustada);
+        assertFalse(calendario.diaUtil(LocalDate.of(2026, 4, 21)));
+        assertThrows(IllegalArgumentException.class, () -> calendario.diaUtil(FIM.plusDays(1)));
+    }
+
+    @Test
+    void testJurosProRataEmDiasCorridosEUteis() {
+        // Arrange
+        CalendarioDiasUteis calendario = CalendarioDiasUteis.builder(INICIO, FIM).feriados(FERIADOS).build();
+        JurosProRata corridos = JurosProRata.builder().taxaMensal(new BigDecimal("0.01")).build();
+        JurosProRata uteis = JurosProRata.builder()
+                .taxaMensal(new BigDecimal("0.01"))
+                .convencao(ConvencaoContagemDias.UTEIS_252)
+                .calendario(calendario)
+                .build();
+        LocalDate de = LocalDate.of(2026, 3, 2);
+        // Act
+        BigDecimal jurosTrintaDias = corridos.juros(new BigDecimal("1000.00"), de, de.plusDays(30));
+        BigDecimal jurosVinteUmDiasUteis = uteis.juros(new BigDecimal("1000.00"), de, LocalDate.of(2026, 3, 31));
+        // Assert
+        assertEquals(new BigDecimal("10.00"), jurosTrintaDias);
+        assertEquals(21, uteis.dias(de, LocalDate.of(2026, 3, 31)));
+        assertEquals(new BigDecimal("10.00"), jurosVinteUmDiasUteis);
+    }
+}
@@ -0,0 +1,70 @@
+package org.com.pangolin.redistribuicao.carga;
+
+import org.com.pangolin.redistribuicao.MotorOtimizacao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TesteCargaTest {
+
+    @Test
+    void testCarteiraSinteticaValidaEReprodutivel() {
+        // Arrange
+        GeradorCarteira gerador = GeradorCarteira.builder().semente(7).proporcaoPagamentoParcial(0.5).build();
+        // Act
+        List<ContratoSintetico> carteira = gerador.gerar(2_000);
+        // Assert
+        assertEquals(carteira, GeradorCarteira.builder().semente(7).proporcaoPagamentoParcial(0.5).build().gerar(2_000));
+        for (ContratoSintetico contrato : carteira) {
+            assertDoesNotThrow(() -> MotorOtimizacao.validar(contrato.parametros()));
+            int prazo = contrato.parametros().quantidadeParcelas();
+            assertTrue(prazo >= 1 && prazo <= 420);
+            assertEquals(FaixaPrazo.de(prazo), contrato.classe().faixa());
+            assertTrue(contrato.parametros().saldoPrincipal().signum() > 0);
+        }
+        assertTrue(carteira.stream().anyMatch(c -> c.classe().faixa() == FaixaPrazo.LONGO));
+        assertTrue(carteira.stream().anyMatch(ContratoSintetico::pagamentoParcial));
+    }
+
+    @Test
+    void testMetricasPorClasseEGravacao(@TempDir Path diretorio) throws Exception {
+        // Arrange
+        List<ContratoSintetico> carteira = GeradorCarteira.builder().semente(3).build().gerar(300);
+        long sac = carteira.stream().filter(c -> c.classe().sistema() == RedistribuicaoSistemaAmortizacao.SAC).count();
+        ResultadoRedistribuicao vazio = new ResultadoRedistribuicao(new BigDecimal[0], new BigDecimal[0]);
+        TesteCarga.Builder builder = TesteCarga.builder()
+                .motor(parametros -> {
+                    if (parametros.sistemaAmortizacao() == RedistribuicaoSistemaAmortizacao.SAC) {
+                        throw new IllegalArgumentException("falha simulada");
+                    }
+                    return vazio;
+                })
+                .carteira(carteira)
+                .operacoes(carteira.size());
+        // Act
+        RelatorioCarga fechado = builder.malhaFechada(4).build().executar();
+        RelatorioCarga aberto = builder.malhaAberta(20_000, 2).build().executar();
+        Path arquivo = diretorio.resolve("carga.csv");
+        fechado.gravar(arquivo);
+        // Assert
+        for (RelatorioCarga relatorio : List.of(fechado, aberto)) {
+            assertEquals(carteira.size() - sac, relatorio.total().operacoes());
+            assertEquals(sac, relatorio.total().falhas());
+            assertTrue(relatorio.total().p50Nanos() <= relatorio.total().p99Nanos());
+            assertTrue(relatorio.total().p99Nanos() <= relatorio.total().p999Nanos());
+            assertTrue(relatorio.classe("SAC/CURTO").orElseThrow().operacoes() == 0);
+        }
+        assertEquals("fechado:4", fechado.modo());
+        assertEquals("aberto:20000/s", aberto.modo());
+        RelatorioCarga lido = RelatorioCarga.ler(arquivo);
+        assertEquals(fechado.classes().size(), lido.classes().size());
+        assertEquals(fechado.total().p99Nanos(), lido.total().p99Nanos());
+        assertEquals(0.0, lido.variacaoP99(fechado).get(RelatorioCarga.TOTAL), 1e-12);
+    }
+}
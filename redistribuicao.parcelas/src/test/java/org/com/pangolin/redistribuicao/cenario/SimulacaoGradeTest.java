@@ -0,0 +1,114 @@
+package org.com.pangolin.redistribuicao.cenario;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosFinanciamento;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.com.pangolin.redistribuicao.cronograma.CronogramaFechado;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulacaoGradeTest {
+
+    private static final ParametrosRedistribuicao BASE = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("25000.00"))
+            .saldoJuros(new BigDecimal("5000.00"))
+            .quantidadeParcelas(24)
+            .valorParcela(new BigDecimal("1250.00"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+            .taxaJuros(new BigDecimal("0.015"))
+            .saldoDevedorParcelas(new BigDecimal("30000.00"))
+            .build();
+
+    @Test
+    void testGradePriceConsistenteComCronogramaFechado() {
+        // Arrange
+        BigDecimal[] taxas = new BigDecimal[20];
+        for (int t = 0; t < taxas.length; t++) {
+            taxas[t] = new BigDecimal("0.0080").add(new BigDecimal("0.0005").multiply(BigDecimal.valueOf(t)));
+        }
+        int[] prazos = {6, 12, 18, 24, 30, 36, 48, 60, 72, 84, 96, 120};
+        // Act
+        GradeCenarios grade = SimulacaoGrade.builder()
+                .base(BASE)
+                .taxas(taxas)
+                .prazos(prazos)
+                .sistemas(RedistribuicaoSistemaAmortizacao.PRICE, RedistribuicaoSistemaAmortizacao.SAC)
+                .build()
+                .calcular();
+        // Assert
+        for (int t = 0; t < taxas.length; t++) {
+            for (int p = 0; p < prazos.length; p++) {
+                CronogramaFechado cronograma = CronogramaFechado.price(
+                        new ParametrosFinanciamento(BASE.saldoPrincipal(), taxas[t], prazos[p]));
+                assertEquals(cronograma.valorParcelaPrice(), grade.primeiraParcela(0, t, p), "Taxa " + t + ", prazo " + p);
+                ResultadoRedistribuicao materializado = grade.cronograma(0, t, p);
+                BigDecimal somaJuros = Arrays.stream(materializado.juros()).reduce(BigDecimal.ZERO, BigDecimal::add);
+                assertEquals(0, somaJuros.compareTo(grade.totalJuros(0, t, p)));
+            }
+        }
+    }
+
+    @Test
+    void testEixosPadraoVemDoContratoBaseESacDecrescente() {
+        // Arrange / Act
+        GradeCenarios preco = SimulacaoGrade.builder().base(BASE).build().calcular();
+        GradeCenarios sac = SimulacaoGrade.builder()
+                .base(BASE)
+                .sistemas(RedistribuicaoSistemaAmortizacao.SAC)
+                .paralelo(false)
+                .build()
+                .calcular();
+        // Assert
+        assertEquals(1, preco.taxas().size());
+        assertArrayEquals(new int[]{24}, preco.prazos());
+        assertEquals(new BigDecimal("1416.67"), sac.primeiraParcela(0, 0, 0));
+        assertEquals(new BigDecimal("1057.29"), sac.ultimaParcela(0, 0, 0));
+        assertEquals(new BigDecimal("4687.50"), sac.totalJuros(0, 0, 0));
+    }
+
+    @Test
+    void testParametrosDaCelulaRedistribuemCenarioEscolhido() {
+        // Arrange
+        GradeCenarios grade = SimulacaoGrade.builder()
+                .base(BASE)
+                .taxas(new BigDecimal("0.010"), new BigDecimal("0.012"))
+                .prazos(12, 18)
+                .build()
+                .calcular();
+        // Act
+        ParametrosRedistribuicao parametros = grade.parametros(0, 1, 1);
+        ResultadoRedistribuicao resultado = MotorRedistribuicao.padrao().redistribuir(parametros);
+        // Assert
+        assertEquals(18, parametros.quantidadeParcelas());
+        assertEquals(grade.primeiraParcela(0, 1, 1), parametros.valorParcela());
+        assertEquals(grade.totalJuros(0, 1, 1), parametros.saldoJuros());
+        BigDecimal somaPrincipal = Arrays.stream(resultado.principal()).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal somaJuros = Arrays.stream(resultado.juros()).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, BASE.saldoPrincipal().compareTo(somaPrincipal));
+        assertEquals(0, parametros.saldoJuros().compareTo(somaJuros));
+    }
+
+    @Test
+    void testSaldoComFracaoDeCentavoArredondaEmVezDeTruncar() {
+        // Arrange
+        ParametrosRedistribuicao fracionado = ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("25000.009"))
+                .taxaJuros(new BigDecimal("0.015"))
+                .quantidadeParcelas(24)
+                .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+                .build();
+        // Act
+        GradeCenarios grade = SimulacaoGrade.builder().base(fracionado).build().calcular();
+        // Assert
+        CronogramaFechado cronograma = CronogramaFechado.price(
+                new ParametrosFinanciamento(new BigDecimal("25000.01"), new BigDecimal("0.015"), 24));
+        BigDecimal jurosEsperados = cronograma.valorParcelaPrice().multiply(BigDecimal.valueOf(24))
+                .subtract(new BigDecimal("25000.01"));
+        assertEquals(jurosEsperados, grade.totalJuros(0, 0, 0));
+    }
+}
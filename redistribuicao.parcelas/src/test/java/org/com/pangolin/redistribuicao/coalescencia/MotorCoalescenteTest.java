@@ -0,0 +1,154 @@
+package org.com.pangolin.redistribuicao.coalescencia;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorCoalescenteTest {
+
+    private static final int CHAMADORES = 8;
+
+    private static ParametrosRedistribuicao parametros(String valorParcela) {
+        return ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("3000"))
+                .saldoJuros(new BigDecimal("600"))
+                .quantidadeParcelas(3)
+                .valorParcela(new BigDecimal(valorParcela))
+                .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+                .taxaJuros(new BigDecimal("0.02"))
+                .saldoDevedorParcelas(new BigDecimal("3600"))
+                .build();
+    }
+
+    // Libera o cálculo somente quando todos os demais chamadores já estão aguardando
+    private static void aguardarCoalescidas(MotorCoalescente motor, CountDownLatch liberar) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (motor.coalescidas() < CHAMADORES - 1 && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+        liberar.countDown();
+    }
+
+    private static void aguardarLiberacao(CountDownLatch liberar) {
+        try {
+            liberar.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testChamadasConcorrentesCompartilhamUmaExecucao() throws Exception {
+        // Arrange
+        AtomicInteger invocacoes = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        MotorCoalescente motor = new MotorCoalescente(p -> {
+            invocacoes.incrementAndGet();
+            aguardarLiberacao(liberar);
+            return new ResultadoRedistribuicao(
+                    new BigDecimal[]{new BigDecimal("980.00"), new BigDecimal("1000.00"), new BigDecimal("1020.00")},
+                    new BigDecimal[]{new BigDecimal("220.00"), new BigDecimal("200.00"), new BigDecimal("180.00")});
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADORES);
+        try {
+            // Act
+            List<Future<ResultadoRedistribuicao>> futuros = new ArrayList<>();
+            for (int i = 0; i < CHAMADORES; i++) {
+                // Escalas diferentes, mesmos valores: devem coalescer
+                String valorParcela = i % 2 == 0 ? "1200" : "1200.00";
+                futuros.add(executor.submit(() -> motor.redistribuir(parametros(valorParcela))));
+            }
+            aguardarCoalescidas(motor, liberar);
+            List<ResultadoRedistribuicao> resultados = new ArrayList<>();
+            for (Future<ResultadoRedistribuicao> futuro : futuros) {
+                resultados.add(futuro.get(10, TimeUnit.SECONDS));
+            }
+            // Assert
+            assertEquals(1, invocacoes.get());
+            assertEquals(CHAMADORES - 1, motor.coalescidas());
+            resultados.get(0).principal()[0] = BigDecimal.ZERO;
+            long comValorOriginal = resultados.stream()
+                    .filter(r -> new BigDecimal("980.00").equals(r.principal()[0]))
+                    .count();
+            assertEquals(CHAMADORES - 1, comValorOriginal, "Cada chamador deve receber arrays independentes");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAlteracaoImediataPorQuemCalculouNaoAfetaQuemAguarda() throws Exception {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        MotorCoalescente motor = new MotorCoalescente(p -> {
+            aguardarLiberacao(liberar);
+            return new ResultadoRedistribuicao(
+                    new BigDecimal[]{new BigDecimal("980.00"), new BigDecimal("1000.00"), new BigDecimal("1020.00")},
+                    new BigDecimal[]{new BigDecimal("220.00"), new BigDecimal("200.00"), new BigDecimal("180.00")});
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADORES);
+        try {
+            // Act
+            List<Future<BigDecimal>> futuros = new ArrayList<>();
+            for (int i = 0; i < CHAMADORES; i++) {
+                futuros.add(executor.submit(() -> {
+                    ResultadoRedistribuicao resultado = motor.redistribuir(parametros("1200"));
+                    BigDecimal recebido = resultado.principal()[0];
+                    // Cada chamador altera o próprio resultado assim que o recebe
+                    resultado.principal()[0] = BigDecimal.ZERO;
+                    resultado.juros()[0] = BigDecimal.ZERO;
+                    return recebido;
+                }));
+            }
+            aguardarCoalescidas(motor, liberar);
+            // Assert
+            for (Future<BigDecimal> futuro : futuros) {
+                assertEquals(new BigDecimal("980.00"), futuro.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, motor.execucoes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFalhaPropagadaParaTodosQueAguardam() throws Exception {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        MotorCoalescente motor = new MotorCoalescente(p -> {
+            aguardarLiberacao(liberar);
+            throw new IllegalStateException("Otimização não convergiu");
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADORES);
+        try {
+            // Act
+            List<Future<ResultadoRedistribuicao>> futuros = new ArrayList<>();
+            for (int i = 0; i < CHAMADORES; i++) {
+                futuros.add(executor.submit(() -> motor.redistribuir(parametros("1200"))));
+            }
+            aguardarCoalescidas(motor, liberar);
+            // Assert
+            for (Future<ResultadoRedistribuicao> futuro : futuros) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> futuro.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+            assertEquals(1, motor.execucoes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.com.pangolin.redistribuicao.colunar;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.carga.ContratoSintetico;
+import org.com.pangolin.redistribuicao.carga.GeradorCarteira;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarteiraColunarTest {
+
+    @Test
+    void testContratosMaterializadosEmFormaCanonicaEntreBlocos() {
+        // Arrange
+        List<ParametrosRedistribuicao> contratos = GeradorCarteira.builder().semente(11).build().gerar(2_500).stream()
+                .map(ContratoSintetico::parametros)
+                .toList();
+        CarteiraColunar carteira = CarteiraColunar.builder().contratosPorBloco(1_000).build();
+        // Act
+        contratos.forEach(carteira::adicionar);
+        ParametrosRedistribuicao semSistema = ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("1000.5"))
+                .taxaJuros(new BigDecimal("0.0123456789"))
+                .quantidadeParcelas(3)
+                .principalConstante(true)
+                .build();
+        long indice = carteira.adicionar(semSistema);
+        // Assert
+        assertEquals(2_501, carteira.tamanho());
+        ContratoColunar cursor = carteira.cursor();
+        for (int i = 0; i < contratos.size(); i++) {
+            assertEquals(contratos.get(i).canonico(), cursor.posicionar(i).parametros());
+            assertEquals(contratos.get(i).saldoPrincipal().movePointRight(2).longValueExact(), cursor.saldoPrincipalCentavos());
+        }
+        assertEquals(semSistema.canonico(), carteira.parametros(indice));
+        assertNull(cursor.posicionar(indice).sistemaAmortizacao());
+        assertTrue(cursor.principalConstante());
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.posicionar(2_501));
+        assertThrows(IllegalArgumentException.class, () -> carteira.adicionar(ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("10.005"))
+                .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.SAC)
+                .build()));
+        assertEquals(2_501, carteira.tamanho());
+    }
+
+    @Test
+    void testFaixasCobremACarteiraEmParalelo() {
+        // Arrange
+        CarteiraColunar carteira = CarteiraColunar.builder().contratosPorBloco(64).build();
+        long esperado = 0;
+        for (int i = 1; i <= 1_000; i++) {
+            carteira.adicionar(ParametrosRedistribuicao.builder()
+                    .saldoPrincipal(BigDecimal.valueOf(i))
+                    .quantidadeParcelas(i)
+                    .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+                    .build());
+            esperado += i * 100L;
+        }
+        LongAdder soma = new LongAdder();
+        LongAdder visitados = new LongAdder();
+        // Act
+        List<FaixaCarteira> faixas = carteira.faixas(7);
+        carteira.paraCadaEmParalelo(contrato -> {
+            soma.add(contrato.saldoPrincipalCentavos());
+            visitados.increment();
+            assertEquals(contrato.indice() + 1, contrato.quantidadeParcelas());
+        });
+        // Assert
+        assertEquals(7, faixas.size());
+        assertEquals(0, faixas.get(0).inicio());
+        assertEquals(1_000, faixas.get(6).fim());
+        for (int p = 1; p < faixas.size(); p++) {
+            assertEquals(faixas.get(p - 1).fim(), faixas.get(p).inicio());
+            assertTrue(Math.abs(faixas.get(p).tamanho() - faixas.get(0).tamanho()) <= 1);
+        }
+        assertEquals(1_000, visitados.sum());
+        assertEquals(esperado, soma.sum());
+    }
+}
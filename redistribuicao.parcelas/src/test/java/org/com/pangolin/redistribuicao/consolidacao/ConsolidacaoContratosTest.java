@@ -0,0 +1,106 @@
+package org.com.pangolin.redistribuicao.consolidacao;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsolidacaoContratosTest {
+
+    private static ParametrosRedistribuicao origem(String principal, String juros, int parcelas, String taxa) {
+        BigDecimal saldoPrincipal = new BigDecimal(principal);
+        BigDecimal saldoJuros = new BigDecimal(juros);
+        return ParametrosRedistribuicao.builder()
+                .saldoPrincipal(saldoPrincipal)
+                .saldoJuros(saldoJuros)
+                .saldoDevedorParcelas(saldoPrincipal.add(saldoJuros))
+                .valorParcela(saldoPrincipal.add(saldoJuros).divide(BigDecimal.valueOf(parcelas), 2, RoundingMode.HALF_UP))
+                .quantidadeParcelas(parcelas)
+                .taxaJuros(new BigDecimal(taxa))
+                .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+                .build();
+    }
+
+    @Test
+    void testAtribuicaoFechaPorParcelaEPorOrigem() {
+        // Arrange
+        List<ParametrosRedistribuicao> origens = List.of(
+                origem("4321.17", "1210.33", 18, "0.035"),
+                origem("12000.00", "2750.01", 36, "0.019"),
+                origem("0.07", "0.00", 1, "0.05"),
+                origem("987.65", "0.00", 5, "0.025"));
+        ConsolidacaoContratos consolidacao = ConsolidacaoContratos.builder()
+                .quantidadeParcelas(24)
+                .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+                .build();
+        // Act
+        ResultadoConsolidacao resultado = consolidacao.consolidar(origens);
+        // Assert
+        ParametrosRedistribuicao consolidado = resultado.parametros();
+        assertEquals(0, new BigDecimal("17308.89").compareTo(consolidado.saldoPrincipal()));
+        assertEquals(0, new BigDecimal("3960.34").compareTo(consolidado.saldoJuros()));
+        BigDecimal taxaEsperada = new BigDecimal("0.035").multiply(new BigDecimal("4321.17"))
+                .add(new BigDecimal("0.019").multiply(new BigDecimal("12000.00")))
+                .add(new BigDecimal("0.05").multiply(new BigDecimal("0.07")))
+                .add(new BigDecimal("0.025").multiply(new BigDecimal("987.65")))
+                .divide(new BigDecimal("17308.89"), MathContext.DECIMAL64);
+        assertEquals(0, taxaEsperada.compareTo(consolidado.taxaJuros()));
+
+        ResultadoRedistribuicao cronograma = resultado.cronograma();
+        assertEquals(4, resultado.quantidadeOrigens());
+        for (int k = 0; k < 24; k++) {
+            BigDecimal principal = BigDecimal.ZERO;
+            BigDecimal juros = BigDecimal.ZERO;
+            for (int j = 0; j < 4; j++) {
+                assertTrue(resultado.principalPorOrigem()[j][k].signum() >= 0);
+                assertTrue(resultado.jurosPorOrigem()[j][k].signum() >= 0);
+                principal = principal.add(resultado.principalPorOrigem()[j][k]);
+                juros = juros.add(resultado.jurosPorOrigem()[j][k]);
+            }
+            assertEquals(0, cronograma.principal()[k].compareTo(principal), "principal da parcela " + k);
+            assertEquals(0, cronograma.juros()[k].compareTo(juros), "juros da parcela " + k);
+        }
+        for (int j = 0; j < 4; j++) {
+            BigDecimal principal = BigDecimal.ZERO;
+            BigDecimal juros = BigDecimal.ZERO;
+            for (int k = 0; k < 24; k++) {
+                principal = principal.add(resultado.principalPorOrigem()[j][k]);
+                juros = juros.add(resultado.jurosPorOrigem()[j][k]);
+            }
+            assertEquals(0, origens.get(j).saldoPrincipal().compareTo(principal), "principal da origem " + j);
+            assertEquals(0, origens.get(j).saldoJuros().compareTo(juros), "juros da origem " + j);
+        }
+        assertEquals(0, resultado.jurosPorOrigem()[3][0].signum());
+    }
+
+    @Test
+    void testOrigemUnicaEEntradasInvalidas() {
+        // Arrange
+        ParametrosRedistribuicao unica = origem("3000.00", "600.00", 3, "0.02");
+        ConsolidacaoContratos consolidacao = ConsolidacaoContratos.builder()
+                .quantidadeParcelas(3)
+                .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.SAC)
+                .taxaJuros(new BigDecimal("0.02"))
+                .motor(p -> new ResultadoRedistribuicao(
+                        new BigDecimal[]{new BigDecimal("1000.00"), new BigDecimal("1000.00"), new BigDecimal("1000.00")},
+                        new BigDecimal[]{new BigDecimal("300.00"), new BigDecimal("200.00"), new BigDecimal("100.00")}))
+                .build();
+        // Act
+        ResultadoConsolidacao resultado = consolidacao.consolidar(List.of(unica));
+        // Assert
+        assertArrayEquals(resultado.cronograma().principal(), resultado.principalPorOrigem()[0]);
+        assertArrayEquals(resultado.cronograma().juros(), resultado.jurosPorOrigem()[0]);
+        assertEquals(new BigDecimal("1300.00"), resultado.parcelaDaOrigem(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> consolidacao.consolidar(List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> consolidacao.consolidar(List.of(unica, origem("10.005", "0", 1, "0.01"))));
+        assertThrows(IllegalStateException.class,
+                () -> consolidacao.consolidar(List.of(origem("3000.00", "600.01", 3, "0.02"))));
+    }
+}
@@ -0,0 +1,161 @@
+package org.com.pangolin.redistribuicao.cronograma;
+
+import org.com.pangolin.Main;
+import org.com.pangolin.redistribuicao.ParametrosFinanciamento;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CronogramaFechadoTest {
+
+    private static final ParametrosFinanciamento FINANCIAMENTO =
+            new ParametrosFinanciamento(new BigDecimal("1500.00"), new BigDecimal("0.08"), 12);
+
+    private static void assertConsistente(CronogramaFechado cronograma) {
+        ResultadoRedistribuicao completo = cronograma.materializar();
+        int n = cronograma.quantidadeParcelas();
+        for (int k = 0; k < n; k++) {
+            ParcelaCronograma parcela = cronograma.parcela(k);
+            assertEquals(completo.principal()[k], parcela.principal(), "Principal divergente na parcela " + k);
+            assertEquals(completo.juros()[k], parcela.juros(), "Juros divergentes na parcela " + k);
+            assertEquals(parcela.valor(), parcela.principal().add(parcela.juros()));
+            assertEquals(cronograma.saldoDevedor(k + 1), parcela.saldoDevedor());
+        }
+        BigDecimal somaPrincipal = Arrays.stream(completo.principal()).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, cronograma.valorFinanciado().compareTo(somaPrincipal));
+        assertEquals(0, BigDecimal.ZERO.compareTo(cronograma.saldoDevedor(n)));
+    }
+
+    @Test
+    void testPriceConsultaPontualIgualAoCronogramaCompleto() {
+        // Arrange
+        CronogramaFechado cronograma = CronogramaFechado.price(FINANCIAMENTO);
+        // Act / Assert
+        assertEquals(new BigDecimal("199.04"), cronograma.valorParcelaPrice());
+        assertConsistente(cronograma);
+        assertConsistente(CronogramaFechado.price(
+                new ParametrosFinanciamento(new BigDecimal("250000.00"), new BigDecimal("0.0079"), 360)));
+    }
+
+    private static BigDecimal[][] decomporPorMain(ParametrosFinanciamento financiamento, BigDecimal parcela) {
+        return Main.decomporParcelasPriceComSaldoInicial(
+                financiamento.valorFinanciado(), financiamento.taxaMensal(), parcela, financiamento.numParcelas());
+    }
+
+    private static void assertIgualAMain(ParametrosFinanciamento financiamento) {
+        CronogramaFechado cronograma = CronogramaFechado.price(financiamento);
+        int n = financiamento.numParcelas();
+        BigDecimal[][] main = decomporPorMain(financiamento, cronograma.valorParcelaPrice());
+        ResultadoRedistribuicao completo = cronograma.materializar();
+        BigDecimal saldo = financiamento.valorFinanciado();
+        for (int k = 0; k < n - 1; k++) {
+            saldo = saldo.subtract(main[0][k]);
+            assertEquals(main[0][k], cronograma.principal(k), "Principal divergente na parcela " + k);
+            assertEquals(main[1][k], cronograma.juros(k), "Juros divergentes na parcela " + k);
+            assertEquals(0, saldo.compareTo(cronograma.saldoDevedor(k + 1)), "Saldo divergente após a parcela " + k);
+            assertEquals(main[0][k], completo.principal()[k]);
+            assertEquals(main[1][k], completo.juros()[k]);
+        }
+        // Main só fecha o saldo quando o resíduo passa de um centavo; aqui a última parcela sempre o fecha
+        BigDecimal residuo = financiamento.valorFinanciado()
+                .subtract(Arrays.stream(main[0]).reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertTrue(residuo.abs().compareTo(new BigDecimal("0.01")) <= 0, "Resíduo de Main acima de um centavo");
+        assertEquals(0, saldo.compareTo(cronograma.principal(n - 1)));
+        assertEquals(0, main[0][n - 1].add(residuo).compareTo(cronograma.principal(n - 1)));
+        if (main[1][n - 1].subtract(residuo).signum() >= 0) {
+            assertEquals(0, main[1][n - 1].subtract(residuo).compareTo(cronograma.juros(n - 1)));
+        } else {
+            assertTrue(cronograma.juros(n - 1).signum() >= 0);
+        }
+    }
+
+    @Test
+    void testPriceIgualAMainEmPrazosLongos() {
+        // Arrange / Act / Assert
+        assertIgualAMain(FINANCIAMENTO);
+        assertIgualAMain(new ParametrosFinanciamento(new BigDecimal("250000.00"), new BigDecimal("0.0079"), 360));
+        assertIgualAMain(new ParametrosFinanciamento(new BigDecimal("100000.00"), new BigDecimal("0.02"), 420));
+        assertIgualAMain(new ParametrosFinanciamento(new BigDecimal("300000.00"), new BigDecimal("0.01"), 420));
+    }
+
+    @Test
+    void testPriceIgualAMainEmContratosAleatorios() {
+        // Arrange
+        Random aleatorio = new Random(34);
+        int comparados = 0;
+        int residuoDeUmCentavo = 0;
+        for (int c = 0; c < 3000; c++) {
+            ParametrosFinanciamento financiamento = new ParametrosFinanciamento(
+                    BigDecimal.valueOf(100_000 + aleatorio.nextInt(50_000_000), 2),
+                    BigDecimal.valueOf(10 + aleatorio.nextInt(290), 4),
+                    1 + aleatorio.nextInt(420));
+            CronogramaFechado cronograma;
+            try {
+                cronograma = CronogramaFechado.price(financiamento);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            BigDecimal[][] main = decomporPorMain(financiamento, cronograma.valorParcelaPrice());
+            if (financiamento.valorFinanciado().subtract(Arrays.stream(main[0]).reduce(BigDecimal.ZERO, BigDecimal::add))
+                    .abs().compareTo(new BigDecimal("0.01")) == 0) {
+                residuoDeUmCentavo++;
+            }
+            // Act / Assert
+            assertIgualAMain(financiamento);
+            comparados++;
+        }
+        assertTrue(comparados > 2500);
+        assertTrue(residuoDeUmCentavo > 0);
+    }
+
+    @Test
+    void testPriceUltimaParcelaNuncaTemJurosNegativos() {
+        // Arrange: o arredondamento da parcela para baixo acumula um resíduo maior que os juros da última parcela
+        ParametrosFinanciamento financiamento =
+                new ParametrosFinanciamento(new BigDecimal("100000.00"), new BigDecimal("0.02"), 360);
+        CronogramaFechado cronograma = CronogramaFechado.price(financiamento);
+        BigDecimal[][] main = decomporPorMain(financiamento, cronograma.valorParcelaPrice());
+        // Act
+        ParcelaCronograma ultima = cronograma.parcela(359);
+        // Assert
+        for (int k = 0; k < 359; k++) {
+            assertEquals(main[0][k], cronograma.principal(k), "Principal divergente na parcela " + k);
+            assertEquals(main[1][k], cronograma.juros(k), "Juros divergentes na parcela " + k);
+        }
+        assertEquals(main[0][359], ultima.principal());
+        assertEquals(new BigDecimal("2255.35"), ultima.principal());
+        assertEquals(new BigDecimal("45.11"), ultima.juros());
+        assertEquals(new BigDecimal("2300.46"), ultima.valor());
+        assertConsistente(cronograma);
+    }
+
+    @Test
+    void testPriceRecusaParcelaQueNaoAmortiza() {
+        // Arrange: a parcela em centavos (500.00) iguala os juros do primeiro período
+        ParametrosFinanciamento financiamento =
+                new ParametrosFinanciamento(new BigDecimal("10000.00"), new BigDecimal("0.05"), 240);
+        // Act / Assert
+        assertThrows(IllegalArgumentException.class, () -> CronogramaFechado.price(financiamento));
+    }
+
+    @Test
+    void testSacPrincipalConstanteEJurosSobreSaldo() {
+        // Arrange
+        CronogramaFechado cronograma = CronogramaFechado.sac(
+                new ParametrosFinanciamento(new BigDecimal("1000.00"), new BigDecimal("0.01"), 3));
+        // Act
+        ParcelaCronograma primeira = cronograma.parcela(0);
+        ParcelaCronograma ultima = cronograma.parcela(2);
+        // Assert
+        assertEquals(new BigDecimal("333.33"), primeira.principal());
+        assertEquals(new BigDecimal("10.00"), primeira.juros());
+        assertEquals(new BigDecimal("333.33"), ultima.principal());
+        assertEquals(new BigDecimal("3.33"), ultima.juros());
+        assertEquals(new BigDecimal("333.34"), cronograma.principal(1));
+        assertConsistente(cronograma);
+    }
+}
@@ -0,0 +1,60 @@
+package org.com.pangolin.redistribuicao.cronograma;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiferencaCronogramaTest {
+
+    private static BigDecimal[] valores(String... valores) {
+        BigDecimal[] resultado = new BigDecimal[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            resultado[i] = new BigDecimal(valores[i]);
+        }
+        return resultado;
+    }
+
+    @Test
+    void testSomenteParcelasAlteradasEntramNaDiferenca() {
+        // Arrange
+        ResultadoRedistribuicao anterior = new ResultadoRedistribuicao(
+                valores("100.00", "110.00", "120.00", "130.00"), valores("40.00", "30.00", "20.00", "10.00"));
+        ResultadoRedistribuicao anteriorComDesvio = new ResultadoRedistribuicao(
+                anterior.principal(), anterior.juros(), new BigDecimal("0.004"));
+        ResultadoRedistribuicao novo = new ResultadoRedistribuicao(
+                valores("100.0", "110.00", "125.00", "125.00"), valores("40.00", "30.00", "18.00", "12.00"),
+                new BigDecimal("0.003"));
+        // Act
+        DiferencaCronograma diferenca = DiferencaCronograma.entre(anterior, novo);
+        // Assert
+        assertEquals(2, diferenca.alteracoes().size(), "Escala diferente não é alteração");
+        assertEquals(2, diferenca.alteracoes().get(0).indice());
+        assertEquals(0, BigDecimal.ZERO.compareTo(diferenca.variacaoPrincipal()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(diferenca.variacaoJuros()));
+        ResultadoRedistribuicao aplicado = diferenca.aplicar(anterior);
+        assertArrayEquals(novo.juros(), aplicado.juros());
+        assertTrue(DiferencaCronograma.entre(novo, aplicado).vazia());
+        assertEquals(new BigDecimal("0.003"), diferenca.aplicar(anteriorComDesvio).desvioMaximoArredondamento(),
+                "O cronograma aplicado leva o desvio do cronograma novo, não o do armazenado");
+    }
+
+    @Test
+    void testReducaoDePrazoEConflitoNaAplicacao() {
+        // Arrange
+        ResultadoRedistribuicao anterior = new ResultadoRedistribuicao(
+                valores("100.00", "110.00", "120.00"), valores("30.00", "20.00", "10.00"));
+        ResultadoRedistribuicao novo = new ResultadoRedistribuicao(
+                valores("100.00", "230.00"), valores("30.00", "25.00"));
+        ResultadoRedistribuicao divergente = new ResultadoRedistribuicao(
+                valores("100.00", "111.00", "120.00"), valores("30.00", "19.00", "10.00"));
+        // Act
+        DiferencaCronograma diferenca = DiferencaCronograma.entre(anterior, novo);
+        // Assert
+        assertTrue(diferenca.alteracoes().get(1).remocao());
+        assertEquals(new BigDecimal("-5.00"), diferenca.variacaoJuros());
+        assertEquals(2, diferenca.aplicar(anterior).principal().length);
+        assertThrows(IllegalStateException.class, () -> diferenca.aplicar(divergente));
+    }
+}
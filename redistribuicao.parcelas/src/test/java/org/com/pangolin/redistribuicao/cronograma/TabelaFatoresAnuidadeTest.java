@@ -0,0 +1,24 @@
+package org.com.pangolin.redistribuicao.cronograma;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabelaFatoresAnuidadeTest {
+
+    @Test
+    void testCacheLimitadoAsTaxasMaisRecentes() {
+        // Arrange
+        TabelaFatoresAnuidade recente = TabelaFatoresAnuidade.para(0.0123, 360);
+        // Act
+        for (int t = 0; t < 4 * TabelaFatoresAnuidade.TAXAS_RETIDAS; t++) {
+            TabelaFatoresAnuidade.para(0.001 + t * 1e-5, 12);
+            // Consultada a cada passo, a taxa recente nunca é a menos usada
+            assertSame(recente, TabelaFatoresAnuidade.para(0.0123, 120));
+        }
+        // Assert
+        assertTrue(TabelaFatoresAnuidade.taxasEmCache() <= TabelaFatoresAnuidade.TAXAS_RETIDAS);
+        assertTrue(TabelaFatoresAnuidade.para(0.0123, 360).prazoMaximo() >= 360);
+        assertEquals(1.0123 * 1.0123, TabelaFatoresAnuidade.para(0.0123, 2).potencia(2), 1e-15);
+    }
+}
@@ -0,0 +1,243 @@
+package org.com.pangolin.redistribuicao.despacho;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.com.pangolin.redistribuicao.carga.ContratoSintetico;
+import org.com.pangolin.redistribuicao.carga.FaixaPrazo;
+import org.com.pangolin.redistribuicao.carga.GeradorCarteira;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DespachoAdaptativoTest {
+
+    private static final ParametrosRedistribuicao PARAMETROS = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("1000"))
+            .saldoJuros(new BigDecimal("100"))
+            .saldoDevedorParcelas(new BigDecimal("1100"))
+            .valorParcela(new BigDecimal("275"))
+            .quantidadeParcelas(4)
+            .taxaJuros(new BigDecimal("0.02"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+            .build();
+
+    private static ResultadoRedistribuicao cronograma(String principal, String juros) {
+        BigDecimal[] principais = new BigDecimal[4];
+        BigDecimal[] jurosParcelas = new BigDecimal[4];
+        Arrays.fill(principais, new BigDecimal(principal));
+        Arrays.fill(jurosParcelas, new BigDecimal(juros));
+        return new ResultadoRedistribuicao(principais, jurosParcelas);
+    }
+
+    // Motor que consome nanos do relógio do despacho, sem depender do tempo real
+    private static MotorRedistribuicao motor(AtomicLong relogio, long nanos, ResultadoRedistribuicao resultado) {
+        return p -> {
+            relogio.addAndGet(nanos);
+            return resultado;
+        };
+    }
+
+    @Test
+    void testPrefereEstrategiaMaisBarataDentroDoErro() {
+        // Arrange
+        AtomicLong relogio = new AtomicLong();
+        ResultadoRedistribuicao correto = cronograma("250.00", "25.00");
+        DespachoAdaptativo despacho = DespachoAdaptativo.builder()
+                .relogio(relogio::get)
+                .motor(EstrategiaMotor.FECHADO, motor(relogio, 0, cronograma("250.00", "30.00")))
+                .motor(EstrategiaMotor.CURVA, motor(relogio, 500_000, correto))
+                .motor(EstrategiaMotor.PARTIDA_ANUIDADE, motor(relogio, 2_000_000, correto))
+                .motor(EstrategiaMotor.PADRAO, motor(relogio, 2_000_000, correto))
+                .amostrasMinimas(4)
+                .build();
+        // Act
+        for (int i = 0; i < 40; i++) {
+            assertSame(correto, despacho.redistribuir(PARAMETROS));
+        }
+        // Assert
+        assertEquals(EstrategiaMotor.CURVA,
+                despacho.estrategiaPreferida(RedistribuicaoSistemaAmortizacao.PRICE, FaixaPrazo.CURTO, FaixaTaxa.MEDIA));
+        List<CustoEstrategia> tabela = despacho.tabela();
+        assertEquals(4, tabela.size());
+        CustoEstrategia fechado = tabela.stream().filter(c -> c.estrategia() == EstrategiaMotor.FECHADO).findFirst().orElseThrow();
+        assertEquals(0.0, fechado.taxaSucesso());
+        assertEquals(4, fechado.amostras());
+        assertTrue(tabela.stream().allMatch(c -> c.faixaPrazo() == FaixaPrazo.CURTO && c.faixaTaxa() == FaixaTaxa.MEDIA));
+        assertTrue(tabela.stream().filter(CustoEstrategia::preferida).allMatch(c -> c.estrategia() == EstrategiaMotor.CURVA));
+    }
+
+    @Test
+    void testEscalaEMudaDePreferenciaQuandoEstrategiaPassaAFalhar() {
+        // Arrange
+        AtomicLong relogio = new AtomicLong();
+        ResultadoRedistribuicao correto = cronograma("250.00", "25.00");
+        AtomicBoolean curvaFalha = new AtomicBoolean();
+        DespachoAdaptativo despacho = DespachoAdaptativo.builder()
+                .relogio(relogio::get)
+                .motor(EstrategiaMotor.FECHADO, p -> {
+                    throw new IllegalArgumentException("Sem expressão fechada");
+                })
+                .motor(EstrategiaMotor.CURVA, p -> {
+                    if (curvaFalha.get()) {
+                        throw new IllegalStateException("Não convergiu");
+                    }
+                    return correto;
+                })
+                .motor(EstrategiaMotor.PARTIDA_ANUIDADE, motor(relogio, 0, correto))
+                .motor(EstrategiaMotor.PADRAO, motor(relogio, 1_000_000, correto))
+                .amostrasMinimas(2)
+                .build();
+        for (int i = 0; i < 20; i++) {
+            despacho.redistribuir(PARAMETROS);
+        }
+        // Act
+        curvaFalha.set(true);
+        for (int i = 0; i < 20; i++) {
+            assertSame(correto, despacho.redistribuir(PARAMETROS));
+        }
+        // Assert
+        assertEquals(EstrategiaMotor.PARTIDA_ANUIDADE,
+                despacho.estrategiaPreferida(RedistribuicaoSistemaAmortizacao.PRICE, FaixaPrazo.CURTO, FaixaTaxa.MEDIA));
+        assertThrows(IllegalArgumentException.class, () -> despacho.redistribuir(ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("1000"))
+                .saldoJuros(new BigDecimal("100"))
+                .saldoDevedorParcelas(new BigDecimal("1"))
+                .valorParcela(new BigDecimal("275"))
+                .quantidadeParcelas(4)
+                .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+                .build()));
+    }
+
+    @Test
+    void testFechadoComJurosNegativosEscalaMesmoFechandoSaldos() {
+        // Arrange
+        AtomicLong relogio = new AtomicLong();
+        ResultadoRedistribuicao correto = cronograma("250.00", "25.00");
+        ResultadoRedistribuicao jurosNegativos = new ResultadoRedistribuicao(
+                new BigDecimal[]{new BigDecimal("300.00"), new BigDecimal("200.00"), new BigDecimal("250.00"), new BigDecimal("250.00")},
+                new BigDecimal[]{new BigDecimal("-25.00"), new BigDecimal("75.00"), new BigDecimal("25.00"), new BigDecimal("25.00")});
+        DespachoAdaptativo despacho = DespachoAdaptativo.builder()
+                .relogio(relogio::get)
+                .motor(EstrategiaMotor.FECHADO, motor(relogio, 0, jurosNegativos))
+                .motor(EstrategiaMotor.CURVA, motor(relogio, 0, correto))
+                .motor(EstrategiaMotor.PARTIDA_ANUIDADE, motor(relogio, 0, correto))
+                .motor(EstrategiaMotor.PADRAO, motor(relogio, 0, correto))
+                .amostrasMinimas(2)
+                .build();
+        // Act
+        ResultadoRedistribuicao resultado = despacho.redistribuir(PARAMETROS);
+        // Assert
+        assertSame(correto, resultado);
+        CustoEstrategia fechado = despacho.tabela().stream()
+                .filter(c -> c.estrategia() == EstrategiaMotor.FECHADO).findFirst().orElseThrow();
+        assertEquals(0.0, fechado.taxaSucesso());
+    }
+
+    @Test
+    void testParcelaDiferenteDoValorParcelaEscalaEmPrice() {
+        // Arrange
+        AtomicLong relogio = new AtomicLong();
+        ResultadoRedistribuicao correto = cronograma("250.00", "25.00");
+        ResultadoRedistribuicao parcelasDesiguais = new ResultadoRedistribuicao(
+                new BigDecimal[]{new BigDecimal("300.00"), new BigDecimal("200.00"), new BigDecimal("250.00"), new BigDecimal("250.00")},
+                new BigDecimal[]{new BigDecimal("25.00"), new BigDecimal("25.00"), new BigDecimal("25.00"), new BigDecimal("25.00")});
+        DespachoAdaptativo despacho = DespachoAdaptativo.builder()
+                .relogio(relogio::get)
+                .motor(EstrategiaMotor.FECHADO, motor(relogio, 0, parcelasDesiguais))
+                .motor(EstrategiaMotor.CURVA, motor(relogio, 0, correto))
+                .motor(EstrategiaMotor.PARTIDA_ANUIDADE, motor(relogio, 0, correto))
+                .motor(EstrategiaMotor.PADRAO, motor(relogio, 0, correto))
+                .build();
+        ParametrosRedistribuicao sac = ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("1000"))
+                .saldoJuros(new BigDecimal("100"))
+                .saldoDevedorParcelas(new BigDecimal("1100"))
+                .valorParcela(new BigDecimal("275"))
+                .quantidadeParcelas(4)
+                .taxaJuros(new BigDecimal("0.02"))
+                .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.SAC)
+                .build();
+        // Act
+        ResultadoRedistribuicao price = despacho.redistribuir(PARAMETROS);
+        ResultadoRedistribuicao semParcelaConstante = despacho.redistribuir(sac);
+        // Assert
+        assertSame(correto, price);
+        assertSame(parcelasDesiguais, semParcelaConstante);
+    }
+
+    @Test
+    void testPrefereEstrategiaBarataQueFalhaAsVezesQuandoEscalarCompensa() {
+        // Arrange: FECHADO custa 0,1 ms e falha uma a cada cinco chamadas; o padrão custa 10 ms
+        AtomicLong relogio = new AtomicLong();
+        AtomicLong chamadasFechado = new AtomicLong();
+        ResultadoRedistribuicao correto = cronograma("250.00", "25.00");
+        ResultadoRedistribuicao incorreto = cronograma("250.00", "30.00");
+        DespachoAdaptativo despacho = DespachoAdaptativo.builder()
+                .relogio(relogio::get)
+                .motor(EstrategiaMotor.FECHADO, p -> {
+                    relogio.addAndGet(100_000);
+                    return chamadasFechado.incrementAndGet() % 5 == 0 ? incorreto : correto;
+                })
+                .motor(EstrategiaMotor.CURVA, motor(relogio, 5_000_000, correto))
+                .motor(EstrategiaMotor.PARTIDA_ANUIDADE, motor(relogio, 5_000_000, correto))
+                .motor(EstrategiaMotor.PADRAO, motor(relogio, 10_000_000, correto))
+                .amostrasMinimas(4)
+                .build();
+        // Act
+        for (int i = 0; i < 100; i++) {
+            assertSame(correto, despacho.redistribuir(PARAMETROS));
+        }
+        // Assert
+        assertEquals(EstrategiaMotor.FECHADO,
+                despacho.estrategiaPreferida(RedistribuicaoSistemaAmortizacao.PRICE, FaixaPrazo.CURTO, FaixaTaxa.MEDIA));
+        CustoEstrategia fechado = despacho.tabela().stream()
+                .filter(c -> c.estrategia() == EstrategiaMotor.FECHADO).findFirst().orElseThrow();
+        assertTrue(fechado.taxaSucesso() > 0.5 && fechado.taxaSucesso() < 1.0, "Taxa de sucesso " + fechado.taxaSucesso());
+        assertEquals(100_000.0, fechado.latenciaMediaNanos());
+    }
+
+    @Test
+    void testDesvioDeArredondamentoInformadoNaoReprovaResultadoCorreto() {
+        // Arrange
+        AtomicLong relogio = new AtomicLong();
+        BigDecimal[] principais = new BigDecimal[4];
+        BigDecimal[] juros = new BigDecimal[4];
+        Arrays.fill(principais, new BigDecimal("250.00"));
+        Arrays.fill(juros, new BigDecimal("25.00"));
+        ResultadoRedistribuicao comDesvio = new ResultadoRedistribuicao(principais, juros, new BigDecimal("0.40"));
+        DespachoAdaptativo despacho = DespachoAdaptativo.builder()
+                .relogio(relogio::get)
+                .motor(EstrategiaMotor.FECHADO, motor(relogio, 0, comDesvio))
+                .motor(EstrategiaMotor.CURVA, motor(relogio, 0, cronograma("250.00", "25.00")))
+                .build();
+        // Act
+        ResultadoRedistribuicao resultado = despacho.redistribuir(PARAMETROS);
+        // Assert
+        assertSame(comDesvio, resultado);
+    }
+
+    @Test
+    void testMotoresPadraoFechamSaldosDaCarteira() {
+        // Arrange
+        DespachoAdaptativo despacho = DespachoAdaptativo.builder().amostrasMinimas(2).build();
+        List<ContratoSintetico> carteira = GeradorCarteira.builder().semente(3).prazoMaximo(24).build().gerar(40);
+        for (ContratoSintetico contrato : carteira) {
+            ParametrosRedistribuicao parametros = contrato.parametros();
+            // Act
+            ResultadoRedistribuicao resultado = despacho.redistribuir(parametros);
+            // Assert
+            BigDecimal principal = Arrays.stream(resultado.principal()).reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal juros = Arrays.stream(resultado.juros()).reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertTrue(principal.subtract(parametros.saldoPrincipal()).abs().compareTo(new BigDecimal("0.05")) <= 0);
+            assertTrue(juros.subtract(parametros.saldoJuros()).abs().compareTo(new BigDecimal("0.05")) <= 0);
+        }
+        assertTrue(despacho.tabela().stream().anyMatch(c -> c.estrategia() == EstrategiaMotor.PARTIDA_ANUIDADE));
+    }
+}
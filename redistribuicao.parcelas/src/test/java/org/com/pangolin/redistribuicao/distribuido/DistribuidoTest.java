@@ -0,0 +1,250 @@
+package org.com.pangolin.redistribuicao.distribuido;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.com.pangolin.redistribuicao.carga.ContratoSintetico;
+import org.com.pangolin.redistribuicao.carga.GeradorCarteira;
+import org.com.pangolin.redistribuicao.lote.ItemLote;
+import org.junit.jupiter.api.Test;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistribuidoTest {
+
+    private static final MotorRedistribuicao MOTOR = p -> {
+        if (p.quantidadeParcelas() == 3) {
+            throw new IllegalArgumentException("Prazo recusado");
+        }
+        return new ResultadoRedistribuicao(new BigDecimal[]{p.saldoPrincipal()}, new BigDecimal[]{p.saldoJuros()});
+    };
+
+    private static List<ParametrosRedistribuicao> carteira(int quantidade) {
+        return GeradorCarteira.builder().semente(11).prazoMaximo(24).build().gerar(quantidade).stream()
+                .map(ContratoSintetico::parametros)
+                .toList();
+    }
+
+    @Test
+    void testReatribuiParticaoDeTrabalhadorSilencioso() throws Exception {
+        // Arrange
+        List<ParametrosRedistribuicao> contratos = carteira(300);
+        List<Thread> trabalhadores = new ArrayList<>();
+        try (CoordenadorDistribuido coordenador = CoordenadorDistribuido.builder()
+                .numeroParticoes(16)
+                .timeoutBatimento(Duration.ofMillis(300))
+                .tempoMaximo(Duration.ofSeconds(60))
+                .build()
+                .iniciar()) {
+            CompletableFuture<ResultadoDistribuido> futuro = CompletableFuture.supplyAsync(() -> coordenador.executar(contratos));
+            Socket silencioso = new Socket(InetAddress.getLoopbackAddress(), coordenador.porta());
+            DataOutputStream saida = new DataOutputStream(silencioso.getOutputStream());
+            DataInputStream entrada = new DataInputStream(silencioso.getInputStream());
+            byte tipo;
+            do {
+                saida.writeByte(ProtocoloDistribuido.PEDIR);
+                tipo = entrada.readByte();
+                if (tipo == ProtocoloDistribuido.AGUARDAR) {
+                    Thread.sleep(entrada.readInt());
+                }
+            } while (tipo != ProtocoloDistribuido.TAREFA);
+            for (int i = 0; i < 3; i++) {
+                TrabalhadorDistribuido trabalhador = TrabalhadorDistribuido.builder()
+                        .porta(coordenador.porta())
+                        .motor(MOTOR)
+                        .intervaloBatimento(Duration.ofMillis(50))
+                        .build();
+                trabalhadores.add(Thread.ofPlatform().daemon(true).start(trabalhador::executar));
+            }
+            // Act
+            ResultadoDistribuido resultado = futuro.get(60, TimeUnit.SECONDS);
+            // Assert
+            assertEquals(1, resultado.reatribuicoes());
+            assertTrue(resultado.trabalhadores() >= 1 && resultado.trabalhadores() <= 3);
+            assertTrue(resultado.particoes() <= 16);
+            silencioso.setSoTimeout(10_000);
+            entrada.readAllBytes();
+            silencioso.close();
+            assertEquals(contratos.size(), resultado.itens().size());
+            long falhas = 0;
+            for (int i = 0; i < contratos.size(); i++) {
+                ItemLote item = resultado.itens().get(i);
+                ParametrosRedistribuicao parametros = contratos.get(i);
+                assertEquals(i, item.indice());
+                if (parametros.quantidadeParcelas() == 3) {
+                    assertEquals("IllegalArgumentException: Prazo recusado", item.falha());
+                    falhas++;
+                } else {
+                    assertEquals(0, parametros.saldoPrincipal().compareTo(item.resultado().principal()[0]));
+                    assertEquals(0, parametros.saldoJuros().compareTo(item.resultado().juros()[0]));
+                }
+            }
+            assertEquals(falhas, resultado.falhas());
+        }
+        for (Thread trabalhador : trabalhadores) {
+            trabalhador.join(10_000);
+            assertFalse(trabalhador.isAlive());
+        }
+    }
+
+    @Test
+    void testConexaoComResultadoDeExecucaoEsgotadaVoltaAReceberParticoes() throws Exception {
+        // Arrange
+        List<ParametrosRedistribuicao> contratos = carteira(10);
+        try (CoordenadorDistribuido coordenador = CoordenadorDistribuido.builder()
+                .numeroParticoes(1)
+                .tempoMaximo(Duration.ofSeconds(2))
+                .build()
+                .iniciar();
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), coordenador.porta())) {
+            DataOutputStream saida = new DataOutputStream(socket.getOutputStream());
+            DataInputStream entrada = new DataInputStream(socket.getInputStream());
+            CompletableFuture<ResultadoDistribuido> esgotada = CompletableFuture.supplyAsync(() -> coordenador.executar(contratos));
+            int particao = pedirTarefa(saida, entrada);
+            List<ParametrosRedistribuicao> recebidos = ProtocoloDistribuido.lerContratos(entrada);
+            ExecutionException erro = assertThrows(ExecutionException.class, () -> esgotada.get(30, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, erro.getCause());
+            ProtocoloDistribuido.escreverResultado(saida, particao, resultados(recebidos));
+            // Act
+            CompletableFuture<ResultadoDistribuido> seguinte = CompletableFuture.supplyAsync(() -> coordenador.executar(contratos));
+            int novaParticao = pedirTarefa(saida, entrada);
+            ProtocoloDistribuido.escreverResultado(saida, novaParticao, resultados(ProtocoloDistribuido.lerContratos(entrada)));
+            // Assert
+            ResultadoDistribuido resultado = seguinte.get(30, TimeUnit.SECONDS);
+            assertEquals(1, resultado.trabalhadores());
+            assertEquals(contratos.size(), resultado.itens().size());
+            assertEquals(0, resultado.falhas());
+        }
+    }
+
+    @Test
+    void testProcessosLocaisReproduzemMotorPadrao() throws Exception {
+        // Arrange
+        List<ParametrosRedistribuicao> contratos = carteira(24);
+        MotorRedistribuicao motor = MotorRedistribuicao.padrao();
+        List<Process> processos = List.of();
+        try (CoordenadorDistribuido coordenador = CoordenadorDistribuido.builder()
+                .numeroParticoes(8)
+                .tempoMaximo(Duration.ofMinutes(2))
+                .build()
+                .iniciar()) {
+            processos = coordenador.iniciarProcessosLocais(2);
+            // Act
+            ResultadoDistribuido resultado = coordenador.executar(contratos);
+            // Assert
+            assertEquals(0, resultado.reatribuicoes());
+            assertEquals(0, resultado.falhas());
+            for (int i = 0; i < contratos.size(); i++) {
+                ResultadoRedistribuicao esperado = motor.redistribuir(contratos.get(i));
+                ResultadoRedistribuicao obtido = resultado.itens().get(i).resultado();
+                assertArrayEquals(esperado.principal(), obtido.principal(), "principal do contrato " + i);
+                assertArrayEquals(esperado.juros(), obtido.juros(), "juros do contrato " + i);
+            }
+            assertThrows(IllegalStateException.class, coordenador::iniciar);
+        } finally {
+            for (Process processo : processos) {
+                if (!processo.waitFor(10, TimeUnit.SECONDS)) {
+                    processo.destroyForcibly();
+                    fail("Trabalhador não terminou após o encerramento do coordenador");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReatribuiParticaoDeTrabalhadorTravadoQueMantemBatimentos() throws Exception {
+        // Arrange
+        List<ParametrosRedistribuicao> contratos = carteira(40);
+        Thread trabalhadorSaudavel;
+        try (CoordenadorDistribuido coordenador = CoordenadorDistribuido.builder()
+                .numeroParticoes(1)
+                .timeoutBatimento(Duration.ofSeconds(30))
+                .timeoutProgresso(Duration.ofMillis(300))
+                .tempoMaximo(Duration.ofSeconds(60))
+                .build()
+                .iniciar();
+             Socket travado = new Socket(InetAddress.getLoopbackAddress(), coordenador.porta())) {
+            DataOutputStream saida = new DataOutputStream(travado.getOutputStream());
+            DataInputStream entrada = new DataInputStream(travado.getInputStream());
+            CompletableFuture<ResultadoDistribuido> futuro = CompletableFuture.supplyAsync(() -> coordenador.executar(contratos));
+            int particao = pedirTarefa(saida, entrada);
+            TrabalhadorDistribuido trabalhador = TrabalhadorDistribuido.builder()
+                    .porta(coordenador.porta())
+                    .motor(MOTOR)
+                    .intervaloBatimento(Duration.ofMillis(50))
+                    .build();
+            trabalhadorSaudavel = Thread.ofPlatform().daemon(true).start(trabalhador::executar);
+            // Act: batimentos em dia, mas nenhum contrato concluído
+            ResultadoDistribuido resultado = null;
+            try {
+                while (resultado == null) {
+                    saida.writeByte(ProtocoloDistribuido.BATIMENTO);
+                    saida.writeInt(particao);
+                    saida.writeInt(0);
+                    saida.flush();
+                    try {
+                        resultado = futuro.get(50, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // Ainda em execução
+                    }
+                }
+            } catch (SocketException e) {
+                // Coordenador fechou a conexão travada
+                resultado = futuro.get(60, TimeUnit.SECONDS);
+            }
+            // Assert
+            assertEquals(1, resultado.reatribuicoes());
+            assertEquals(1, resultado.trabalhadores());
+            assertEquals(contratos.size(), resultado.itens().size());
+        }
+        trabalhadorSaudavel.join(10_000);
+        assertFalse(trabalhadorSaudavel.isAlive());
+    }
+
+    @Test
+    void testBuilderRecusaTemposNaoPositivos() {
+        // Arrange
+        CoordenadorDistribuido.Builder builder = CoordenadorDistribuido.builder().tempoMaximo(Duration.ZERO);
+        // Act / Assert
+        assertThrows(IllegalArgumentException.class, builder::build);
+        assertThrows(IllegalArgumentException.class,
+                () -> CoordenadorDistribuido.builder().timeoutProgresso(Duration.ofSeconds(-1)).build());
+    }
+
+    private static int pedirTarefa(DataOutputStream saida, DataInputStream entrada) throws Exception {
+        for (int tentativa = 0; tentativa < 20; tentativa++) {
+            saida.writeByte(ProtocoloDistribuido.PEDIR);
+            saida.flush();
+            byte tipo = entrada.readByte();
+            if (tipo == ProtocoloDistribuido.TAREFA) {
+                return entrada.readInt();
+            }
+            assertEquals(ProtocoloDistribuido.AGUARDAR, tipo);
+            Thread.sleep(entrada.readInt());
+        }
+        return fail("Conexão não recebeu partição");
+    }
+
+    private static List<ItemLote> resultados(List<ParametrosRedistribuicao> contratos) {
+        List<ItemLote> itens = new ArrayList<>(contratos.size());
+        for (int i = 0; i < contratos.size(); i++) {
+            ParametrosRedistribuicao parametros = contratos.get(i);
+            itens.add(new ItemLote(i, new ResultadoRedistribuicao(
+                    new BigDecimal[]{parametros.saldoPrincipal()}, new BigDecimal[]{parametros.saldoJuros()}), null));
+        }
+        return itens;
+    }
+}
@@ -0,0 +1,219 @@
+package org.com.pangolin.redistribuicao.fluxo;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessadorRedistribuicaoTest {
+
+    private static final ParametrosRedistribuicao PARAMETROS = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("3000"))
+            .saldoJuros(new BigDecimal("600"))
+            .quantidadeParcelas(3)
+            .valorParcela(new BigDecimal("1200"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+            .taxaJuros(new BigDecimal("0.02"))
+            .saldoDevedorParcelas(new BigDecimal("3600"))
+            .build();
+
+    private static final ResultadoRedistribuicao RESULTADO = new ResultadoRedistribuicao(
+            new BigDecimal[]{new BigDecimal("1000.00")}, new BigDecimal[]{new BigDecimal("200.00")});
+
+    /**
+     * Assinante lento que solicita um item por vez, forçando a contrapressão.
+     */
+    private static class AssinanteLento implements Flow.Subscriber<ResultadoRedistribuicao> {
+        final AtomicInteger recebidos = new AtomicInteger();
+        final CompletableFuture<Void> concluido = new CompletableFuture<>();
+        Flow.Subscription assinatura;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            assinatura = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ResultadoRedistribuicao item) {
+            recebidos.incrementAndGet();
+            assinatura.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            concluido.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            concluido.complete(null);
+        }
+    }
+
+    @Test
+    void testTodosOsItensSaoPublicadosComDemandaLimitada() throws Exception {
+        // Arrange
+        AtomicInteger emProcessamento = new AtomicInteger();
+        AtomicInteger maximoEmProcessamento = new AtomicInteger();
+        ProcessadorRedistribuicao processador = ProcessadorRedistribuicao.builder()
+                .motor(p -> {
+                    maximoEmProcessamento.accumulateAndGet(emProcessamento.incrementAndGet(), Math::max);
+                    emProcessamento.decrementAndGet();
+                    return RESULTADO;
+                })
+                .tamanhoLote(8)
+                .intervaloLote(Duration.ofMillis(2))
+                .paralelismo(2)
+                .capacidade(32)
+                .bufferAssinante(4)
+                .build();
+        AssinanteLento assinante = new AssinanteLento();
+        processador.subscribe(assinante);
+
+        // Act
+        try (SubmissionPublisher<ParametrosRedistribuicao> produtor = new SubmissionPublisher<>()) {
+            produtor.subscribe(processador);
+            for (int i = 0; i < 1000; i++) {
+                produtor.submit(PARAMETROS);
+            }
+        }
+        assinante.concluido.get(30, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1000, assinante.recebidos.get());
+        assertTrue(maximoEmProcessamento.get() <= 2, "Mais redistribuições simultâneas do que trabalhadores");
+    }
+
+    @Test
+    void testFalhaSemTratadorEncerraFluxoComErro() {
+        // Arrange
+        ProcessadorRedistribuicao processador = ProcessadorRedistribuicao.builder()
+                .motor(p -> {
+                    throw new IllegalArgumentException("parâmetros inválidos");
+                })
+                .tamanhoLote(4)
+                .paralelismo(1)
+                .build();
+        AssinanteLento assinante = new AssinanteLento();
+        processador.subscribe(assinante);
+
+        // Act
+        SubmissionPublisher<ParametrosRedistribuicao> produtor = new SubmissionPublisher<>();
+        produtor.subscribe(processador);
+        produtor.submit(PARAMETROS);
+
+        // Assert
+        Exception erro = assertThrows(Exception.class, () -> assinante.concluido.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, erro.getCause());
+        produtor.close();
+    }
+
+    @Test
+    void testDemandaSolicitadaNuncaExcedeCapacidade() throws Exception {
+        // Arrange
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicLong concluidos = new AtomicLong();
+        ProcessadorRedistribuicao processador = ProcessadorRedistribuicao.builder()
+                .motor(p -> {
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    concluidos.incrementAndGet();
+                    return RESULTADO;
+                })
+                .tamanhoLote(4)
+                .intervaloLote(Duration.ofMillis(1))
+                .paralelismo(2)
+                .capacidade(16)
+                .build();
+        AssinanteLento assinante = new AssinanteLento();
+        processador.subscribe(assinante);
+        AtomicLong solicitados = new AtomicLong();
+        AtomicBoolean excedeu = new AtomicBoolean();
+        processador.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (solicitados.addAndGet(n) > 16 + concluidos.get()) {
+                    excedeu.set(true);
+                }
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        // Act
+        for (int i = 0; i < 16; i++) {
+            processador.onNext(PARAMETROS);
+        }
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (processador.lotesPendentes() < 4 && System.nanoTime() < limite) {
+            LockSupport.parkNanos(100_000);
+        }
+        long solicitadosComMotorBloqueado = solicitados.get();
+        liberar.countDown();
+        int emitidos = 16;
+        while (emitidos < 200 && System.nanoTime() < limite) {
+            if (emitidos < solicitados.get()) {
+                processador.onNext(PARAMETROS);
+                emitidos++;
+            } else {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+        processador.onComplete();
+        assinante.concluido.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(16, solicitadosComMotorBloqueado);
+        assertEquals(200, emitidos);
+        assertEquals(200, assinante.recebidos.get());
+        assertFalse(excedeu.get(), "Processador solicitou mais itens do que a capacidade permite");
+    }
+
+    @Test
+    void testTratadorQueLancaEncerraFluxoSemTravar() {
+        // Arrange
+        ProcessadorRedistribuicao processador = ProcessadorRedistribuicao.builder()
+                .motor(p -> {
+                    throw new IllegalArgumentException("parâmetros inválidos");
+                })
+                .tratadorFalha((p, e) -> {
+                    throw new IllegalStateException("tratador indisponível", e);
+                })
+                .tamanhoLote(2)
+                .paralelismo(1)
+                .build();
+        AssinanteLento assinante = new AssinanteLento();
+        processador.subscribe(assinante);
+
+        // Act
+        SubmissionPublisher<ParametrosRedistribuicao> produtor = new SubmissionPublisher<>();
+        produtor.subscribe(processador);
+        produtor.submit(PARAMETROS);
+        produtor.submit(PARAMETROS);
+
+        // Assert
+        Exception erro = assertThrows(Exception.class, () -> assinante.concluido.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, erro.getCause());
+        assertEquals(0, processador.lotesPendentes());
+        produtor.close();
+    }
+}
@@ -0,0 +1,86 @@
+package org.com.pangolin.redistribuicao.journal;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalRedistribuicaoTest {
+
+    private static final ParametrosRedistribuicao PARAMETROS = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("3000"))
+            .saldoJuros(new BigDecimal("600"))
+            .quantidadeParcelas(3)
+            .valorParcela(new BigDecimal("1200"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+            .taxaJuros(new BigDecimal("0.02"))
+            .saldoDevedorParcelas(new BigDecimal("3600"))
+            .build();
+
+    private static final ResultadoRedistribuicao RESULTADO = new ResultadoRedistribuicao(
+            new BigDecimal[]{new BigDecimal("1000.00"), new BigDecimal("1000.00"), new BigDecimal("1000.00")},
+            new BigDecimal[]{new BigDecimal("200.00"), new BigDecimal("200.00"), new BigDecimal("200.00")},
+            new BigDecimal("0.0042"));
+
+    @Test
+    void testEscritoresConcorrentesCompartilhamFsync(@TempDir Path diretorio) throws Exception {
+        // Arrange
+        Set<Long> sequencias = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Act
+        try (JournalRedistribuicao journal = JournalRedistribuicao.abrir(diretorio, 4096)) {
+            for (int i = 0; i < 400; i++) {
+                executor.execute(() -> sequencias.add(journal.registrar(PARAMETROS, RESULTADO)));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+            // Assert
+            assertEquals(400, sequencias.size());
+            assertEquals(400, journal.ultimaSequenciaDuravel());
+            assertTrue(journal.quantidadeSincronizacoes() < 400, "Esperado ao menos um fsync compartilhado");
+        }
+        List<RegistroJournal> registros = LeitorJournal.lerTodos(diretorio);
+        assertEquals(400, registros.size());
+        assertTrue(LeitorJournal.listarSegmentos(diretorio).size() > 1, "Segmentos deveriam ter sido rotacionados");
+        RegistroJournal ultimo = registros.get(399);
+        assertEquals(400, ultimo.sequencia());
+        assertEquals(PARAMETROS, ultimo.parametros());
+        assertEquals(0, new BigDecimal("0.0042").compareTo(ultimo.resultado().desvioMaximoArredondamento()));
+    }
+
+    @Test
+    void testCaudaIncompletaETruncadaNaReabertura(@TempDir Path diretorio) throws IOException {
+        // Arrange
+        try (JournalRedistribuicao journal = JournalRedistribuicao.abrir(diretorio)) {
+            journal.registrar(PARAMETROS, RESULTADO);
+            journal.registrar(PARAMETROS, RESULTADO);
+        }
+        Path segmento = LeitorJournal.listarSegmentos(diretorio).get(0);
+        Files.write(segmento, new byte[]{0, 0, 1, 0, 7, 7}, StandardOpenOption.APPEND);
+        assertEquals(2, LeitorJournal.lerTodos(diretorio).size());
+
+        // Act
+        try (JournalRedistribuicao journal = JournalRedistribuicao.abrir(diretorio)) {
+            assertEquals(3, journal.registrar(PARAMETROS, RESULTADO));
+        }
+
+        // Assert
+        List<RegistroJournal> registros = LeitorJournal.lerTodos(diretorio);
+        assertEquals(3, registros.size());
+        assertEquals(3, registros.get(2).sequencia());
+    }
+}
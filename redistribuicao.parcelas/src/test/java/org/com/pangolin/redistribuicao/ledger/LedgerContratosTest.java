@@ -0,0 +1,79 @@
+package org.com.pangolin.redistribuicao.ledger;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerContratosTest {
+
+    private static BigDecimal[] valores(String... valores) {
+        BigDecimal[] resultado = new BigDecimal[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            resultado[i] = new BigDecimal(valores[i]);
+        }
+        return resultado;
+    }
+
+    @Test
+    void testPagamentoParcialAbateJurosAntesDoPrincipal() {
+        // Arrange
+        LedgerContratos ledger = new LedgerContratos(4);
+        ledger.abrir("C-1", valores("120.00", "124.00", "128.00"), valores("30.00", "26.00", "22.00"));
+        // Act
+        ledger.registrar("C-1", new EventoContrato.PagamentoParcial(0, new BigDecimal("100.00")));
+        EstadoContrato estado = ledger.estadoAtual("C-1");
+        // Assert
+        assertEquals(0, new BigDecimal("50.00").compareTo(estado.saldoDevedorParcela(0)));
+        assertEquals(0, new BigDecimal("302.00").compareTo(estado.saldoPrincipal()));
+        assertEquals(0, new BigDecimal("48.00").compareTo(estado.saldoJuros()));
+    }
+
+    @Test
+    void testAmortizacaoExtraordinariaReduzPrazo() {
+        // Arrange
+        LedgerContratos ledger = new LedgerContratos();
+        ledger.abrir("C-1", valores("120.00", "124.00", "128.00"), valores("30.00", "26.00", "22.00"));
+        // Act
+        ledger.registrar("C-1", new EventoContrato.AmortizacaoExtraordinaria(new BigDecimal("130.00")));
+        EstadoContrato estado = ledger.estadoAtual("C-1");
+        // Assert
+        assertEquals(0, BigDecimal.ZERO.compareTo(estado.saldoDevedorParcela(2)), "Última parcela deveria ser eliminada");
+        assertEquals(0, new BigDecimal("122.00").compareTo(estado.principal()[1]));
+        assertEquals(0, new BigDecimal("56.00").compareTo(estado.saldoJuros()));
+    }
+
+    @Test
+    void testEstadoNaVersaoIgualAoReplayCompleto() {
+        // Arrange
+        LedgerContratos ledger = new LedgerContratos(3);
+        BigDecimal[] principal = new BigDecimal[24];
+        BigDecimal[] juros = new BigDecimal[24];
+        Arrays.fill(principal, new BigDecimal("100.00"));
+        Arrays.fill(juros, new BigDecimal("10.00"));
+        ledger.abrir("C-1", principal, juros);
+        for (int i = 0; i < 20; i++) {
+            ledger.registrar("C-1", new EventoContrato.PagamentoParcial(i, new BigDecimal("60.00")));
+        }
+        // Act
+        EstadoContrato versao7 = ledger.estadoNaVersao("C-1", 7);
+        EstadoContrato versao20 = ledger.estadoNaVersao("C-1", 20);
+        // Assert
+        assertEquals(7, versao7.versao());
+        assertEquals(0, new BigDecimal("2400.00").subtract(new BigDecimal("350.00")).compareTo(versao7.saldoPrincipal()));
+        assertEquals(0, ledger.estadoAtual("C-1").saldoPrincipal().compareTo(versao20.saldoPrincipal()));
+    }
+
+    @Test
+    void testEventoInvalidoNaoAlteraHistorico() {
+        // Arrange
+        LedgerContratos ledger = new LedgerContratos();
+        ledger.abrir("C-1", valores("120.00"), valores("30.00"));
+        // Act / Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.registrar("C-1", new EventoContrato.PagamentoParcial(0, new BigDecimal("200.00"))));
+        assertEquals(0, ledger.estadoAtual("C-1").versao());
+        assertTrue(ledger.eventos("C-1").isEmpty());
+    }
+}
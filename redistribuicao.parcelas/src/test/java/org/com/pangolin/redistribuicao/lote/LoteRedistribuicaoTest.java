@@ -0,0 +1,103 @@
+package org.com.pangolin.redistribuicao.lote;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoteRedistribuicaoTest {
+
+    private static final class QuedaSimulada extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static List<ParametrosRedistribuicao> contratos(int quantidade) {
+        List<ParametrosRedistribuicao> contratos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            BigDecimal principal = BigDecimal.valueOf(1000 + i);
+            contratos.add(ParametrosRedistribuicao.builder()
+                    .saldoPrincipal(principal)
+                    .saldoJuros(new BigDecimal("100"))
+                    .saldoDevedorParcelas(principal.add(new BigDecimal("100")))
+                    .valorParcela(principal.add(new BigDecimal("100")))
+                    .quantidadeParcelas(i % 7 == 6 ? 0 : 1)
+                    .taxaJuros(new BigDecimal("0.01"))
+                    .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+                    .build());
+        }
+        return contratos;
+    }
+
+    private static ResultadoRedistribuicao umaParcela(ParametrosRedistribuicao parametros) {
+        if (parametros.quantidadeParcelas() == 0) {
+            throw new IllegalArgumentException("Sem parcelas");
+        }
+        return new ResultadoRedistribuicao(new BigDecimal[]{parametros.saldoPrincipal()}, new BigDecimal[]{parametros.saldoJuros()});
+    }
+
+    @Test
+    void testRetomaSomenteParticoesPendentesAposQueda(@TempDir Path diretorio) {
+        // Arrange
+        List<ParametrosRedistribuicao> contratos = contratos(23);
+        AtomicInteger chamadas = new AtomicInteger();
+        MotorRedistribuicao instavel = parametros -> {
+            if (chamadas.incrementAndGet() > 12) {
+                throw new QuedaSimulada();
+            }
+            return umaParcela(parametros);
+        };
+        LoteRedistribuicao.Builder builder = LoteRedistribuicao.builder().diretorio(diretorio).tamanhoParticao(5).paralelismo(1);
+        // Act
+        assertThrows(QuedaSimulada.class, () -> builder.motor(instavel).build().executar(contratos));
+        chamadas.set(0);
+        ResumoLote resumo = builder.motor(parametros -> {
+            chamadas.incrementAndGet();
+            return umaParcela(parametros);
+        }).build().executar(contratos);
+        // Assert
+        assertEquals(new ResumoLote(5, 2, 3, 13, 2), resumo);
+        assertEquals(13, chamadas.get(), "Partições concluídas antes da queda não são reprocessadas");
+        List<ItemLote> itens = new ArrayList<>();
+        LoteRedistribuicao.ler(diretorio, itens::add);
+        assertEquals(23, itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            ItemLote item = itens.get(i);
+            assertEquals(i, item.indice());
+            assertEquals(i % 7 != 6, item.sucesso());
+            if (item.sucesso()) {
+                assertEquals(contratos.get(i).saldoPrincipal(), item.resultado().principal()[0]);
+            }
+        }
+    }
+
+    @Test
+    void testReexecucaoIdempotenteEEntradaAlterada(@TempDir Path diretorio) {
+        // Arrange
+        List<ParametrosRedistribuicao> contratos = contratos(10);
+        LoteRedistribuicao lote = LoteRedistribuicao.builder().diretorio(diretorio).tamanhoParticao(4)
+                .motor(LoteRedistribuicaoTest::umaParcela).build();
+        lote.executar(contratos);
+        List<ParametrosRedistribuicao> alterados = new ArrayList<>(contratos);
+        alterados.set(9, contratos.get(0));
+        // Act
+        ResumoLote repetido = lote.executar(contratos);
+        ResumoLote comAlteracao = lote.executar(alterados);
+        // Assert
+        assertEquals(new ResumoLote(3, 3, 0, 0, 0), repetido);
+        assertEquals(new ResumoLote(3, 2, 1, 2, 0), comAlteracao);
+        List<ItemLote> itens = new ArrayList<>();
+        LoteRedistribuicao.ler(diretorio, itens::add);
+        assertEquals(10, itens.size());
+        assertEquals(contratos.get(0).saldoPrincipal(), itens.get(9).resultado().principal()[0]);
+        assertThrows(IllegalStateException.class, () -> lote.executar(contratos(11)));
+    }
+}
@@ -0,0 +1,92 @@
+package org.com.pangolin.redistribuicao.meta;
+
+import org.com.pangolin.redistribuicao.ParametrosFinanciamento;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.cronograma.CronogramaFechado;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuscaMetaTest {
+
+    private static ParametrosRedistribuicao base(RedistribuicaoSistemaAmortizacao sistema) {
+        return ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("25000.00"))
+                .saldoJuros(new BigDecimal("5000.00"))
+                .quantidadeParcelas(24)
+                .valorParcela(new BigDecimal("1250.00"))
+                .sistemaAmortizacao(sistema)
+                .taxaJuros(new BigDecimal("0.015"))
+                .saldoDevedorParcelas(new BigDecimal("30000.00"))
+                .build();
+    }
+
+    // Referência: varredura linear pelo menor prazo cuja primeira parcela cabe no alvo
+    private static int menorPrazoPorVarredura(ParametrosRedistribuicao base, BigDecimal alvo) {
+        for (int n = 1; n <= 1200; n++) {
+            ParametrosFinanciamento financiamento = new ParametrosFinanciamento(base.saldoPrincipal(), base.taxaJuros(), n);
+            CronogramaFechado cronograma = base.sistemaAmortizacao() == RedistribuicaoSistemaAmortizacao.SAC
+                    ? CronogramaFechado.sac(financiamento)
+                    : CronogramaFechado.price(financiamento);
+            if (cronograma.parcela(0).valor().compareTo(alvo) <= 0) {
+                return n;
+            }
+        }
+        throw new AssertionError("Sem prazo até 1200 meses");
+    }
+
+    @Test
+    void testPrazoParaParcelaIgualAVarreduraLinear() {
+        for (RedistribuicaoSistemaAmortizacao sistema : RedistribuicaoSistemaAmortizacao.values()) {
+            ParametrosRedistribuicao base = base(sistema);
+            for (String alvo : new String[]{"400.00", "450.00", "725.50", "1248.03", "2000.00", "25375.00"}) {
+                int esperado = menorPrazoPorVarredura(base, new BigDecimal(alvo));
+                if (esperado > BuscaMeta.PRAZO_MAXIMO) {
+                    assertThrows(IllegalArgumentException.class, () -> BuscaMeta.prazoParaParcela(base, new BigDecimal(alvo)));
+                    continue;
+                }
+                // Act
+                SolucaoMeta solucao = BuscaMeta.prazoParaParcela(base, new BigDecimal(alvo));
+                // Assert
+                assertEquals(esperado, solucao.parametros().quantidadeParcelas(), sistema + ", alvo " + alvo);
+                assertEquals(solucao.parametros().quantidadeParcelas(), solucao.cronograma().principal().length);
+            }
+        }
+    }
+
+    @Test
+    void testTaxaParaParcelaRecuperaTaxaDoContrato() {
+        // Arrange
+        ParametrosRedistribuicao base = base(RedistribuicaoSistemaAmortizacao.PRICE);
+        BigDecimal parcela = BuscaMeta.parcelaParaPrazo(base, 24).parametros().valorParcela();
+        // Act
+        SolucaoMeta solucao = BuscaMeta.taxaParaParcela(base, parcela);
+        SolucaoMeta solucaoSac = BuscaMeta.taxaParaParcela(base(RedistribuicaoSistemaAmortizacao.SAC), new BigDecimal("1416.67"));
+        // Assert
+        assertEquals(0.015, solucao.parametros().taxaJuros().doubleValue(), 1e-5);
+        assertEquals(parcela, solucao.parametros().valorParcela());
+        assertEquals(0.015, solucaoSac.parametros().taxaJuros().doubleValue(), 1e-6);
+    }
+
+    @Test
+    void testAlvoInviavelRejeitado() {
+        ParametrosRedistribuicao base = base(RedistribuicaoSistemaAmortizacao.PRICE);
+        assertThrows(IllegalArgumentException.class, () -> BuscaMeta.prazoParaParcela(base, new BigDecimal("375.00")));
+        assertThrows(IllegalArgumentException.class, () -> BuscaMeta.taxaParaParcela(base, new BigDecimal("1000.00")));
+    }
+
+    @Test
+    void testPrazoParaParcelaRecusaPrazoAcimaDoMaximo() {
+        // Arrange: no SAC, 25000 a 1,5% com primeira parcela de 400 exige 1000 parcelas
+        ParametrosRedistribuicao base = base(RedistribuicaoSistemaAmortizacao.SAC);
+        // Act
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> BuscaMeta.prazoParaParcela(base, new BigDecimal("400.00")));
+        // Assert
+        assertTrue(erro.getMessage().contains("1000"), erro.getMessage());
+        assertEquals(BuscaMeta.PRAZO_MAXIMO, BuscaMeta.prazoParaParcela(base, new BigDecimal("416.67"))
+                .parametros().quantidadeParcelas());
+    }
+}
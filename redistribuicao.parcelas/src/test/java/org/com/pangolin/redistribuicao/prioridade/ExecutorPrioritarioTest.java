@@ -0,0 +1,103 @@
+package org.com.pangolin.redistribuicao.prioridade;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorPrioritarioTest {
+
+    private static ParametrosRedistribuicao parametros(int quantidadeParcelas, RedistribuicaoSistemaAmortizacao sistema) {
+        return ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("1000"))
+                .saldoJuros(new BigDecimal("100"))
+                .saldoDevedorParcelas(new BigDecimal("1100"))
+                .valorParcela(new BigDecimal("1100"))
+                .quantidadeParcelas(quantidadeParcelas)
+                .taxaJuros(new BigDecimal("0.01"))
+                .sistemaAmortizacao(sistema)
+                .build();
+    }
+
+    private static void aguardarLiberacao(CountDownLatch liberacao) {
+        try {
+            liberacao.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testInterativaNaoEsperaLoteComTrabalhadorReservado() throws Exception {
+        // Arrange
+        CountDownLatch liberacao = new CountDownLatch(1);
+        CountDownLatch loteEmExecucao = new CountDownLatch(1);
+        ResultadoRedistribuicao vazio = new ResultadoRedistribuicao(new BigDecimal[0], new BigDecimal[0]);
+        MotorRedistribuicao motor = p -> {
+            if (p.sistemaAmortizacao() == RedistribuicaoSistemaAmortizacao.SFF) {
+                loteEmExecucao.countDown();
+                aguardarLiberacao(liberacao);
+            }
+            return vazio;
+        };
+        try (ExecutorPrioritario executor = ExecutorPrioritario.builder()
+                .motor(motor).trabalhadores(2).trabalhadoresReservados(1).build()) {
+            List<CompletableFuture<ResultadoRedistribuicao>> lote = executor.submeterLote(
+                    Collections.nCopies(5, parametros(360, RedistribuicaoSistemaAmortizacao.SFF)));
+            assertTrue(loteEmExecucao.await(10, TimeUnit.SECONDS));
+            // Act
+            ResultadoRedistribuicao cotacao = executor.submeter(ClassePrioridade.INTERATIVA,
+                    parametros(12, RedistribuicaoSistemaAmortizacao.PRICE)).get(10, TimeUnit.SECONDS);
+            // Assert
+            assertSame(vazio, cotacao);
+            assertEquals(4, executor.estatisticas(ClassePrioridade.LOTE).profundidadeFila());
+            assertEquals(1, executor.estatisticas(ClassePrioridade.INTERATIVA).concluidas());
+            liberacao.countDown();
+            CompletableFuture.allOf(lote.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            assertEquals(5, executor.estatisticas(ClassePrioridade.LOTE).concluidas());
+            assertTrue(executor.estatisticas(ClassePrioridade.LOTE).esperaMaximaNanos() > 0);
+        }
+    }
+
+    @Test
+    void testInterativaPassaAFrenteDoLoteEnfileirado() throws Exception {
+        // Arrange
+        CountDownLatch liberacao = new CountDownLatch(1);
+        CountDownLatch primeiroEmExecucao = new CountDownLatch(1);
+        List<Integer> ordem = new CopyOnWriteArrayList<>();
+        MotorRedistribuicao motor = p -> {
+            ordem.add(p.quantidadeParcelas());
+            if (ordem.size() == 1) {
+                primeiroEmExecucao.countDown();
+                aguardarLiberacao(liberacao);
+            }
+            return new ResultadoRedistribuicao(new BigDecimal[0], new BigDecimal[0]);
+        };
+        try (ExecutorPrioritario executor = ExecutorPrioritario.builder()
+                .motor(motor).trabalhadores(1).trabalhadoresReservados(0).build()) {
+            List<CompletableFuture<ResultadoRedistribuicao>> lote = executor.submeterLote(List.of(
+                    parametros(100, RedistribuicaoSistemaAmortizacao.PRICE),
+                    parametros(101, RedistribuicaoSistemaAmortizacao.PRICE),
+                    parametros(102, RedistribuicaoSistemaAmortizacao.PRICE)));
+            assertTrue(primeiroEmExecucao.await(10, TimeUnit.SECONDS));
+            // Act
+            CompletableFuture<ResultadoRedistribuicao> interativa =
+                    executor.submeter(ClassePrioridade.INTERATIVA, parametros(1, RedistribuicaoSistemaAmortizacao.PRICE));
+            liberacao.countDown();
+            interativa.get(10, TimeUnit.SECONDS);
+            CompletableFuture.allOf(lote.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            // Assert
+            assertEquals(List.of(100, 1, 101, 102), ordem, "Lote cede a vez entre contratos");
+        }
+    }
+}
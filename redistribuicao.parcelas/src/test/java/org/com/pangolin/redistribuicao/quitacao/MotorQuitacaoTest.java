@@ -0,0 +1,72 @@
+package org.com.pangolin.redistribuicao.quitacao;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorQuitacaoTest {
+
+    private static final LocalDate PRIMEIRO_VENCIMENTO = LocalDate.of(2026, 2, 10);
+
+    private static ResultadoRedistribuicao cronograma(String... principais) {
+        BigDecimal[] principal = new BigDecimal[principais.length];
+        BigDecimal[] juros = new BigDecimal[principais.length];
+        for (int i = 0; i < principais.length; i++) {
+            principal[i] = new BigDecimal(principais[i]);
+            juros[i] = new BigDecimal("1200.00").subtract(principal[i]);
+        }
+        return new ResultadoRedistribuicao(principal, juros);
+    }
+
+    @Test
+    void testCotacaoNoVencimentoDaParcela() {
+        // Arrange
+        MotorQuitacao motor = MotorQuitacao.padrao();
+        // Act
+        CotacaoQuitacao cotacao = motor.cotar(cronograma("980.00", "1000.00", "1020.00"), 1);
+        // Assert
+        assertEquals(new BigDecimal("2020.00"), cotacao.principalDevido());
+        assertEquals(new BigDecimal("200.00"), cotacao.jurosDevidos());
+        assertEquals(new BigDecimal("2220.00"), cotacao.valorQuitacao());
+        assertEquals(new BigDecimal("180.00"), cotacao.descontoJuros());
+    }
+
+    @Test
+    void testCotacaoEmDataComJurosProRata() {
+        // Arrange
+        MotorQuitacao motor = MotorQuitacao.padrao();
+        ResultadoRedistribuicao cronograma = cronograma("980.00", "1000.00", "1020.00");
+        // Act: 15 dos 28 dias entre 10/02 e 10/03
+        CotacaoQuitacao cotacao = motor.cotar(cronograma, PRIMEIRO_VENCIMENTO, LocalDate.of(2026, 2, 25));
+        CotacaoQuitacao aposVencimentoFinal = motor.cotar(cronograma, PRIMEIRO_VENCIMENTO, LocalDate.of(2026, 5, 1));
+        // Assert
+        assertEquals(new BigDecimal("107.14"), cotacao.jurosDevidos());
+        assertEquals(new BigDecimal("2127.14"), cotacao.valorQuitacao());
+        assertEquals(new BigDecimal("272.86"), cotacao.descontoJuros());
+        assertEquals(0, BigDecimal.ZERO.compareTo(aposVencimentoFinal.valorQuitacao()));
+    }
+
+    @Test
+    void testLoteIgualACotacoesAvulsas() {
+        // Arrange
+        MotorQuitacao motor = MotorQuitacao.padrao();
+        CarteiraQuitacao.Builder builder = CarteiraQuitacao.builder();
+        ResultadoRedistribuicao[] cronogramas = new ResultadoRedistribuicao[40];
+        for (int c = 0; c < cronogramas.length; c++) {
+            cronogramas[c] = cronograma("900.00", String.valueOf(950 + c) + ".00", "1000.00", "1050.00");
+            builder.adicionar(cronogramas[c], PRIMEIRO_VENCIMENTO.plusDays(c));
+        }
+        CarteiraQuitacao carteira = builder.build();
+        LocalDate data = LocalDate.of(2026, 3, 20);
+        // Act
+        LoteQuitacao lote = motor.cotarLote(carteira, data);
+        // Assert
+        assertEquals(cronogramas.length, lote.quantidade());
+        for (int c = 0; c < cronogramas.length; c++) {
+            assertEquals(motor.cotar(cronogramas[c], PRIMEIRO_VENCIMENTO.plusDays(c), data), lote.cotacao(c));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.com.pangolin.redistribuicao.relatorio;
+
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderizadorTabelaTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private static BigDecimal[] valores(String... valores) {
+        BigDecimal[] resultado = new BigDecimal[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            resultado[i] = new BigDecimal(valores[i]);
+        }
+        return resultado;
+    }
+
+    @Test
+    void testTextoIgualAoFormatter() throws Exception {
+        // Arrange
+        BigDecimal[] principal = valores("1234.50", "0.05", "98765.43");
+        BigDecimal[] juros = valores("10.00", "-0.30", "0.005");
+        BigDecimal[] parcelas = valores("1244.50", "-0.25", "98765.44");
+        BigDecimal residual = new BigDecimal("1.10");
+        StringBuilder esperado = new StringBuilder()
+                .append("Parcela | Principal  | Juros      | Valor      | Saldo").append(NL)
+                .append("-------|------------|------------|------------|------------").append(NL);
+        BigDecimal saldo = new BigDecimal("99999.98");
+        for (int i = 0; i < principal.length; i++) {
+            saldo = saldo.subtract(principal[i]);
+            esperado.append(String.format(Locale.ROOT, "%6d | %10.2f | %10.2f | %10.2f | %10.2f%n",
+                    i + 1, principal[i], juros[i], parcelas[i], saldo.max(BigDecimal.ZERO)));
+        }
+        esperado.append(String.format(Locale.ROOT, "TOTAL  | %10.2f | %10.2f | %10.2f%n",
+                new BigDecimal("99999.98"), new BigDecimal("9.71"), new BigDecimal("100010.79")));
+        StringBuilder saida = new StringBuilder();
+        // Act
+        new RenderizadorTabela(LayoutTabela.TEXTO).renderizar(principal, juros, parcelas, residual, saida);
+        // Assert
+        assertEquals(esperado.toString(), saida.toString());
+    }
+
+    @Test
+    void testCanalELarguraFixaReutilizandoBuffer() throws Exception {
+        // Arrange
+        ResultadoRedistribuicao cronograma = new ResultadoRedistribuicao(
+                valores("100.00", "200.00"), valores("15.50", "7.25"));
+        RenderizadorTabela csv = new RenderizadorTabela(LayoutTabela.CSV);
+        RenderizadorTabela fixa = new RenderizadorTabela(LayoutTabela.LARGURA_FIXA);
+        StringBuilder texto = new StringBuilder();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // Act
+        csv.renderizar(cronograma, texto);
+        csv.renderizar(cronograma, Channels.newChannel(bytes));
+        StringBuilder registros = new StringBuilder();
+        fixa.renderizar(cronograma, registros);
+        // Assert
+        assertEquals("parcela,principal,juros,valor,saldo" + NL
+                + "1,100.00,15.50,115.50,200.00" + NL
+                + "2,200.00,7.25,207.25,0.00" + NL
+                + "TOTAL,300.00,22.75,322.75," + NL, texto.toString());
+        assertEquals(texto.toString(), bytes.toString(StandardCharsets.US_ASCII));
+        String[] linhas = registros.toString().split(NL);
+        assertEquals(3, linhas.length);
+        assertEquals("D0001" + "000000000010000" + "000000000001550" + "000000000011550" + "000000000020000", linhas[0]);
+        assertEquals("T0002" + "000000000030000" + "000000000002275" + "000000000032275", linhas[2]);
+    }
+}
@@ -0,0 +1,93 @@
+package org.com.pangolin.redistribuicao.sensibilidade;
+
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnaliseSensibilidadeTest {
+
+    private static ParametrosRedistribuicao parametros(String taxa, int quantidadeParcelas, RedistribuicaoSistemaAmortizacao sistema) {
+        return ParametrosRedistribuicao.builder()
+                .saldoPrincipal(new BigDecimal("25000"))
+                .saldoJuros(new BigDecimal("5000"))
+                .saldoDevedorParcelas(new BigDecimal("30000"))
+                .valorParcela(new BigDecimal("500"))
+                .quantidadeParcelas(quantidadeParcelas)
+                .taxaJuros(new BigDecimal(taxa))
+                .sistemaAmortizacao(sistema)
+                .build();
+    }
+
+    private static double juros(ParametrosRedistribuicao parametros, double taxa, int parcela) {
+        ParametrosRedistribuicao chocado = parametros(BigDecimal.valueOf(taxa).toPlainString(),
+                parametros.quantidadeParcelas(), parametros.sistemaAmortizacao());
+        return AnaliseSensibilidade.calcular(chocado).jurosDerivada1()[parcela];
+    }
+
+    private static double jurosTotais(RedistribuicaoSistemaAmortizacao sistema, double taxa, int n) {
+        if (sistema == RedistribuicaoSistemaAmortizacao.SAC) {
+            return 25000.0 * taxa * (n + 1) / 2.0;
+        }
+        return n * 25000.0 * taxa / (1 - Math.pow(1 + taxa, -n)) - 25000.0;
+    }
+
+    @Test
+    void testDerivadasAnaliticasCoincidemComDiferencasFinitas() {
+        for (RedistribuicaoSistemaAmortizacao sistema : RedistribuicaoSistemaAmortizacao.values()) {
+            // Arrange
+            ParametrosRedistribuicao contrato = parametros("0.015", 60, sistema);
+            double h = 1e-5;
+            // Act
+            SensibilidadeTaxa sensibilidade = AnaliseSensibilidade.calcular(contrato);
+            // Assert
+            double primeiraNumerica = (jurosTotais(sistema, 0.015 + h, 60) - jurosTotais(sistema, 0.015 - h, 60)) / (2 * h);
+            assertEquals(primeiraNumerica, sensibilidade.jurosTotalDerivada1(), 1e-3 * Math.abs(primeiraNumerica), sistema.descricao());
+            for (int k : new int[]{0, 1, 29, 59}) {
+                // A derivada primeira dos juros em taxa ± h, diferenciada, aproxima a derivada segunda
+                double segundaNumerica = (juros(contrato, 0.015 + h, k) - juros(contrato, 0.015 - h, k)) / (2 * h);
+                assertEquals(segundaNumerica, sensibilidade.jurosDerivada2()[k], 1e-3 * Math.max(1, Math.abs(segundaNumerica)), sistema + " parcela " + k);
+            }
+            double vp = sensibilidade.valorPresente();
+            assertEquals(25000.0, vp, 1e-6, "Valor presente à taxa do contrato é o principal");
+            double deltaVp = 1e-4;
+            double fator = 0;
+            double parcelaPrice = 25000.0 * 0.015 / (1 - Math.pow(1.015, -60));
+            if (sistema != RedistribuicaoSistemaAmortizacao.SAC) {
+                for (int k = 1; k <= 60; k++) {
+                    fator += Math.pow(1.015 + deltaVp, -k);
+                }
+                assertEquals(parcelaPrice * fator - vp, sensibilidade.variacaoValorPresente(deltaVp), 1e-3);
+            }
+        }
+    }
+
+    @Test
+    void testJurosTotaisPriceTaxaZeroELote() {
+        // Arrange
+        ParametrosRedistribuicao semJuros = parametros("0", 12, RedistribuicaoSistemaAmortizacao.PRICE);
+        ParametrosRedistribuicao quaseSemJuros = parametros("0.000001", 12, RedistribuicaoSistemaAmortizacao.PRICE);
+        List<ParametrosRedistribuicao> carteira = new ArrayList<>();
+        for (int n = 1; n <= 200; n++) {
+            carteira.add(parametros("0.01", n, n % 2 == 0 ? RedistribuicaoSistemaAmortizacao.SAC : RedistribuicaoSistemaAmortizacao.PRICE));
+        }
+        // Act
+        SensibilidadeTaxa zero = AnaliseSensibilidade.calcular(semJuros);
+        SensibilidadeTaxa vizinho = AnaliseSensibilidade.calcular(quaseSemJuros);
+        List<SensibilidadeTaxa> lote = AnaliseSensibilidade.calcularLote(carteira);
+        // Assert
+        assertEquals(vizinho.jurosTotalDerivada1(), zero.jurosTotalDerivada1(), 1.0);
+        assertEquals(vizinho.jurosTotalDerivada2(), zero.jurosTotalDerivada2(), 1e-3 * Math.abs(zero.jurosTotalDerivada2()));
+        // Juros totais PRICE: n·A(i) - P; a expansão de Taylor reproduz a variação exata para choques pequenos
+        double exata = 12 * 25000.0 * 0.001 / (1 - Math.pow(1.001, -12)) - 25000.0;
+        assertEquals(exata, zero.variacaoJurosTotais(0.001), 0.05);
+        assertEquals(carteira.size(), lote.size());
+        for (int i = 0; i < carteira.size(); i++) {
+            assertArrayEquals(AnaliseSensibilidade.calcular(carteira.get(i)).jurosDerivada1(), lote.get(i).jurosDerivada1());
+        }
+    }
+}
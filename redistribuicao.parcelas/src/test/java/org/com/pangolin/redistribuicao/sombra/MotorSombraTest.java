@@ -0,0 +1,80 @@
+package org.com.pangolin.redistribuicao.sombra;
+
+import org.com.pangolin.redistribuicao.MotorRedistribuicao;
+import org.com.pangolin.redistribuicao.ParametrosRedistribuicao;
+import org.com.pangolin.redistribuicao.RedistribuicaoSistemaAmortizacao;
+import org.com.pangolin.redistribuicao.ResultadoRedistribuicao;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorSombraTest {
+
+    private static final ParametrosRedistribuicao PARAMETROS = ParametrosRedistribuicao.builder()
+            .saldoPrincipal(new BigDecimal("3000"))
+            .saldoJuros(new BigDecimal("600"))
+            .quantidadeParcelas(3)
+            .valorParcela(new BigDecimal("1200"))
+            .sistemaAmortizacao(RedistribuicaoSistemaAmortizacao.PRICE)
+            .taxaJuros(new BigDecimal("0.02"))
+            .saldoDevedorParcelas(new BigDecimal("3600"))
+            .build();
+
+    private static ResultadoRedistribuicao cronograma(String... principais) {
+        BigDecimal[] principal = new BigDecimal[principais.length];
+        BigDecimal[] juros = new BigDecimal[principais.length];
+        for (int i = 0; i < principais.length; i++) {
+            principal[i] = new BigDecimal(principais[i]);
+            juros[i] = new BigDecimal("1200.00").subtract(principal[i]);
+        }
+        return new ResultadoRedistribuicao(principal, juros);
+    }
+
+    @Test
+    void testCandidatoIdenticoNaoDiverge() {
+        // Arrange
+        MotorRedistribuicao motor = p -> cronograma("980.00", "1000.00", "1020.00");
+        MotorSombra sombra = MotorSombra.builder()
+                .primario(motor)
+                .candidato(motor)
+                .taxaAmostragem(1.0)
+                .executor(Runnable::run)
+                .build();
+        // Act
+        for (int i = 0; i < 5; i++) {
+            sombra.redistribuir(PARAMETROS);
+        }
+        EstatisticasSombra estatisticas = sombra.estatisticas();
+        // Assert
+        assertEquals(5, estatisticas.chamadas());
+        assertEquals(5, estatisticas.comparacoes());
+        assertEquals(0, estatisticas.comparacoesDivergentes());
+        assertEquals(0, estatisticas.descartadas());
+    }
+
+    @Test
+    void testDivergenciaRegistradaESomentePrimarioDevolvido() {
+        // Arrange
+        ResultadoRedistribuicao esperado = cronograma("980.00", "1000.00", "1020.00");
+        List<DivergenciaSombra> divergencias = new ArrayList<>();
+        MotorSombra sombra = MotorSombra.builder()
+                .primario(p -> esperado)
+                .candidato(p -> cronograma("980.03", "999.97", "1020.00"))
+                .taxaAmostragem(1.0)
+                .executor(Runnable::run)
+                .ouvinteDivergencia(divergencias::add)
+                .build();
+        // Act
+        ResultadoRedistribuicao resultado = sombra.redistribuir(PARAMETROS);
+        EstatisticasSombra estatisticas = sombra.estatisticas();
+        // Assert
+        assertSame(esperado, resultado);
+        assertEquals(1, estatisticas.comparacoesDivergentes());
+        assertEquals(2, estatisticas.parcelasDivergentes());
+        assertEquals(3, estatisticas.divergenciaMaximaCentavos());
+        assertEquals(1, divergencias.size());
+    }
+}